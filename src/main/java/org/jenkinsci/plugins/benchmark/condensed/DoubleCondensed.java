@@ -18,9 +18,12 @@
  */
 package org.jenkinsci.plugins.benchmark.condensed;
 
+import com.google.gson.JsonObject;
 import org.jenkinsci.plugins.benchmark.results.*;
 import org.jenkinsci.plugins.benchmark.utilities.ContentDetected;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeSet;
 
 /**
@@ -38,6 +41,9 @@ public class DoubleCondensed extends DoubleValue {
     private final Double        maximum;
     private final Double        average;
     private final Double        std_deviation;
+    private final Double        m2;
+
+    private final Integer       count;
 
     private final int           passed;
     private final int           failed;
@@ -45,14 +51,20 @@ public class DoubleCondensed extends DoubleValue {
     // Constructor
 
     public DoubleCondensed(TestGroup parent, String group, String name, String description, String unit, Double previous, Double minimum, Double maximum, Double average, Double std_deviation, int passed, int failed) {
+        this(parent, group, name, description, unit, previous, minimum, maximum, average, std_deviation, null, passed, failed, null);
+    }
+
+    public DoubleCondensed(TestGroup parent, String group, String name, String description, String unit, Double previous, Double minimum, Double maximum, Double average, Double std_deviation, Double m2, int passed, int failed, Integer count) {
         super(parent, group, name, description, unit);
         this.previous = previous;
         this.minimum = minimum;
         this.maximum = maximum;
         this.average = average;
         this.std_deviation = std_deviation;
+        this.m2 = m2;
         this.passed = passed;
         this.failed = failed;
+        this.count = count;
     }
 
     // Function
@@ -113,6 +125,25 @@ public class DoubleCondensed extends DoubleValue {
         return content.toString();
     }
 
+    /**
+     * Get the statistic cells of the condensed table row, following the result key [TABLE PAGE]
+     * @param decimalSeparator Decimal separator
+     * @return Minimum, maximum, average and standard deviation if available, then the passed and failed counts
+     */
+    @Override
+    public List<String> getCondensedCells(char decimalSeparator) {
+        List<String> cells = new ArrayList<String>(6);
+        if (average != null) {
+            cells.add(this.minimum.toString().replace('.', decimalSeparator));
+            cells.add(this.maximum.toString().replace('.', decimalSeparator));
+            cells.add(String.format("%f", this.average));
+            cells.add(String.format("%f", this.std_deviation));
+        }
+        cells.add(Integer.toString(this.passed));
+        cells.add(Integer.toString(this.failed));
+        return cells;
+    }
+
     /**
      * Assemble the HTML content to display the condensed table [DETAIL PAGE]
      * @param detected Key characteristics of results
@@ -203,15 +234,59 @@ public class DoubleCondensed extends DoubleValue {
         return content.toString();
     }
 
+    /**
+     * Create an JSON object with the condensed information of this result [EXPORT CONDENSED]
+     * Without loaded history, the stored aggregates are exported as-is.
+     * @param build Build number
+     * @param hash Result hash
+     * @return JSON object
+     */
+    @Override
+    public JsonObject getCondensedJsonObject(int build, int hash) {
+        JsonObject object = super.getCondensedJsonObject(build, hash);
+        if (this.values.isEmpty()) {
+            object.remove("count");
+            object.remove("failed");
+            object.remove("passed");
+            if (this.average != null) {
+                object.addProperty("previous", this.previous);
+                object.addProperty("average", this.average);
+                object.addProperty("std_deviation", this.std_deviation);
+                if (this.m2 != null) {
+                    object.addProperty("m2", this.m2);
+                }
+                object.addProperty("minimum", this.minimum);
+                object.addProperty("maximum", this.maximum);
+            }
+            if (this.count != null) {
+                object.addProperty("count", this.count);
+            }
+            object.addProperty("failed", this.failed);
+            object.addProperty("passed", this.passed);
+        }
+        return object;
+    }
+
+    /**
+     * Whether the stored aggregates can be updated without the build history [CONDENSED ONLY]
+     * @return True if the number of averaged values is known
+     */
+    @Override
+    public boolean hasCondensedAggregates() {
+        return this.average == null || this.count != null;
+    }
+
     // Getters
 
     public Double getPrevious() { return previous; }
     public Double getAverage() { return average; }
     public Double getStdDeviation() { return std_deviation; }
+    public Double getM2() { return m2; }
     @Override
     public Double getMinimum() { return minimum; }
     @Override
     public Double getMaximum() { return maximum; }
+    public Integer getCount() { return count; }
     public int getPassed() { return passed; }
     public int getFailed() { return failed; }
 }
@@ -18,11 +18,14 @@
  */
 package org.jenkinsci.plugins.benchmark.condensed;
 
+import com.google.gson.JsonObject;
 import org.jenkinsci.plugins.benchmark.results.Messages;
 import org.jenkinsci.plugins.benchmark.results.StringValue;
 import org.jenkinsci.plugins.benchmark.results.TestGroup;
 import org.jenkinsci.plugins.benchmark.utilities.ContentDetected;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeSet;
 
 /**
@@ -97,6 +100,19 @@ public class StringCondensed extends StringValue {
         return content.toString();
     }
 
+    /**
+     * Get the statistic cells of the condensed table row, following the result key [TABLE PAGE]
+     * @param decimalSeparator Decimal separator
+     * @return Passed and failed counts
+     */
+    @Override
+    public List<String> getCondensedCells(char decimalSeparator) {
+        List<String> cells = new ArrayList<String>(2);
+        cells.add(Integer.toString(this.passed));
+        cells.add(Integer.toString(this.failed));
+        return cells;
+    }
+
     /**
      * Assemble the HTML content to display the condensed table [DETAIL PAGE]
      * @param detected Key characteristics of results
@@ -162,6 +178,23 @@ public class StringCondensed extends StringValue {
     }
 
 
+    /**
+     * Create an JSON object with the condensed information of this result [EXPORT CONDENSED]
+     * Without loaded history, the stored aggregates are exported as-is.
+     * @param build Build number
+     * @param hash Result hash
+     * @return JSON object
+     */
+    @Override
+    public JsonObject getCondensedJsonObject(int build, int hash) {
+        JsonObject object = super.getCondensedJsonObject(build, hash);
+        if (this.getValues().isEmpty()) {
+            object.addProperty("failed", this.failed);
+            object.addProperty("passed", this.passed);
+        }
+        return object;
+    }
+
     // Getters
 
     public int getPassed() { return passed; }
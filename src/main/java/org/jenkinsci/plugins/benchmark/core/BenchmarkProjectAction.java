@@ -29,13 +29,18 @@ import jenkins.tasks.SimpleBuildStep;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.utilities.*;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
+import javax.servlet.http.HttpServletResponse;
 import java.awt.*;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -199,17 +204,18 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     }
 
     /**
-     * Get the HTML raw content
-     * @return HTML raw content
+     * Get the HTML header of the raw table, rows are loaded page by page through getRawTablePage()
+     * @param firstBuild First build displayed, null or empty for the first build available
+     * @param lastBuild Last build displayed, null or empty for the last build available
+     * @return HTML header of the raw table
      */
     @FrontendMethod
-    public String getRawTable() {
+    public String getRawTableHeader(String firstBuild, String lastBuild) {
         try {
-            resetClock();
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.core.getMapper(run);
-                return base.getHTMLTable();
+                return base.getHTMLTableHeader(parseBuild(firstBuild), parseBuild(lastBuild));
             } else {
                 return "";
             }
@@ -221,16 +227,47 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     }
 
     /**
-     * Get the HTML condensed content
-     * @return HTML condensed content
+     * Get a page of the raw table, in the DataTables server-side format
+     * @param draw Draw counter of the request
+     * @param start Index of the first row of the page
+     * @param length Number of rows of the page, -1 for all the rows
+     * @param search Words searched in the location, group, name and unit of the results
+     * @param orderColumn Column the rows are sorted on
+     * @param orderDirection Sorting direction, asc or desc
+     * @param firstBuild First build displayed, 0 for the first build available
+     * @param lastBuild Last build displayed, 0 for the last build available
+     * @return JSON page
      */
     @JavaScriptMethod
-    public String getCondensedTable(){
+    public String getRawTablePage(int draw, int start, int length, String search, int orderColumn, String orderDirection, int firstBuild, int lastBuild) {
         try {
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.core.getMapper(run);
-                return base.getHTMLCondensedTable();
+                String page = base.getTablePage(draw, start, length, search, orderColumn, !"desc".equalsIgnoreCase(orderDirection), firstBuild, lastBuild).toString();
+                this.core.reweighHistory(project, base);
+                return page;
+            } else {
+                return getEmptyPage(draw);
+            }
+        } catch (Exception e) {
+            log.info(Messages.BenchmarkProjectAction_RawTableErrorDetected());
+            log.info(Messages.BenchmarkProjectAction_RawTableErrorMessage(e.getMessage()));
+            return getEmptyPage(draw);
+        }
+    }
+
+    /**
+     * Get the HTML header of the condensed table, rows are loaded page by page through getCondensedTablePage()
+     * @return HTML header of the condensed table
+     */
+    @FrontendMethod
+    public String getCondensedTableHeader(){
+        try {
+            Run run = project.getLastBuild();
+            if (run != null) {
+                MapperBase base = this.core.getCondensedMapper(run);
+                return base.getHTMLCondensedTableHeader();
             } else {
                 return "";
             }
@@ -241,6 +278,106 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
         }
     }
 
+    /**
+     * Get a page of the condensed table, in the DataTables server-side format
+     * @param draw Draw counter of the request
+     * @param start Index of the first row of the page
+     * @param length Number of rows of the page, -1 for all the rows
+     * @param search Words searched in the location, group, name and unit of the results
+     * @param orderColumn Column the rows are sorted on
+     * @param orderDirection Sorting direction, asc or desc
+     * @return JSON page
+     */
+    @JavaScriptMethod
+    public String getCondensedTablePage(int draw, int start, int length, String search, int orderColumn, String orderDirection){
+        try {
+            Run run = project.getLastBuild();
+            if (run != null) {
+                MapperBase base = this.core.getCondensedMapper(run);
+                return base.getCondensedTablePage(draw, start, length, search, orderColumn, !"desc".equalsIgnoreCase(orderDirection)).toString();
+            } else {
+                return getEmptyPage(draw);
+            }
+        } catch (Exception e) {
+            log.info(Messages.BenchmarkProjectAction_CondensedTableErrorDetected());
+            log.info(Messages.BenchmarkProjectAction_CondensedTableErrorMessage(e.getMessage()));
+            return getEmptyPage(draw);
+        }
+    }
+
+    /**
+     * Get a build number passed as query parameter to the page
+     * @param build Build number as text
+     * @return Build number, 0 if absent or invalid
+     */
+    @FrontendMethod
+    public int getBuildParameter(String build){
+        Integer number = parseBuild(build);
+        return (number == null) ? 0 : number;
+    }
+
+    /**
+     * Open the response as a CSV attachment, compressed by Stapler when the client accepts it
+     * @param req Request
+     * @param rsp Response
+     * @param filename Name of the attachment
+     * @return Buffered writer on the response
+     * @throws IOException If the response cannot be opened
+     */
+    private Writer openCSVWriter(StaplerRequest req, StaplerResponse rsp, String filename) throws IOException {
+        rsp.setContentType("text/csv;charset=UTF-8");
+        rsp.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        rsp.addHeader("Vary", "Accept-Encoding");
+        return new BufferedWriter(rsp.getCompressedWriter(req));
+    }
+
+    /**
+     * Report a CSV download that failed once its headers were sent
+     * The status can no longer be changed, the failure is logged and raised so that the response is aborted
+     * rather than completed as a truncated file.
+     * @param filename Name of the attachment
+     * @param e Failure
+     * @return Exception to raise
+     */
+    private IOException abortCSV(String filename, Exception e) {
+        log.warning(Messages.BenchmarkProjectAction_CsvDownloadAborted(filename, e.getMessage()));
+        return (e instanceof IOException) ? (IOException) e : new IOException(e);
+    }
+
+    /**
+     * Get the download address of the tables
+     * @return Download address
+     */
+    @FrontendMethod
+    public String getDownloadURL(){
+        return  Jenkins.getInstance().getRootUrl() + project.getUrl() + "BenchmarkTable/";
+    }
+
+    /**
+     * Page without rows, in the DataTables server-side format
+     * @param draw Draw counter of the request
+     * @return JSON page
+     */
+    private String getEmptyPage(int draw){
+        return "{\"draw\":" + draw + ",\"recordsTotal\":0,\"recordsFiltered\":0,\"data\":[]}";
+    }
+
+    /**
+     * Read a build number from a query parameter
+     * @param build Build number as text
+     * @return Build number, null if absent or invalid
+     */
+    private Integer parseBuild(String build){
+        if (build == null || build.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(build.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     @FrontendMethod
     public String getEmptyTableWord(){
         return Messages.BenchmarkProjectAction_DatatablesEmptyTable();
@@ -278,44 +415,46 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     }
 
     /**
-     * Reset clock that keeps the result loaded in memory
+     * Keep the history of the job in the cache while the page is displayed
      */
     @JavaScriptMethod
-    public void resetClock(){
-        this.core.resetClock();
+    public void touchHistory(){
+        this.core.touchHistory(project);
     }
 
     /**
-     * Get the CSV raw content
-     * @return CSV raw content
+     * Download the CSV raw content, streamed to the response
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException If the response cannot be written
      */
-    @JavaScriptMethod
-    public String getCSVRawTable() {
+    public void doRawCSV(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        MapperBase base;
         try {
-            resetClock();
             Run run = project.getLastBuild();
-            if (run != null) {
-                MapperBase base = this.core.getMapper(run);
-
-                StringBuffer output = new StringBuffer();
-                output.append(base.getCSVTableHeader());
-                output.append("\n");
-                output.append(base.getCSVTableBody());
-                return output.toString();
-            } else {
-                return "";
+            if (run == null) {
+                rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+            base = this.core.getMapper(run);
         } catch (Exception e) {
             log.info(Messages.BenchmarkProjectAction_CsvRawTableErrorDetected());
             log.info(Messages.BenchmarkProjectAction_CsvRawTableErrorMessage(e.getMessage()));
-            return "";
+            rsp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        Writer writer = openCSVWriter(req, rsp, "benchmark-raw.csv");
+        try {
+            base.writeCSVTable(writer, false);
+        } catch (Exception e) {
+            throw abortCSV("benchmark-raw.csv", e);
+        }
+        writer.close();
     }
 
     @Exported(visibility=2)
     public String getCSVRawHeader() {
         try {
-            resetClock();
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.core.getMapper(run);
@@ -331,7 +470,6 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     @Exported(visibility=2)
     public String getCSVRawBody() {
         try {
-            resetClock();
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.core.getMapper(run);
@@ -345,35 +483,38 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     }
 
     /**
-     * Get the CSV raw content
-     * @return CSV raw content
+     * Download the CSV raw state content, streamed to the response
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException If the response cannot be written
      */
-    @JavaScriptMethod
-    public String getCSVRawStateTable() {
+    public void doRawStateCSV(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        MapperBase base;
         try {
-            resetClock();
             Run run = project.getLastBuild();
-            if (run != null) {
-                MapperBase base = this.core.getMapper(run);
-
-                String output = "";
-                output += base.getCSVTableHeader() + "\n";
-                output += base.getCSVTableStateBody();
-                return output;
-            } else {
-                return "";
+            if (run == null) {
+                rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+            base = this.core.getMapper(run);
         } catch (Exception e) {
-            log.info("Benchmark CSV Raw Table Result - Error detected");
-            log.info("Benchmark CSV Raw Table Result - " + e.getMessage());
-            return "";
+            log.info(Messages.BenchmarkProjectAction_CsvRawTableErrorDetected());
+            log.info(Messages.BenchmarkProjectAction_CsvRawTableErrorMessage(e.getMessage()));
+            rsp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        Writer writer = openCSVWriter(req, rsp, "benchmark-raw-state.csv");
+        try {
+            base.writeCSVTable(writer, true);
+        } catch (Exception e) {
+            throw abortCSV("benchmark-raw-state.csv", e);
+        }
+        writer.close();
     }
 
     @Exported(visibility=2)
     public String getCSVRawStateBody() {
         try {
-            resetClock();
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.core.getMapper(run);
@@ -387,29 +528,33 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
     }
 
     /**
-     * Get the CSV condensed content
-     * @return CSV condensed content
+     * Download the CSV condensed content, streamed to the response
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException If the response cannot be written
      */
-    @JavaScriptMethod
-    public String getCSVCondensedTable(){
+    public void doCondensedCSV(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        MapperBase base;
         try {
             Run run = project.getLastBuild();
-            if (run != null) {
-                MapperBase base = this.core.getMapper(run);
-
-                StringBuffer output = new StringBuffer();
-                output.append(base.getCSVCondensedTableHeader());
-                output.append("\n");
-                output.append(base.getCSVCondensedTableBody());
-                return output.toString();
-            } else {
-                return "";
+            if (run == null) {
+                rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
             }
+            base = this.core.getCondensedMapper(run);
         } catch (Exception e) {
             log.info(Messages.BenchmarkProjectAction_CsvCondensedTableErrorDetected());
             log.info(Messages.BenchmarkProjectAction_CsvCondensedTableErrorMessage(e.getMessage()));
-            return "";
+            rsp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        Writer writer = openCSVWriter(req, rsp, "benchmark-condensed.csv");
+        try {
+            base.writeCSVCondensedTable(writer);
+        } catch (Exception e) {
+            throw abortCSV("benchmark-condensed.csv", e);
+        }
+        writer.close();
     }
 
     @Exported(visibility=2)
@@ -417,7 +562,7 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
         try {
             Run run = project.getLastBuild();
             if (run != null) {
-                MapperBase base = this.core.getMapper(run);
+                MapperBase base = this.core.getCondensedMapper(run);
                 return base.getCSVCondensedTableHeader();
             } else {
                 return "";
@@ -432,7 +577,7 @@ public class BenchmarkProjectAction implements Action, SimpleBuildStep.LastBuild
         try {
             Run run = project.getLastBuild();
             if (run != null) {
-                MapperBase base = this.core.getMapper(run);
+                MapperBase base = this.core.getCondensedMapper(run);
                 return base.getCSVCondensedTableBody();
             } else {
                 return "";
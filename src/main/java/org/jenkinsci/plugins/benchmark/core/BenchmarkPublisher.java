@@ -21,6 +21,7 @@ package org.jenkinsci.plugins.benchmark.core;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
@@ -43,8 +44,11 @@ import org.jenkinsci.plugins.benchmark.parsers.FormatSelector;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
 import org.jenkinsci.plugins.benchmark.parsers.JUnitJenkins;
 import org.jenkinsci.plugins.benchmark.schemas.Schema;
+import org.jenkinsci.plugins.benchmark.storage.HistoryStore;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
-import org.jenkinsci.plugins.benchmark.utilities.ResetMemoryTask;
+import org.jenkinsci.plugins.benchmark.utilities.BuildScanner;
+import org.jenkinsci.plugins.benchmark.utilities.HistoryCache;
+import org.jenkinsci.plugins.benchmark.utilities.LoaderExecutor;
 import org.jenkinsci.plugins.benchmark.utilities.RunnableJenkinsReader;
 import org.jenkinsci.plugins.benchmark.utilities.RunnableReader;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -55,9 +59,6 @@ import org.jenkinsci.plugins.benchmark.thresholds.ThresholdDescriptor;
 import org.kohsuke.stapler.export.ExportedBean;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -85,21 +86,21 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
 
     // Variables
 
-    public static final int                 TIME_DELAY_MS = 120000;
-
     private static final Logger log = Logger.getLogger(BenchmarkPublisher.class.getName());
+    private static final String CONDENSED_CACHE_ENTRY = "#condensed";
 
     private final String                      inputLocation;
     private final String                      schemaSelection;
     private final Boolean                     truncateStrings;
     private final String                      altInputSchema;
     private final String                      altInputSchemaLocation;
+    private Boolean                           condensedOnly;
+    private Boolean                           compressResults;
+    private Boolean                           mapOnAgent;
 
     // Information from the threshold fields
     private List<? extends Threshold>   altThresholds;
 
-    private transient MapperBase map;
-    private transient Timer      timer;
     private transient Integer    selectedResult;
     private transient Integer    selectedBuild;
 
@@ -134,16 +135,52 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
 
             Integer buildNumber = run.getNumber();
             String projectName = run.getParent().getName();
+            boolean compress = (compressResults != null && compressResults);
 
             // First testing for any specified location
             // If not, check for existing Jenkins Test Report inside the previous builds
             if (inputLocation == null || inputLocation.isEmpty()){
 
-                MapperBase mapper = getRawResults(run);
-                if (mapper != null) {
-                    // Update file with condensed results
-                    String oFilename = run.getParent().getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
-                    mapper.exportCondensedToFile(oFilename, projectName, buildNumber);
+                // Extract the report of the build
+                JUnitJenkins mapper = new JUnitJenkins(buildNumber, truncateStrings);
+                String rawFilename = run.getRootDir().getAbsolutePath() + File.separator + "junitResult.xml";
+                boolean extracted = mapper.importFromFile(0, rawFilename);
+
+                MapperBase base = getCondensedResults(run, taskListener);
+                boolean condensed = (base != null);
+                if (!condensed) {
+                    base = getRawResults(run, buildNumber - 1, true);
+                }
+
+                HistoryStore store = new HistoryStore(project);
+                if (extracted) {
+                    // Export build extract, read in place of the report when loading the history
+                    String outputFilename = run.getRootDir().getAbsolutePath() + File.separator + "BenchmarkResult.json";
+                    mapper.exportToFile(outputFilename, projectName, buildNumber, compress);
+
+                    // Append build to the history store
+                    try {
+                        store.append(buildNumber, mapper, 0);
+                    } catch (IOException e) {
+                        taskListener.getLogger().println(Messages.BenchmarkPublisher_HistoryStoreNotUpdated(e.getMessage()));
+                    }
+                }
+
+                // Merge content
+                if (condensed) {
+                    mapper.mergeCondensedWith(base, 0);
+                } else {
+                    mapper.mergeWith(base);
+                }
+
+                // Update file with condensed results
+                String oFilename = run.getParent().getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
+                mapper.exportCondensedToFile(oFilename, projectName, buildNumber, compress);
+                HistoryCache.invalidate(project.getFullName() + CONDENSED_CACHE_ENTRY);
+
+                // The history of the earlier builds was not loaded, move it into the store in the background
+                if (condensed && extracted) {
+                    backfillHistory(run, store);
                 }
 
             } else {
@@ -188,15 +225,15 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
                 }
 
                 // Map results
-                FormatSelector selector = new FormatSelector(run, filePath, inputLocation, schemaText, truncateStrings, taskListener);
+                boolean onAgent = (mapOnAgent != null && mapOnAgent);
+                FormatSelector selector = new FormatSelector(run, filePath, inputLocation, schemaText, truncateStrings, onAgent, altThresholds, taskListener);
                 MapperBase mapper = selector.getMapper();
 
-                // Load additional Thresholds
-                if (altThresholds.size() > 0) {
-                    mapper.addAllThresholds(altThresholds);
+                MapperBase base = getCondensedResults(run, taskListener);
+                boolean condensed = (base != null);
+                if (!condensed) {
+                    base = getRawResults(run, run.getNumber(), true);
                 }
-
-                MapperBase base = getRawResults(run);
                 failed = mapper.checkThresholds(base);
 
                 // Log mapper core information
@@ -204,14 +241,26 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
 
                 // Export build file
                 String outputFilename = run.getRootDir().getAbsolutePath() + File.separator + "BenchmarkResult.json";
-                mapper.exportToFile(outputFilename, projectName, buildNumber);
+                mapper.exportToFile(outputFilename, projectName, buildNumber, compress);
+
+                // Append build to the history store
+                try {
+                    new HistoryStore(project).append(buildNumber, mapper, 0);
+                } catch (IOException e) {
+                    taskListener.getLogger().println(Messages.BenchmarkPublisher_HistoryStoreNotUpdated(e.getMessage()));
+                }
 
                 // Merge content
-                mapper.mergeWith(base);
+                if (condensed) {
+                    mapper.mergeCondensedWith(base, 0);
+                } else {
+                    mapper.mergeWith(base);
+                }
 
                 // Update file with condensed results
                 String oFilename = run.getParent().getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
-                mapper.exportCondensedToFile(oFilename, projectName, buildNumber);
+                mapper.exportCondensedToFile(oFilename, projectName, buildNumber, compress);
+                HistoryCache.invalidate(project.getFullName() + CONDENSED_CACHE_ENTRY);
             }
 
         } catch(ValidationException e) {
@@ -255,6 +304,24 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
      * @throws JsonSyntaxException If JSON syntax invalid
      */
     public MapperBase getRawResults(Run<?, ?> run) throws NullPointerException, InterruptedException, ValidationException, IOException,  JsonIOException, JsonSyntaxException {
+        return getRawResults(run, run.getNumber(), false);
+    }
+
+    /**
+     * Retrieved and assemble the build results up to a given build into the mapper construct
+     * The history store is only rewritten from the post-build step and its background tasks, never from a page view.
+     * @param run Jenkins run instance
+     * @param lastBuild Last build loaded from the builds directory
+     * @param migrate Whether the results of the legacy files are moved into the history store
+     * @return Class to raw results
+     * @throws NullPointerException If null pointer detected
+     * @throws InterruptedException Interrupted Exception
+     * @throws ValidationException Validation exception
+     * @throws IOException If file not found
+     * @throws JsonIOException If I/O errors occur
+     * @throws JsonSyntaxException If JSON syntax invalid
+     */
+    private MapperBase getRawResults(Run<?, ?> run, int lastBuild, boolean migrate) throws NullPointerException, InterruptedException, ValidationException, IOException,  JsonIOException, JsonSyntaxException {
         Job project = run.getParent();
 
         if (inputLocation == null || inputLocation.isEmpty()){
@@ -268,49 +335,38 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
             condensedFilename.append("BenchmarkCondensed.json");
             mapper.importCondensedFromFile(condensedFilename.toString());
 
-            // Load the files between the current build and the condensed one sequentially
-            while (run != null && run.getNumber() != mapper.getBuild()){
-
-                StringBuffer rawFilename = new StringBuffer();
-                rawFilename.append(run.getRootDir().getAbsolutePath());
-                rawFilename.append(File.separator);
-                rawFilename.append("junitResult.xml");
-                mapper.importFromFile(run.getNumber(), rawFilename.toString());
-                run = run.getPreviousBuild();
+            // Load the history store, reports are only read for the builds preceding its origin
+            HistoryStore store = new HistoryStore(project);
+            store.load(mapper);
+            int storedBuilds = mapper.getBuilds().size();
+            Integer origin = store.getOrigin();
+            if (origin != null) {
+                lastBuild = Math.min(lastBuild, origin - 1);
             }
 
-            if (run == null) {
+            // List the builds from the builds directory, without loading their runs
+            int[] builds = BuildScanner.listBuilds(project.getBuildDir(), lastBuild);
+            if (builds.length == 0) {
                 return mapper;
             }
 
-            // Load the files below the condensed one in parallel
-            int cores = Runtime.getRuntime().availableProcessors() - 1;
-            Run firstRun = project.getFirstBuild();
-            int numberOfRuns = run.getNumber() - firstRun.getNumber();
-            int runsPerSegment = 4;
-            if (numberOfRuns > cores * 4) {
-                runsPerSegment = numberOfRuns / cores;
+            // Launch parallel tasks on the shared loader pool, each loading its segment into a private partial mapper
+            int[] bounds = BuildScanner.split(builds, LoaderExecutor.getThreads());
+            List<RunnableJenkinsReader> tasks = new ArrayList<RunnableJenkinsReader>();
+            for (int i = 0; i < bounds.length - 1; i++) {
+                tasks.add(new RunnableJenkinsReader(project.getBuildDir(), builds, bounds[i], bounds[i + 1], new JUnitJenkins(mapper.getBuild(), truncateStrings), condensedFilename.toString()));
             }
 
-            ExecutorService server = Executors.newFixedThreadPool(cores);
-
-            // Launch parallel threads
-            Run startRun = run;
-            Run endRun = startRun;
-            do {
-                int i = 0;
-                while (i < runsPerSegment && endRun != null) {
-                    endRun = endRun.getPreviousBuild();
-                    i++;
-                }
-                server.execute(new RunnableJenkinsReader(startRun, endRun, mapper));
-                startRun = endRun;
-            } while (startRun != null);
-
-            server.shutdown();
+            // Blocks until all tasks have completed, then merge the partials
+            reportLoadingFailures(LoaderExecutor.invokeAll(tasks));
+            for (RunnableJenkinsReader task : tasks) {
+                mapper.mergeHistoryWith(task.getPartial());
+            }
 
-            // Blocks until all tasks have completed execution after a shutdown request
-            server.awaitTermination(5, TimeUnit.MINUTES);
+            // Move the results of the reports into the history store
+            if (migrate) {
+                migrateHistory(store, mapper, storedBuilds, origin);
+            }
 
             return mapper;
 
@@ -326,97 +382,262 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
                 return null;
             }
 
-            // Load the files between the current build and the condensed one sequentially
-            while (run != null && run.getNumber() != mapper.getBuild()){
-                run = run.getPreviousBuild();
+            // Load the history store, result files are only read for the builds preceding its origin
+            HistoryStore store = new HistoryStore(project);
+            store.load(mapper);
+            int storedBuilds = mapper.getBuilds().size();
+            Integer origin = store.getOrigin();
+            if (origin != null) {
+                lastBuild = Math.min(lastBuild, origin - 1);
             }
 
-            if (run == null) {
+            // List the builds from the builds directory, without loading their runs
+            int[] builds = BuildScanner.listBuilds(project.getBuildDir(), lastBuild);
+            if (builds.length == 0) {
                 return mapper;
             }
 
-            // Load the files below the condensed one in parallel
-            int cores = Runtime.getRuntime().availableProcessors() - 1;
-            Run firstRun = project.getFirstBuild();
-            int numberOfRuns = run.getNumber() - firstRun.getNumber();
-            int runsPerSegment = 4;
-            if (numberOfRuns > cores * 4 ) {
-                runsPerSegment = numberOfRuns / cores;
+            // Launch parallel tasks on the shared loader pool, each loading its segment into a private partial mapper
+            int[] bounds = BuildScanner.split(builds, LoaderExecutor.getThreads());
+            List<RunnableReader> tasks = new ArrayList<RunnableReader>();
+            for (int i = 0; i < bounds.length - 1; i++) {
+                tasks.add(new RunnableReader(project.getBuildDir(), builds, bounds[i], bounds[i + 1], new MapperBase(mapper.getBuild(), truncateStrings), condensedFilename.toString()));
             }
 
-            ExecutorService server = Executors.newFixedThreadPool(cores);
+            // Blocks until all tasks have completed, then merge the partials
+            reportLoadingFailures(LoaderExecutor.invokeAll(tasks));
+            for (RunnableReader task : tasks) {
+                mapper.mergeHistoryWith(task.getPartial());
+            }
 
-            // Launch parallel threads
-            Run startRun = run;
-            Run endRun = startRun;
-            do{
-                int i = 0;
-                while (i < runsPerSegment && endRun != null) {
-                    endRun = endRun.getPreviousBuild();
-                    i++;
+            // Move the results of the legacy files into the history store
+            if (migrate) {
+                migrateHistory(store, mapper, storedBuilds, origin);
+            }
+
+            return mapper;
+        }
+    }
+
+    /**
+     * Move the results loaded from the legacy files into the history store [POST-BUILD]
+     * @param store History store of the job
+     * @param mapper Results of all the builds
+     * @param storedBuilds Number of builds loaded from the history store
+     * @param origin Origin of the history store
+     */
+    private void migrateHistory(HistoryStore store, MapperBase mapper, int storedBuilds, Integer origin) {
+        try {
+            if (mapper.getBuilds().size() > storedBuilds) {
+                store.rebuild(mapper);
+            } else if (origin != null) {
+                store.setComplete();
+            }
+        } catch (IOException e) {
+            log.warning(Messages.BenchmarkPublisher_HistoryStoreNotUpdated(e.getMessage()));
+        }
+    }
+
+    /**
+     * Load the history of the earlier builds in the background, so that it is moved into the history store [POST-BUILD]
+     * The loaded history is kept in the cache for the next display.
+     * @param run Jenkins run instance
+     * @param store History store of the job
+     */
+    private void backfillHistory(final Run<?, ?> run, HistoryStore store) {
+        try {
+            Integer origin = store.getOrigin();
+            if (origin == null || origin == 0) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+        LoaderExecutor.submitBackground(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    MapperBase mapper = getRawResults(run, run.getNumber(), true);
+                    if (mapper != null) {
+                        HistoryCache.put(run.getParent().getFullName(), run.getNumber(), mapper);
+                    }
+                } catch (Exception e) {
+                    log.warning(Messages.BenchmarkPublisher_HistoryStoreNotUpdated(e.getMessage()));
                 }
-                server.execute(new RunnableReader(startRun, endRun, mapper));
-                startRun = endRun;
-            } while (startRun != null);
+            }
+        });
+    }
 
-            server.shutdown();
+    /**
+     * Log the number of result files that could not be loaded
+     * @param failures Number of failures reported by each loading task
+     */
+    private void reportLoadingFailures(List<Integer> failures) {
+        int total = 0;
+        for (Integer failure : failures) {
+            if (failure != null) {
+                total += failure;
+            }
+        }
+        if (total > 0) {
+            log.warning(Messages.BenchmarkPublisher_ResultFilesNotLoaded(total));
+        }
+    }
+
+    /**
+     * Retrieve the condensed results backed by the memory-mapped history store [DISPLAY LOADING]
+     * Result values are read from the mapped columns on demand instead of being loaded for all builds.
+     * @param run Jenkins run instance
+     * @return Condensed results attached to the mapped history, null if the store does not cover the complete job
+     * @throws NullPointerException If null pointer detected
+     * @throws ValidationException Validation exception
+     * @throws IOException If file not found
+     * @throws JsonIOException If I/O errors occur
+     * @throws JsonSyntaxException If JSON syntax invalid
+     */
+    public MapperBase getMappedResults(Run<?, ?> run) throws NullPointerException, ValidationException, IOException, JsonIOException, JsonSyntaxException {
+        Job project = run.getParent();
+        HistoryStore store = new HistoryStore(project);
+        Integer origin = store.getOrigin();
+        if (origin == null || (origin > 1 && BuildScanner.listBuilds(project.getBuildDir(), origin - 1).length > 0)) {
+            return null;
+        }
 
-            // Blocks until all tasks have completed execution after a shutdown request
-            server.awaitTermination(5, TimeUnit.MINUTES);
+        MapperBase mapper = new MapperBase(run.getNumber(), truncateStrings);
+        String condensedFilename = project.getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
+        if (!mapper.importCondensedFromFile(condensedFilename)) {
+            return null;
+        }
+        mapper.attachHistory(store.map());
+        return mapper;
+    }
 
+    /**
+     * Retrieve the condensed results only, as required by the condensed-only mode
+     * @param run Jenkins run instance
+     * @param taskListener Task listener
+     * @return Condensed results, null if the mode is inactive or if the build history must be loaded
+     * @throws NullPointerException If null pointer detected
+     * @throws ValidationException Validation exception
+     * @throws IOException If file not found
+     * @throws JsonIOException If I/O errors occur
+     * @throws JsonSyntaxException If JSON syntax invalid
+     */
+    public MapperBase getCondensedResults(Run<?, ?> run, TaskListener taskListener) throws NullPointerException, ValidationException, IOException, JsonIOException, JsonSyntaxException {
+        if (condensedOnly == null || !condensedOnly) {
+            return null;
+        }
+
+        MapperBase mapper = new MapperBase(run.getNumber(), truncateStrings);
+        String condensedFilename = run.getParent().getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
+        if (mapper.importCondensedFromFile(condensedFilename)) {
+            if (!mapper.hasCondensedAggregates()) {
+                taskListener.getLogger().println(Messages.BenchmarkPublisher_CondensedOnlyRequiresHistory());
+                return null;
+            }
+        } else if (inputLocation == null || inputLocation.isEmpty()) {
+            // JUnit reports of earlier builds were never condensed
+            return null;
+        }
+        taskListener.getLogger().println(Messages.BenchmarkPublisher_CondensedOnlyActive());
+        return mapper;
+    }
+
+    /**
+     * Retrieve the condensed results for display without loading the build history [DISPLAY LOADING]
+     * The aggregates persisted in the condensed file are sufficient for the condensed table. They are cached for the
+     * job and build, next to its history, so that the file is read once for all the pages drawn.
+     * @param run Jenkins run instance
+     * @return Condensed results, or the complete results if no condensed file is available
+     * @throws NullPointerException If null pointer detected
+     * @throws InterruptedException If interrupted while waiting for the history
+     * @throws ValidationException Validation exception
+     * @throws IOException If file not found
+     * @throws JsonIOException If I/O errors occur
+     * @throws JsonSyntaxException If JSON syntax invalid
+     */
+    public MapperBase getCondensedMapper(final Run run) throws NullPointerException, InterruptedException, ValidationException, IOException, JsonIOException, JsonSyntaxException {
+        MapperBase mapper = HistoryCache.get(run.getParent().getFullName() + CONDENSED_CACHE_ENTRY, run.getNumber(), new Callable<MapperBase>() {
+            @Override
+            public MapperBase call() throws Exception {
+                MapperBase base = new MapperBase(run.getNumber(), truncateStrings);
+                String condensedFilename = run.getParent().getRootDir().getAbsolutePath() + File.separator + "BenchmarkCondensed.json";
+                if (base.importCondensedFromFile(condensedFilename)) {
+                    return base;
+                }
+                return null;
+            }
+        });
+        if (mapper != null) {
             return mapper;
         }
+        return this.getMapper(run);
     }
 
     /**
      * fill All Results from files
      * @param project Job being executed
+     * @return Results of the last build, null if not available
      */
-    public void fillAllResults(Job project){
+    public MapperBase fillAllResults(Job project){
         try {
-            resetClock();
             Run run = project.getLastBuild();
             if (run != null) {
                 MapperBase base = this.getMapper(run);
                 base.setBuild(run.getNumber());
+                return base;
             }
         } catch (Exception e) {
             log.info(Messages.BenchmarkPublisher_ResultCollectionErrorDetected());
             log.info(Messages.BenchmarkPublisher_ResultCollectionErrorMessage(e.getMessage()));
         }
+        return null;
     }
 
-    public void resetClock(){
-        Timer timer = getTimer();
-        if (timer != null) {
-            timer.cancel();
+    /**
+     * Keep the values of a result loaded for the detail page, the cached history of the job is weighed again
+     * @param project Job being displayed
+     * @param mapper History of the job
+     * @param hash Result hash
+     */
+    public void keepHistory(Job project, MapperBase mapper, int hash){
+        if (mapper.keepHistory(hash)) {
+            HistoryCache.reweigh(project.getFullName(), mapper);
         }
-        timer = new Timer();
-        setTimer(timer);
-
-        ResetMemoryTask task = new ResetMemoryTask(this);
-        timer.schedule(task, BenchmarkPublisher.TIME_DELAY_MS);
     }
 
-    public void resetMemory(){
-        this.map = null;
-        Timer timer = getTimer();
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+    /**
+     * Weigh the cached history of a job again after columns of its mapped history were indexed to draw a table
+     * @param project Job being displayed
+     * @param mapper History of the job
+     */
+    public void reweighHistory(Job project, MapperBase mapper){
+        if (mapper.getHistory() != null) {
+            HistoryCache.reweigh(project.getFullName(), mapper);
         }
-        System.gc();
+    }
+
+    /**
+     * Mark the history of a job as recently used, so that it is kept in the cache while displayed
+     * @param project Job being displayed
+     */
+    public void touchHistory(Job project){
+        HistoryCache.touch(project.getFullName());
     }
 
     // Setters
 
     @DataBoundSetter
     public void setThresholds(List<? extends Threshold> thresholds) { this.altThresholds = thresholds; }
+    @DataBoundSetter
+    public void setCondensedOnly(Boolean condensedOnly) { this.condensedOnly = condensedOnly; }
+    @DataBoundSetter
+    public void setCompressResults(Boolean compressResults) { this.compressResults = compressResults; }
+    @DataBoundSetter
+    public void setMapOnAgent(Boolean mapOnAgent) { this.mapOnAgent = mapOnAgent; }
 
-    public void setTimer(Timer timer) { this.timer = timer; }
     public void setSelectedResult(Integer selectedResult) { this.selectedResult = selectedResult; }
     public void setSelectedBuild(Integer selectedBuild) { this.selectedBuild = selectedBuild; }
-    public void setMapper(MapperBase mapper){ this.map = mapper;}
 
     // Getters
 
@@ -425,19 +646,24 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
     public Boolean getTruncateStrings() { return truncateStrings; }
     public String getAltInputSchema() { return altInputSchema; }
     public String getAltInputSchemaLocation() { return altInputSchemaLocation; }
+    public Boolean getCondensedOnly() { return condensedOnly; }
+    public Boolean getCompressResults() { return compressResults; }
+    public Boolean getMapOnAgent() { return mapOnAgent; }
 
     public List<? extends Threshold> getThresholds() { return altThresholds; }
-    public Timer getTimer() { return timer; }
     public Integer getSelectedResult() { return selectedResult; }
     public Integer getSelectedBuild() { return selectedBuild; }
-    public MapperBase getMapper(){ return map; }
-    public MapperBase getMapper(Run run) throws NullPointerException, InterruptedException, ValidationException, IOException,  JsonIOException, JsonSyntaxException {
-        MapperBase base = this.map;
-        if (base == null || run.getNumber() != base.getBuild()) {
-            base = this.getRawResults(run);
-            this.map = base;
-        }
-        return base;
+    public MapperBase getMapper(final Run run) throws NullPointerException, InterruptedException, ValidationException, IOException,  JsonIOException, JsonSyntaxException {
+        return HistoryCache.get(run.getParent().getFullName(), run.getNumber(), new Callable<MapperBase>() {
+            @Override
+            public MapperBase call() throws Exception {
+                MapperBase base = getMappedResults(run);
+                if (base == null) {
+                    base = getRawResults(run);
+                }
+                return base;
+            }
+        });
     }
 
     /**
@@ -457,9 +683,14 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
          * If you don't want fields to be persisted, use <tt>transient</tt>.
          */
 
+        private Integer loaderThreads;
+        private Integer historyCacheSize;
+
         /** In order to load the persisted global configuration, you have to call load() in the constructor. */
         public DescriptorImpl () {
             load();
+            LoaderExecutor.setThreads(getLoaderThreads());
+            HistoryCache.setBudget(getHistoryCacheSize());
         }
 
         /** This human readable name is used in the configuration screen. */
@@ -474,6 +705,34 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
 
         @Override /** To persist global configuration information, set that to properties and call save().*/
         public boolean configure (StaplerRequest req, JSONObject formData) throws FormException {
+            String threads = formData.optString("loaderThreads", "").trim();
+            if (threads.isEmpty()) {
+                loaderThreads = null;
+            } else {
+                try {
+                    loaderThreads = Integer.parseInt(threads);
+                } catch (NumberFormatException e) {
+                    throw new FormException(Messages.BenchmarkPublisher_LoaderThreadsInvalid(), "loaderThreads");
+                }
+                if (loaderThreads < 1) {
+                    throw new FormException(Messages.BenchmarkPublisher_LoaderThreadsInvalid(), "loaderThreads");
+                }
+            }
+            String cacheSize = formData.optString("historyCacheSize", "").trim();
+            if (cacheSize.isEmpty()) {
+                historyCacheSize = null;
+            } else {
+                try {
+                    historyCacheSize = Integer.parseInt(cacheSize);
+                } catch (NumberFormatException e) {
+                    throw new FormException(Messages.BenchmarkPublisher_HistoryCacheSizeInvalid(), "historyCacheSize");
+                }
+                if (historyCacheSize < 1) {
+                    throw new FormException(Messages.BenchmarkPublisher_HistoryCacheSizeInvalid(), "historyCacheSize");
+                }
+            }
+            LoaderExecutor.setThreads(getLoaderThreads());
+            HistoryCache.setBudget(getHistoryCacheSize());
             save();
             return super.configure (req, formData);
         }
@@ -492,6 +751,65 @@ public class BenchmarkPublisher extends Recorder implements SimpleBuildStep {
             return items;
         }
 
+        /**
+         * Check the number of loader threads
+         * @param loaderThreads Number of threads as inserted by user
+         * @return Validation result
+         */
+        public FormValidation doCheckLoaderThreads(@QueryParameter String loaderThreads) {
+            if (loaderThreads == null || loaderThreads.trim().isEmpty()) {
+                return FormValidation.ok();
+            }
+            try {
+                if (Integer.parseInt(loaderThreads.trim()) > 0) {
+                    return FormValidation.ok();
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            return FormValidation.error(Messages.BenchmarkPublisher_LoaderThreadsInvalid());
+        }
+
+        /**
+         * Get the number of threads shared by all history loads
+         * @return Configured number of threads, or the default one
+         */
+        public int getLoaderThreads() { return loaderThreads == null ? LoaderExecutor.getDefaultThreads() : loaderThreads; }
+
+        /**
+         * Check the memory budget of the history cache
+         * @param historyCacheSize Budget in megabytes as inserted by user
+         * @return Validation result
+         */
+        public FormValidation doCheckHistoryCacheSize(@QueryParameter String historyCacheSize) {
+            if (historyCacheSize == null || historyCacheSize.trim().isEmpty()) {
+                return FormValidation.ok();
+            }
+            try {
+                if (Integer.parseInt(historyCacheSize.trim()) > 0) {
+                    return FormValidation.ok();
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            return FormValidation.error(Messages.BenchmarkPublisher_HistoryCacheSizeInvalid());
+        }
+
+        /**
+         * Get the memory budget shared by the histories kept in memory
+         * @return Configured budget in megabytes, or the default one
+         */
+        public long getHistoryCacheSize() { return historyCacheSize == null ? HistoryCache.getDefaultBudget() : historyCacheSize; }
+
+        /**
+         * Get the usage statistics of the history cache
+         * @return Statistics as displayed in the global configuration
+         */
+        public String getHistoryCacheStatistics() {
+            return Messages.BenchmarkPublisher_HistoryCacheStatistics(HistoryCache.getNumberOfEntries(), HistoryCache.getSize(),
+                    HistoryCache.getBudget(), HistoryCache.getHits(), HistoryCache.getMisses(), HistoryCache.getEvictions(), HistoryCache.getSharedLoads());
+        }
+
         /**
          * Check Input Location
          * @param altInputSchema Custom schema as inserted by user
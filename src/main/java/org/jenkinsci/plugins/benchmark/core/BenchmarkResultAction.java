@@ -27,6 +27,7 @@ import jenkins.tasks.SimpleBuildStep;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
 import org.jenkinsci.plugins.benchmark.results.NumeralValue;
 import org.jenkinsci.plugins.benchmark.results.TestValue;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
 import org.jenkinsci.plugins.benchmark.utilities.FrontendMethod;
 import org.kohsuke.stapler.bind.JavaScriptMethod;
 
@@ -35,7 +36,6 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Locale;
-import java.util.TreeSet;
 import java.util.logging.Logger;
 
 /**
@@ -52,7 +52,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     private final Job<?, ?> project;
     private final BenchmarkPublisher    core;
 
-    private transient TreeSet<Integer>  builds;
+    private transient BuildSet          builds;
     private transient TestValue         result;
 
     // Constructor
@@ -120,8 +120,8 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
         try {
             Integer resultID = this.core.getSelectedResult();
             if (resultID != null) {
-                this.core.fillAllResults(project);
-                MapperBase mapper = this.core.getMapper();
+                MapperBase mapper = getMapper();
+                this.core.keepHistory(project, mapper, resultID);
                 result = mapper.getResults().get(resultID);
                 builds = mapper.getBuilds();
                 return Messages.BenchmarkResultAction_ResultName(result.getName());
@@ -136,7 +136,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     @FrontendMethod
     public String  getGroupName() {
         try {
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && base.getDetected().isGroupDetected()) {
                 if (result.getGroup() == null) {
                     return Messages.BenchmarkResultAction_NoGroup();
@@ -154,7 +154,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     @FrontendMethod
     public String  getFileName(){
         try {
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && base.getDetected().isFileDetected()) {
                 return Messages.BenchmarkResultAction_FileName(result.getParent().getDescription());
             } else {
@@ -217,7 +217,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     public String getRawTable(){
         try {
             TestValue result = this.result;
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && result != null) {
                 StringBuffer output = new StringBuffer();
                 output.append("<thead><tr><th>");
@@ -244,7 +244,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     public String getCondensedTable(){
         try {
             TestValue result = this.result;
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && result != null) {
                 return result.getHTMLCondensedDetail(base.getDetected(), base.getDecimalSeparator());
             } else {
@@ -258,7 +258,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     @FrontendMethod
     public String getGraphYMinimum(){
         try {
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             NumeralValue value =  (NumeralValue)base.getResults().get(this.core.getSelectedResult());
             if (value.getMaximum() > value.getMinimum()) {
                 return String.format(Locale.US, "%6g", value.getMinimum() - 0.2 * (value.getMaximum() - value.getMinimum()));
@@ -273,7 +273,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     @FrontendMethod
     public String getGraphYMaximum(){
         try {
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             NumeralValue value =  (NumeralValue)base.getResults().get(this.core.getSelectedResult());
             if (value.getMaximum() > value.getMinimum()) {
                 return String.format(Locale.US, "%6g", value.getMaximum() + 0.2 * (value.getMaximum() - value.getMinimum()));
@@ -289,7 +289,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     public String getResultDetails(){
         try {
             TestValue result = this.result;
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && result != null) {
                 return result.getHTMLDetails(getBuildNumber(), base.getDecimalSeparator());
             } else {
@@ -304,7 +304,7 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     public String getParameters(){
         try {
             TestValue result = this.result;
-            MapperBase base = this.core.getMapper();
+            MapperBase base = getMapper();
             if (base != null && result != null) {
                 return result.getHTMLParameters(getBuildNumber(), base.getDecimalSeparator());
             } else {
@@ -345,11 +345,19 @@ public class BenchmarkResultAction implements Action, SimpleBuildStep.LastBuildA
     }
 
     /**
-     * Reset clock that keeps the result loaded in memory
+     * Keep the history of the job in the cache while the page is displayed
      */
     @JavaScriptMethod
-    public void resetClock(){
-        this.core.resetClock();
+    public void touchHistory(){
+        this.core.touchHistory(project);
+    }
+
+    /**
+     * Get the results of the last build from the history cache, loading them if needed
+     * @return Results of the last build, null if not available
+     */
+    private MapperBase getMapper() {
+        return this.core.fillAllResults(project);
     }
 
     @JavaScriptMethod
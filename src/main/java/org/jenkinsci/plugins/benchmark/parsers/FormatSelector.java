@@ -18,28 +18,27 @@
  */
 package org.jenkinsci.plugins.benchmark.parsers;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
 import hudson.FilePath;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
 import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin.MapJsonToPlugin;
 import org.jenkinsci.plugins.benchmark.parsers.XmlToPlugin.MapXmlToPlugin;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -58,6 +57,25 @@ public class FormatSelector {
     // Constructor
 
     public FormatSelector(Run<?, ?> run, FilePath filePath, String searchFilePattern, String schema, boolean truncateStrings, TaskListener listener) throws InterruptedException, ValidationException, IOException {
+        this(run, filePath, searchFilePattern, schema, truncateStrings, false, Collections.<Threshold>emptyList(), listener);
+    }
+
+    /**
+     * Map the result files of the build
+     * @param run Jenkins run instance
+     * @param filePath Build workspace address
+     * @param searchFilePattern File search pattern to identify result files
+     * @param schema Schema content
+     * @param truncateStrings Whether strings are truncated
+     * @param mapOnAgent Whether the mapping is executed on the node hosting the workspace, only the mapped results
+     *                   are then transferred instead of the content of the result files
+     * @param thresholds Additional thresholds to attach to the mapped results
+     * @param listener Task listener
+     * @throws InterruptedException Interrupted exception
+     * @throws ValidationException Validation exception
+     * @throws IOException I/O exception
+     */
+    public FormatSelector(Run<?, ?> run, FilePath filePath, String searchFilePattern, String schema, boolean truncateStrings, boolean mapOnAgent, List<? extends Threshold> thresholds, TaskListener listener) throws InterruptedException, ValidationException, IOException {
 
         if (schema == null || schema.length() == 0) {
             throw new IOException(Messages.FormatSelector_SchemaIsEmpty());
@@ -66,17 +84,46 @@ public class FormatSelector {
             throw new IOException(Messages.FormatSelector_FileSearchPatternIsEmpty());
         }
 
-        JsonElement jSchema = null;
-        Document xSchema = null;
-        try {
-            jSchema = getJSON(schema);
-        } catch (Exception e) {
+        int buildNumber = run.getNumber();
+        if (mapOnAgent) {
+            listener.getLogger().println(Messages.FormatSelector_MappingOnAgent());
+            JsonArray arrayThresholds = new JsonArray();
+            for (Threshold threshold : thresholds) {
+                arrayThresholds.add(threshold.getJsonObject());
+            }
+            byte[] content;
             try {
-                xSchema = getXML(schema);
-            } catch (Exception e2) {
-                throw new IOException(Messages.FormatSelector_NoCompatibleSchemaFromatRecognised());
+                content = filePath.act(new FileMapper(buildNumber, searchFilePattern, schema, truncateStrings, arrayThresholds.toString(), run.getParent().getName(), listener));
+            } catch (IOException e) {
+                if (e.getCause() instanceof ValidationException) {
+                    throw (ValidationException) e.getCause();
+                }
+                throw e;
+            }
+            mapper = importMapping(buildNumber, content, truncateStrings);
+        } else {
+            mapper = map(buildNumber, filePath, searchFilePattern, schema, truncateStrings, listener);
+            if (thresholds.size() > 0) {
+                mapper.addAllThresholds(thresholds);
             }
         }
+    }
+
+    // Functions
+
+    /**
+     * Map the result files identified inside the workspace
+     * @param buildNumber Build number
+     * @param filePath Build workspace address
+     * @param searchFilePattern File search pattern to identify result files
+     * @param schema Schema content
+     * @param truncateStrings Whether strings are truncated
+     * @param listener Task listener
+     * @return Mapped results
+     */
+    private static MapperBase map(int buildNumber, FilePath filePath, String searchFilePattern, String schema, boolean truncateStrings, TaskListener listener) throws InterruptedException, ValidationException, IOException {
+
+        SchemaPlan plan = SchemaPlan.get(schema);
 
         // Execute the mapping
         if (!filePath.isDirectory()) {
@@ -84,10 +131,8 @@ public class FormatSelector {
             throw new IOException(Messages.FormatSelector_WorkspaceNotDetected());
         }
 
-        int buildNumber = run.getNumber();
-
         // JSON
-        if (jSchema != null) {
+        if (plan.isJson()) {
             Map<String, FilePath> files;
             try {
                 listener.getLogger().println(Messages.FormatSelector_FilePattern(searchFilePattern));
@@ -101,59 +146,88 @@ public class FormatSelector {
             MapJsonToPlugin plugin = null;
             if (files.size() == 1) {
                 for (Map.Entry<String, FilePath> file : files.entrySet()) {
-                    plugin = new MapJsonToPlugin(buildNumber, file.getValue(), jSchema, truncateStrings);
+                    plugin = new MapJsonToPlugin(buildNumber, file.getValue(), plan.getJsonPlan(), truncateStrings);
                     break;
                 }
             } else {
-                plugin = new MapJsonToPlugin(buildNumber, files, jSchema, truncateStrings, listener);
+                plugin = new MapJsonToPlugin(buildNumber, files, plan.getJsonPlan(), truncateStrings, listener);
             }
-            mapper = (MapperBase) plugin;
-            return;
+            return (MapperBase) plugin;
         }
 
         // XML
-        if (xSchema != null) {
-            Map<String, FilePath> files;
-            try {
-                listener.getLogger().println(Messages.FormatSelector_FilePattern(searchFilePattern));
-                files = IdentifyFiles(filePath, searchFilePattern, "xml");
-            } catch (Exception e) {
-                throw new ValidationException(Messages.FormatSelector_FilePatternCannotBeParsed(searchFilePattern));
-            }
-            if (files.size() == 0) {
-                throw new IOException(Messages.FormatSelector_NoXmlDetectedInFilePattern(searchFilePattern));
-            }
-            MapXmlToPlugin plugin = null;
-            if (files.size() == 1) {
-                for (Map.Entry<String, FilePath> file : files.entrySet()) {
-                    plugin = new MapXmlToPlugin(buildNumber, file.getValue(), xSchema, truncateStrings);
-                    break;
-                }
-            } else {
-                plugin = new MapXmlToPlugin(buildNumber, files, xSchema, truncateStrings, listener);
+        Map<String, FilePath> files;
+        try {
+            listener.getLogger().println(Messages.FormatSelector_FilePattern(searchFilePattern));
+            files = IdentifyFiles(filePath, searchFilePattern, "xml");
+        } catch (Exception e) {
+            throw new ValidationException(Messages.FormatSelector_FilePatternCannotBeParsed(searchFilePattern));
+        }
+        if (files.size() == 0) {
+            throw new IOException(Messages.FormatSelector_NoXmlDetectedInFilePattern(searchFilePattern));
+        }
+        MapXmlToPlugin plugin = null;
+        if (files.size() == 1) {
+            for (Map.Entry<String, FilePath> file : files.entrySet()) {
+                plugin = new MapXmlToPlugin(buildNumber, file.getValue(), plan.getXmlPlan(), truncateStrings);
+                break;
             }
-            mapper = (MapperBase) plugin;
+        } else {
+            plugin = new MapXmlToPlugin(buildNumber, files, plan.getXmlPlan(), truncateStrings, listener);
         }
+        return (MapperBase) plugin;
     }
 
-    // Functions
-
-
-    public static void checkFormat(String schema) throws IOException {
+    /**
+     * Import the mapping returned by the node hosting the workspace
+     * @param buildNumber Build number
+     * @param content Mapping written by MapperBase.exportMappingToFile()
+     * @param truncateStrings Whether strings are truncated
+     * @return Mapped results
+     */
+    private static MapperBase importMapping(int buildNumber, byte[] content, boolean truncateStrings) throws IOException {
+        File file = File.createTempFile("BenchmarkMapping", ".json");
         try {
-            getJSON(schema);
-        } catch (Exception e) {
+            OutputStream outputStream = new FileOutputStream(file);
             try {
-                getXML(schema);
-            } catch (Exception e2) {
-                throw new IOException(Messages.FormatSelector_NoCompatibleSchemaFromatRecognised());
+                outputStream.write(content);
+            } finally {
+                outputStream.close();
             }
+            MapperBase mapper = new MapperBase(buildNumber, truncateStrings);
+            mapper.importMappingFromFile(file, buildNumber);
+            return mapper;
+        } catch (JsonParseException e) {
+            throw new IOException(Messages.FormatSelector_MappingNotTransferred(), e);
+        } finally {
+            file.delete();
         }
     }
 
+    /**
+     * Read the thresholds sent to the node hosting the workspace
+     * @param content JSON array of thresholds
+     * @return List of thresholds
+     * @throws ValidationException If a threshold is not recognised
+     */
+    private static List<Threshold> readThresholds(String content) throws ValidationException {
+        List<Threshold> thresholds = new ArrayList<Threshold>();
+        for (JsonElement element : new JsonParser().parse(content).getAsJsonArray()) {
+            thresholds.add(Threshold.fromJsonObject(element.getAsJsonObject()));
+        }
+        return thresholds;
+    }
+
+    public static void checkFormat(String schema) throws IOException {
+        SchemaPlan.get(schema);
+    }
+
 
     /**
      * Identify the existing files based on search file pattern with wildcard
+     * <p>
+     * The search is executed on the node hosting the workspace in a single call, so that the
+     * directory listings and the content of the '.list' files do not cross the remoting channel.
      * @param fileBase Build workspace address
      * @param searchFilePattern File search pattern to identify result files
      * @param extension File extension
@@ -163,207 +237,267 @@ public class FormatSelector {
      */
     public static Map<String, FilePath> IdentifyFiles (FilePath fileBase, String searchFilePattern, String extension) throws IOException, InterruptedException {
 
-        String[] individuals = searchFilePattern.split("\\;|\\,");
-
-        // Identify lists and add their content
-        List<String[]> listOfLists = new ArrayList<String[]>();
-        List<String[]> listChunks = new ArrayList<String[]>();
-        for (String individual : individuals) {
-            String[] chunks = individual.split("\\\\|\\/");
-            if (isFileWithExtension(individual, "list")) {
-                listOfLists.add(chunks);
-            } else {
-                listChunks.add(chunks);
-            }
+        Map<String, String> paths = fileBase.act(new FileIdentifier(searchFilePattern, extension));
+        Map<String, FilePath> result = new HashMap<String, FilePath>();
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            result.put(entry.getKey(), fileBase.child(entry.getValue()));
         }
+        return result;
+    }
 
-        // Locate lists, extract content of lists and add it to list of files
-        Map<String, FilePath> listFiles = processChunks(fileBase, "", "", 0, listOfLists, "list");
-        for (Map.Entry<String, FilePath> entry:listFiles.entrySet()) {
-            String content;
-            try {
-                InputStream inputStream = entry.getValue().read();
-                content = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
-            } catch (Exception e) {
-                continue;
-            }
-            String[] addIndividuals = content.split("\\;|\\,|\\r?\\n");
-            for (String individual : addIndividuals) {
-                if (!individual.isEmpty()) {
-                    String[] chunks = individual.split("\\\\|\\/");
-                    listChunks.add(chunks);
-                }
-            }
+    /**
+     * Confirm whether the filename has the right extension
+     *
+     * @param file File name
+     * @param extension Extension to search for
+     * @return Whether file has extension
+     */
+    private static boolean isFileWithExtension(String file, String extension) {
+
+        try {
+            return extension.equalsIgnoreCase(file.substring(file.lastIndexOf(".") + 1));
+        } catch (Exception e) {
+            return false;
         }
-        return processChunks(fileBase, "", "", 0, listChunks, extension);
+    }
+
+    //  Getter
+
+    public MapperBase getMapper() {
+        return mapper;
     }
 
     /**
-     *  Recursive  identification of input files considering wildcard
-     *
-     * @param shortName Condensed path name to detected file location
-     * @param pathName Full path name to detected file location
-     * @param index Location identified content inside the active string
-     * @param listChunks List of chunks to check to identify active files
-     * @param extension File extension that determine format for processing
-     * @return Map with shorten filename and file address
+     * Search of the result files executed on the node hosting the workspace
+     * <p>
+     * Returns the shorten filenames with the path of the matching files relative to the workspace.
      */
-    private static Map<String, FilePath> processChunks(FilePath fileBase, String shortName, String pathName, int index, List<String[]> listChunks, String extension) throws IOException, InterruptedException {
+    private static final class FileIdentifier extends MasterToSlaveFileCallable<Map<String, String>> {
 
-        int numOriginal = listChunks.size();
-        Map<String, FilePath> result = new HashMap<String, FilePath>();
-        for (String[] individual : listChunks) {
-            if (individual.length < index + 1) {
-                continue;
+        private static final long serialVersionUID = 1L;
+
+        // Variables
+
+        private final String searchFilePattern;
+        private final String extension;
+
+        // Constructor
+
+        FileIdentifier(String searchFilePattern, String extension) {
+            this.searchFilePattern = searchFilePattern;
+            this.extension = extension;
+        }
+
+        // Functions
+
+        public Map<String, String> invoke(File fileBase, VirtualChannel channel) throws IOException, InterruptedException {
+
+            String[] individuals = searchFilePattern.split("\\;|\\,");
+
+            // Identify lists and add their content
+            List<String[]> listOfLists = new ArrayList<String[]>();
+            List<String[]> listChunks = new ArrayList<String[]>();
+            for (String individual : individuals) {
+                String[] chunks = individual.split("\\\\|\\/");
+                if (isFileWithExtension(individual, "list")) {
+                    listOfLists.add(chunks);
+                } else {
+                    listChunks.add(chunks);
+                }
             }
-            List<String[]> list = new ArrayList<String[]>();
-            String marker = individual[index];
-            for (String[] individual_2 : listChunks) {
-                if (individual_2.length > index) {
-                    if (marker.equals(individual_2[index])) {
-                        list.add(individual_2);
+
+            // Locate lists, extract content of lists and add it to list of files
+            Map<String, String> listFiles = processChunks(fileBase, "", "", 0, listOfLists, "list");
+            for (String listFile : listFiles.values()) {
+                String content;
+                InputStream inputStream = null;
+                try {
+                    inputStream = new FileInputStream(new File(fileBase, listFile));
+                    content = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+                } catch (Exception e) {
+                    continue;
+                } finally {
+                    IOUtils.closeQuietly(inputStream);
+                }
+                String[] addIndividuals = content.split("\\;|\\,|\\r?\\n");
+                for (String individual : addIndividuals) {
+                    if (!individual.isEmpty()) {
+                        String[] chunks = individual.split("\\\\|\\/");
+                        listChunks.add(chunks);
                     }
                 }
             }
-            if (list.size() == 0)
-                break;
+            return processChunks(fileBase, "", "", 0, listChunks, extension);
+        }
 
-            if (marker.contains("*")) {
-                String[] pieces = marker.split("\\*");
-                FilePath path = new FilePath(fileBase, pathName);
-                List<FilePath> files = path.list();
-                for (FilePath file:files){
-                    boolean detectedField = false;
-                    String name = file.getName();
-                    String nextShortName = shortName;
-                    String nextPathName = pathName + "\\" + name;
-
-                    // Check compatible with
-                    int baseIndex = 0, newIndex;
-                    for (String piece:pieces){
-                        newIndex = name.indexOf(piece, baseIndex);
-                        if (newIndex == -1) {
-                            nextShortName = null;
-                            break;
+        /**
+         *  Recursive  identification of input files considering wildcard
+         *  <p>
+         *  Chunks sharing the same marker at the active index are processed together once.
+         *
+         * @param fileBase Workspace folder
+         * @param shortName Condensed path name to detected file location
+         * @param pathName Path name relative to the workspace of the detected file location
+         * @param index Location identified content inside the active string
+         * @param listChunks List of chunks to check to identify active files
+         * @param extension File extension that determine format for processing
+         * @return Map with shorten filename and relative path of the file
+         */
+        private static Map<String, String> processChunks(File fileBase, String shortName, String pathName, int index, List<String[]> listChunks, String extension) throws InterruptedException {
+
+            // Group the chunks by marker, in order of appearance
+            Map<String, List<String[]>> markers = new LinkedHashMap<String, List<String[]>>();
+            for (String[] individual : listChunks) {
+                if (individual.length < index + 1) {
+                    continue;
+                }
+                List<String[]> list = markers.get(individual[index]);
+                if (list == null) {
+                    list = new ArrayList<String[]>();
+                    markers.put(individual[index], list);
+                }
+                list.add(individual);
+            }
+
+            int numOriginal = listChunks.size();
+            Map<String, String> result = new HashMap<String, String>();
+            for (Map.Entry<String, List<String[]>> entry : markers.entrySet()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                String marker = entry.getKey();
+                List<String[]> list = entry.getValue();
+
+                if (marker.contains("*")) {
+                    String[] pieces = marker.split("\\*");
+                    String[] names = new File(fileBase, pathName).list();
+                    if (names == null) {
+                        continue;
+                    }
+                    for (String name : names) {
+                        boolean detectedField = false;
+                        String nextShortName = shortName;
+
+                        // Check compatible with
+                        int baseIndex = 0, newIndex;
+                        for (String piece : pieces) {
+                            newIndex = name.indexOf(piece, baseIndex);
+                            if (newIndex == -1) {
+                                nextShortName = null;
+                                break;
+                            }
+                            if (baseIndex != newIndex) {
+                                detectedField = true;
+                            }
+                            baseIndex = newIndex + piece.length();
                         }
-                        if (baseIndex != newIndex) {
+                        if (nextShortName == null) {
+                            continue;
+                        }
+                        if (baseIndex < name.length()) {
                             detectedField = true;
                         }
-                        baseIndex = newIndex + piece.length();
-
-                    }
-                    if (nextShortName != null && baseIndex < name.length()) {
-                        detectedField = true;
+                        if (detectedField) {
+                            if (nextShortName.length() == 0) {
+                                nextShortName = name;
+                            } else {
+                                nextShortName += "\\" + name;
+                            }
+                        }
+                        addMatch(result, fileBase, nextShortName, getChildPath(pathName, name), index, list, extension);
                     }
-                    if (detectedField){
+                } else {
+                    String nextShortName = shortName;
+                    if (numOriginal != list.size()) {
                         if (nextShortName.length() == 0) {
-                            nextShortName = name;
+                            nextShortName += marker;
                         } else {
-                            nextShortName += "\\" + name;
-                        }
-                    }
-
-                    if (nextShortName != null) {
-                        for (String[] individual_2:list) {
-                            String[] newIndividual = individual_2.clone();
-                            newIndividual[index] = file.getName();
-                        }
-
-                        FilePath nextFile = new FilePath(fileBase, nextPathName);
-                        if (nextFile.isDirectory()) {
-                            result.putAll(processChunks(fileBase, nextShortName, nextPathName, index + 1, list, extension));
-                        } else if (file.exists() && isFileWithExtension(nextFile, extension)) {
-                            result.put(nextShortName, nextFile);
+                            nextShortName += "\\" + marker;
                         }
                     }
-                }
-            } else {
-                String nextShortName = shortName;
-                if (numOriginal != list.size()) {
-                    if (nextShortName.length() == 0 ){
-                        nextShortName += marker;
-                    } else {
-                        nextShortName += "\\" + marker;
-                    }
-                }
-                String nextPathName = "";
-                if (pathName.length() == 0) {
-                    nextPathName = marker;
-                } else {
-                    nextPathName = pathName + "\\" + marker;
-                }
-
-                FilePath file = new FilePath(fileBase, nextPathName);
-                if (file.isDirectory()) {
-                    result.putAll(processChunks(fileBase, nextShortName, nextPathName, index + 1, list, extension));
-                } else if (file.exists() && isFileWithExtension(file, extension)) {
-                    result.put(nextShortName, file);
+                    addMatch(result, fileBase, nextShortName, getChildPath(pathName, marker), index, list, extension);
                 }
             }
+            return result;
         }
-        return result;
-    }
 
-    /**
-     * Confirm whether the filename has the right extension
-     *
-     * @param file File name
-     * @param extension Extension to search for
-     * @return Whether file has extension
-     */
-    private static boolean isFileWithExtension(String file, String extension) {
-
-        try {
-            return extension.equalsIgnoreCase(file.substring(file.lastIndexOf(".") + 1));
-        } catch (Exception e) {
-            return false;
+        /**
+         * Descend into a matching folder or record a matching file
+         */
+        private static void addMatch(Map<String, String> result, File fileBase, String shortName, String pathName, int index, List<String[]> list, String extension) throws InterruptedException {
+            File file = new File(fileBase, pathName);
+            if (file.isDirectory()) {
+                result.putAll(processChunks(fileBase, shortName, pathName, index + 1, list, extension));
+            } else if (file.exists() && isFileWithExtension(file.getName(), extension)) {
+                result.put(shortName, pathName);
+            }
         }
-    }
 
-    /**
-     * Confirm whether the filename has the right extension
-     *
-     * @param file File name
-     * @param extension Extension to search for
-     * @return Whether file has extension
-     */
-    private static boolean isFileWithExtension(FilePath file, String extension) {
-
-        String name = file.getName();
-        try {
-            return extension.equalsIgnoreCase(name.substring(name.lastIndexOf(".") + 1));
-        } catch (Exception e) {
-            return false;
+        private static String getChildPath(String pathName, String name) {
+            if (pathName.length() == 0) {
+                return name;
+            }
+            return pathName + "/" + name;
         }
     }
 
     /**
-     * Determine if a string is a valid JSON.
-     * @param sContent String with Json content
-     * @return Json Element in GSON format
+     * Mapping of the result files executed on the node hosting the workspace
+     * <p>
+     * The files are read and mapped next to the workspace, only the compressed export of the mapped results is returned.
      */
-    private static JsonElement getJSON(String sContent) throws JsonIOException, JsonSyntaxException{
-        JsonParser parser = new JsonParser();
-        JsonElement content = parser.parse(sContent);
-        return content;
-    }
+    private static final class FileMapper extends MasterToSlaveFileCallable<byte[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        // Variables
+
+        private final int           buildNumber;
+        private final String        searchFilePattern;
+        private final String        schema;
+        private final boolean       truncateStrings;
+        private final String        thresholds;
+        private final String        job;
+        private final TaskListener  listener;
+
+        // Constructor
+
+        FileMapper(int buildNumber, String searchFilePattern, String schema, boolean truncateStrings, String thresholds, String job, TaskListener listener) {
+            this.buildNumber = buildNumber;
+            this.searchFilePattern = searchFilePattern;
+            this.schema = schema;
+            this.truncateStrings = truncateStrings;
+            this.thresholds = thresholds;
+            this.job = job;
+            this.listener = listener;
+        }
 
-    /**
-     * Determine if a string is a valid XML.
-     * @param xmlContent XML content file
-     * @return Reference to XML document.
-     */
-    private static Document getXML(String xmlContent) throws ParserConfigurationException, SAXException, IOException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setValidating(false);
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        return builder.parse(new InputSource(new StringReader(xmlContent)));
-    }
+        // Functions
 
-    //  Getter
+        public byte[] invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+            MapperBase mapper;
+            try {
+                mapper = map(buildNumber, new FilePath(workspace), searchFilePattern, schema, truncateStrings, listener);
+                List<Threshold> list = readThresholds(thresholds);
+                if (list.size() > 0) {
+                    mapper.addAllThresholds(list);
+                }
+            } catch (ValidationException e) {
+                throw new IOException(e.getMessage(), e);
+            }
 
-    public MapperBase getMapper() {
-        return mapper;
+            File file = File.createTempFile("BenchmarkMapping", ".json");
+            InputStream inputStream = null;
+            try {
+                if (!mapper.exportMappingToFile(file.getAbsolutePath(), job, true)) {
+                    throw new IOException(Messages.FormatSelector_MappingNotTransferred());
+                }
+                inputStream = new FileInputStream(file);
+                return IOUtils.toByteArray(inputStream);
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+                file.delete();
+            }
+        }
     }
 }
\ No newline at end of file
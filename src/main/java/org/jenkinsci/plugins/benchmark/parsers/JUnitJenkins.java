@@ -21,16 +21,16 @@ package org.jenkinsci.plugins.benchmark.parsers;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.results.*;
 import org.jenkinsci.plugins.benchmark.utilities.FilePathGroup;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -74,81 +74,53 @@ public class JUnitJenkins extends MapperBase {
 
         this.builds.add(build);
 
-        Document document;
+        Report report;
         try{
-            document = getXML(filename);
+            report = readReport(filename);
         } catch(Exception e) {
             throw new IOException(Messages.jUnitJenkins_FileFormatNotRecognizedAsXml(filename.getName()));
         }
 
-        Element element = document.getDocumentElement();
-
         // Plugin information
         StringValue plugin = null;
-        String text = element.getAttribute("plugin");
+        String text = report.plugin;
         if (text != null && !text.isEmpty()) {
             int hash = "plugin".hashCode();
-            plugin = (StringValue)parameters.get(hash);
+            plugin = (StringValue) groups.get(hash);
             if (plugin == null) {
-                plugin = new StringValue(rootGroup, null,"plugin_version", null,  TestValue.ClassType.ct_parameter);
-                parameters.put(hash, plugin);
-                groups.put(hash, plugin);
-                rootGroup.addGroup(plugin);
+                plugin = (StringValue) addParameter(hash, rootGroup, new StringValue(rootGroup, null,"plugin_version", null,  TestValue.ClassType.ct_parameter));
             }
             plugin.setValue(build, text);
         }
 
-
+        // Total duration
         DoubleValue total_duration = null;
-        BooleanValue longStdio = null;
-        for (Node nCNode = element.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            if (nCNode.getNodeType() == Node.ELEMENT_NODE) {
-                String nodeText = nCNode.getNodeName();
-                if (nodeText.equals("duration")) {
-                    // Total duration
-                    text = nCNode.getTextContent();
-                    if (text != null && !text.isEmpty()) {
-                        Double duration = Double.parseDouble(text);
-                        if (duration > 0) {
-                            int hash = "duration".hashCode();
-                            total_duration = (DoubleValue) parameters.get(hash);
-                            if (total_duration == null) {
-                                total_duration = new DoubleValue(rootGroup, null, "all_tests_duration", TestValue.ClassType.ct_parameter);
-                                parameters.put(hash, total_duration);
-                                groups.put(hash, total_duration);
-                                rootGroup.addGroup(total_duration);
-                            }
-                            total_duration.setValue(build, duration);
-                        }
-                    }
-                } else if (nodeText.equals("keepLongStdio")) {
-                    // If overall keep long string
-                    text = nCNode.getTextContent();
-                    if (text != null && !text.isEmpty()) {
-                        Boolean keepLongStdio = Boolean.parseBoolean(text);
-                        if (keepLongStdio != null) {
-                            int hash = "keepLongStdio".hashCode();
-                            longStdio = (BooleanValue) parameters.get(hash);
-                            if (longStdio == null) {
-                                longStdio = new BooleanValue(rootGroup, null, "keep_long_stdio", TestValue.ClassType.ct_parameter);
-                                parameters.put(hash, longStdio);
-                                groups.put(hash, longStdio);
-                                rootGroup.addGroup(longStdio);
-                            }
-                            longStdio.setValue(build, keepLongStdio);
-                        }
-                    }
+        for (String durationText : report.durations) {
+            Double duration = Double.parseDouble(durationText);
+            if (duration > 0) {
+                int hash = "duration".hashCode();
+                total_duration = (DoubleValue) groups.get(hash);
+                if (total_duration == null) {
+                    total_duration = (DoubleValue) addParameter(hash, rootGroup, new DoubleValue(rootGroup, null, "all_tests_duration", TestValue.ClassType.ct_parameter));
                 }
+                total_duration.setValue(build, duration);
             }
         }
 
-        for (Node nCNode = element.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            if (nCNode.getNodeType() == Node.ELEMENT_NODE){
-                String nodeText = nCNode.getNodeName();
-                if (nCNode.getNodeName().equals("suites")) {
-                    ProcessXMLSuites(rootGroup, build, nCNode, plugin, total_duration, longStdio);
-                }
+        // If overall keep long string
+        BooleanValue longStdio = null;
+        for (String keepText : report.keepLongStdio) {
+            Boolean keepLongStdio = Boolean.parseBoolean(keepText);
+            int hash = "keepLongStdio".hashCode();
+            longStdio = (BooleanValue) groups.get(hash);
+            if (longStdio == null) {
+                longStdio = (BooleanValue) addParameter(hash, rootGroup, new BooleanValue(rootGroup, null, "keep_long_stdio", TestValue.ClassType.ct_parameter));
             }
+            longStdio.setValue(build, keepLongStdio);
+        }
+
+        for (List<Suite> suites : report.suites) {
+            ProcessSuites(rootGroup, build, suites, plugin, total_duration, longStdio);
         }
     }
 
@@ -156,54 +128,25 @@ public class JUnitJenkins extends MapperBase {
      * Process list of files and their result content
      * @param parent Root group
      * @param build Build number
-     * @param xNode XML content
+     * @param suites Suites of the report
      * @param plugin Plugin parameter
      * @param total_duration parameter
      * @param keepLongStdio Keep long string messages
-     * @throws IOException I/O Exception
-     * @throws InterruptedException Interrupted exception
      */
-    private void ProcessXMLSuites(TestGroup parent, Integer build, Node xNode, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio) throws IOException, InterruptedException{
-        int nFiles = 0;
+    private void ProcessSuites(TestGroup parent, Integer build, List<Suite> suites, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio) {
         List<FilePathGroup> filenames = new ArrayList<FilePathGroup>();
-        for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            if(nCNode.getNodeName().equals("suite")) {
-                for (Node nCNode2 = nCNode.getFirstChild(); nCNode2 != null; nCNode2 = nCNode2.getNextSibling()) {
-                    if (nCNode2.getNodeName().equals("file")) {
-                        String text = nCNode2.getTextContent();
-                        if (text != null && !text.isEmpty()) {
-                            filenames.add(new FilePathGroup(text));
-                            nFiles++;
-                        }
-                        break;
-                    }
-                }
+        for (Suite suite : suites) {
+            if (suite.file != null) {
+                filenames.add(suite.file);
             }
         }
 
-        if (filenames.size() != nFiles) {
-            throw new IOException(Messages.jUnitJenkins_WrongNumberOfFiles());
-        }
-
-        if (nFiles > 1) {
+        if (filenames.size() > 1) {
             RecurseNames(false, 0, "", filenames);
-
-            Node nCNode = xNode.getFirstChild();
-            for (FilePathGroup file : filenames) {
-                if (nCNode.getNodeName().equals("suite")) {
-                    ProcessXMLSuite(false, file, parent, build, nCNode, plugin, total_duration, keepLongStdio);
-                    nCNode = nCNode.getNextSibling();
-                }
-            }
-
-        } else {
-
-            for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-                if(nCNode.getNodeName().equals("suite")) {
-                    ProcessXMLSuite(true, null, parent, build, nCNode, plugin, total_duration, keepLongStdio);
-                }
-            }
-
+        }
+        for (Suite suite : suites) {
+            boolean singleFile = (filenames.size() <= 1 || suite.file == null);
+            ProcessSuite(singleFile, suite, parent, build, plugin, total_duration, keepLongStdio);
         }
     }
 
@@ -266,61 +209,46 @@ public class JUnitJenkins extends MapperBase {
 
     /**
      * Process file and its result content
+     * @param singleFile Whether the cases are attached directly to the parent
+     * @param suite Suite content
      * @param parent Root group
      * @param build Build number
-     * @param xNode XML content
      * @param plugin Plugin parameter
      * @param total_duration parameter
      * @param keepLongStdio Keep long string messages
      */
-    private void ProcessXMLSuite(boolean singleFile, FilePathGroup file, TestGroup parent, Integer build, Node xNode, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio){
+    private void ProcessSuite(boolean singleFile, Suite suite, TestGroup parent, Integer build, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio){
 
         Double      _duration = null;
 
-
         // Load parameters & file attribute
-        for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            String nodeText = nCNode.getNodeName();
-            if (nodeText.equals("duration")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _duration = Double.parseDouble(text);
-                }
-            }
+        if (suite.duration != null) {
+            _duration = Double.parseDouble(suite.duration);
         }
 
         // Create file group
         TestGroup _file = null;
         StringBuffer _key = new StringBuffer();
         if (!singleFile) {
-            for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-                if (nCNode.getNodeName().equals("name")) {
-                    String name = nCNode.getTextContent();
-                    if (name != null && !name.isEmpty()) {
-                        _key.append(name);
-                        int hash = _key.toString().hashCode();
-                        _file = files.get(hash);
-                        if (_file == null) {
-                            _file = new TestGroup(rootGroup, file.getRelativePath(), file.getFullPath(), TestValue.ClassType.ct_fileGrp);
-                            files.put(hash, _file);
-                            groups.put(hash, _file);
-                            rootGroup.addGroup(_file);
-                            detected.setFileDetected(true);
-                        }
-                        if (_duration != null && _duration > 0) {
-                            String key = _key.toString() + "file_duration";
-                            hash = key.hashCode();
-                            DoubleValue file_duration = (DoubleValue) parameters.get(hash);
-                            if (file_duration == null) {
-                                file_duration = new DoubleValue(_file, null, "file_duration", TestValue.ClassType.ct_parameter);
-                                parameters.put(hash, file_duration);
-                                groups.put(hash, file_duration);
-                                _file.addGroup(file_duration);
-                            }
-                            file_duration.setValue(build, _duration);
-                        }
-                        break;
+            if (suite.name != null) {
+                _key.append(suite.name);
+                int hash = _key.toString().hashCode();
+                _file = files.get(hash);
+                if (_file == null) {
+                    _file = new TestGroup(rootGroup, suite.file.getRelativePath(), suite.file.getFullPath(), TestValue.ClassType.ct_fileGrp);
+                    files.put(hash, _file);
+                    groups.put(hash, _file);
+                    rootGroup.addGroup(_file);
+                    detected.setFileDetected(true);
+                }
+                if (_duration != null && _duration > 0) {
+                    String key = _key.toString() + "file_duration";
+                    hash = key.hashCode();
+                    DoubleValue file_duration = (DoubleValue) groups.get(hash);
+                    if (file_duration == null) {
+                        file_duration = (DoubleValue) addParameter(hash, _file, new DoubleValue(_file, null, "file_duration", TestValue.ClassType.ct_parameter));
                     }
+                    file_duration.setValue(build, _duration);
                 }
             }
         } else {
@@ -328,26 +256,9 @@ public class JUnitJenkins extends MapperBase {
         }
 
         // Process related cases
-        for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            if (nCNode.getNodeName().equals("cases")) {
-                ProcessXMLCases(_file, build, _key.toString(), nCNode, plugin, total_duration, keepLongStdio);
-            }
-        }
-    }
-
-    /**
-     * Process group of cases and attach them to their parent file
-     * @param parent File group
-     * @param build Build number
-     * @param xNode XML content
-     * @param plugin Plugin parameter
-     * @param total_duration parameter
-     * @param keepLongStdio Keep long string messages
-     */
-    private void ProcessXMLCases(TestGroup parent, Integer build, String key, Node xNode, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio){
-        for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            if(nCNode.getNodeName().equals("case")){
-                ProcessXMLCase(parent, build, key, nCNode, plugin, total_duration, keepLongStdio);
+        if (_file != null) {
+            for (Case testCase : suite.cases) {
+                ProcessCase(_file, build, _key.toString(), testCase, plugin, total_duration, keepLongStdio);
             }
         }
     }
@@ -356,89 +267,92 @@ public class JUnitJenkins extends MapperBase {
      * Process case and attach them to their parent file
      * @param parent File group
      * @param build Build number
-     * @param xNode XML content
+     * @param key Key of the parent file
+     * @param testCase Case content
      * @param plugin Plugin parameter
      * @param total_duration parameter
      * @param keepLongStdio Keep long string messages
      */
-    private void ProcessXMLCase(TestGroup parent, Integer build, String key, Node xNode, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio){
+    private void ProcessCase(TestGroup parent, Integer build, String key, Case testCase, StringValue plugin, DoubleValue total_duration, BooleanValue keepLongStdio){
 
-        String      _group = null;
+        String      _group = testCase.className;
         Double      _duration = null;
         Integer     _failedSince = null;
-        Map<String, String> _messages = new HashMap<String, String>();
+        Map<String, String> _messages = testCase.messages;
 
         // Load parameters & file attribute
-        for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-            String nodeText = nCNode.getNodeName();
-            if (nodeText.equals("className")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _group = text;
+        if (testCase.failedSince != null) {
+            _failedSince = Integer.parseInt(testCase.failedSince);
+        }
+
+        // Create result
+        if (_failedSince != null) {
+            String _name = (testCase.testName != null) ? testCase.testName : "";
+            StringBuffer _key = new StringBuffer(key);
+            if (testCase.testName != null) {
+                if (_group != null && !_group.isEmpty()) {
+                    _key.append(_group);
+                }
+                _key.append(_name);
+                int hash = _key.toString().hashCode();
+                StringValue result = (StringValue) results.get(hash);
+                if (result == null) {
+                    result = new StringValue(parent, _group, _name);
+                    results.put(hash, result);
+                    groups.put(hash, result);
+                    parent.addGroup(result);
+                    detected.setGroupDetected(true);
+                }
+
+                if (_failedSince > 0) {
+                    result.setValue(build, "Failed");
+                    result.setFailedState(build, true);
+                } else {
+                    result.setValue(build, "Passed");
+                    result.setFailedState(build, false);
                 }
-            } else if (nodeText.equals("failedSince")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _failedSince = Integer.parseInt(text);
+                result.setMessages(build, _messages);
+                if (plugin != null) {
+                    result.setParameter(build,plugin);
                 }
-            } else if (nodeText.equals("skippedMessage")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _messages.put("skippedMessage", text);
+                if (total_duration != null) {
+                    result.setParameter(build, total_duration);
                 }
-            } else if (nodeText.equals("stdout")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _messages.put("stdout", text);
+                if (keepLongStdio != null) {
+                    result.setParameter(build, keepLongStdio);
                 }
-            } else if (nodeText.equals("stderr")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _messages.put("stdout", text);
+                // Add failedSince parameter
+                hash = (_key.toString() + "FailedSince").hashCode();
+                IntegerValue failedSince = (IntegerValue) groups.get(hash);
+                if (failedSince == null) {
+                    failedSince = (IntegerValue) addParameter(hash, result, new IntegerValue(result, "FailedSince", null, TestValue.ClassType.ct_parameter));
                 }
-            } else if (nodeText.equals("errorStackTrace")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _messages.put("errorStackTrace", text);
+                failedSince.setValue(build, _failedSince);
+                if (plugin != null) {
+                    failedSince.setParameter(build,plugin);
                 }
-            } else if (nodeText.equals("errorDetails")) {
-                String text = nCNode.getTextContent();
-                if (text != null && !text.isEmpty()) {
-                    _messages.put("errorDetails", text);
+                if (total_duration != null) {
+                    failedSince.setParameter(build, total_duration);
+                }
+                if (keepLongStdio != null) {
+                    failedSince.setParameter(build, keepLongStdio);
                 }
             }
-        }
-
-        // Create result
-        if (_failedSince != null) {
-            String _name = "";
-            StringBuffer _key = new StringBuffer(key);
-            for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-                if (nCNode.getNodeName().equals("testName")) {
-                    _name = nCNode.getTextContent();
-                    if (_name != null && !_name.isEmpty()) {
-                        if (_group != null && !_group.isEmpty()) {
-                            _key.append(_group);
-                        }
-                        _key.append(_name);
+            if (_failedSince == 0) {
+                // Create additional duration result
+                for (String text : testCase.durations) {
+                    _duration = Double.parseDouble(text);
+                    if (_duration > 0) {
+                        _key.append("duration");
                         int hash = _key.toString().hashCode();
-                        StringValue result = (StringValue) results.get(hash);
+                        DoubleValue result = (DoubleValue) results.get(hash);
                         if (result == null) {
-                            result = new StringValue(parent, _group, _name);
+                            result = new DoubleValue(parent, _group, _name + ".duration");
                             results.put(hash, result);
                             groups.put(hash, result);
                             parent.addGroup(result);
-                            detected.setGroupDetected(true);
                         }
-
-                        if (_failedSince > 0) {
-                            result.setValue(build, "Failed");
-                            result.setFailedState(build, true);
-                        } else {
-                            result.setValue(build, "Passed");
-                            result.setFailedState(build, false);
-                        }
-                        result.setMessages(build, _messages);
+                        result.setValue(build, _duration);
                         if (plugin != null) {
                             result.setParameter(build,plugin);
                         }
@@ -448,75 +362,273 @@ public class JUnitJenkins extends MapperBase {
                         if (keepLongStdio != null) {
                             result.setParameter(build, keepLongStdio);
                         }
-                        // Add failedSince parameter
-                        hash = (_key.toString() + "FailedSince").hashCode();
-                        IntegerValue failedSince = (IntegerValue)parameters.get(hash);
-                        if (failedSince == null) {
-                            failedSince = new IntegerValue(result, "FailedSince", null, TestValue.ClassType.ct_parameter);
-                            parameters.put(hash, failedSince);
-                            groups.put(hash, failedSince);
-                            result.addGroup(failedSince);
-                        }
-                        failedSince.setValue(build, _failedSince);
-                        if (plugin != null) {
-                            failedSince.setParameter(build,plugin);
-                        }
-                        if (total_duration != null) {
-                            failedSince.setParameter(build, total_duration);
-                        }
-                        if (keepLongStdio != null) {
-                            failedSince.setParameter(build, keepLongStdio);
-                        }
                         break;
                     }
                 }
             }
-            if (_failedSince == 0) {
-                // Create additional duration result
-                for (Node nCNode = xNode.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
-                    if (nCNode.getNodeName().equals("duration")) {
-                        String text = nCNode.getTextContent();
-                        if (text != null && !text.isEmpty()) {
-                            _duration = Double.parseDouble(text);
-                            if (_duration > 0) {
-                                _key.append("duration");
-                                int hash = _key.toString().hashCode();
-                                DoubleValue result = (DoubleValue) results.get(hash);
-                                if (result == null) {
-                                    result = new DoubleValue(parent, _group, _name + ".duration");
-                                    results.put(hash, result);
-                                    groups.put(hash, result);
-                                    parent.addGroup(result);
-                                }
-                                result.setValue(build, _duration);
-                                if (plugin != null) {
-                                    result.setParameter(build,plugin);
-                                }
-                                if (total_duration != null) {
-                                    result.setParameter(build, total_duration);
-                                }
-                                if (keepLongStdio != null) {
-                                    result.setParameter(build, keepLongStdio);
-                                }
-                                break;
-                            }
-                        }
+        }
+    }
+
+    /**
+     * Register a new parameter under its group hash, as the results reference their parameters by group hash
+     * The parameter already loaded under the same group hash is reused, if any.
+     * @param key Key of the parameter in the jUnit report
+     * @param parent Group the parameter is attached to
+     * @param parameter New parameter
+     * @return Registered parameter
+     */
+    private TestValue addParameter(int key, TestGroup parent, TestValue parameter) {
+        TestValue loaded = parameters.get(parameter.getGroupHash());
+        if (loaded != null && loaded.getClass() == parameter.getClass()) {
+            parameter = loaded;
+        } else {
+            parameters.put(parameter.getGroupHash(), parameter);
+            parent.addGroup(parameter);
+        }
+        groups.put(key, parameter);
+        return parameter;
+    }
+
+    /**
+     * Read the content of a Jenkins jUnit file used by the plugin
+     * <p>
+     * The file is streamed, only the suites, cases, durations, status and failure details are kept. The standard
+     * outputs of the cases, which can be very large, are skipped without being loaded.
+     * @param xmlFile Reference to XML file
+     * @return Content of the report
+     * @throws IOException If the file could not be read
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static Report readReport(File xmlFile) throws IOException, XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        InputStream input = new BufferedInputStream(new FileInputStream(xmlFile));
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(input);
+            Report report = new Report();
+            reader.nextTag();
+            report.plugin = reader.getAttributeValue(null, "plugin");
+            while (nextElement(reader)) {
+                String name = reader.getLocalName();
+                if (name.equals("suites")) {
+                    report.suites.add(readSuites(reader));
+                } else if (name.equals("duration")) {
+                    addText(report.durations, readText(reader));
+                } else if (name.equals("keepLongStdio")) {
+                    addText(report.keepLongStdio, readText(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return report;
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+            input.close();
+        }
+    }
+
+    /**
+     * Read the suites of the report
+     * @param reader Reader positioned on the start of the suites, left on their end
+     * @return Suites
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static List<Suite> readSuites(XMLStreamReader reader) throws XMLStreamException {
+        List<Suite> suites = new ArrayList<Suite>();
+        while (nextElement(reader)) {
+            if (reader.getLocalName().equals("suite")) {
+                suites.add(readSuite(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return suites;
+    }
+
+    /**
+     * Read a suite and its cases
+     * @param reader Reader positioned on the start of the suite, left on its end
+     * @return Suite
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static Suite readSuite(XMLStreamReader reader) throws XMLStreamException {
+        Suite suite = new Suite();
+        boolean fileRead = false;
+        while (nextElement(reader)) {
+            String name = reader.getLocalName();
+            if (name.equals("file") && !fileRead) {
+                String text = readText(reader);
+                if (!text.isEmpty()) {
+                    suite.file = new FilePathGroup(text);
+                }
+                fileRead = true;
+            } else if (name.equals("name")) {
+                String text = readText(reader);
+                if (suite.name == null && !text.isEmpty()) {
+                    suite.name = text;
+                }
+            } else if (name.equals("duration")) {
+                String text = readText(reader);
+                if (!text.isEmpty()) {
+                    suite.duration = text;
+                }
+            } else if (name.equals("cases")) {
+                while (nextElement(reader)) {
+                    if (reader.getLocalName().equals("case")) {
+                        suite.cases.add(readCase(reader));
+                    } else {
+                        skipElement(reader);
                     }
                 }
+            } else {
+                skipElement(reader);
             }
         }
+        return suite;
     }
 
     /**
-     * Determine if a file is a valid XML.
-     * @param xmlFile Reference to XML file
-     * @return Reference to XML document.
+     * Read a case, its standard outputs are skipped
+     * @param reader Reader positioned on the start of the case, left on its end
+     * @return Case
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static Case readCase(XMLStreamReader reader) throws XMLStreamException {
+        Case testCase = new Case();
+        while (nextElement(reader)) {
+            String name = reader.getLocalName();
+            if (name.equals("className")) {
+                String text = readText(reader);
+                if (!text.isEmpty()) {
+                    testCase.className = text;
+                }
+            } else if (name.equals("testName")) {
+                String text = readText(reader);
+                if (testCase.testName == null && !text.isEmpty()) {
+                    testCase.testName = text;
+                }
+            } else if (name.equals("failedSince")) {
+                String text = readText(reader);
+                if (!text.isEmpty()) {
+                    testCase.failedSince = text;
+                }
+            } else if (name.equals("duration")) {
+                addText(testCase.durations, readText(reader));
+            } else if (name.equals("skippedMessage") || name.equals("errorStackTrace") || name.equals("errorDetails")) {
+                String text = readText(reader);
+                if (!text.isEmpty()) {
+                    testCase.messages.put(name, text);
+                }
+            } else {
+                skipElement(reader);
+            }
+        }
+        return testCase;
+    }
+
+    /**
+     * Move to the next child element of the current element
+     * @param reader Reader positioned inside an element
+     * @return Whether a child element was found, otherwise the reader is left on the end of the current element
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the text content of the current element, including the one of its children
+     * @param reader Reader positioned on the start of the element, left on its end
+     * @return Text content
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    text.append(reader.getText());
+                    break;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Skip the current element and its content
+     * @param reader Reader positioned on the start of the element, left on its end
+     * @throws XMLStreamException If the file is not a valid XML
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static void addText(List<String> list, String text) {
+        if (!text.isEmpty()) {
+            list.add(text);
+        }
+    }
+
+    /**
+     * Content of a Jenkins jUnit file used by the plugin
+     */
+    private static final class Report {
+        private String              plugin;
+        private final List<String>  durations = new ArrayList<String>();
+        private final List<String>  keepLongStdio = new ArrayList<String>();
+        private final List<List<Suite>> suites = new ArrayList<List<Suite>>();
+    }
+
+    /**
+     * Content of a suite, one per result file
+     */
+    private static final class Suite {
+        private FilePathGroup       file;
+        private String              name;
+        private String              duration;
+        private final List<Case>    cases = new ArrayList<Case>();
+    }
+
+    /**
+     * Content of a case
      */
-    private Document getXML(File xmlFile) throws ParserConfigurationException, SAXException, IOException, InterruptedException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setValidating(false);
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        return builder.parse(xmlFile);
+    private static final class Case {
+        private String              className;
+        private String              testName;
+        private String              failedSince;
+        private final List<String>  durations = new ArrayList<String>();
+        private final Map<String, String> messages = new HashMap<String, String>();
     }
 }
\ No newline at end of file
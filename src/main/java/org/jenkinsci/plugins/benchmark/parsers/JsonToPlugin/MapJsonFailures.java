@@ -58,8 +58,42 @@ public class MapJsonFailures {
         }
     }
 
+    private MapJsonFailures(List<TestFailure> failures) {
+        this.failures = failures;
+    }
+
     // Functions
 
+    /**
+     * Compile the failures defined directly inside a schema block
+     * @param eSchema Content from schema file
+     * @return Compiled failures, null if the definitions are invalid
+     */
+    static MapJsonFailures compile(JsonElement eSchema) {
+        try {
+            return new MapJsonFailures(null, eSchema);
+        } catch (ValidationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Combine with the failures inherited from the parent blocks
+     * @param oFailures Previously registered failures
+     * @return Combined failures
+     */
+    MapJsonFailures with(MapJsonFailures oFailures) {
+        if (oFailures == null || !oFailures.hasFailures()) {
+            return this;
+        }
+        if (!hasFailures()) {
+            return oFailures;
+        }
+        List<TestFailure> combined = new ArrayList<TestFailure>(failures);
+        combined.addAll(oFailures.getFailures());
+        return new MapJsonFailures(combined);
+    }
+
     /**
      * Load all the failures detected inside the passed JsonElement
      * @param {JsonElement} eSchema
@@ -135,7 +169,7 @@ public class MapJsonFailures {
                         try{
                             failures.add(new TestFailure(pType.getAsDouble(), compareType));
                         } catch (Exception e) {
-                            throw new ValidationException(Messages.MapJsonFailures_CompareIsNotRecognisedAsType(compareType, parent.getName()));
+                            throw new ValidationException(Messages.MapJsonFailures_CompareIsNotRecognisedAsType(compareType, (parent == null) ? "" : parent.getName()));
                         }
                     }
                 }
@@ -143,7 +177,7 @@ public class MapJsonFailures {
             if (entryFailure.getKey().equals("key")) {
                 JsonElement eType = entryFailure.getValue();
                 if (eType.isJsonPrimitive()) {
-                    JsonPrimitive pType = eFailure.getAsJsonPrimitive();
+                    JsonPrimitive pType = eType.getAsJsonPrimitive();
                     if (pType.isString())
                         failures.add(new TestFailure(pType.getAsString(), true));
                 }
@@ -116,7 +116,7 @@ public class MapJsonGroup {
      * @param {JsonObject} schema
      * @return {GroupTags} Enum value for Group tag
      */
-    private GroupTags getGroupTag(JsonObject schemaObj){
+    private static GroupTags getGroupTag(JsonObject schemaObj){
         String type = "";
         for (Map.Entry<String, JsonElement> entrySchema :schemaObj.entrySet()) {
             if (entrySchema.getKey().equals("type")) {
@@ -136,6 +136,15 @@ public class MapJsonGroup {
             return GroupTags.gt_unknown;
     }
 
+    /**
+     * Determine if a schema entry holds the name or the description of a group
+     * @param schemaObj Schema of the entry
+     * @return Whether the entry names or describes the group
+     */
+    static boolean isGroupAttribute(JsonObject schemaObj){
+        return getGroupTag(schemaObj) != GroupTags.gt_unknown;
+    }
+
     // Getter
 
     public TestGroup getGroup() { return group; }
@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapping plan compiled from a JSON schema block
+ * <p>
+ * The type, failure definitions and sub-blocks of the schema are resolved once, the plan is then executed
+ * against the content of each result file without inspecting the schema again.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class MapJsonPlan {
+
+    // Variables
+
+    private final JsonObject                 schema;
+    private final MapJsonToPlugin.GroupTags  tag;
+    private final JsonElement                properties;
+    private final Map<String, MapJsonPlan>   children;
+    private final MapJsonPlan                items;
+    private final MapJsonFailures            failures;
+
+    // Constructor
+
+    private MapJsonPlan(JsonElement eSchema) {
+        if (eSchema == null || !eSchema.isJsonObject()) {
+            schema = null;
+            tag = MapJsonToPlugin.GroupTags.gt_unknown;
+            properties = null;
+            children = Collections.emptyMap();
+            items = null;
+            failures = null;
+            return;
+        }
+        schema = eSchema.getAsJsonObject();
+        tag = getGroupTag(schema);
+        properties = schema.get("properties");
+        failures = MapJsonFailures.compile(schema);
+
+        // Sub-blocks of objects and results
+        Map<String, MapJsonPlan> blocks = new LinkedHashMap<String, MapJsonPlan>();
+        if ((tag == MapJsonToPlugin.GroupTags.gt_object || tag == MapJsonToPlugin.GroupTags.gt_result) && properties != null && properties.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : properties.getAsJsonObject().entrySet()) {
+                if (entry.getValue().isJsonObject()) {
+                    blocks.put(entry.getKey(), new MapJsonPlan(entry.getValue()));
+                }
+            }
+        }
+        children = Collections.unmodifiableMap(blocks);
+
+        // Items of arrays
+        JsonElement eItems = schema.get("items");
+        if (tag == MapJsonToPlugin.GroupTags.gt_array && eItems != null && eItems.isJsonObject()) {
+            items = new MapJsonPlan(eItems);
+        } else {
+            items = null;
+        }
+    }
+
+    // Functions
+
+    /**
+     * Compile a JSON schema into a mapping plan
+     * @param eSchema Content from schema file
+     * @return Mapping plan
+     */
+    public static MapJsonPlan compile(JsonElement eSchema) {
+        return new MapJsonPlan(eSchema);
+    }
+
+    /**
+     * Failures applicable to the content of this block
+     * @param parent Pointer to parent group
+     * @param oldFailures Previously registered failures
+     * @return Failures of this block followed by the inherited ones
+     * @throws ValidationException If the failure definitions of this block are invalid
+     */
+    MapJsonFailures getFailures(TestGroup parent, MapJsonFailures oldFailures) throws ValidationException {
+        if (failures == null) {
+            // Load again to report the error against the content being mapped
+            return new MapJsonFailures(parent, schema, oldFailures);
+        }
+        return failures.with(oldFailures);
+    }
+
+    /**
+     * Retrieve the type of Group tag associate to 'type'
+     * @param oSchema Schema Json object
+     * @return Enum value for Group tag
+     */
+    private static MapJsonToPlugin.GroupTags getGroupTag(JsonObject oSchema){
+        String type = "";
+        JsonElement eType = oSchema.get("type");
+        if (eType != null && eType.isJsonPrimitive()) {
+            JsonPrimitive primitive = eType.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                type = primitive.getAsString();
+            }
+        }
+        type = type.toLowerCase();
+        if (type.equals("object")) {
+            return MapJsonToPlugin.GroupTags.gt_object;
+        } else if (type.equals("array")) {
+            return MapJsonToPlugin.GroupTags.gt_array;
+        } else if (type.equals("resultfull")) {
+            return MapJsonToPlugin.GroupTags.gt_result;
+        } else if (type.equals("result")) {
+            return MapJsonToPlugin.GroupTags.gt_result;
+        } else if (type.equals("booleankey")) {
+            return MapJsonToPlugin.GroupTags.gt_booleankey;
+        } else if (type.equals("threshold")) {
+            return MapJsonToPlugin.GroupTags.gt_threshold;
+        } else if (type.equals("parameterfull")) {
+            return MapJsonToPlugin.GroupTags.gt_parameter;
+        } else if (type.equals("parameter")) {
+            return MapJsonToPlugin.GroupTags.gt_parameter;
+        } else {
+            return MapJsonToPlugin.GroupTags.gt_unknown;
+        }
+    }
+
+    // Getters
+
+    public boolean isBlock() { return (schema != null); }
+    JsonObject getSchema() { return schema; }
+    MapJsonToPlugin.GroupTags getTag() { return tag; }
+    JsonElement getProperties() { return properties; }
+    Map<String, MapJsonPlan> getChildren() { return children; }
+    MapJsonPlan getItems() { return items; }
+}
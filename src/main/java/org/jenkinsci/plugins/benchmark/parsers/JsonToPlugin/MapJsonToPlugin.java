@@ -19,18 +19,26 @@
 package org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import hudson.FilePath;
 import hudson.model.TaskListener;
+import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
 import org.jenkinsci.plugins.benchmark.results.StringValue;
 import org.jenkinsci.plugins.benchmark.results.TestGroup;
 import org.jenkinsci.plugins.benchmark.results.TestValue;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.jenkinsci.plugins.benchmark.utilities.LoaderExecutor;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Parser from JSON to the Jenkins plugin data construct
@@ -52,9 +60,18 @@ public class MapJsonToPlugin extends MapperBase {
         gt_parameter,
     }
 
+    // Variables
+
+    // Result files above this size are streamed through the plan instead of being loaded as a whole
+    static final long STREAMING_THRESHOLD = 16L * 1024L * 1024L;
+
     // Constructor
 
     public MapJsonToPlugin(Integer build, File content, JsonElement schema, boolean truncateStrings) throws IOException, ValidationException{
+        this(build, content, MapJsonPlan.compile(schema), truncateStrings);
+    }
+
+    public MapJsonToPlugin(Integer build, File content, MapJsonPlan plan, boolean truncateStrings) throws IOException, ValidationException{
         super(build, truncateStrings);
 
         JsonElement jContent;
@@ -64,12 +81,35 @@ public class MapJsonToPlugin extends MapperBase {
             throw new IOException(Messages.MapJsonToPlugin_FileFormatNotRecognisedAsJson(content.getName()));
         }
 
-        InitiateLoading(rootGroup, jContent, schema);
+        InitiateLoading(rootGroup, jContent, plan);
     }
 
     public MapJsonToPlugin(Integer build, FilePath content, JsonElement schema, boolean truncateStrings) throws IOException, ValidationException {
+        this(build, content, MapJsonPlan.compile(schema), truncateStrings);
+    }
+
+    public MapJsonToPlugin(Integer build, FilePath content, MapJsonPlan plan, boolean truncateStrings) throws IOException, ValidationException {
+        this(build, content, plan, truncateStrings, isStreamed(content));
+    }
+
+    /**
+     * Map a single result file
+     * @param build Build number
+     * @param content Result file
+     * @param plan Mapping plan compiled from the schema
+     * @param truncateStrings Whether strings are truncated
+     * @param streamed Whether the file is streamed through the plan instead of being loaded as a whole
+     * @throws IOException If the file could not be read or is not a valid JSON
+     * @throws ValidationException If validation error occur
+     */
+    MapJsonToPlugin(Integer build, FilePath content, MapJsonPlan plan, boolean truncateStrings, boolean streamed) throws IOException, ValidationException {
         super(build, truncateStrings);
 
+        if (streamed) {
+            StreamFile(rootGroup, content, plan);
+            return;
+        }
+
         JsonElement jContent;
         try{
             jContent = getJSON(content);
@@ -77,46 +117,66 @@ public class MapJsonToPlugin extends MapperBase {
             throw new IOException(Messages.MapJsonToPlugin_FileFormatNotRecognisedAsJson(content.getName()));
         }
 
-        InitiateLoading(rootGroup, jContent, schema);
+        InitiateLoading(rootGroup, jContent, plan);
     }
 
     public MapJsonToPlugin(Integer build, Map<String, FilePath> content, JsonElement schema, boolean truncateStrings, TaskListener listener) throws IOException, ValidationException {
+        this(build, content, MapJsonPlan.compile(schema), truncateStrings, listener);
+    }
+
+    public MapJsonToPlugin(Integer build, Map<String, FilePath> content, final MapJsonPlan plan, boolean truncateStrings, TaskListener listener) throws IOException, ValidationException {
         super(build, truncateStrings);
 
         listener.getLogger().println(Messages.MapJsonToPlugin_ListOfFilesDetected());
 
-        JsonElement jContent;
-        int files_processed = 0;
-        for(Map.Entry<String, FilePath> entry:content.entrySet()) {
-
-            String relativePath = FilePathToString(entry.getValue());
+        // Map each file into its own partial mapper
+        List<Callable<FileMapping>> tasks = new ArrayList<Callable<FileMapping>>(content.size());
+        for (final Map.Entry<String, FilePath> entry : content.entrySet()) {
+            tasks.add(new Callable<FileMapping>() {
+                @Override
+                public FileMapping call() {
+                    return mapFile(entry.getKey(), entry.getValue(), plan);
+                }
+            });
+        }
+        List<FileMapping> mappings;
+        try {
+            mappings = LoaderExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
 
-            try {
-                jContent = getJSON(entry.getValue());
-            } catch (Exception e) {
-                listener.getLogger().println("   - " + Messages.MapJsonToPlugin_PrintFailedToIdentifyFile(relativePath));
+        // Attach files in listing order
+        int files_processed = 0;
+        for (FileMapping mapping : mappings) {
+            if (!mapping.isIdentified()) {
+                listener.getLogger().println("   - " + Messages.MapJsonToPlugin_PrintFailedToIdentifyFile(mapping.getRelativePath()));
                 continue;
             }
-
-            try {
-                TestGroup group = new TestGroup(rootGroup, entry.getKey(), relativePath, TestValue.ClassType.ct_fileGrp);
-                files.put(group.getGroupHash(), group);
-                groups.put(group.getGroupHash(), group);
-                rootGroup.addGroup(group);
-
-                InitiateLoading(group, jContent, schema);
-                listener.getLogger().println("   - " + relativePath);
-                files_processed++;
-            } catch (Exception e){
-                listener.getLogger().println("   - " + Messages.MapJsonToPlugin_PrintFailedToLoadFile(relativePath));
+            attachFile(mapping);
+            if (!mapping.isLoaded()) {
+                listener.getLogger().println("   - " + Messages.MapJsonToPlugin_PrintFailedToLoadFile(mapping.getRelativePath()));
                 continue;
             }
+            listener.getLogger().println("   - " + mapping.getRelativePath());
+            files_processed++;
         }
         if (files_processed == 0) {
             throw new ValidationException(Messages.MapJsonToPlugin_NoValidFileFound());
         }
     }
 
+    /**
+     * Mapper for the content of a single file, attached to the root group of the main mapper
+     * @param build Build number
+     * @param truncateStrings Whether strings are truncated
+     * @param rootGroup Root group of the main mapper
+     */
+    private MapJsonToPlugin(Integer build, boolean truncateStrings, TestGroup rootGroup) {
+        super(build, truncateStrings, rootGroup);
+    }
+
     public MapJsonToPlugin(Integer build, FilePath content, String schema, boolean truncateStrings) throws IOException, ValidationException {
         super(build, truncateStrings);
 
@@ -135,7 +195,7 @@ public class MapJsonToPlugin extends MapperBase {
             throw new IOException(Messages.MapJsonToPlugin_FileFormatNotRecognisedAsJson(content.getName()));
         }
 
-        InitiateLoading(rootGroup, jContent, jSchema);
+        InitiateLoading(rootGroup, jContent, MapJsonPlan.compile(jSchema));
     }
 
     public MapJsonToPlugin(Integer build, Map<String, FilePath> content, String schema, boolean truncateStrings) throws IOException, ValidationException {
@@ -148,6 +208,7 @@ public class MapJsonToPlugin extends MapperBase {
             throw new IOException(Messages.MapJsonToPlugin_SchemaNotRecognisedAsJson());
         }
 
+        MapJsonPlan plan = MapJsonPlan.compile(jSchema);
         JsonElement jContent;
         for(Map.Entry<String, FilePath> entry:content.entrySet()) {
             try {
@@ -176,12 +237,57 @@ public class MapJsonToPlugin extends MapperBase {
             groups.put(group.getGroupHash(), group);
             rootGroup.addGroup(group);
 
-            InitiateLoading(group, jContent, jSchema);
+            InitiateLoading(group, jContent, plan);
         }
     }
 
     // Functions
 
+    /**
+     * Map one result file into its own partial mapper, run on the loader pool
+     * @param key File key
+     * @param file Result file
+     * @param plan Mapping plan compiled from the JSON schema
+     * @return Mapping of the file
+     */
+    private FileMapping mapFile(String key, FilePath file, MapJsonPlan plan) {
+        MapJsonToPlugin partial = new MapJsonToPlugin(getBuild(), truncateStrings, rootGroup);
+        FileMapping mapping = new FileMapping(partial, FilePathToString(file));
+
+        if (isStreamed(file)) {
+            TestGroup group = new TestGroup(rootGroup, key, mapping.getRelativePath(), TestValue.ClassType.ct_fileGrp);
+            try {
+                partial.StreamFile(group, file, plan);
+                mapping.setLoaded();
+            } catch (ValidationException e) {
+                // Reported when the file is attached
+            } catch (IOException e) {
+                return mapping;
+            }
+            mapping.setIdentified();
+            mapping.setGroup(group);
+            return mapping;
+        }
+
+        JsonElement jContent;
+        try {
+            jContent = getJSON(file);
+        } catch (Exception e) {
+            return mapping;
+        }
+        mapping.setIdentified();
+
+        try {
+            TestGroup group = new TestGroup(rootGroup, key, mapping.getRelativePath(), TestValue.ClassType.ct_fileGrp);
+            mapping.setGroup(group);
+            partial.InitiateLoading(group, jContent, plan);
+            mapping.setLoaded();
+        } catch (Exception e) {
+            // Reported when the file is attached
+        }
+        return mapping;
+    }
+
     /**
      * Determine if a file is a valid JSON.
      * @param jsonFile JSON file
@@ -218,11 +324,11 @@ public class MapJsonToPlugin extends MapperBase {
     /**
      * Initiate the loading of file content
      * @param eContent Content from result file
-     * @param eSchema Content from schema file
+     * @param plan Mapping plan compiled from the schema
      * @throws ValidationException If validation error occur
      */
-    private void InitiateLoading(TestGroup group, JsonElement eContent, JsonElement eSchema) throws ValidationException {
-        ProcessBlock(group, "__first__", eContent, eSchema, null);
+    private void InitiateLoading(TestGroup group, JsonElement eContent, MapJsonPlan plan) throws ValidationException {
+        ProcessBlock(group, "__first__", eContent, plan, null);
     }
 
     /**
@@ -230,83 +336,325 @@ public class MapJsonToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with content from result file
      * @param eContent Content from result file
-     * @param eSchema Content from schema file
+     * @param plan Mapping plan of the schema block
      * @param oldFailures Previously registered failures
      * @throws ValidationException If validation error occur
      */
-    private void ProcessBlock(TestGroup parent, String key, JsonElement eContent, JsonElement eSchema, MapJsonFailures oldFailures) throws ValidationException {
+    private void ProcessBlock(TestGroup parent, String key, JsonElement eContent, MapJsonPlan plan, MapJsonFailures oldFailures) throws ValidationException {
 
-        if (eSchema.isJsonObject()) {
-            JsonObject oSchema = eSchema.getAsJsonObject();
+        if (plan.isBlock()) {
 
             // Load boolean failure modes
-            MapJsonFailures failures = new MapJsonFailures(parent, eSchema, oldFailures);
+            MapJsonFailures failures = plan.getFailures(parent, oldFailures);
 
             // Switchboard
-            GroupTags type = getGroupTag(oSchema);
-            switch (type) {
+            JsonElement properties = plan.getProperties();
+            switch (plan.getTag()) {
                 case gt_result:
-                    boolean detResult = false;
-                    for (Map.Entry<String, JsonElement> entry : oSchema.entrySet()) {
-                        if (entry.getKey().equals("properties")) {
-                            ProcessResult(parent, key, eContent, entry.getValue(), failures);
-                            detResult = true;
-                            break;
-                        }
-                    }
-                    if (!detResult) {
-                        ProcessResultFull (parent, key, eContent, eSchema, failures, false);
+                    if (properties != null) {
+                        ProcessResult(parent, key, eContent, plan, failures);
+                    } else {
+                        ProcessResultFull (parent, key, eContent, plan.getSchema(), failures, false);
                     }
                     break;
 
                 case gt_booleankey:
-                    ProcessResultFull (parent, key, eContent, eSchema, failures, true);
+                    ProcessResultFull (parent, key, eContent, plan.getSchema(), failures, true);
                     break;
 
                 case gt_threshold:
-                    for (Map.Entry<String, JsonElement> entry : oSchema.entrySet()) {
-                        if (entry.getKey().equals("properties")) {
-                            ProcessThreshold(parent, key, eContent, entry.getValue(), failures);
-                            break;
-                        }
+                    if (properties != null) {
+                        ProcessThreshold(parent, key, eContent, properties, failures);
                     }
                     break;
 
                 case gt_parameter:
-                    boolean detParameter = false;
-                    for (Map.Entry<String, JsonElement> entry : oSchema.entrySet()) {
-                        if (entry.getKey().equals("properties")) {
-                            ProcessParameter(parent, key, eContent, entry.getValue(), failures);
-                            detParameter = true;
-                            break;
-                        }
-                    }
-                    if (!detParameter) {
-                        ProcessParameterFull (parent, key, eContent, eSchema, failures);
+                    if (properties != null) {
+                        ProcessParameter(parent, key, eContent, properties, failures);
+                    } else {
+                        ProcessParameterFull (parent, key, eContent, plan.getSchema(), failures);
                     }
                     break;
 
                 case gt_object:
-                    for (Map.Entry<String, JsonElement> entry : oSchema.entrySet()) {
-                        if (entry.getKey().equals("properties")) {
-                            ProcessObject(parent, key, eContent, entry.getValue(), failures);
-                            break;
-                        }
+                    if (properties != null) {
+                        ProcessObject(parent, key, eContent, plan, failures);
                     }
                     break;
 
                 case gt_array:
-                    for (Map.Entry<String, JsonElement> entry : oSchema.entrySet()) {
-                        if (entry.getKey().equals("items")) {
-                            ProcessArray(parent, key, eContent, entry.getValue(), failures);
-                            break;
-                        }
+                    if (plan.getItems() != null) {
+                        ProcessArray(parent, key, eContent, plan.getItems(), failures);
                     }
                     break;
             }
         }
     }
 
+    /**
+     * Determine if a result file is large enough to be streamed
+     * @param content Result file
+     * @return Whether the file is streamed
+     */
+    private static boolean isStreamed(FilePath content) {
+        try {
+            return content.length() > STREAMING_THRESHOLD;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stream the content of a result file through the plan
+     * <p>
+     * Objects and arrays are read member by member, the subtrees not referenced by the schema are skipped and
+     * only results, parameters and thresholds are loaded, one at a time.
+     * <p>
+     * The file is read twice. The first pass only collects the attributes of the objects mapped to groups, such as
+     * their name and description, and skips every other value. The second pass creates the group of each object
+     * from those attributes as soon as the object starts and maps its content as it is read. Groups are therefore
+     * named as when the file is loaded as a whole, wherever their attributes appear. The memory used is bounded by
+     * the attributes of the groups and the largest result, parameter or threshold, and not by the size of the file.
+     * Nested blocks are mapped in the order of the file.
+     * @param group Group the content is attached to
+     * @param content Result file
+     * @param plan Mapping plan compiled from the schema
+     * @throws IOException If the file could not be read or is not a valid JSON
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamFile(TestGroup group, FilePath content, MapJsonPlan plan) throws IOException, ValidationException {
+        JsonReader reader = null;
+        try {
+            List<JsonObject> attributes = new ArrayList<JsonObject>();
+            reader = getReader(content);
+            ReadAttributes(reader, plan, attributes);
+            reader.close();
+
+            reader = getReader(content);
+            StreamBlock(group, "__first__", reader, plan, null, attributes.iterator());
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(Messages.MapJsonToPlugin_FileFormatNotRecognisedAsJson(content.getName()), e);
+        } finally {
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Open a lenient reader on a result file
+     * @param content Result file
+     * @return Reader positioned at the start of the file
+     * @throws IOException If the file could not be opened
+     * @throws InterruptedException If interrupted while opening a remote file
+     */
+    private static JsonReader getReader(FilePath content) throws IOException, InterruptedException {
+        JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(content.read(), StandardCharsets.UTF_8)));
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /**
+     * Collect the attributes of the streamed objects, in the order they are streamed
+     * The whole document is consumed, only the attributes of the objects are kept.
+     * @param reader Reader positioned at the start of the file
+     * @param plan Mapping plan compiled from the schema
+     * @param attributes Attributes of each object, in the order the objects start
+     * @throws IOException If the file could not be read or is not a valid JSON
+     */
+    private static void ReadAttributes(JsonReader reader, MapJsonPlan plan, List<JsonObject> attributes) throws IOException {
+        ReadBlockAttributes(reader, plan, attributes);
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+    }
+
+    /**
+     * Collect the attributes of the objects of a block, following the same path as StreamBlock
+     * @param reader Reader positioned on the content of the block
+     * @param plan Mapping plan of the schema block
+     * @param attributes Attributes of each object, in the order the objects start
+     * @throws IOException If the content could not be read
+     */
+    private static void ReadBlockAttributes(JsonReader reader, MapJsonPlan plan, List<JsonObject> attributes) throws IOException {
+        if (plan.isBlock() && plan.getTag() == GroupTags.gt_object && plan.getProperties() != null && plan.getProperties().isJsonObject() && reader.peek() == JsonToken.BEGIN_OBJECT) {
+            int index = attributes.size();
+            attributes.add(null);
+            JsonObject object = new JsonObject();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                MapJsonPlan child = plan.getChildren().get(name);
+                JsonToken token = reader.peek();
+                if (child != null && child.getTag() == GroupTags.gt_unknown && (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN)) {
+                    object.add(name, new JsonParser().parse(reader));
+                } else if (child != null && (child.getTag() == GroupTags.gt_object || child.getTag() == GroupTags.gt_array)) {
+                    ReadBlockAttributes(reader, child, attributes);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            attributes.set(index, object);
+        } else if (plan.isBlock() && plan.getTag() == GroupTags.gt_array && plan.getItems() != null && reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    ReadBlockAttributes(reader, plan.getItems(), attributes);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+        } else {
+            reader.skipValue();
+        }
+    }
+
+    /**
+     * Stream block of data
+     * @param parent Pointer to parent group
+     * @param key Key associated with content from result file
+     * @param reader Reader positioned on the content of the block
+     * @param plan Mapping plan of the schema block
+     * @param oldFailures Previously registered failures
+     * @param attributes Attributes of the objects still to be streamed
+     * @throws IOException If the content could not be read
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamBlock(TestGroup parent, String key, JsonReader reader, MapJsonPlan plan, MapJsonFailures oldFailures, Iterator<JsonObject> attributes) throws IOException, ValidationException {
+
+        if (!plan.isBlock()) {
+            reader.skipValue();
+            return;
+        }
+
+        switch (plan.getTag()) {
+            case gt_object:
+                JsonElement properties = plan.getProperties();
+                MapJsonFailures objectFailures = plan.getFailures(parent, oldFailures);
+                if (properties != null && properties.isJsonObject() && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    StreamObject(parent, key, reader, plan, objectFailures, attributes);
+                } else {
+                    reader.skipValue();
+                }
+                break;
+
+            case gt_array:
+                MapJsonFailures arrayFailures = plan.getFailures(parent, oldFailures);
+                if (plan.getItems() != null && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    StreamArray(parent, key, reader, plan.getItems(), arrayFailures, attributes);
+                } else {
+                    reader.skipValue();
+                }
+                break;
+
+            case gt_unknown:
+                plan.getFailures(parent, oldFailures);
+                reader.skipValue();
+                break;
+
+            default:
+                // Results, parameters and thresholds are small, they are loaded and mapped as a whole
+                ProcessBlock(parent, key, new JsonParser().parse(reader), plan, oldFailures);
+        }
+    }
+
+    /**
+     * Stream the members of an object
+     *
+     * @param parent Pointer to parent group
+     * @param key Key associated with content from result file
+     * @param reader Reader positioned on the object
+     * @param plan Mapping plan of the object
+     * @param failures List of failure criteria
+     * @param attributes Attributes of the objects still to be streamed, starting with this one
+     * @throws IOException If the content could not be read
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamObject(TestGroup parent, String key, JsonReader reader, MapJsonPlan plan, MapJsonFailures failures, Iterator<JsonObject> attributes) throws IOException, ValidationException {
+
+        TestGroup group = StreamGroup(parent, key, attributes.next(), plan, failures);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            MapJsonPlan child = plan.getChildren().get(name);
+            if (child == null) {
+                reader.skipValue();
+            } else if (child.getTag() == GroupTags.gt_unknown) {
+                // Attribute of the group itself, read by the first pass
+                child.getFailures(parent, failures);
+                reader.skipValue();
+            } else {
+                StreamBlock(group, name, reader, child, failures, attributes);
+            }
+        }
+        reader.endObject();
+
+        // Detect if array of parameters
+        group.isParameterGrp();
+
+        // Detect if array of thresholds
+        group.isThresholdGrp();
+    }
+
+    /**
+     * Create the group of a streamed object from its attributes
+     *
+     * @param parent Pointer to parent group
+     * @param key Key associated with content from result file
+     * @param attributes Attributes of the object
+     * @param plan Mapping plan of the object
+     * @param failures List of failure criteria
+     * @return The new group associated with the object.
+     */
+    private TestGroup StreamGroup(TestGroup parent, String key, JsonObject attributes, MapJsonPlan plan, MapJsonFailures failures) {
+        MapJsonGroup content = new MapJsonGroup(parent, key, attributes, plan.getProperties().getAsJsonObject(), failures, truncateStrings);
+        TestGroup group = content.getGroup();
+        parent.addGroup(group);
+        groups.put(group.getGroupHash(), group);
+        return group;
+    }
+
+    /**
+     * Stream the items of an array
+     *
+     * @param parent Pointer to parent group
+     * @param key Key associated with content from result file
+     * @param reader Reader positioned on the array
+     * @param plan Mapping plan of the array items
+     * @param failures List of failure criteria
+     * @param attributes Attributes of the objects still to be streamed
+     * @throws IOException If the content could not be read
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamArray(TestGroup parent, String key, JsonReader reader, MapJsonPlan plan, MapJsonFailures failures, Iterator<JsonObject> attributes) throws IOException, ValidationException {
+
+        TestGroup group = new TestGroup(parent, key, "Array", true);
+        parent.addGroup(group);
+        groups.put(group.getGroupHash(), group);
+
+        // Go through the content of the array
+        int index = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                StreamBlock(group, Integer.toString(index), reader, plan, failures, attributes);
+            } else {
+                reader.skipValue();
+            }
+            index += 1;
+        }
+        reader.endArray();
+
+        // Detect if array of parameters
+        group.isParameterGrp();
+
+        // Detect if array of thresholds
+        group.isThresholdGrp();
+    }
+
     /**
      *  Read the schema for a threshold and load its related content.
      *
@@ -423,15 +771,16 @@ public class MapJsonToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with content from result file
      * @param eContent Content from result file
-     * @param eSchema Content from schema file
+     * @param plan Mapping plan of the result
      * @return {TestValue} The new result.
      * @throws ValidationException If validation error occur
      */
-    private void ProcessResult (TestGroup parent, String key, JsonElement eContent, JsonElement eSchema, MapJsonFailures failures) throws ValidationException {
+    private void ProcessResult (TestGroup parent, String key, JsonElement eContent, MapJsonPlan plan, MapJsonFailures failures) throws ValidationException {
 
         if (eContent.isJsonObject()) {
             JsonObject oContent = eContent.getAsJsonObject();
 
+            JsonElement eSchema = plan.getProperties();
             if (eSchema.isJsonObject()) {
                 JsonObject oSchema = eSchema.getAsJsonObject();
 
@@ -445,14 +794,7 @@ public class MapJsonToPlugin extends MapperBase {
                     results.put(result.getGroupHash(), result);
 
                     // Isolate the other objects and arrays
-                    for (Map.Entry<String, JsonElement> enSchema : oSchema.entrySet()) {
-                        String kSchema = enSchema.getKey();
-                        for (Map.Entry<String, JsonElement> enContent : oContent.entrySet()) {
-                            if (kSchema.equals(enContent.getKey())) {
-                                ProcessBlock(result, kSchema, enContent.getValue(), enSchema.getValue(), failures);
-                            }
-                        }
-                    }
+                    ProcessChildren(result, oContent, plan, failures);
                 }
             }
         }
@@ -464,15 +806,16 @@ public class MapJsonToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with content from result file
      * @param eContent Content from result file
-     * @param eSchema Content from schema file
+     * @param plan Mapping plan of the object
      * @return {TestGroup} The new group associated with the object.
      * @throws ValidationException If validation error occur
      */
-    private void ProcessObject (TestGroup parent, String key, JsonElement eContent, JsonElement eSchema, MapJsonFailures failures) throws ValidationException {
+    private void ProcessObject (TestGroup parent, String key, JsonElement eContent, MapJsonPlan plan, MapJsonFailures failures) throws ValidationException {
 
         if (eContent.isJsonObject()) {
             JsonObject oContent = eContent.getAsJsonObject();
 
+            JsonElement eSchema = plan.getProperties();
             if (eSchema.isJsonObject()) {
                 JsonObject oSchema = eSchema.getAsJsonObject();
 
@@ -483,14 +826,7 @@ public class MapJsonToPlugin extends MapperBase {
                     groups.put(group.getGroupHash(), group);
 
                     // Isolate the other objects and arrays
-                    for (Map.Entry<String, JsonElement> enSchema : oSchema.entrySet()) {
-                        String kSchema = enSchema.getKey();
-                        for (Map.Entry<String, JsonElement> enContent : oContent.entrySet()) {
-                            if (kSchema.equals(enContent.getKey())) {
-                                ProcessBlock(group, kSchema, enContent.getValue(), enSchema.getValue(), failures);
-                            }
-                        }
-                    }
+                    ProcessChildren(group, oContent, plan, failures);
 
                     // Detect if array of parameters
                     group.isParameterGrp();
@@ -508,37 +844,53 @@ public class MapJsonToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with content from result file
      * @param eContent Content from result file
-     * @param eSchema Content from schema file
+     * @param plan Mapping plan of the array items
      * @return {TestGroup} The new group associated with the object.
      * @throws ValidationException If validation error occur
      */
-    private void ProcessArray(TestGroup parent, String key, JsonElement eContent, JsonElement eSchema, MapJsonFailures failures) throws ValidationException {
+    private void ProcessArray(TestGroup parent, String key, JsonElement eContent, MapJsonPlan plan, MapJsonFailures failures) throws ValidationException {
 
         if (eContent.isJsonArray()) {
             JsonArray aContent = eContent.getAsJsonArray();
-            if (eSchema.isJsonObject()) {
 
-                TestGroup group = new TestGroup(parent, key, "Array", true);
-                if (group != null) {
-                    parent.addGroup(group);
-                    groups.put(group.getGroupHash(), group);
+            TestGroup group = new TestGroup(parent, key, "Array", true);
+            if (group != null) {
+                parent.addGroup(group);
+                groups.put(group.getGroupHash(), group);
 
-                    // Go through the content of the array
-                    int index = 0;
-                    for (JsonElement enContent : aContent) {
-                        String kSchema = Integer.toString(index);
-                        if (enContent.isJsonObject()) {
-                            ProcessBlock(group, kSchema, enContent.getAsJsonObject(), eSchema, failures);
-                        }
-                        index += 1;
+                // Go through the content of the array
+                int index = 0;
+                for (JsonElement enContent : aContent) {
+                    String kSchema = Integer.toString(index);
+                    if (enContent.isJsonObject()) {
+                        ProcessBlock(group, kSchema, enContent.getAsJsonObject(), plan, failures);
                     }
+                    index += 1;
+                }
 
-                    // Detect if array of parameters
-                    group.isParameterGrp();
+                // Detect if array of parameters
+                group.isParameterGrp();
 
-                    // Detect if array of thresholds
-                    group.isThresholdGrp();
-                }
+                // Detect if array of thresholds
+                group.isThresholdGrp();
+            }
+        }
+    }
+
+    /**
+     * Process the sub-blocks of an object or a result present in the content
+     *
+     * @param group Pointer to the group of the object or result
+     * @param oContent Content from result file
+     * @param plan Mapping plan of the object or result
+     * @param failures List of failure criteria
+     * @throws ValidationException If validation error occur
+     */
+    private void ProcessChildren (TestGroup group, JsonObject oContent, MapJsonPlan plan, MapJsonFailures failures) throws ValidationException {
+        for (Map.Entry<String, MapJsonPlan> enSchema : plan.getChildren().entrySet()) {
+            JsonElement eContent = oContent.get(enSchema.getKey());
+            if (eContent != null) {
+                ProcessBlock(group, enSchema.getKey(), eContent, enSchema.getValue(), failures);
             }
         }
     }
@@ -567,42 +919,4 @@ public class MapJsonToPlugin extends MapperBase {
         }
         return relativePath;
     }
-
-    /**
-     * Retrieve the type of Group tag associate to 'type'
-     * @param oSchema Schema Json object
-     * @return Enum value for Group tag
-     */
-    private GroupTags getGroupTag(JsonObject oSchema){
-        String type = "";
-        for (Map.Entry<String, JsonElement> entrySchema :oSchema.entrySet()) {
-            if (entrySchema.getKey().equals("type")) {
-                JsonPrimitive primitive = entrySchema.getValue().getAsJsonPrimitive();
-                if (primitive.isString()) {
-                    type = primitive.getAsString();
-                    break;
-                }
-            }
-        }
-        type = type.toLowerCase();
-        if (type.equals("object")) {
-            return GroupTags.gt_object;
-        } else if (type.equals("array")) {
-            return GroupTags.gt_array;
-        } else if (type.equals("resultfull")) {
-            return GroupTags.gt_result;
-        } else if (type.equals("result")) {
-            return GroupTags.gt_result;
-        } else if (type.equals("booleankey")) {
-            return GroupTags.gt_booleankey;
-        } else if (type.equals("threshold")) {
-            return GroupTags.gt_threshold;
-        } else if (type.equals("parameterfull")) {
-            return GroupTags.gt_parameter;
-        } else if (type.equals("parameter")) {
-            return GroupTags.gt_parameter;
-        } else {
-            return GroupTags.gt_unknown;
-        }
-    }
 }
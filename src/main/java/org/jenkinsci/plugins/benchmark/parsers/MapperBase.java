@@ -19,20 +19,31 @@
 package org.jenkinsci.plugins.benchmark.parsers;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import hudson.model.TaskListener;
 import org.jenkinsci.plugins.benchmark.condensed.DoubleCondensed;
 import org.jenkinsci.plugins.benchmark.condensed.IntegerCondensed;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.results.*;
+import org.jenkinsci.plugins.benchmark.storage.MappedHistory;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
 import org.jenkinsci.plugins.benchmark.utilities.ContentDetected;
+import org.jenkinsci.plugins.benchmark.utilities.LoaderExecutor;
+import org.jenkinsci.plugins.benchmark.utilities.NameIndex;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.jenkinsci.plugins.benchmark.results.TestValue.FAILED_STATE_COLOR;
 import static org.jenkinsci.plugins.benchmark.results.TestValue.PASSED_STATE_COLOR;
@@ -49,6 +60,10 @@ public class MapperBase {
 
     // Variables
 
+    private static final Gson               gson = new Gson();
+    private static final int                MIN_ENTRIES_PER_PARTITION = 1024;
+    private static final int                MAX_RESIDENT_RESULTS = 16;
+
     protected final TestGroup               rootGroup;
 
     protected final Map<Integer, TestGroup> groups = new HashMap<Integer, TestGroup>();
@@ -64,14 +79,28 @@ public class MapperBase {
 
     private Integer                     build;
     protected ContentDetected           detected;
-    protected final TreeSet<Integer>    builds;
+    protected final BuildSet            builds;
+
+    private MappedHistory               history;
+    private final Set<Integer>          residentResults = Collections.synchronizedSet(new LinkedHashSet<Integer>());
+    private StateCounts                 stateCounts;
 
 
     // Constructor
 
     public MapperBase(Integer build, Boolean truncateStrings){
-        this.rootGroup = new TestGroup(null, "__root__", "");
-        this.builds = new TreeSet<Integer>();
+        this(build, truncateStrings, new TestGroup(null, "__root__", ""));
+    }
+
+    /**
+     * Mapper sharing the root group of another mapper, used to map one result file into its own partial mapper
+     * @param build Build number
+     * @param truncateStrings Whether strings are truncated
+     * @param rootGroup Root group of the mapper the content is attached to
+     */
+    protected MapperBase(Integer build, Boolean truncateStrings, TestGroup rootGroup){
+        this.rootGroup = rootGroup;
+        this.builds = new BuildSet();
         this.detected = new ContentDetected();
         this.truncateStrings = truncateStrings;
         this.build = build;
@@ -84,159 +113,202 @@ public class MapperBase {
     // Functions
 
 
+    /**
+     * Attach the content of a result file mapped by its own partial mapper
+     * Files are attached one at a time in the order they were listed, so that the outcome does not depend on
+     * the order in which the files were mapped.
+     * @param mapping Mapping of the file
+     */
+    protected void attachFile(FileMapping mapping) {
+        TestGroup group = mapping.getGroup();
+        if (group == null) {
+            return;
+        }
+        files.put(group.getGroupHash(), group);
+        groups.put(group.getGroupHash(), group);
+        rootGroup.addGroup(group);
+
+        MapperBase partial = mapping.getPartial();
+        groups.putAll(partial.groups);
+        results.putAll(partial.results);
+        parameters.putAll(partial.parameters);
+        hasNumericResult |= partial.hasNumericResult;
+        hasHistoryThreshold |= partial.hasHistoryThreshold;
+    }
+
     /**
      * Merge the content from mapper into this MapperBAse
+     * Both sides are keyed by result hash, so each entry of mapper is joined by lookup. Large sets of results
+     * are split into partitions merged in parallel on the loader pool.
      * @param mapper to be merged in.
      * @throws ValidationException Validation exception
+     * @throws InterruptedException If interrupted while merging
+     * @throws IOException If a partition failed to merge
      */
-    public void mergeWith(MapperBase mapper) throws ValidationException {
+    public void mergeWith(MapperBase mapper) throws ValidationException, InterruptedException, IOException {
 
         if (mapper != null && mapper.results.size() != 0) {
-            for (Map.Entry<Integer, TestValue> baseResult : mapper.getResults().entrySet()) {
-                boolean detectedResult = false;
-                for (Map.Entry<Integer,TestValue> result : results.entrySet()) {
-                    if (result.getKey().intValue() == baseResult.getKey().intValue()) {
-                        TestValue value = result.getValue();
-                        switch (value.getType()) {
-                            case rt_double:
-                                {
-                                    DoubleValue dblValue = (DoubleValue) value;
-                                    DoubleValue dblBaseValue = (DoubleValue) baseResult.getValue();
-                                    Double dblV = dblValue.getValues().get(0);
-                                    dblValue.getValues().clear();
-                                    dblValue.getValues().put(build, dblV);
-                                    dblValue.getValues().putAll(dblBaseValue.getValues());
-                                    if (dblValue.getProperties().size() > 0) {
-                                        TestProperty dblProperty = dblValue.getProperties().get(0);
-                                        dblValue.getProperties().clear();
-                                        dblValue.getProperties().put(build, dblProperty);
-                                    }
-                                    dblValue.getProperties().putAll(dblBaseValue.getProperties());
-                                }
-                                break;
-                            case rt_integer:
-                                {
-                                    IntegerValue intValue = (IntegerValue) value;
-                                    IntegerValue intBaseValue = (IntegerValue) baseResult.getValue();
-                                    Integer intV = intValue.getValues().get(0);
-                                    intValue.getValues().clear();
-                                    intValue.getValues().put(build, intV);
-                                    intValue.getValues().putAll(intBaseValue.getValues());
-                                    if (intValue.getProperties().size() > 0) {
-                                        TestProperty intProperty = intValue.getProperties().get(0);
-                                        intValue.getProperties().clear();
-                                        intValue.getProperties().put(build, intProperty);
-                                    }
-                                    intValue.getProperties().putAll(intBaseValue.getProperties());
-                                }
-                                break;
-                            case rt_boolean:
-                                {
-                                    BooleanValue boolValue = (BooleanValue) value;
-                                    BooleanValue boolBaseValue = (BooleanValue) baseResult.getValue();
-                                    Boolean boolV = boolValue.getValues().get(0);
-                                    boolValue.getValues().clear();
-                                    boolValue.getValues().put(build, boolV);
-                                    boolValue.getValues().putAll(boolBaseValue.getValues());
-                                    if (boolValue.getProperties().size() > 0) {
-                                        TestProperty boolProperty = boolValue.getProperties().get(0);
-                                        boolValue.getProperties().clear();
-                                        boolValue.getProperties().put(build, boolProperty);
-                                    }
-                                    boolValue.getProperties().putAll(boolBaseValue.getProperties());
-                                }
-                                break;
-                            case rt_string:
-                                {
-                                    StringValue strValue = (StringValue) value;
-                                    StringValue strBaseValue = (StringValue) baseResult.getValue();
-                                    String strV = strValue.getValues().get(0);
-                                    strValue.getValues().clear();
-                                    strValue.getValues().put(build, strV);
-                                    strValue.getValues().putAll(strBaseValue.getValues());
-                                    if (strValue.getProperties().size() > 0) {
-                                        TestProperty strProperty = strValue.getProperties().get(0);
-                                        strValue.getProperties().clear();
-                                        strValue.getProperties().put(build, strProperty);
-                                    }
-                                    strValue.getProperties().putAll(strBaseValue.getProperties());
-                                }
-                                break;
-                            default:
-                        }
-                        detectedResult = true;
-                        break;
+            joinPartitions(mapper.getResults(), new EntryJoin() {
+                @Override
+                public void join(Integer key, TestValue baseResult) {
+                    TestValue result = results.get(key);
+                    if (result == null) {
+                        results.put(key, baseResult);
+                    } else {
+                        mergeValueWith(result, baseResult, true);
                     }
                 }
-                if (!detectedResult) {
-                    results.put(baseResult.getKey(), baseResult.getValue());
+            });
+            joinPartitions(mapper.getParameters(), new EntryJoin() {
+                @Override
+                public void join(Integer key, TestValue baseParam) {
+                    TestValue param = parameters.get(key);
+                    if (param == null) {
+                        parameters.put(key, baseParam);
+                    } else {
+                        mergeValueWith(param, baseParam, false);
+                    }
+                }
+            });
+            for (Map.Entry<Integer, TestGroup> baseFile : mapper.getFiles().entrySet()) {
+                if (!files.containsKey(baseFile.getKey())) {
+                    files.put(baseFile.getKey(), baseFile.getValue());
                 }
             }
-            for (Map.Entry<Integer, TestValue> baseParam : mapper.getParameters().entrySet()) {
-                boolean detectedParam = false;
-                for (Map.Entry<Integer,TestValue> param : parameters.entrySet()) {
-                    if (param.getKey().intValue() == baseParam.getKey().intValue()) {
-                        TestValue value = param.getValue();
-                        switch (value.getType()) {
-                            case rt_double:
-                            {
-                                DoubleValue dblValue = (DoubleValue) value;
-                                DoubleValue dblBaseValue = (DoubleValue) baseParam.getValue();
-                                Double dblV = dblValue.getValues().get(0);
-                                dblValue.getValues().clear();
-                                dblValue.getValues().put(build, dblV);
-                                dblValue.getValues().putAll(dblBaseValue.getValues());
-                            }
-                            break;
-                            case rt_integer:
-                            {
-                                IntegerValue intValue = (IntegerValue) value;
-                                IntegerValue intBaseValue = (IntegerValue) baseParam.getValue();
-                                Integer intV = intValue.getValues().get(0);
-                                intValue.getValues().clear();
-                                intValue.getValues().put(build, intV);
-                                intValue.getValues().putAll(intBaseValue.getValues());
-                            }
-                            break;
-                            case rt_boolean:
-                            {
-                                BooleanValue boolValue = (BooleanValue) value;
-                                BooleanValue boolBaseValue = (BooleanValue) baseParam.getValue();
-                                Boolean boolV = boolValue.getValues().get(0);
-                                boolValue.getValues().clear();
-                                boolValue.getValues().put(build, boolV);
-                                boolValue.getValues().putAll(boolBaseValue.getValues());
-                            }
-                            break;
-                            case rt_string:
-                            {
-                                StringValue strValue = (StringValue) value;
-                                StringValue strBaseValue = (StringValue) baseParam.getValue();
-                                String strV = strValue.getValues().get(0);
-                                strValue.getValues().clear();
-                                strValue.getValues().put(build, strV);
-                                strValue.getValues().putAll(strBaseValue.getValues());
-                            }
-                            break;
-                            default:
-                        }
-                        detectedParam = true;
-                        break;
+        }
+    }
+
+    /**
+     * Move the value of this build under the build number and add the history of the same entity
+     * @param value Entity of this mapper
+     * @param baseValue Same entity holding the history
+     * @param withProperties Whether properties are merged as well
+     */
+    private void mergeValueWith(TestValue value, TestValue baseValue, boolean withProperties) {
+        switch (value.getType()) {
+            case rt_double:
+                {
+                    DoubleValue dblValue = (DoubleValue) value;
+                    DoubleValue dblBaseValue = (DoubleValue) baseValue;
+                    Double dblV = dblValue.getValues().get(0);
+                    dblValue.getValues().clear();
+                    dblValue.getValues().put(build, dblV);
+                    dblValue.getValues().putAll(dblBaseValue.getValues());
+                }
+                break;
+            case rt_integer:
+                {
+                    IntegerValue intValue = (IntegerValue) value;
+                    IntegerValue intBaseValue = (IntegerValue) baseValue;
+                    Integer intV = intValue.getValues().get(0);
+                    intValue.getValues().clear();
+                    intValue.getValues().put(build, intV);
+                    intValue.getValues().putAll(intBaseValue.getValues());
+                }
+                break;
+            case rt_boolean:
+                {
+                    BooleanValue boolValue = (BooleanValue) value;
+                    BooleanValue boolBaseValue = (BooleanValue) baseValue;
+                    Boolean boolV = boolValue.getValues().get(0);
+                    boolValue.getValues().clear();
+                    boolValue.getValues().put(build, boolV);
+                    boolValue.getValues().putAll(boolBaseValue.getValues());
+                }
+                break;
+            case rt_string:
+                {
+                    StringValue strValue = (StringValue) value;
+                    StringValue strBaseValue = (StringValue) baseValue;
+                    String strV = strValue.getValues().get(0);
+                    strValue.getValues().clear();
+                    strValue.getValues().put(build, strV);
+                    strValue.getValues().putAll(strBaseValue.getValues());
+                }
+                break;
+            default:
+                return;
+        }
+        if (withProperties) {
+            if (value.getProperties().size() > 0) {
+                TestProperty property = value.getProperties().get(0);
+                value.getProperties().clear();
+                value.getProperties().put(build, property);
+            }
+            value.getProperties().putAll(baseValue.getProperties());
+        }
+    }
+
+    /**
+     * Join each entry of another mapper, in parallel partitions when there are enough entries
+     * Entries are distributed by position, so each entity is handled by a single partition.
+     * @param entries Entries of the other mapper
+     * @param join Join applied to each entry
+     * @throws InterruptedException If interrupted while waiting for the partitions
+     * @throws IOException If a partition failed
+     */
+    private static void joinPartitions(Map<Integer, TestValue> entries, final EntryJoin join) throws InterruptedException, IOException {
+        int partitions = Math.min(LoaderExecutor.getThreads(), entries.size() / MIN_ENTRIES_PER_PARTITION);
+        if (partitions <= 1) {
+            for (Map.Entry<Integer, TestValue> entry : entries.entrySet()) {
+                join.join(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+
+        List<List<Map.Entry<Integer, TestValue>>> parts = new ArrayList<List<Map.Entry<Integer, TestValue>>>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            parts.add(new ArrayList<Map.Entry<Integer, TestValue>>(entries.size() / partitions + 1));
+        }
+        int index = 0;
+        for (Map.Entry<Integer, TestValue> entry : entries.entrySet()) {
+            parts.get(index++ % partitions).add(entry);
+        }
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(partitions);
+        for (final List<Map.Entry<Integer, TestValue>> part : parts) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (Map.Entry<Integer, TestValue> entry : part) {
+                        join.join(entry.getKey(), entry.getValue());
                     }
+                    return null;
                 }
-                if (!detectedParam) {
+            });
+        }
+        LoaderExecutor.invokeAll(tasks);
+    }
+
+    /**
+     * Merge the condensed content from mapper into this MapperBase without loading any build history.
+     * The value stored under key for each result is folded into the condensed aggregates.
+     * @param mapper Mapper holding the condensed results of the previous builds, null if none
+     * @param key Key under which the values of the current build are stored
+     */
+    public void mergeCondensedWith(MapperBase mapper, int key) {
+        for (Map.Entry<Integer, TestValue> result : results.entrySet()) {
+            TestValue condensed = null;
+            if (mapper != null) {
+                condensed = mapper.results.get(result.getKey());
+            }
+            TestValue update = result.getValue().getCondensedUpdate(key, condensed);
+            if (update != null) {
+                result.setValue(update);
+            }
+        }
+        if (mapper != null) {
+            for (Map.Entry<Integer, TestValue> baseResult : mapper.getResults().entrySet()) {
+                if (!results.containsKey(baseResult.getKey())) {
+                    results.put(baseResult.getKey(), baseResult.getValue());
+                }
+            }
+            for (Map.Entry<Integer, TestValue> baseParam : mapper.getParameters().entrySet()) {
+                if (!parameters.containsKey(baseParam.getKey())) {
                     parameters.put(baseParam.getKey(), baseParam.getValue());
                 }
             }
             for (Map.Entry<Integer, TestGroup> baseFile : mapper.getFiles().entrySet()) {
-                boolean detectedFile = false;
-                for (Map.Entry<Integer,TestGroup> file : files.entrySet()) {
-                    if (file.getKey().intValue() == baseFile.getKey().intValue()) {
-                        detectedFile = true;
-                        break;
-                    }
-                }
-                if (!detectedFile) {
+                if (!files.containsKey(baseFile.getKey())) {
                     files.put(baseFile.getKey(), baseFile.getValue());
                 }
             }
@@ -244,54 +316,178 @@ public class MapperBase {
     }
 
     /**
-     * Add a list of thresholds at the right location inside the tree.
-     * @param thresholds List of additional thresholds to add to the mapper content
+     * Merge the history loaded by a partial mapper into this MapperBase [DISPLAY LOADING]
+     * Each loading task fills its own partial for a range of builds, the partials are then merged one at a time.
+     * Entities unknown to this mapper are adopted, the values and properties of known ones are moved over with
+     * their parameters mapped to the parameters of this mapper.
+     * @param partial Partial mapper, must not be used afterwards
+     */
+    public void mergeHistoryWith(MapperBase partial) {
+
+        // Map the partial parameters to those of this mapper
+        Map<TestValue, TestValue> parameterMap = new IdentityHashMap<TestValue, TestValue>();
+        List<TestValue> mergedParameters = new ArrayList<TestValue>();
+        for (Map.Entry<Integer, TestValue> entry : partial.parameters.entrySet()) {
+            TestValue parameter = parameters.get(entry.getKey());
+            if (parameter == null) {
+                parameters.put(entry.getKey(), entry.getValue());
+            } else if (parameter != entry.getValue()) {
+                parameterMap.put(entry.getValue(), parameter);
+                mergedParameters.add(entry.getValue());
+            }
+        }
+        for (Map.Entry<Integer, TestGroup> entry : partial.files.entrySet()) {
+            if (!files.containsKey(entry.getKey())) {
+                files.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Move the values and properties
+        for (TestValue parameter : mergedParameters) {
+            parameterMap.get(parameter).mergeHistoryWith(parameter, parameterMap);
+        }
+        for (Map.Entry<Integer, TestValue> entry : partial.parameters.entrySet()) {
+            if (parameters.get(entry.getKey()) == entry.getValue()) {
+                entry.getValue().remapParameters(parameterMap);
+            }
+        }
+        for (Map.Entry<Integer, TestValue> entry : partial.results.entrySet()) {
+            TestValue result = results.get(entry.getKey());
+            if (result == null) {
+                entry.getValue().remapParameters(parameterMap);
+                results.put(entry.getKey(), entry.getValue());
+            } else if (result != entry.getValue()) {
+                result.mergeHistoryWith(entry.getValue(), parameterMap);
+            }
+        }
+
+        // Register the adopted groups
+        for (Map.Entry<Integer, TestGroup> entry : partial.groups.entrySet()) {
+            if (!groups.containsKey(entry.getKey())) {
+                TestGroup group = results.get(entry.getKey());
+                if (group == null) {
+                    group = parameters.get(entry.getKey());
+                }
+                if (group == null) {
+                    group = files.get(entry.getKey());
+                }
+                groups.put(entry.getKey(), group == null ? entry.getValue() : group);
+            }
+        }
+
+        builds.addAll(partial.builds);
+        if (partial.detected.isFileDetected()) {
+            detected.setFileDetected(true);
+        }
+        if (partial.detected.isGroupDetected()) {
+            detected.setGroupDetected(true);
+        }
+        if (partial.detected.isNumeralDetected()) {
+            detected.setNumeralDetected(true);
+        }
+        if (partial.detected.isUnitsDetected()) {
+            detected.setUnitsDetected(true);
+        }
+    }
+
+    /**
+     * Estimate the heap used by the loaded results and parameters and by the column indexes of the mapped history [DISPLAY LOADING]
+     * @return Estimated size in bytes
      */
-    public void addAllThresholds (List<? extends Threshold> thresholds){
-        for( Threshold threshold:thresholds){
-            addThreshold(threshold);
+    public long getEstimatedSize() {
+        long size = 0;
+        for (TestValue result : results.values()) {
+            size += result.getEstimatedSize();
+        }
+        for (TestValue parameter : parameters.values()) {
+            size += parameter.getEstimatedSize();
         }
+        MappedHistory mapped = this.history;
+        if (mapped != null) {
+            size += mapped.getEstimatedSize();
+        }
+        return size;
     }
 
     /**
-     * Add a threshold at the right location.
-     * @param threshold Threshold to add
+     * Determine if the condensed results can be updated without loading the build history.
+     * Condensed files generated by earlier versions do not store the number of averaged values.
+     * @return Whether all condensed results hold the required aggregates
      */
-    private void addThreshold (Threshold threshold){
-        String extName = "";
-        if (threshold.getTestGroup().isEmpty()) {
-            if (threshold.getTestName().isEmpty()) {
-                for (TestValue result : results.values()) {
-                    result.addThreshold(threshold);
-                    checkThresholdType(threshold);
-                }
-            } else {
-                for (TestValue result : results.values()) {
-                    if (result.getName().equals(threshold.getTestName())) {
+    public boolean hasCondensedAggregates() {
+        for (TestValue result : results.values()) {
+            if (!result.hasCondensedAggregates()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a list of thresholds at the right location inside the tree.
+     * Results and groups are indexed by name once, each threshold then attaches to the entities matching its
+     * target, given as an exact name, or as a glob or a regular expression between slashes when the threshold
+     * enables pattern matching.
+     * @param thresholds List of additional thresholds to add to the mapper content
+     * @throws ValidationException If a threshold target is not a valid pattern
+     */
+    public void addAllThresholds (List<? extends Threshold> thresholds) throws ValidationException {
+        NameIndex<TestValue> resultIndex = null;
+        NameIndex<TestGroup> groupIndex = null;
+        for (Threshold threshold : thresholds) {
+            if (threshold.getTestGroup().isEmpty()) {
+                if (threshold.getTestName().isEmpty()) {
+                    for (TestValue result : results.values()) {
                         result.addThreshold(threshold);
                         checkThresholdType(threshold);
                     }
-                }
-            }
-        } else {
-            extName = threshold.getTestGroup();
-            if(!threshold.getTestName().isEmpty()) {
-                extName += "." + threshold.getTestName();
-            }
-            Integer hash =  extName.hashCode();
-            for (Map.Entry<Integer,TestGroup> group:groups.entrySet()){
-                TestGroup grp = group.getValue();
-                if (grp.getClassType() != TestGroup.ClassType.ct_fileGrp) {
-                    Integer grpHash = grp.getFileSubGroupFullName().hashCode();
-                    if (hash.intValue() == grpHash.intValue()) {
-                        grp.addThreshold(threshold);
+                } else {
+                    if (resultIndex == null) {
+                        resultIndex = new NameIndex<TestValue>();
+                        for (TestValue result : results.values()) {
+                            resultIndex.add(result.getName(), result);
+                        }
+                    }
+                    for (TestValue result : findTargets(resultIndex, threshold.getTestName(), threshold.isPatternMatch())) {
+                        result.addThreshold(threshold);
                         checkThresholdType(threshold);
                     }
                 }
+            } else {
+                if (groupIndex == null) {
+                    groupIndex = new NameIndex<TestGroup>();
+                    for (TestGroup group : groups.values()) {
+                        if (group.getClassType() != TestGroup.ClassType.ct_fileGrp) {
+                            groupIndex.add(group.getFileSubGroupFullName(), group);
+                        }
+                    }
+                }
+                String target = NameIndex.combine(threshold.getTestGroup(), threshold.getTestName(), threshold.isPatternMatch());
+                for (TestGroup group : findTargets(groupIndex, target, threshold.isPatternMatch())) {
+                    group.addThreshold(threshold);
+                    checkThresholdType(threshold);
+                }
             }
         }
     }
 
+    /**
+     * Find the entities targeted by a threshold
+     * @param index Name index
+     * @param target Threshold target
+     * @param patterns Whether the target is read as a pattern
+     * @param <T> Entity type
+     * @return Matching entities
+     * @throws ValidationException If the target is not a valid pattern
+     */
+    private static <T> List<T> findTargets(NameIndex<T> index, String target, boolean patterns) throws ValidationException {
+        try {
+            return index.find(target, patterns);
+        } catch (PatternSyntaxException e) {
+            throw new ValidationException(Messages.MapperBase_InvalidThresholdTarget(target, e.getDescription()));
+        }
+    }
+
     /**
      * Determine threshold for each results
      * @param base Mapper storing results to check
@@ -301,21 +497,17 @@ public class MapperBase {
         boolean failed = false;
         for (Map.Entry<Integer,TestValue> result : results.entrySet()) {
             if (base != null && base.results.size() != 0) {
+                TestValue baseResult = base.results.get(result.getKey());
                 if (result.getValue().getType() == TestValue.ValueType.rt_double) {
-                    for (Map.Entry<Integer, TestValue> baseResult : base.getResults().entrySet()) {
-                        if (result.getKey().intValue() == baseResult.getKey().intValue()) {
-                            DoubleCondensed value = (DoubleCondensed) baseResult.getValue();
-                            result.getValue().checkThresholdStatus(value.getPrevious(), value.getAverage());
-                            break;
-                        }
+                    if (baseResult instanceof DoubleCondensed) {
+                        DoubleCondensed value = (DoubleCondensed) baseResult;
+                        result.getValue().checkThresholdStatus(value.getPrevious(), value.getAverage());
                     }
                 } else if (result.getValue().getType() == TestValue.ValueType.rt_integer) {
-                    for (Map.Entry<Integer, TestValue> baseResult : base.getResults().entrySet()) {
-                        if (result.getKey().intValue() == baseResult.getKey().intValue()) {
-                            IntegerCondensed value = (IntegerCondensed) baseResult.getValue();
-                            result.getValue().checkThresholdStatus(value.getPrevious().doubleValue(), value.getAverage());
-                            break;
-                        }
+                    if (baseResult instanceof IntegerCondensed) {
+                        IntegerCondensed value = (IntegerCondensed) baseResult;
+                        Double previous = value.getPrevious() == null ? null : value.getPrevious().doubleValue();
+                        result.getValue().checkThresholdStatus(previous, value.getAverage());
                     }
                 }
             } else {
@@ -360,65 +552,110 @@ public class MapperBase {
     public void importFromFile (File inputFile, ContentDetected detected) throws NullPointerException, IOException, JsonIOException, JsonSyntaxException {
 
         Integer build = null;
-        JsonParser parser = new JsonParser();
-        InputStreamReader reader = new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8);
-        JsonElement jsonContent = parser.parse(reader);
-
-        if (jsonContent.isJsonObject()){
-            JsonObject jsonObject = jsonContent.getAsJsonObject();
-
-            // Load base information
-            for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                if (enContent.getKey().equalsIgnoreCase("build")) {
-                    JsonElement element = enContent.getValue();
-                    if (element.isJsonPrimitive()) {
-                        JsonPrimitive primitive = element.getAsJsonPrimitive();
-                        if (primitive.isNumber()) {
-                            build = primitive.getAsInt();
-                            this.build = build;
-                            this.builds.add(build);
+        List<JsonRecord> pendingParameters = new ArrayList<JsonRecord>();
+        List<JsonRecord> pendingResults = new ArrayList<JsonRecord>();
+
+        JsonReader reader = new JsonReader(openReader(inputFile));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                JsonToken token = reader.peek();
+                if (build == null && key.equalsIgnoreCase("build") && token == JsonToken.NUMBER) {
+                    // Load base information
+                    build = reader.nextInt();
+                    this.build = build;
+                    this.builds.add(build);
+                    for (JsonRecord record : pendingParameters) {
+                        TestValue.convertParameterRecord(build, record, rootGroup, parameters);
+                    }
+                    pendingParameters.clear();
+                } else if (key.equalsIgnoreCase("files") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load file groups, only present in a mapping returned by the agent
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record != null && record.getHash() != null) {
+                            TestGroup.convertCondensedFileRecord(record, rootGroup, files, detected);
                         }
                     }
-                    break;
-                }
-            }
-
-            if (build != null) {
-                // Load parameters
-                for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                    if (enContent.getKey().equalsIgnoreCase("parameters")) {
-                        JsonElement element = enContent.getValue();
-                        if (element.isJsonArray()) {
-                            JsonArray array = element.getAsJsonArray();
-                            for (JsonElement aElement : array) {
-                                if (aElement.isJsonObject()) {
-                                    JsonObject aObject = aElement.getAsJsonObject();
-                                    TestValue.convertParameterJsonObject(build, aObject, rootGroup, parameters);
-                                }
-                            }
+                    reader.endArray();
+                } else if (key.equalsIgnoreCase("parameters") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load parameters
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record == null || record.getHash() == null) {
+                            continue;
+                        }
+                        if (build == null) {
+                            pendingParameters.add(record);
+                        } else {
+                            TestValue.convertParameterRecord(build, record, rootGroup, parameters);
                         }
                     }
-                }
-
-                // Load results
-                for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                    if (enContent.getKey().equalsIgnoreCase("results")) {
-                        JsonElement element = enContent.getValue();
-                        if (element.isJsonArray()) {
-                            JsonArray array = element.getAsJsonArray();
-                            for (JsonElement aElement : array) {
-                                if (aElement.isJsonObject()) {
-                                    JsonObject aObject = aElement.getAsJsonObject();
-                                    TestValue.convertResultJsonObject(build, aObject, rootGroup, files, results, parameters);
-                                }
-                            }
+                    reader.endArray();
+                } else if (key.equalsIgnoreCase("results") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load results, those referencing parameters not read yet are kept until the end of the file
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record == null || record.getHash() == null) {
+                            continue;
+                        }
+                        if (build == null || !record.hasParameters(parameters)) {
+                            pendingResults.add(record);
+                        } else {
+                            TestValue.convertResultRecord(build, record, rootGroup, files, results, parameters);
                         }
                     }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
                 }
             }
+            reader.endObject();
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            reader.close();
+        }
+
+        if (build != null) {
+            for (JsonRecord record : pendingResults) {
+                TestValue.convertResultRecord(build, record, rootGroup, files, results, parameters);
+            }
         }
     }
 
+    /**
+     * Import the mapping of a build executed on the agent and written by exportMappingToFile()
+     * @param inputFile File to be imported
+     * @param build Build number of the mapping
+     * @throws IOException If the file could not be read
+     * @throws JsonIOException If I/O errors occur
+     * @throws JsonSyntaxException If JSON syntax invalid
+     */
+    public void importMappingFromFile (File inputFile, Integer build) throws IOException, JsonIOException, JsonSyntaxException {
+        importFromFile(inputFile, detected);
+        groups.putAll(files);
+        for (TestValue result : results.values()) {
+            checkResult(result);
+            for (Threshold threshold : result.getConnectedThresholds()) {
+                checkThresholdType(threshold);
+            }
+        }
+
+        // Values are kept under key 0 as for a mapping executed on the master
+        this.builds.clear();
+        this.build = build;
+    }
+
     /**
      * Export data to Jenkins stored file
      * @param outputFile Output file
@@ -427,38 +664,236 @@ public class MapperBase {
      * @return Whether export succeeded or not
      */
     public boolean exportToFile (String outputFile, String job, int build) {
+        return exportToFile(outputFile, job, build, false);
+    }
+
+    /**
+     * Export data to Jenkins stored file [EXPORT RAW]
+     * Results are streamed one at a time in compact form.
+     * @param outputFile Output file
+     * @param job Job name
+     * @param build  Build number
+     * @param compress Whether the file is compressed with gzip
+     * @return Whether export succeeded or not
+     */
+    public boolean exportToFile (String outputFile, String job, int build, boolean compress) {
+        return exportToFile(outputFile, job, build, compress, false);
+    }
+
+    /**
+     * Export the mapping of a build executed on the agent, to be imported on the master with importFromFile() [EXPORT RAW]
+     * The records also hold the description of the results, parameters and files as well as the thresholds
+     * attached to each result, since no condensed file is available to complete them.
+     * @param outputFile Output file
+     * @param job Job name
+     * @param compress Whether the file is compressed with gzip
+     * @return Whether export succeeded or not
+     */
+    public boolean exportMappingToFile (String outputFile, String job, boolean compress) {
+        return exportToFile(outputFile, job, 0, compress, true);
+    }
+
+    private boolean exportToFile (String outputFile, String job, int build, boolean compress, boolean described) {
         try {
-            OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
+            JsonWriter writer = openJsonWriter(outputFile, compress);
+            try {
+                writer.beginObject();
+                writer.name("job").value(job);
+                writer.name("build").value(build);
+
+                if (described) {
+                    boolean detFiles = false;
+                    for (Map.Entry<Integer, TestGroup> group : groups.entrySet()) {
+                        if (group.getValue().getClassType() == TestGroup.ClassType.ct_fileGrp) {
+                            if (!detFiles) {
+                                writer.name("files");
+                                writer.beginArray();
+                                detFiles = true;
+                            }
+                            gson.toJson(group.getValue().getJsonObject(group.getKey()), writer);
+                        }
+                    }
+                    if (detFiles) {
+                        writer.endArray();
+                    }
+                }
 
-            JsonObject rootObject = new JsonObject();
-            rootObject.addProperty("job", job);
-            rootObject.addProperty("build", build);
+                if (results.size() > 0) {
+                    Map<TestValue, Integer> parameterHashes = null;
+                    writer.name("results");
+                    writer.beginArray();
+                    for (Map.Entry<Integer, TestValue> result : results.entrySet()) {
+                        TestValue value = result.getValue();
+                        JsonObject object = value.getJsonObject(result.getKey());
+
+                        // Parameters of imported results are attached to the build instead of the tree
+                        List<TestValue> linked = value.getParameters();
+                        if (!object.has("parameters") && linked != null && !linked.isEmpty()) {
+                            if (parameterHashes == null) {
+                                parameterHashes = new IdentityHashMap<TestValue, Integer>();
+                                for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
+                                    parameterHashes.put(parameter.getValue(), parameter.getKey());
+                                }
+                            }
+                            JsonArray arrayParameters = new JsonArray();
+                            for (TestValue parameter : linked) {
+                                Integer hash = parameterHashes.get(parameter);
+                                if (hash != null) {
+                                    arrayParameters.add(new JsonPrimitive(hash));
+                                }
+                            }
+                            object.add("parameters", arrayParameters);
+                        }
 
-            if (results.size() > 0) {
-                JsonArray resultArray = new JsonArray();
-                for (Map.Entry<Integer, TestValue> result : results.entrySet()) {
-                    resultArray.add(result.getValue().getJsonObject(result.getKey()));
+                        if (described) {
+                            addDescription(object, value.getParameterJsonObject(result.getKey()));
+                            List<Threshold> thresholds = value.getAllConnectedThresholds();
+                            if (!thresholds.isEmpty()) {
+                                JsonArray arrayThresholds = new JsonArray();
+                                for (Threshold threshold : thresholds) {
+                                    arrayThresholds.add(threshold.getJsonObject());
+                                }
+                                object.add("thresholds", arrayThresholds);
+                            }
+                        }
+                        gson.toJson(object, writer);
+                    }
+                    writer.endArray();
                 }
-                rootObject.add("results", resultArray);
-            }
 
-            if (parameters.size() > 0) {
-                JsonArray parameterArray = new JsonArray();
-                for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
-                    parameterArray.add(parameter.getValue().getJsonObject(parameter.getKey()));
+                if (parameters.size() > 0) {
+                    writer.name("parameters");
+                    writer.beginArray();
+                    for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
+                        JsonObject object = parameter.getValue().getJsonObject(parameter.getKey());
+                        if (described) {
+                            addDescription(object, parameter.getValue().getParameterJsonObject(parameter.getKey()));
+                        }
+                        gson.toJson(object, writer);
+                    }
+                    writer.endArray();
                 }
-                rootObject.add("parameters", parameterArray);
-            }
 
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(rootObject, writer);
-            writer.close();
+                writer.endObject();
+            } finally {
+                writer.close();
+            }
             return true;
         } catch (IOException e) {
             return false;
+        } catch (JsonIOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Complete an exported record with the members of its description it does not hold yet
+     * @param object Exported record
+     * @param description Description of the same entity
+     */
+    private static void addDescription(JsonObject object, JsonObject description) {
+        for (Map.Entry<String, JsonElement> member : description.entrySet()) {
+            if (!object.has(member.getKey())) {
+                object.add(member.getKey(), member.getValue());
+            }
+        }
+    }
+
+    /**
+     * Attach the mapped history store, result values are then read from it on demand [DISPLAY LOADING]
+     * @param history Mapped history holding the values of all builds
+     * @throws IOException If the parameters could not be read
+     */
+    public void attachHistory(MappedHistory history) throws IOException {
+        history.fillParameters(parameters);
+        builds.addAll(history.getBuilds());
+        this.history = history;
+    }
+
+    /**
+     * Load the values of a result from the mapped history, if not already loaded [TABLE PAGE]
+     * @param hash Result hash
+     * @return Whether the values were loaded by this call and must be released after use
+     */
+    public boolean loadHistory(int hash) {
+        MappedHistory mapped = this.history;
+        TestValue result = results.get(hash);
+        if (mapped == null || result == null || residentResults.contains(hash)) {
+            return false;
+        }
+        try {
+            return mapped.fill(hash, result, parameters);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Load the values and states of a result for a window of builds, if not already loaded [TABLE PAGE]
+     * Identifiers, messages and parameters are not loaded, table rows do not display them.
+     * @param hash Result hash
+     * @param firstBuild First build of the window
+     * @param lastBuild Last build of the window
+     * @return Whether the values were loaded by this call and must be released after use
+     */
+    public boolean loadHistory(int hash, int firstBuild, int lastBuild) {
+        MappedHistory mapped = this.history;
+        TestValue result = results.get(hash);
+        if (mapped == null || result == null || residentResults.contains(hash)) {
+            return false;
+        }
+        try {
+            return mapped.fillValues(hash, result, firstBuild, lastBuild);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Release the values of a result loaded from the mapped history [TABLE PAGE]
+     * @param hash Result hash
+     */
+    public void releaseHistory(int hash) {
+        TestValue result = results.get(hash);
+        if (result != null && !residentResults.contains(hash)) {
+            MappedHistory.clear(result);
         }
     }
 
+    /**
+     * Load the values of a result from the mapped history and keep them, used by the detail page [DETAIL PAGE]
+     * Only the last results kept stay loaded, the oldest one is released once the limit is reached.
+     * @param hash Result hash
+     * @return Whether the results loaded changed, the estimated size of this mapper must then be updated
+     */
+    public synchronized boolean keepHistory(int hash) {
+        TestValue result = results.get(hash);
+        if (result == null) {
+            return false;
+        }
+        synchronized (result) {
+            if (residentResults.contains(hash) || !loadHistory(hash)) {
+                return false;
+            }
+            residentResults.add(hash);
+        }
+        if (residentResults.size() > MAX_RESIDENT_RESULTS) {
+            Integer released;
+            synchronized (residentResults) {
+                Iterator<Integer> eldest = residentResults.iterator();
+                released = eldest.next();
+                eldest.remove();
+            }
+            TestValue releasedResult = results.get(released);
+            if (releasedResult != null) {
+                synchronized (releasedResult) {
+                    MappedHistory.clear(releasedResult);
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Get the HTML content to represent the result in a table [TABLE PAGE]
      * @return HTML content to represent the result
@@ -476,10 +911,139 @@ public class MapperBase {
         StringBuffer body = new StringBuffer();
         body.append("<tbody>");
         for (Map.Entry<Integer, TestValue> result:results.entrySet()){
-            body.append(result.getValue().getHTMLResult(result.getKey(), detected, builds, listNPassed, listNFailed, decimalSeparator));
+            // Values read from the mapped history are only held while the row is assembled
+            synchronized (result.getValue()) {
+                boolean loaded = loadHistory(result.getKey(), builds.first(), builds.last());
+                body.append(result.getValue().getHTMLResult(result.getKey(), detected, builds, listNPassed, listNFailed, decimalSeparator));
+                if (loaded) {
+                    releaseHistory(result.getKey());
+                }
+            }
         }
         body.append("</tbody>");
 
+        // Final assembly
+        StringBuffer content = assembleHTMLTableHeader(this.builds.first(), this.builds.last(), listNPassed, listNFailed);
+        content.append(body);
+        return content.toString();
+    }
+
+    /**
+     * Get the HTML header and footer of the raw table for a window of builds, rows are served by getTablePage() [TABLE PAGE]
+     * @param firstBuild First build of the window, null for the first build available
+     * @param lastBuild Last build of the window, null for the last build available
+     * @return HTML header and footer of the raw table
+     */
+    public String getHTMLTableHeader(Integer firstBuild, Integer lastBuild){
+        if (results.size() == 0 || builds.isEmpty()) {
+            return "";
+        }
+
+        int[] window = getBuildWindow(firstBuild, lastBuild);
+        StateCounts counts = getStateCounts();
+        List<Integer> listNFailed = new ArrayList<Integer>();
+        List<Integer> listNPassed = new ArrayList<Integer>();
+        for (int build = window[1]; build >= window[0]; build--) {
+            int index = counts.lastBuild - build;
+            listNPassed.add(counts.nPassed[index]);
+            listNFailed.add(counts.nFailed[index]);
+        }
+        return assembleHTMLTableHeader(window[0], window[1], listNPassed, listNFailed).toString();
+    }
+
+    /**
+     * Get the number of passed and failed results of every build, counted once for the history [TABLE PAGE]
+     * Counting requires the values of every result, the counts are therefore kept with the history rather than
+     * counted again each time the table header is drawn. They are counted again if results or builds were added.
+     * @return Counts from the last build down to the first one
+     */
+    private synchronized StateCounts getStateCounts(){
+        int first = builds.first();
+        int last = builds.last();
+        if (stateCounts != null && stateCounts.firstBuild == first && stateCounts.lastBuild == last && stateCounts.nResults == results.size()) {
+            return stateCounts;
+        }
+
+        int nBuilds = last - first + 1;
+        List<Integer> listNFailed = new ArrayList<Integer>(Collections.nCopies(nBuilds,0));
+        List<Integer> listNPassed = new ArrayList<Integer>(Collections.nCopies(nBuilds,0));
+        for (Map.Entry<Integer, TestValue> result:results.entrySet()){
+            synchronized (result.getValue()) {
+                boolean loaded = loadHistory(result.getKey(), first, last);
+                result.getValue().countStates(first, last, listNPassed, listNFailed);
+                if (loaded) {
+                    releaseHistory(result.getKey());
+                }
+            }
+        }
+        stateCounts = new StateCounts(first, last, results.size(), listNPassed, listNFailed);
+        return stateCounts;
+    }
+
+    /**
+     * Generate a page of the raw table for the server-side processing of DataTables [TABLE PAGE]
+     * Results are filtered on their heading cells and sorted before the page is cut, so that only the rows
+     * of the page are rendered.
+     * @param draw Draw counter of the request, returned as is
+     * @param start Index of the first row of the page
+     * @param length Number of rows of the page, -1 for all the rows
+     * @param search Words to be found in the location, group, name or unit of the result
+     * @param orderColumn Column the rows are sorted on
+     * @param ascending Whether the rows are sorted in ascending order
+     * @param firstBuild First build of the window, null for the first build available
+     * @param lastBuild Last build of the window, null for the last build available
+     * @return Page with its row counts, in the DataTables format
+     */
+    public JsonObject getTablePage(int draw, int start, int length, String search, int orderColumn, boolean ascending, Integer firstBuild, Integer lastBuild){
+        if (results.isEmpty() || builds.isEmpty()) {
+            return getPage(draw, 0, new JsonArray());
+        }
+        int[] window = getBuildWindow(firstBuild, lastBuild);
+        List<Map.Entry<Integer, TestValue>> rows = getFilteredRows(search);
+        int nHeads = getNumberOfHeads();
+
+        Map<Integer, String> sortCells;
+        int index = orderColumn - nHeads - 1;
+        if (index >= 0 && index <= window[1] - window[0]) {
+            int build = window[1] - index;
+            sortCells = new HashMap<Integer, String>();
+            for (Map.Entry<Integer, TestValue> row:rows){
+                synchronized (row.getValue()) {
+                    boolean loaded = loadHistory(row.getKey(), build, build);
+                    String value = row.getValue().getValueAsLocaleString(build, decimalSeparator);
+                    sortCells.put(row.getKey(), value.equals("__boolean__") ? "" : value);
+                    if (loaded) {
+                        releaseHistory(row.getKey());
+                    }
+                }
+            }
+        } else {
+            sortCells = getHeadCells(rows, orderColumn);
+        }
+        sortRows(rows, sortCells, ascending);
+
+        JsonArray data = new JsonArray();
+        for (Map.Entry<Integer, TestValue> row:getPageRows(rows, start, length)){
+            synchronized (row.getValue()) {
+                boolean loaded = loadHistory(row.getKey(), window[0], window[1]);
+                data.add(row.getValue().getTableRow(row.getKey(), detected, window[0], window[1], decimalSeparator));
+                if (loaded) {
+                    releaseHistory(row.getKey());
+                }
+            }
+        }
+        return getPage(draw, rows.size(), data);
+    }
+
+    /**
+     * Assemble the HTML header and footer of the raw table [TABLE PAGE]
+     * @param firstBuild First build of the window
+     * @param lastBuild Last build of the window
+     * @param listNPassed Number of passed result test for each build, from the last build
+     * @param listNFailed Number of failed result test for each build, from the last build
+     * @return HTML header and footer
+     */
+    private StringBuffer assembleHTMLTableHeader(int firstBuild, int lastBuild, List<Integer> listNPassed, List<Integer> listNFailed){
         // Headers
         StringBuffer header_top = new StringBuffer();
         StringBuffer header_bot = new StringBuffer();
@@ -533,7 +1097,7 @@ public class MapperBase {
         } else {
             header_top.append(Messages.MapperBase_Result());
         }
-        for (Integer build = this.builds.last(); build >= this.builds.first(); build--) {
+        for (Integer build = lastBuild; build >= firstBuild; build--) {
             header_top.append("</th><th>");
             header_top.append(build.toString());
         }
@@ -551,7 +1115,7 @@ public class MapperBase {
         }
         header_bot.append("</th><th rowspan=\"3\">");
         header_bot.append(Messages.MapperBase_ResultKey());
-        for (Integer build = this.builds.last(); build >= this.builds.first(); build--) {
+        for (Integer build = lastBuild; build >= firstBuild; build--) {
             header_bot.append("</th><th>");
             header_bot.append(build.toString());
         }
@@ -573,10 +1137,8 @@ public class MapperBase {
         }
         header_bot.append("</th></tr></tfoot>");
 
-        // Final assembly
         header_top.append(header_bot);
-        header_top.append(body);
-        return header_top.toString();
+        return header_top;
     }
 
     /**
@@ -615,9 +1177,15 @@ public class MapperBase {
         }
 
         StringBuffer content = new StringBuffer();
-        for (TestValue result:results.values()){
-            content.append(result.getCSVResult(builds, detected));
-            content.append("\n");
+        for (Map.Entry<Integer, TestValue> result:results.entrySet()){
+            synchronized (result.getValue()) {
+                boolean loaded = loadHistory(result.getKey(), builds.first(), builds.last());
+                content.append(result.getValue().getCSVResult(builds, detected));
+                content.append("\n");
+                if (loaded) {
+                    releaseHistory(result.getKey());
+                }
+            }
         }
         return content.toString();
     }
@@ -633,12 +1201,52 @@ public class MapperBase {
 
         StringBuffer content = new StringBuffer();
         for (Map.Entry<Integer, TestValue> result:results.entrySet()){
-            content.append(result.getValue().getCSVResultState(result.getKey(), detected, builds));
-            content.append("\n");
+            synchronized (result.getValue()) {
+                boolean loaded = loadHistory(result.getKey(), builds.first(), builds.last());
+                content.append(result.getValue().getCSVResultState(result.getKey(), detected, builds));
+                content.append("\n");
+                if (loaded) {
+                    releaseHistory(result.getKey());
+                }
+            }
         }
         return content.toString();
     }
 
+    /**
+     * Write the CSV raw table row by row [CSV EXPORT]
+     * The header is flushed first and each row is released once written, so that the memory used does not
+     * depend on the size of the table.
+     * @param writer Output
+     * @param states Whether the test states are written instead of the values
+     * @throws IOException If the output cannot be written
+     */
+    public void writeCSVTable(Writer writer, boolean states) throws IOException {
+        if (results.size() == 0) {
+            return;
+        }
+        writer.write(getCSVTableHeader());
+        writer.write("\n");
+        writer.flush();
+        for (Map.Entry<Integer, TestValue> result:results.entrySet()){
+            String row;
+            synchronized (result.getValue()) {
+                boolean loaded = loadHistory(result.getKey(), builds.first(), builds.last());
+                if (states) {
+                    row = result.getValue().getCSVResultState(result.getKey(), detected, builds);
+                } else {
+                    row = result.getValue().getCSVResult(builds, detected);
+                }
+                if (loaded) {
+                    releaseHistory(result.getKey());
+                }
+            }
+            writer.write(row);
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
     // Condensed content
 
     /**
@@ -649,6 +1257,74 @@ public class MapperBase {
         if (results.size() == 0) {
             return "";
         }
+        StringBuffer content = assembleHTMLCondensedTableHeader();
+        content.append("<tbody>");
+        for (Map.Entry<Integer, TestValue> result:results.entrySet()){
+            content.append(result.getValue().getHTMLCondensed(result.getKey(), detected, decimalSeparator));
+        }
+        content.append("</tbody>");
+        return content.toString();
+    }
+
+    /**
+     * Get the HTML header and footer of the condensed table, rows are served by getCondensedTablePage() [TABLE PAGE]
+     * @return HTML header and footer of the condensed table
+     */
+    public String getHTMLCondensedTableHeader(){
+        if (results.size() == 0) {
+            return "";
+        }
+        return assembleHTMLCondensedTableHeader().toString();
+    }
+
+    /**
+     * Generate a page of the condensed table for the server-side processing of DataTables [TABLE PAGE]
+     * @param draw Draw counter of the request, returned as is
+     * @param start Index of the first row of the page
+     * @param length Number of rows of the page, -1 for all the rows
+     * @param search Words to be found in the location, group, name or unit of the result
+     * @param orderColumn Column the rows are sorted on
+     * @param ascending Whether the rows are sorted in ascending order
+     * @return Page with its row counts, in the DataTables format
+     */
+    public JsonObject getCondensedTablePage(int draw, int start, int length, String search, int orderColumn, boolean ascending){
+        List<Map.Entry<Integer, TestValue>> rows = getFilteredRows(search);
+
+        // The statistic cells read for the sort are kept for the rows of the page
+        Map<Integer, String> sortCells;
+        Map<Integer, List<String>> rowCells = new HashMap<Integer, List<String>>();
+        if (orderColumn > getNumberOfHeads()) {
+            sortCells = new HashMap<Integer, String>();
+            for (Map.Entry<Integer, TestValue> row:rows){
+                List<String> cells = getCondensedCells(row.getKey(), row.getValue());
+                rowCells.put(row.getKey(), cells);
+                sortCells.put(row.getKey(), orderColumn < cells.size() ? cells.get(orderColumn) : "");
+            }
+        } else {
+            sortCells = getHeadCells(rows, orderColumn);
+        }
+        sortRows(rows, sortCells, ascending);
+
+        JsonArray data = new JsonArray();
+        for (Map.Entry<Integer, TestValue> row:getPageRows(rows, start, length)){
+            List<String> cells = rowCells.get(row.getKey());
+            if (cells == null) {
+                cells = getCondensedCells(row.getKey(), row.getValue());
+            }
+            JsonArray array = new JsonArray();
+            for (String cell:cells){
+                array.add(new JsonPrimitive(cell));
+            }
+            data.add(array);
+        }
+        return getPage(draw, rows.size(), data);
+    }
+
+    /**
+     * Assemble the HTML header and footer of the condensed table [TABLE PAGE]
+     * @return HTML header and footer
+     */
+    private StringBuffer assembleHTMLCondensedTableHeader(){
         StringBuffer header = new StringBuffer();
         header.append("<th>");
         if (detected.isFileDetected()) {
@@ -687,13 +1363,194 @@ public class MapperBase {
         content.append(header);
         content.append("</tr></thead><tfoot><tr>");
         content.append(header);
-        content.append("</tr></tfoot><tbody>");
+        content.append("</tr></tfoot>");
+        return content;
+    }
+
+    /**
+     * Get the cells of the condensed row of a result [TABLE PAGE]
+     * Results without numeral statistics get empty statistic cells, so that all the rows have the same columns.
+     * @param key Result hash value
+     * @param result Result
+     * @return Cells of the row
+     */
+    private List<String> getCondensedCells(Integer key, TestValue result){
+        List<String> cells = result.getTableHeads(detected);
+        cells.add(key.toString());
+        List<String> statistics = result.getCondensedCells(decimalSeparator);
+        if (detected.isNumeralDetected()) {
+            for (int i = statistics.size(); i < 6; i++) {
+                cells.add("");
+            }
+        } else if (statistics.size() > 2) {
+            statistics = statistics.subList(statistics.size() - 2, statistics.size());
+        }
+        if (statistics.isEmpty()) {
+            cells.add("");
+            cells.add("");
+        } else {
+            cells.addAll(statistics);
+        }
+        return cells;
+    }
+
+    // Table pages
+
+    /**
+     * Clamp a window of builds to the builds available, which must not be empty [TABLE PAGE]
+     * @param firstBuild First build requested, null or 0 for the first build available
+     * @param lastBuild Last build requested, null or 0 for the last build available
+     * @return First and last build of the window
+     */
+    private int[] getBuildWindow(Integer firstBuild, Integer lastBuild){
+        int first = this.builds.first();
+        int last = this.builds.last();
+        if (firstBuild != null && firstBuild > first) {
+            first = firstBuild;
+        }
+        if (lastBuild != null && lastBuild > 0 && lastBuild < last) {
+            last = lastBuild;
+        }
+        return new int[]{first, last};
+    }
 
+    /**
+     * Number of heading cells before the result key cell [TABLE PAGE]
+     * @return Number of heading cells
+     */
+    private int getNumberOfHeads(){
+        int nHeads = 1;
+        if (detected.isFileDetected()) {
+            nHeads++;
+        }
+        if (detected.isGroupDetected()) {
+            nHeads++;
+        }
+        if (detected.isUnitsDetected()) {
+            nHeads++;
+        }
+        return nHeads;
+    }
+
+    /**
+     * Select the results whose heading cells contain all the searched words, case insensitive [TABLE PAGE]
+     * @param search Words searched, separated by spaces
+     * @return Results selected
+     */
+    private List<Map.Entry<Integer, TestValue>> getFilteredRows(String search){
+        List<Map.Entry<Integer, TestValue>> rows = new ArrayList<Map.Entry<Integer, TestValue>>(results.size());
+        String[] words = (search == null) ? new String[0] : search.trim().toLowerCase().split("\\s+");
         for (Map.Entry<Integer, TestValue> result:results.entrySet()){
-            content.append(result.getValue().getHTMLCondensed(result.getKey(), detected, decimalSeparator));
+            StringBuilder text = new StringBuilder();
+            for (String head:result.getValue().getTableHeads(detected)){
+                text.append(head.toLowerCase());
+                text.append(' ');
+            }
+            text.append(result.getKey().toString());
+            boolean selected = true;
+            for (String word:words){
+                if (!word.isEmpty() && text.indexOf(word) < 0) {
+                    selected = false;
+                    break;
+                }
+            }
+            if (selected) {
+                rows.add(result);
+            }
         }
-        content.append("</tbody>");
-        return content.toString();
+        return rows;
+    }
+
+    /**
+     * Get the heading or key cell of the results for a column [TABLE PAGE]
+     * @param rows Results
+     * @param column Column index, the key column follows the heading ones
+     * @return Cells mapped by result key
+     */
+    private Map<Integer, String> getHeadCells(List<Map.Entry<Integer, TestValue>> rows, int column){
+        Map<Integer, String> cells = new HashMap<Integer, String>();
+        for (Map.Entry<Integer, TestValue> row:rows){
+            List<String> heads = row.getValue().getTableHeads(detected);
+            if (column >= 0 && column < heads.size()) {
+                cells.put(row.getKey(), heads.get(column));
+            } else {
+                cells.put(row.getKey(), row.getKey().toString());
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Sort the results on their cells [TABLE PAGE]
+     * Empty cells come first, then numbers by value, then text ignoring case. Ties are ordered on the result key
+     * so that the raw and condensed tables list the results in the same order.
+     * @param rows Results to sort
+     * @param cells Cells mapped by result key
+     * @param ascending Whether the results are sorted in ascending order
+     */
+    private void sortRows(List<Map.Entry<Integer, TestValue>> rows, final Map<Integer, String> cells, final boolean ascending){
+        final Map<Integer, Double> numbers = new HashMap<Integer, Double>();
+        for (Map.Entry<Integer, String> cell:cells.entrySet()){
+            try {
+                numbers.put(cell.getKey(), Double.parseDouble(cell.getValue().replace(decimalSeparator, '.')));
+            } catch (NumberFormatException e) {
+                // Sorted as text
+            }
+        }
+        Collections.sort(rows, new Comparator<Map.Entry<Integer, TestValue>>() {
+            @Override
+            public int compare(Map.Entry<Integer, TestValue> o1, Map.Entry<Integer, TestValue> o2) {
+                int order = compareCells(o1.getKey(), o2.getKey());
+                if (order == 0) {
+                    order = o1.getKey().compareTo(o2.getKey());
+                }
+                return ascending ? order : -order;
+            }
+
+            private int compareCells(Integer key1, Integer key2) {
+                String cell1 = cells.get(key1);
+                String cell2 = cells.get(key2);
+                int rank1 = (cell1 == null || cell1.isEmpty()) ? 0 : (numbers.containsKey(key1) ? 1 : 2);
+                int rank2 = (cell2 == null || cell2.isEmpty()) ? 0 : (numbers.containsKey(key2) ? 1 : 2);
+                if (rank1 != rank2) {
+                    return rank1 < rank2 ? -1 : 1;
+                } else if (rank1 == 1) {
+                    return Double.compare(numbers.get(key1), numbers.get(key2));
+                } else if (rank1 == 2) {
+                    return cell1.compareToIgnoreCase(cell2);
+                }
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Cut the page out of the results [TABLE PAGE]
+     * @param rows Results
+     * @param start Index of the first row of the page
+     * @param length Number of rows of the page, -1 for all the rows
+     * @return Results of the page
+     */
+    private List<Map.Entry<Integer, TestValue>> getPageRows(List<Map.Entry<Integer, TestValue>> rows, int start, int length){
+        int from = Math.min(Math.max(start, 0), rows.size());
+        int to = (length < 0) ? rows.size() : (int)Math.min((long)from + length, rows.size());
+        return rows.subList(from, to);
+    }
+
+    /**
+     * Assemble a page in the DataTables server-side format [TABLE PAGE]
+     * @param draw Draw counter of the request
+     * @param recordsFiltered Number of results left by the search
+     * @param data Rows of the page
+     * @return Page
+     */
+    private JsonObject getPage(int draw, int recordsFiltered, JsonArray data){
+        JsonObject page = new JsonObject();
+        page.addProperty("draw", draw);
+        page.addProperty("recordsTotal", results.size());
+        page.addProperty("recordsFiltered", recordsFiltered);
+        page.add("data", data);
+        return page;
     }
 
     /**
@@ -751,6 +1608,25 @@ public class MapperBase {
         return content.toString();
     }
 
+    /**
+     * Write the CSV condensed table row by row [CSV EXPORT]
+     * @param writer Output
+     * @throws IOException If the output cannot be written
+     */
+    public void writeCSVCondensedTable(Writer writer) throws IOException {
+        if (results.size() == 0) {
+            return;
+        }
+        writer.write(getCSVCondensedTableHeader());
+        writer.write("\n");
+        writer.flush();
+        for (TestValue result:results.values()){
+            writer.write(result.getCSVCondensed(detected));
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
     /**
      * Import condensed results from file
      * @param inputFilename File name
@@ -782,76 +1658,76 @@ public class MapperBase {
     public void importCondensedFromFile (File inputFile) throws NullPointerException, IOException, JsonIOException, JsonSyntaxException, ValidationException {
 
         Integer build = null;
-        JsonParser parser = new JsonParser();
-        InputStreamReader reader = new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8);
-        JsonElement jsonContent = parser.parse(reader);
-
-        if (jsonContent.isJsonObject()) {
-            JsonObject jsonObject = jsonContent.getAsJsonObject();
-
-            // Load base information
-            for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                if (enContent.getKey().equalsIgnoreCase("build")) {
-                    JsonElement element = enContent.getValue();
-                    if (element.isJsonPrimitive()) {
-                        JsonPrimitive primitive = element.getAsJsonPrimitive();
-                        if (primitive.isNumber()) {
-                            build = primitive.getAsInt();
-                        }
-                    }
-                    break;
-                }
-            }
+        List<JsonRecord> pendingFiles = new ArrayList<JsonRecord>();
+        List<JsonRecord> pendingParameters = new ArrayList<JsonRecord>();
+        List<JsonRecord> pendingResults = new ArrayList<JsonRecord>();
 
-            if (build != null) {
-                // Load file groups
-                for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                    if (enContent.getKey().equalsIgnoreCase("files")) {
-                        JsonElement element = enContent.getValue();
-                        if (element.isJsonArray()) {
-                            JsonArray array = element.getAsJsonArray();
-                            for (JsonElement aElement : array) {
-                                if (aElement.isJsonObject()) {
-                                    JsonObject aObject = aElement.getAsJsonObject();
-                                    TestGroup.convertCondensedFileJsonObject(aObject, rootGroup, files, detected);
-                                }
-                            }
+        JsonReader reader = new JsonReader(openReader(inputFile));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                JsonToken token = reader.peek();
+                if (build == null && key.equalsIgnoreCase("build") && token == JsonToken.NUMBER) {
+                    // Load base information
+                    build = reader.nextInt();
+                } else if (key.equalsIgnoreCase("files") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load file groups
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record != null && record.getHash() != null) {
+                            pendingFiles.add(record);
                         }
                     }
-                }
-
-                // Load parameters
-                for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                    if (enContent.getKey().equalsIgnoreCase("parameters")) {
-                        JsonElement element = enContent.getValue();
-                        if (element.isJsonArray()) {
-                            JsonArray array = element.getAsJsonArray();
-                            for (JsonElement aElement : array) {
-                                if (aElement.isJsonObject()) {
-                                    JsonObject aObject = aElement.getAsJsonObject();
-                                    TestValue.convertCondensedParameterJsonObject(aObject, rootGroup, parameters, detected);
-                                }
-                            }
+                    reader.endArray();
+                } else if (key.equalsIgnoreCase("parameters") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load parameters
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record != null && record.getHash() != null) {
+                            pendingParameters.add(record);
                         }
                     }
-                }
-
-                // Load results
-                for (Map.Entry<String, JsonElement> enContent : jsonObject.entrySet()) {
-                    if (enContent.getKey().equalsIgnoreCase("results")) {
-                        JsonElement element = enContent.getValue();
-                        if (element.isJsonArray()) {
-                            JsonArray array = element.getAsJsonArray();
-                            for (JsonElement aElement : array) {
-                                if (aElement.isJsonObject()) {
-                                    JsonObject aObject = aElement.getAsJsonObject();
-                                    TestValue.convertCondensedResultJsonObject(aObject, rootGroup, files, results, detected);
-                                }
-                            }
+                    reader.endArray();
+                } else if (key.equalsIgnoreCase("results") && token == JsonToken.BEGIN_ARRAY) {
+                    // Load results
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        JsonRecord record = JsonRecord.read(reader);
+                        if (record != null && record.getHash() != null) {
+                            pendingResults.add(record);
                         }
                     }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
                 }
             }
+            reader.endObject();
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            reader.close();
+        }
+
+        // Results are attached to their file groups, which are stored after them
+        if (build != null) {
+            for (JsonRecord record : pendingFiles) {
+                TestGroup.convertCondensedFileRecord(record, rootGroup, files, detected);
+            }
+            for (JsonRecord record : pendingParameters) {
+                TestValue.convertCondensedParameterRecord(record, rootGroup, parameters, detected);
+            }
+            for (JsonRecord record : pendingResults) {
+                TestValue.convertCondensedResultRecord(record, rootGroup, files, results, detected);
+            }
         }
     }
 
@@ -863,48 +1739,109 @@ public class MapperBase {
      * @return Whether export was successful
      */
     public boolean exportCondensedToFile(String outputFile, String job, int build) {
-        try {
-            OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
-
-            JsonObject rootObject = new JsonObject();
-            rootObject.addProperty("job", job);
-            rootObject.addProperty("build", build);
+        return exportCondensedToFile(outputFile, job, build, false);
+    }
 
-            if (results.size() > 0) {
-                JsonArray resultArray = new JsonArray();
-                for (Map.Entry<Integer,TestValue> result : results.entrySet()) {
-                    resultArray.add(result.getValue().getCondensedJsonObject(build, result.getKey()));
+    /**
+     * Export condensed results to file [EXPORT CONDENSED]
+     * Results are streamed one at a time in compact form.
+     * @param outputFile    Output file
+     * @param job           Job name
+     * @param build         Build number
+     * @param compress      Whether the file is compressed with gzip
+     * @return Whether export was successful
+     */
+    public boolean exportCondensedToFile(String outputFile, String job, int build, boolean compress) {
+        try {
+            JsonWriter writer = openJsonWriter(outputFile, compress);
+            try {
+                writer.beginObject();
+                writer.name("job").value(job);
+                writer.name("build").value(build);
+
+                if (results.size() > 0) {
+                    writer.name("results");
+                    writer.beginArray();
+                    for (Map.Entry<Integer, TestValue> result : results.entrySet()) {
+                        gson.toJson(result.getValue().getCondensedJsonObject(build, result.getKey()), writer);
+                    }
+                    writer.endArray();
                 }
-                rootObject.add("results", resultArray);
-            }
 
-            if (parameters.size() > 0) {
-                JsonArray parameterArray = new JsonArray();
-                for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
-                    parameterArray.add(parameter.getValue().getParameterJsonObject(parameter.getKey()));
+                if (parameters.size() > 0) {
+                    writer.name("parameters");
+                    writer.beginArray();
+                    for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
+                        gson.toJson(parameter.getValue().getParameterJsonObject(parameter.getKey()), writer);
+                    }
+                    writer.endArray();
                 }
-                rootObject.add("parameters", parameterArray);
-            }
 
-            boolean detFiles = false;
-            JsonArray fileArray = new JsonArray();
-            for (Map.Entry<Integer, TestGroup> group : groups.entrySet()) {
-                if (group.getValue().getClassType() == TestGroup.ClassType.ct_fileGrp) {
-                    fileArray.add(group.getValue().getJsonObject(group.getKey()));
-                    detFiles = true;
+                boolean detFiles = false;
+                for (Map.Entry<Integer, TestGroup> group : groups.entrySet()) {
+                    if (group.getValue().getClassType() == TestGroup.ClassType.ct_fileGrp) {
+                        if (!detFiles) {
+                            writer.name("files");
+                            writer.beginArray();
+                            detFiles = true;
+                        }
+                        gson.toJson(group.getValue().getJsonObject(group.getKey()), writer);
+                    }
+                }
+                if (detFiles) {
+                    writer.endArray();
                 }
-            }
-            if (detFiles) {
-                rootObject.add("files", fileArray);
-            }
 
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(rootObject, writer);
-            writer.close();
+                writer.endObject();
+            } finally {
+                writer.close();
+            }
             return true;
         } catch (IOException e) {
             return false;
+        } catch (JsonIOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open a stored result file for reading, gzip compressed files are detected from their header
+     * @param inputFile Input file
+     * @return Reader on the uncompressed content
+     * @throws IOException If the file could not be opened
+     */
+    protected static Reader openReader(File inputFile) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(inputFile));
+        try {
+            input.mark(2);
+            int first = input.read();
+            int second = input.read();
+            input.reset();
+            if (first == 0x1f && second == 0x8b) {
+                input = new GZIPInputStream(input);
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
         }
+        return new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open a stored result file for writing
+     * @param outputFile Output file
+     * @param compress Whether the content is compressed with gzip
+     * @return JSON stream writing compact content
+     * @throws IOException If the file could not be created
+     */
+    private static JsonWriter openJsonWriter(String outputFile, boolean compress) throws IOException {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(outputFile));
+        if (compress) {
+            output = new GZIPOutputStream(output);
+        }
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.setLenient(true);
+        return writer;
     }
 
     /**
@@ -985,10 +1922,69 @@ public class MapperBase {
     public int getNumberOfGroups() { return groups.size(); }
     public Map<Integer, TestGroup> getGroups() { return groups; }
 
-    public TreeSet<Integer> getBuilds() { return builds; }
+    public BuildSet getBuilds() { return builds; }
 
     public ContentDetected getDetected() { return detected; }
     public char getDecimalSeparator() { return decimalSeparator; }
 
     public Integer getBuild() { return build; }
+    public MappedHistory getHistory() { return history; }
+
+    /**
+     * Outcome of mapping one result file into its own partial mapper
+     */
+    protected static class FileMapping {
+
+        private final MapperBase    partial;
+        private final String        relativePath;
+        private TestGroup           group;
+        private boolean             identified = false;
+        private boolean             loaded = false;
+
+        public FileMapping(MapperBase partial, String relativePath) {
+            this.partial = partial;
+            this.relativePath = relativePath;
+        }
+
+        public void setGroup(TestGroup group) { this.group = group; }
+        public void setIdentified() { this.identified = true; }
+        public void setLoaded() { this.loaded = true; }
+
+        public MapperBase getPartial() { return partial; }
+        public String getRelativePath() { return relativePath; }
+        public TestGroup getGroup() { return group; }
+        public boolean isIdentified() { return identified; }
+        public boolean isLoaded() { return loaded; }
+    }
+
+    /**
+     * Join of one entry of another mapper into this mapper
+     */
+    private interface EntryJoin {
+        void join(Integer key, TestValue entry);
+    }
+
+    /**
+     * Number of passed and failed results of each build, from the last build down to the first one [TABLE PAGE]
+     */
+    private static class StateCounts {
+
+        private final int       firstBuild;
+        private final int       lastBuild;
+        private final int       nResults;
+        private final int[]     nPassed;
+        private final int[]     nFailed;
+
+        StateCounts(int firstBuild, int lastBuild, int nResults, List<Integer> listNPassed, List<Integer> listNFailed) {
+            this.firstBuild = firstBuild;
+            this.lastBuild = lastBuild;
+            this.nResults = nResults;
+            this.nPassed = new int[listNPassed.size()];
+            this.nFailed = new int[listNFailed.size()];
+            for (int i = 0; i < nPassed.length; i++) {
+                nPassed[i] = listNPassed.get(i);
+                nFailed[i] = listNFailed.get(i);
+            }
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/**
+ * MIT License
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.parsers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin.MapJsonPlan;
+import org.jenkinsci.plugins.benchmark.parsers.XmlToPlugin.MapXmlPlan;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mapping plan compiled from the content of a schema
+ *
+ * <p>
+ * Plans are cached for the whole JVM, keyed by the SHA-256 hash of the schema content, so that builds sharing
+ * a schema parse and compile it only once. Plans are read-only once compiled and shared across builds.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class SchemaPlan {
+
+    // Variables
+
+    private static final int MAX_PLANS = 32;
+
+    private static final Map<String, SchemaPlan> plans = new LinkedHashMap<String, SchemaPlan>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SchemaPlan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    private final MapJsonPlan jsonPlan;
+    private final MapXmlPlan  xmlPlan;
+
+    // Constructor
+
+    private SchemaPlan(MapJsonPlan jsonPlan, MapXmlPlan xmlPlan) {
+        this.jsonPlan = jsonPlan;
+        this.xmlPlan = xmlPlan;
+    }
+
+    // Functions
+
+    /**
+     * Get the plan of a schema, compiling it if not cached
+     * @param schema Schema content
+     * @return Mapping plan
+     * @throws IOException If the schema is neither a JSON nor an XML
+     */
+    public static SchemaPlan get(String schema) throws IOException {
+        String key = getHash(schema);
+        synchronized (plans) {
+            SchemaPlan plan = plans.get(key);
+            if (plan != null) {
+                return plan;
+            }
+        }
+
+        // Compiled outside of the lock, a concurrent compilation of the same schema is harmless
+        SchemaPlan plan = compile(schema);
+        synchronized (plans) {
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Compile a schema, JSON first then XML
+     * @param schema Schema content
+     * @return Mapping plan
+     * @throws IOException If the schema is neither a JSON nor an XML
+     */
+    private static SchemaPlan compile(String schema) throws IOException {
+        try {
+            JsonElement jSchema = new JsonParser().parse(schema);
+            return new SchemaPlan(MapJsonPlan.compile(jSchema), null);
+        } catch (Exception e) {
+            try {
+                return new SchemaPlan(null, MapXmlPlan.compile(getXML(schema)));
+            } catch (Exception e2) {
+                throw new IOException(Messages.FormatSelector_NoCompatibleSchemaFromatRecognised());
+            }
+        }
+    }
+
+    /**
+     * Parse an XML schema into a fully expanded document, safe for concurrent reads once built
+     * @param xmlContent XML schema content
+     * @return Reference to XML document.
+     */
+    private static Document getXML(String xmlContent) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setValidating(false);
+        factory.setNamespaceAware(true);
+        try {
+            factory.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+        } catch (Exception e) {
+            // Parser without deferred expansion
+        }
+        DocumentBuilder builder = factory.newDocumentBuilder();
+        return builder.parse(new InputSource(new StringReader(xmlContent)));
+    }
+
+    /**
+     * Hash of the schema content
+     * @param schema Schema content
+     * @return SHA-256 hash in hexadecimal
+     */
+    private static String getHash(String schema) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(schema.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return schema;
+        }
+    }
+
+    // Getters
+
+    public boolean isJson() { return (jsonPlan != null); }
+    public boolean isXml() { return (xmlPlan != null); }
+    public MapJsonPlan getJsonPlan() { return jsonPlan; }
+    public MapXmlPlan getXmlPlan() { return xmlPlan; }
+}
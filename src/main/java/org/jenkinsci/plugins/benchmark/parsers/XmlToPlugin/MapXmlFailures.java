@@ -66,8 +66,42 @@ public class MapXmlFailures {
         }
     }
 
+    private MapXmlFailures(List<TestFailure> failures) {
+        this.failures = failures;
+    }
+
     // Functions
 
+    /**
+     * Compile the failures defined directly inside a schema node
+     * @param nSchema Schema XML node
+     * @return Compiled failures, null if the definitions are invalid
+     */
+    static MapXmlFailures compile(Node nSchema) {
+        try {
+            return new MapXmlFailures(null, nSchema);
+        } catch (ValidationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Combine with the failures inherited from the parent sequences
+     * @param oFailures Previously registered failures
+     * @return Combined failures
+     */
+    MapXmlFailures with(MapXmlFailures oFailures) {
+        if (oFailures == null || !oFailures.hasFailures()) {
+            return this;
+        }
+        if (!hasFailures()) {
+            return oFailures;
+        }
+        List<TestFailure> combined = new ArrayList<TestFailure>(failures);
+        combined.addAll(oFailures.getFailures());
+        return new MapXmlFailures(combined);
+    }
+
     /**
      * Load all the failures detected inside the passed JsonElement
      *
@@ -116,11 +150,11 @@ public class MapXmlFailures {
                         try {
                             failures.add(new TestFailure(value, compare));
                         } catch (ValidationException e) {
-                            throw new ValidationException( Messages.MapXmlFailures_CompareIsNotRecogmizedAsType(compare, parent.getFullName()) );
+                            throw new ValidationException( Messages.MapXmlFailures_CompareIsNotRecogmizedAsType(compare, (parent == null) ? "" : parent.getFullName()) );
                         }
                     }
                 } catch (NumberFormatException e) {
-                    throw new ValidationException( Messages.MapXmlFailures_TextCouldNotBeParseToNumber(text_2, parent.getFullName()) );
+                    throw new ValidationException( Messages.MapXmlFailures_TextCouldNotBeParseToNumber(text_2, (parent == null) ? "" : parent.getFullName()) );
                 }
                 break;
         }
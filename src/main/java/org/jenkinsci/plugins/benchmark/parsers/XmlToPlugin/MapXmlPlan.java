@@ -0,0 +1,361 @@
+/**
+ * MIT License
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.parsers.XmlToPlugin;
+
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mapping plan compiled from an XML schema
+ * <p>
+ * The sequences, elements, complex types and failure definitions of the schema are resolved once,
+ * the plan is then executed against the content of each result file without inspecting the schema again.
+ * The leaf mappers still read their complex type node, the schema document must therefore not be modified
+ * once compiled.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class MapXmlPlan {
+
+    // Variables
+
+    private final boolean                   valid;
+    private final SequencePlan              root;
+
+    // Schema definitions, only used while compiling
+    private final Map<String, Element>      complexTypes = new HashMap<String, Element>();
+    private final Map<Node, TypePlan>       typePlans = new IdentityHashMap<Node, TypePlan>();
+
+    // Constructor
+
+    private MapXmlPlan(Document dSchema) {
+        Element eSchema = dSchema.getDocumentElement();
+        valid = eSchema.getLocalName().equalsIgnoreCase("schema");
+        if (!valid) {
+            root = null;
+            return;
+        }
+
+        // Isolate complex types
+        for (Node nSNode = eSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
+            if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
+                String attrName = ((Element) nSNode).getAttribute("name");
+                if (attrName != null && attrName.length() > 0) {
+                    complexTypes.put(attrName, (Element) nSNode);
+                }
+            }
+        }
+
+        root = new SequencePlan(this, eSchema);
+        complexTypes.clear();
+        typePlans.clear();
+    }
+
+    // Functions
+
+    /**
+     * Compile an XML schema into a mapping plan
+     * @param dSchema XML schema document
+     * @return Mapping plan
+     */
+    public static MapXmlPlan compile(Document dSchema) {
+        return new MapXmlPlan(dSchema);
+    }
+
+    /**
+     * Retrieve the plan of a complex type, shared by all the elements referencing it
+     * @param nSchema Complex type node
+     * @return Plan of the complex type
+     */
+    private TypePlan getTypePlan(Node nSchema) {
+        TypePlan plan = typePlans.get(nSchema);
+        if (plan == null) {
+            plan = new TypePlan(nSchema);
+            typePlans.put(nSchema, plan);
+            plan.compile(this);
+        }
+        return plan;
+    }
+
+    /**
+     * Get schema element type
+     * @param nSchema XML node from schema file
+     * @return group tag
+     */
+    private static MapXmlToPlugin.GroupTags getElementType (Node nSchema) {
+        NamedNodeMap attributes = nSchema.getAttributes();
+        for (int i = 0; i < attributes.getLength(); ++i) {
+            String name = attributes.item(i).getNodeName();
+            if (name.equalsIgnoreCase("type")) {
+                String value = attributes.item(i).getNodeValue().toLowerCase();
+                if (value.equals("jbs:result")){
+                    return MapXmlToPlugin.GroupTags.gt_result;
+                } else if (value.equals("jbs:threshold")) {
+                    return MapXmlToPlugin.GroupTags.gt_threshold;
+                } else if (value.equals("jbs:parameter")) {
+                    return MapXmlToPlugin.GroupTags.gt_parameter;
+                } else {
+                    return MapXmlToPlugin.GroupTags.gt_unknown;
+                }
+            }
+        }
+        return MapXmlToPlugin.GroupTags.gt_empty;
+    }
+
+    /**
+     * Get schema element attributes
+     *
+     * @param nSchema XML node from schema file
+     * @param key Name of the attribute
+     * @return Value of the attribute
+     */
+    private static String getElementAttribute (Node nSchema, String key) {
+        NamedNodeMap attributes = nSchema.getAttributes();
+        for (int i = 0; i < attributes.getLength(); ++i) {
+            String name = attributes.item(i).getNodeName();
+            if (name.equalsIgnoreCase(key)) {
+                return attributes.item(i).getNodeValue();
+            }
+        }
+        return null;
+    }
+
+    // Getters
+
+    public boolean isValid() { return valid; }
+    SequencePlan getRoot() { return root; }
+
+    /**
+     * Plan of a schema sequence, or of the schema itself
+     */
+    static final class SequencePlan {
+
+        // Variables
+
+        private final Node                  node;
+        private final MapXmlFailures        failures;
+        private final List<ElementPlan>     elements = new ArrayList<ElementPlan>();
+
+        // Constructor
+
+        private SequencePlan(MapXmlPlan plan, Node nSchema) {
+            node = nSchema;
+            failures = MapXmlFailures.compile(nSchema);
+            for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
+                if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("element")) {
+                    String name = getElementAttribute(nSNode, "name");
+                    if (name != null) {
+                        elements.add(new ElementPlan(plan, name, nSNode));
+                    }
+                }
+            }
+        }
+
+        // Functions
+
+        /**
+         * Failures applicable to the elements of this sequence
+         * @param rootGroup Root group of the mapper
+         * @param oldFailures Previously registered failures
+         * @return Failures of this sequence followed by the inherited ones
+         * @throws ValidationException If the failure definitions of this sequence are invalid
+         */
+        MapXmlFailures getFailures(TestGroup rootGroup, MapXmlFailures oldFailures) throws ValidationException {
+            if (failures == null) {
+                // Load again to report the error against the content being mapped
+                return new MapXmlFailures(rootGroup, node, oldFailures);
+            }
+            return failures.with(oldFailures);
+        }
+
+        // Getters
+
+        List<ElementPlan> getElements() { return elements; }
+    }
+
+    /**
+     * Plan of a schema element with the complex types describing its content
+     */
+    static final class ElementPlan {
+
+        // Variables
+
+        private final String                    name;
+        private final MapXmlToPlugin.GroupTags  tag;
+        private final List<TypePlan>            types = new ArrayList<TypePlan>();
+
+        // Constructor
+
+        private ElementPlan(MapXmlPlan plan, String name, Node nSchema) {
+            this.name = name;
+            MapXmlToPlugin.GroupTags type = getElementType(nSchema);
+            if (type == MapXmlToPlugin.GroupTags.gt_unknown) {
+                // Reference to a named complex type
+                tag = null;
+                Element nSElement = plan.complexTypes.get(getElementAttribute(nSchema, "type"));
+                if (nSElement != null) {
+                    types.add(plan.getTypePlan(nSElement));
+                }
+            } else {
+                // Inline complex types, typed by the element unless empty
+                tag = (type == MapXmlToPlugin.GroupTags.gt_empty) ? null : type;
+                for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
+                    if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
+                        types.add(plan.getTypePlan(nSNode));
+                    }
+                }
+            }
+        }
+
+        // Functions
+
+        /**
+         * Type under which the content of a complex type is mapped
+         * @param type Complex type of the element
+         * @return group tag
+         */
+        MapXmlToPlugin.GroupTags getTag(TypePlan type) {
+            return (tag != null) ? tag : type.getTag();
+        }
+
+        // Getters
+
+        String getName() { return name; }
+        List<TypePlan> getTypes() { return types; }
+    }
+
+    /**
+     * Plan of a schema complex type
+     */
+    static final class TypePlan {
+
+        // Variables
+
+        private final Node                      node;
+        private final MapXmlToPlugin.GroupTags  tag;
+        private List<SequencePlan>              sequences = Collections.emptyList();
+        private Set<String>                     descriptions = Collections.emptySet();
+
+        // Constructor
+
+        private TypePlan(Node nSchema) {
+            node = nSchema;
+            tag = getElementType(nSchema);
+        }
+
+        // Functions
+
+        /**
+         * Compile the inner sequences, after registration so that recursive types resolve to this plan
+         * @param plan Plan being compiled
+         */
+        private void compile(MapXmlPlan plan) {
+            List<SequencePlan> list = new ArrayList<SequencePlan>();
+            for (Node nSNode = node.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
+                if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("sequence")) {
+                    if (list.isEmpty()) {
+                        descriptions = getDescriptions(nSNode);
+                    }
+                    list.add(new SequencePlan(plan, nSNode));
+                }
+            }
+            sequences = list;
+        }
+
+        /**
+         * Elements holding the name and description of a group, only read inside the first sequence
+         * @param nSequence XML node of the sequence
+         * @return Names of the elements
+         */
+        private static Set<String> getDescriptions(Node nSequence) {
+            Set<String> names = new HashSet<String>();
+            for (Node nSNode = nSequence.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
+                if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("element")) {
+                    String type = getElementAttribute(nSNode, "type");
+                    String name = getElementAttribute(nSNode, "name");
+                    if (name != null && type != null && (type.equalsIgnoreCase("jbs:name") || type.equalsIgnoreCase("jbs:description"))) {
+                        names.add(name);
+                    }
+                }
+            }
+            return names;
+        }
+
+        /**
+         * Determine if a child element is mapped through a complex type
+         * @param name Qualified name of the child element
+         * @return Whether an element of the sequences with that name has a complex type
+         */
+        boolean isMapped(String name) {
+            for (SequencePlan sequence : sequences) {
+                for (ElementPlan element : sequence.getElements()) {
+                    if (element.getName().equals(name) && !element.getTypes().isEmpty()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Determine if a child element only describes the group of this type, such as its name or description
+         * @param name Qualified name of the child element
+         * @return Whether an element of the sequences with that name has no complex type
+         */
+        boolean isAttribute(String name) {
+            for (SequencePlan sequence : sequences) {
+                for (ElementPlan element : sequence.getElements()) {
+                    if (element.getName().equals(name) && element.getTypes().isEmpty()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Determine if a child element holds the name or the description of the group of this type
+         * @param name Qualified name of the child element
+         * @return Whether the element is read for the name or the description of the group
+         */
+        boolean isDescription(String name) {
+            return descriptions.contains(name);
+        }
+
+        // Getters
+
+        Node getNode() { return node; }
+        MapXmlToPlugin.GroupTags getTag() { return tag; }
+        List<SequencePlan> getSequences() { return sequences; }
+    }
+}
@@ -18,21 +18,35 @@
  */
 package org.jenkinsci.plugins.benchmark.parsers.XmlToPlugin;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import hudson.FilePath;
 import hudson.model.TaskListener;
+import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
 import org.jenkinsci.plugins.benchmark.results.TestGroup;
 import org.jenkinsci.plugins.benchmark.results.TestValue;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.jenkinsci.plugins.benchmark.utilities.LoaderExecutor;
 import org.w3c.dom.*;
 import org.xml.sax.SAXException;
 
@@ -46,7 +60,7 @@ public class MapXmlToPlugin extends MapperBase {
 
     // Enumeration
 
-    private enum GroupTags {
+    enum GroupTags {
         gt_empty,
         gt_unknown,
         gt_result,
@@ -56,12 +70,19 @@ public class MapXmlToPlugin extends MapperBase {
 
     // Variables
 
-    private final Map<String, Element> complexTypes = new HashMap<String, Element>();
-    private final Map<String, Element> elements = new HashMap<String, Element>();
+    // Result files above this size are streamed through the plan instead of being loaded as a whole
+    static final long STREAMING_THRESHOLD = 16L * 1024L * 1024L;
+
+    // Largest number of descriptive elements held by a streamed group before its creation
+    private int maxHeldElements = 0;
 
     // Constructor
 
     public MapXmlToPlugin(Integer build, File content, Document schema, boolean truncateStrings) throws IOException, ValidationException {
+        this(build, content, MapXmlPlan.compile(schema), truncateStrings);
+    }
+
+    public MapXmlToPlugin(Integer build, File content, MapXmlPlan plan, boolean truncateStrings) throws IOException, ValidationException {
         super(build, truncateStrings);
 
         Document xContent;
@@ -70,52 +91,86 @@ public class MapXmlToPlugin extends MapperBase {
         } catch(Exception e) {
             throw new IOException(Messages.MapXmlToPlugin_FileFormatNotRecognisedAsXml(content.getName()));
         }
-        InitiateLoading(rootGroup, xContent, schema);
+        InitiateLoading(rootGroup, xContent, plan);
 
     }
 
     public MapXmlToPlugin(Integer build, FilePath content, Document schema, boolean truncateStrings) throws IOException, ValidationException {
+        this(build, content, MapXmlPlan.compile(schema), truncateStrings);
+    }
+
+    public MapXmlToPlugin(Integer build, FilePath content, MapXmlPlan plan, boolean truncateStrings) throws IOException, ValidationException {
+        this(build, content, plan, truncateStrings, isStreamed(content));
+    }
+
+    /**
+     * Map a single result file
+     * @param build Build number
+     * @param content Result file
+     * @param plan Mapping plan compiled from the schema
+     * @param truncateStrings Whether strings are truncated
+     * @param streamed Whether the file is streamed through the plan instead of being loaded as a whole
+     * @throws IOException If the file could not be read or is not a valid XML
+     * @throws ValidationException If validation error occur
+     */
+    MapXmlToPlugin(Integer build, FilePath content, MapXmlPlan plan, boolean truncateStrings, boolean streamed) throws IOException, ValidationException {
         super(build, truncateStrings);
 
+        if (streamed) {
+            StreamFile(rootGroup, content, plan);
+            return;
+        }
+
         Document xContent;
         try{
             xContent = getXML(content);
         } catch(Exception e) {
             throw new IOException(Messages.MapXmlToPlugin_FileFormatNotRecognisedAsXml(content.getName()));
         }
-        InitiateLoading(rootGroup, xContent, schema);
+        InitiateLoading(rootGroup, xContent, plan);
     }
 
     public MapXmlToPlugin(Integer build, Map<String, FilePath> content, Document schema, boolean truncateStrings, TaskListener listener) throws IOException, ValidationException {
+        // Compile from a fully expanded copy, a deferred DOM document is not safe for concurrent reads
+        this(build, content, MapXmlPlan.compile((Document) schema.cloneNode(true)), truncateStrings, listener);
+    }
+
+    public MapXmlToPlugin(Integer build, Map<String, FilePath> content, final MapXmlPlan plan, boolean truncateStrings, TaskListener listener) throws IOException, ValidationException {
         super(build, truncateStrings);
 
         listener.getLogger().println(Messages.MapXmlToPlugin_ListOfFilesDetected());
 
-        Document xContent;
-        int files_processed = 0;
-        for(Map.Entry<String, FilePath> entry:content.entrySet()) {
-
-            String relativePath = FilePathToString(entry.getValue());
+        // Map each file into its own partial mapper, the plan is shared as read-only
+        List<Callable<FileMapping>> tasks = new ArrayList<Callable<FileMapping>>(content.size());
+        for (final Map.Entry<String, FilePath> entry : content.entrySet()) {
+            tasks.add(new Callable<FileMapping>() {
+                @Override
+                public FileMapping call() {
+                    return mapFile(entry.getKey(), entry.getValue(), plan);
+                }
+            });
+        }
+        List<FileMapping> mappings;
+        try {
+            mappings = LoaderExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
 
-            try {
-                xContent = getXML(entry.getValue());
-            } catch (Exception e) {
-                listener.getLogger().println("   - " + Messages.MapXmlToPlugin_PrintFailedToIdentifyFile(relativePath));
+        // Attach files in listing order
+        int files_processed = 0;
+        for (FileMapping mapping : mappings) {
+            if (!mapping.isIdentified()) {
+                listener.getLogger().println("   - " + Messages.MapXmlToPlugin_PrintFailedToIdentifyFile(mapping.getRelativePath()));
                 continue;
             }
-
-            try {
-                TestGroup group = new TestGroup(rootGroup, entry.getKey(), relativePath, TestValue.ClassType.ct_fileGrp);
-                files.put(group.getGroupHash(), group);
-                groups.put(group.getGroupHash(), group);
-                rootGroup.addGroup(group);
-
-                InitiateLoading(group, xContent, schema);
-            } catch (Exception e) {
-                listener.getLogger().println("   - " + Messages.MapXmlToPlugin_PrintFailedToLoadFile(relativePath));
+            attachFile(mapping);
+            if (!mapping.isLoaded()) {
+                listener.getLogger().println("   - " + Messages.MapXmlToPlugin_PrintFailedToLoadFile(mapping.getRelativePath()));
                 continue;
             }
-            listener.getLogger().println("   - " + relativePath);
+            listener.getLogger().println("   - " + mapping.getRelativePath());
             files_processed++;
         }
         if (files_processed == 0) {
@@ -123,6 +178,16 @@ public class MapXmlToPlugin extends MapperBase {
         }
     }
 
+    /**
+     * Mapper for the content of a single file, attached to the root group of the main mapper
+     * @param build Build number
+     * @param truncateStrings Whether strings are truncated
+     * @param rootGroup Root group of the main mapper
+     */
+    private MapXmlToPlugin(Integer build, boolean truncateStrings, TestGroup rootGroup) {
+        super(build, truncateStrings, rootGroup);
+    }
+
     public MapXmlToPlugin(Integer build, FilePath content, String schema, boolean truncateStrings) throws IOException, ValidationException {
         super(build, truncateStrings);
 
@@ -140,7 +205,7 @@ public class MapXmlToPlugin extends MapperBase {
             throw new IOException(Messages.MapXmlToPlugin_FileFormatNotRecognisedAsXml(content.getName()));
         }
 
-        InitiateLoading(rootGroup, xContent, xSchema);
+        InitiateLoading(rootGroup, xContent, MapXmlPlan.compile(xSchema));
     }
 
     public MapXmlToPlugin(Integer build, Map<String, FilePath> content, String schema, boolean truncateStrings) throws IOException, ValidationException {
@@ -153,6 +218,7 @@ public class MapXmlToPlugin extends MapperBase {
             throw new IOException(Messages.MapXmlToPlugin_SchemaFormatNotRecognisedAsXml());
         }
 
+        MapXmlPlan plan = MapXmlPlan.compile(xSchema);
         Document xContent;
         for(Map.Entry<String, FilePath> entry:content.entrySet()) {
             try {
@@ -181,13 +247,58 @@ public class MapXmlToPlugin extends MapperBase {
             groups.put(group.getGroupHash(), group);
             rootGroup.addGroup(group);
 
-            InitiateLoading(group, xContent, xSchema);
+            InitiateLoading(group, xContent, plan);
         }
     }
 
 
     // Functions
 
+    /**
+     * Map one result file into its own partial mapper, run on the loader pool
+     * @param key File key
+     * @param file Result file
+     * @param plan Mapping plan compiled from the XML schema
+     * @return Mapping of the file
+     */
+    private FileMapping mapFile(String key, FilePath file, MapXmlPlan plan) {
+        MapXmlToPlugin partial = new MapXmlToPlugin(getBuild(), truncateStrings, rootGroup);
+        FileMapping mapping = new FileMapping(partial, FilePathToString(file));
+
+        if (isStreamed(file)) {
+            TestGroup group = new TestGroup(rootGroup, key, mapping.getRelativePath(), TestValue.ClassType.ct_fileGrp);
+            try {
+                partial.StreamFile(group, file, plan);
+                mapping.setLoaded();
+            } catch (ValidationException e) {
+                // Reported when the file is attached
+            } catch (IOException e) {
+                return mapping;
+            }
+            mapping.setIdentified();
+            mapping.setGroup(group);
+            return mapping;
+        }
+
+        Document xContent;
+        try {
+            xContent = getXML(file);
+        } catch (Exception e) {
+            return mapping;
+        }
+        mapping.setIdentified();
+
+        try {
+            TestGroup group = new TestGroup(rootGroup, key, mapping.getRelativePath(), TestValue.ClassType.ct_fileGrp);
+            mapping.setGroup(group);
+            partial.InitiateLoading(group, xContent, plan);
+            mapping.setLoaded();
+        } catch (Exception e) {
+            // Reported when the file is attached
+        }
+        return mapping;
+    }
+
     /**
      * Determine if a file is a valid XML.
      * @param xmlFile Reference to XML file
@@ -230,35 +341,12 @@ public class MapXmlToPlugin extends MapperBase {
     /**
      * Initiate mapping of XML content with schema
      * @param dContent XML result document
-     * @param dSchema XMl schema document
+     * @param plan Mapping plan compiled from the XML schema
      * @throws ValidationException If validation error occur
      */
-    private void InitiateLoading(TestGroup group, Document dContent, Document dSchema) throws ValidationException {
-        if (dSchema.getDocumentElement().getLocalName().equalsIgnoreCase("schema")) {
-
-            Element eSchema = dSchema.getDocumentElement();
-
-            // Isolate complex types
-            for (Node nSNode = eSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
-                    String attrName = ((Element) nSNode).getAttribute("name");
-                    if (attrName != null && attrName.length() > 0) {
-                        complexTypes.put(attrName, (Element) nSNode);
-                    }
-                }
-            }
-
-            // Isolate base Element reference
-            for (Node nNode = eSchema.getFirstChild(); nNode != null; nNode = nNode.getNextSibling()) {
-                if (nNode.getNodeType() == Node.ELEMENT_NODE && nNode.getLocalName().equalsIgnoreCase("element")) {
-                    String attrName = ((Element) nNode).getAttribute("name");
-                    if (attrName != null && attrName.length() > 0) {
-                        elements.put(attrName, (Element) nNode);
-                    }
-                }
-            }
-
-            ProcessSequence (group, "__first__", dContent, eSchema, null);
+    private void InitiateLoading(TestGroup group, Document dContent, MapXmlPlan plan) throws ValidationException {
+        if (plan.isValid()) {
+            ProcessSequence (group, "__first__", dContent, plan.getRoot(), null);
         }else {
             throw new ValidationException(Messages.MapXmlToPlugin_SchemaRootElementAndNamespaceAreIncorrect());
         }
@@ -269,110 +357,472 @@ public class MapXmlToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with XML node from result file
      * @param nContent XML node from result file
-     * @param nSchema XML node from schema file
+     * @param sequence Mapping plan of the schema sequence
      * @param failures List of failure criteria
      * @throws ValidationException If validation error occur
      */
-    private void ProcessSequence (TestGroup parent, String key, Node nContent, Node nSchema, MapXmlFailures failures) throws ValidationException {
+    private void ProcessSequence (TestGroup parent, String key, Node nContent, MapXmlPlan.SequencePlan sequence, MapXmlFailures failures) throws ValidationException {
 
         // Collect failure definitions
-        MapXmlFailures newFailures = new MapXmlFailures(rootGroup, nSchema, failures);
+        MapXmlFailures newFailures = sequence.getFailures(rootGroup, failures);
 
         // Process elements
-        for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-            if (nSNode.getNodeType() == Node.ELEMENT_NODE) {
-                String name = nSNode.getLocalName();
-                if (name.equalsIgnoreCase("element")) {
-                    ProcessElement(parent, key, nContent, nSNode, newFailures);
-                }
-            }
+        for (MapXmlPlan.ElementPlan element : sequence.getElements()) {
+            ProcessElement(parent, key, nContent, element, newFailures);
         }
     }
 
     /**
-     * Process XML element
+     * Process XML element with each of its complex types
      *
      * @param parent Pointer to parent group
      * @param key Key associated with XML node from result file
      * @param nContent XML node from result file
-     * @param nSchema XML node from schema file
+     * @param element Mapping plan of the schema element
      * @param failures List of failure criteria
      * @throws ValidationException If validation error occur
      */
-    private void ProcessElement (TestGroup parent, String key, Node nContent, Node nSchema, MapXmlFailures failures) throws ValidationException {
+    private void ProcessElement (TestGroup parent, String key, Node nContent, MapXmlPlan.ElementPlan element, MapXmlFailures failures) throws ValidationException {
 
-        String name = getElementAttribute (nSchema, "name");
-        if (name == null) return;
+        for (MapXmlPlan.TypePlan type : element.getTypes()) {
+            ProcessType(parent, element.getName(), nContent, element.getTag(type), type, failures);
+        }
+    }
 
-        GroupTags type = getElementType (nSchema);
-        switch (type) {
-            case gt_empty:
-                for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                    if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
-                        ProcessComplexType (parent, name, nContent, nSNode, failures);
-                    }
-                }
+    /**
+     * Direct a complex type to its proper processing unit.
+     *
+     * @param parent Pointer to parent group
+     * @param key Key associated with XML node from result file
+     * @param nContent XML node from result file
+     * @param tag Type under which the content is mapped
+     * @param type Mapping plan of the complex type
+     * @param failures List of failure criteria
+     * @throws ValidationException If validation error occur
+     */
+    private void ProcessType (TestGroup parent, String key, Node nContent, GroupTags tag, MapXmlPlan.TypePlan type, MapXmlFailures failures) throws ValidationException {
+        switch (tag) {
+            case gt_parameter:
+                ProcessParameter (parent, key, nContent, type.getNode(), failures);
                 break;
-
-            case gt_unknown: // TestGroup
-                String value = getElementAttribute (nSchema, "type");
-                Element nSElement = complexTypes.get(value);
-                if (nSElement != null) {
-                    ProcessComplexType (parent, name, nContent, nSElement, failures);
-                }
+            case gt_result:
+                ProcessResult (parent, key, nContent, type, failures);
                 break;
+            case gt_threshold:
+                ProcessThreshold (parent, key, nContent, type.getNode(), failures);
+                break;
+            default:
+                ProcessGroup (parent, key, nContent, type, failures);
+        }
+    }
 
-            case gt_parameter:
-                for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                    if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
-                        ProcessParameter (parent, name, nContent, nSNode, failures);
-                    }
+    /**
+     * Determine if a result file is large enough to be streamed
+     * @param content Result file
+     * @return Whether the file is streamed
+     */
+    private static boolean isStreamed(FilePath content) {
+        try {
+            return content.length() > STREAMING_THRESHOLD;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stream the content of a result file through the plan
+     * <p>
+     * Groups are read element by element, the elements not referenced by the schema are skipped and only results,
+     * parameters and thresholds are loaded, one at a time, into a small DOM fragment mapped as usual. The memory
+     * used is therefore bounded by the largest of those and not by the size of the file.
+     * <p>
+     * A group is created once the elements holding its name and description are read, at its first mapped child or
+     * at its end. Those elements must therefore appear ahead of the content of the group. Each result, parameter and
+     * threshold is then mapped as soon as it is read and dropped. Once all its content is mapped, the content of a
+     * group is ordered as in the schema, as when the file is loaded as a whole.
+     * @param group Group the content is attached to
+     * @param content Result file
+     * @param plan Mapping plan compiled from the XML schema
+     * @throws IOException If the file could not be read or is not a valid XML
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamFile(TestGroup group, FilePath content, MapXmlPlan plan) throws IOException, ValidationException {
+        if (!plan.isValid()) {
+            throw new ValidationException(Messages.MapXmlToPlugin_SchemaRootElementAndNamespaceAreIncorrect());
+        }
+
+        InputStream input = null;
+        XMLStreamReader reader = null;
+        try {
+            input = new BufferedInputStream(content.read());
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            reader = factory.createXMLStreamReader(input);
+
+            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+            builderFactory.setNamespaceAware(true);
+            Document fragments = builderFactory.newDocumentBuilder().newDocument();
+
+            List<MapXmlPlan.SequencePlan> sequences = Collections.singletonList(plan.getRoot());
+            List<MapXmlFailures> failures = getFailures(sequences, null);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    StreamElement(group, reader, sequences, failures, fragments);
                 }
-                break;
+            }
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(Messages.MapXmlToPlugin_FileFormatNotRecognisedAsXml(content.getName()), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Input closed below
+                }
+            }
+            IOUtils.closeQuietly(input);
+        }
+    }
 
-            case gt_result:
-                for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                    if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
-                        ProcessResult (parent, name, nContent, nSNode, failures);
+    /**
+     * Stream an element against the sequences of its parent
+     *
+     * @param parent Pointer to parent group
+     * @param reader Reader positioned on the start of the element
+     * @param sequences Mapping plans of the parent sequences
+     * @param failures List of failure criteria of each sequence
+     * @param fragments Document owning the loaded fragments
+     * @throws XMLStreamException If the content could not be read
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamElement(TestGroup parent, XMLStreamReader reader, List<MapXmlPlan.SequencePlan> sequences, List<MapXmlFailures> failures, Document fragments) throws XMLStreamException, ValidationException {
+        String name = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+
+        int nSingle = getStreamedSequence(name, sequences);
+        if (nSingle >= 0) {
+            // Unique group, streamed
+            StreamGroup(parent, name, reader, getTypes(name, sequences.get(nSingle)).get(0), failures.get(nSingle), fragments);
+        } else if (!isMapped(name, sequences)) {
+            SkipElement(reader);
+        } else {
+            // Loaded and mapped as a whole
+            Element holder = fragments.createElement("content");
+            holder.appendChild(ReadElement(reader, fragments));
+            for (int i = 0; i < sequences.size(); ++i) {
+                for (MapXmlPlan.ElementPlan element : sequences.get(i).getElements()) {
+                    if (element.getName().equals(name)) {
+                        for (MapXmlPlan.TypePlan type : element.getTypes()) {
+                            ProcessType(parent, name, holder, element.getTag(type), type, failures.get(i));
+                        }
                     }
                 }
-                break;
+            }
+        }
+    }
 
-            case gt_threshold:
-                for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                    if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("complextype")) {
-                        ProcessThreshold (parent, name, nContent, nSNode, failures);
+    /**
+     * Stream the content of a group
+     *
+     * @param parent Pointer to parent group
+     * @param key Key associated with XML node from result file
+     * @param reader Reader positioned on the start of the group
+     * @param type Mapping plan of the complex type
+     * @param failures List of failure criteria
+     * @param fragments Document owning the loaded fragments
+     * @throws XMLStreamException If the content could not be read
+     * @throws ValidationException If validation error occur
+     */
+    private void StreamGroup(TestGroup parent, String key, XMLStreamReader reader, MapXmlPlan.TypePlan type, MapXmlFailures failures, Document fragments) throws XMLStreamException, ValidationException {
+        List<MapXmlPlan.SequencePlan> sequences = type.getSequences();
+        List<MapXmlFailures> newFailures = getFailures(sequences, failures);
+
+        // Attributes and descriptive elements held until the group is created
+        Element nContent = ReadStartElement(reader, fragments);
+        TestGroup group = null;
+        List<Integer> ranks = new ArrayList<Integer>();
+
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+                if (type.isMapped(name)) {
+                    if (group == null) {
+                        group = StreamGroupCreate(parent, key, nContent, type, failures);
                     }
+                    int nGroups = group.getNumberOfGroups();
+                    StreamElement(group, reader, sequences, newFailures, fragments);
+                    addRanks(ranks, group.getNumberOfGroups() - nGroups, getRank(name, sequences));
+                } else if (type.isDescription(name)) {
+                    if (group != null) {
+                        throw new ValidationException(Messages.MapXmlToPlugin_LateGroupAttribute(name, key));
+                    }
+                    nContent.appendChild(ReadElement(reader, fragments));
+                } else {
+                    SkipElement(reader);
                 }
-                break;
+            }
+        }
+
+        if (group == null) {
+            group = StreamGroupCreate(parent, key, nContent, type, failures);
         }
+        SortGroups(group, ranks);
+
+        // Detect if array of parameters
+        group.isParameterGrp();
+
+        // Detect if array of thresholds
+        group.isThresholdGrp();
     }
 
     /**
-     * Direct a complex type to its proper processing unit.
+     * Create the group of a streamed element from its attributes and descriptive elements
      *
      * @param parent Pointer to parent group
      * @param key Key associated with XML node from result file
-     * @param nContent XML node from result file
-     * @param nSchema XML node from schema file
+     * @param nContent Attributes and descriptive elements of the group
+     * @param type Mapping plan of the complex type
      * @param failures List of failure criteria
+     * @return The new group
+     */
+    private TestGroup StreamGroupCreate(TestGroup parent, String key, Element nContent, MapXmlPlan.TypePlan type, MapXmlFailures failures) {
+        maxHeldElements = Math.max(maxHeldElements, nContent.getChildNodes().getLength());
+        MapXmlGroup content = new MapXmlGroup(parent, key, nContent, type.getNode(), failures, truncateStrings);
+        TestGroup group = content.getGroup();
+        parent.addGroup(group);
+        groups.put(group.getGroupHash(), group);
+        return group;
+    }
+
+    /**
+     * Order the content of a streamed group as in the schema, content of the same rank staying in the order of the file
+     * @param group Streamed group
+     * @param ranks Rank in the schema of each mapped child of the group
+     */
+    private static void SortGroups(TestGroup group, final List<Integer> ranks) {
+        List<TestGroup> children = group.getTestGroups();
+        List<Integer> order = new ArrayList<Integer>(children.size());
+        boolean sorted = true;
+        for (int i = 0; i < children.size(); ++i) {
+            order.add(i);
+            sorted &= (i == 0 || ranks.get(i - 1) <= ranks.get(i));
+        }
+        if (sorted) {
+            return;
+        }
+
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return ranks.get(o1).compareTo(ranks.get(o2));
+            }
+        });
+        List<TestGroup> ordered = new ArrayList<TestGroup>(children.size());
+        for (Integer index : order) {
+            ordered.add(children.get(index));
+        }
+        children.clear();
+        children.addAll(ordered);
+    }
+
+    /**
+     * Register the rank in the schema of newly mapped children
+     * @param ranks Rank in the schema of each mapped child
+     * @param count Number of new children
+     * @param rank Rank of the element in the schema
+     */
+    private static void addRanks(List<Integer> ranks, int count, int rank) {
+        for (int i = 0; i < count; ++i) {
+            ranks.add(rank);
+        }
+    }
+
+    /**
+     * Rank in the schema of the first element mapping a child
+     * @param name Qualified name of the child element
+     * @param sequences Mapping plans of the sequences
+     * @return Rank of the element across the sequences
+     */
+    private static int getRank(String name, List<MapXmlPlan.SequencePlan> sequences) {
+        int rank = 0;
+        for (MapXmlPlan.SequencePlan sequence : sequences) {
+            for (MapXmlPlan.ElementPlan element : sequence.getElements()) {
+                if (element.getName().equals(name) && !element.getTypes().isEmpty()) {
+                    return rank;
+                }
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Sequence of the unique group type mapping an element, such an element is streamed instead of being loaded
+     * @param name Qualified name of the element
+     * @param sequences Mapping plans of the parent sequences
+     * @return Index of the sequence, -1 if the element is not mapped by a unique group type
+     */
+    private static int getStreamedSequence(String name, List<MapXmlPlan.SequencePlan> sequences) {
+        MapXmlPlan.ElementPlan single = null;
+        int nSingle = -1;
+        int nTypes = 0;
+        for (int i = 0; i < sequences.size(); ++i) {
+            for (MapXmlPlan.ElementPlan element : sequences.get(i).getElements()) {
+                if (element.getName().equals(name) && !element.getTypes().isEmpty()) {
+                    nTypes += element.getTypes().size();
+                    single = element;
+                    nSingle = i;
+                }
+            }
+        }
+        return (nTypes == 1 && isGroup(single.getTag(single.getTypes().get(0)))) ? nSingle : -1;
+    }
+
+    /**
+     * Complex types of the elements of a sequence mapping a child
+     * @param name Qualified name of the child element
+     * @param sequence Mapping plan of the sequence
+     * @return Complex types mapping the child
+     */
+    private static List<MapXmlPlan.TypePlan> getTypes(String name, MapXmlPlan.SequencePlan sequence) {
+        List<MapXmlPlan.TypePlan> types = new ArrayList<MapXmlPlan.TypePlan>();
+        for (MapXmlPlan.ElementPlan element : sequence.getElements()) {
+            if (element.getName().equals(name)) {
+                types.addAll(element.getTypes());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Determine if an element is mapped through a complex type
+     * @param name Qualified name of the element
+     * @param sequences Mapping plans of the parent sequences
+     * @return Whether an element of the sequences with that name has a complex type
+     */
+    private static boolean isMapped(String name, List<MapXmlPlan.SequencePlan> sequences) {
+        for (MapXmlPlan.SequencePlan sequence : sequences) {
+            for (MapXmlPlan.ElementPlan element : sequence.getElements()) {
+                if (element.getName().equals(name) && !element.getTypes().isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Failures applicable to each sequence
+     * @param sequences Mapping plans of the sequences
+     * @param failures Previously registered failures
+     * @return Failures of each sequence
      * @throws ValidationException If validation error occur
      */
-    private void ProcessComplexType (TestGroup parent, String key, Node nContent, Node nSchema, MapXmlFailures failures) throws ValidationException {
-        GroupTags typeCT = getElementType(nSchema);
-        switch (typeCT) {
-            case gt_parameter:
-                ProcessParameter (parent, key, nContent, nSchema, failures);
-                break;
-            case gt_result:
-                ProcessResult (parent, key, nContent, nSchema, failures);
-                break;
-            case gt_threshold:
-                ProcessThreshold (parent, key, nContent, nSchema, failures);
-                break;
-            default:
-                ProcessGroup (parent, key, nContent, nSchema, failures);
+    private List<MapXmlFailures> getFailures(List<MapXmlPlan.SequencePlan> sequences, MapXmlFailures failures) throws ValidationException {
+        List<MapXmlFailures> list = new ArrayList<MapXmlFailures>(sequences.size());
+        for (MapXmlPlan.SequencePlan sequence : sequences) {
+            list.add(sequence.getFailures(rootGroup, failures));
+        }
+        return list;
+    }
+
+    /**
+     * Load the current element, with its attributes and content, into a DOM fragment
+     * @param reader Reader positioned on the start of the element, left on its end
+     * @param fragments Document owning the fragment
+     * @return Loaded element
+     * @throws XMLStreamException If the content could not be read
+     */
+    private static Element ReadElement(XMLStreamReader reader, Document fragments) throws XMLStreamException {
+        Element root = ReadStartElement(reader, fragments);
+        Node current = root;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = ReadStartElement(reader, fragments);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    current.appendChild(fragments.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.CDATA:
+                    current.appendChild(fragments.createCDATASection(reader.getText()));
+                    break;
+            }
         }
+        return root;
+    }
+
+    /**
+     * Load the start of the current element, with its attributes, into a DOM element
+     * @param reader Reader positioned on the start of the element
+     * @param fragments Document owning the element
+     * @return Element without content
+     */
+    private static Element ReadStartElement(XMLStreamReader reader, Document fragments) {
+        Element element = fragments.createElementNS(emptyToNull(reader.getNamespaceURI()), getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+            String prefix = reader.getNamespacePrefix(i);
+            String name = (prefix == null || prefix.length() == 0) ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+            element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, name, reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); ++i) {
+            element.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)), getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    /**
+     * Skip the current element and its content
+     * @param reader Reader positioned on the start of the element, left on its end
+     * @throws XMLStreamException If the content could not be read
+     */
+    private static void SkipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Qualified name of a node, as named inside a DOM document
+     * @param prefix Namespace prefix
+     * @param localName Local name
+     * @return Qualified name
+     */
+    private static String getQualifiedName(String prefix, String localName) {
+        return (prefix == null || prefix.length() == 0) ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * Determine if a type is mapped as a group
+     * @param tag Type under which the content is mapped
+     * @return Whether the content is mapped by a group
+     */
+    private static boolean isGroup(GroupTags tag) {
+        return (tag != GroupTags.gt_parameter && tag != GroupTags.gt_result && tag != GroupTags.gt_threshold);
+    }
+
+    private static String emptyToNull(String value) {
+        return (value == null || value.length() == 0) ? null : value;
     }
 
     /**
@@ -432,16 +882,16 @@ public class MapXmlToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with XML node from result file
      * @param nContent XML node from result file
-     * @param nSchema XML node from schema file (complex type)
+     * @param type Mapping plan of the complex type
      * @param failures List of failure criteria
      * @throws ValidationException If validation error occur
      */
-    private void ProcessResult (TestGroup parent, String key, Node nContent, Node nSchema, MapXmlFailures failures) throws ValidationException {
+    private void ProcessResult (TestGroup parent, String key, Node nContent, MapXmlPlan.TypePlan type, MapXmlFailures failures) throws ValidationException {
 
         for (Node nCNode = nContent.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
             if (nCNode.getNodeType() == Node.ELEMENT_NODE && nCNode.getNodeName().equals(key)) {
 
-                MapXmlResult content = new MapXmlResult(parent, key, nCNode, nSchema, failures, truncateStrings);
+                MapXmlResult content = new MapXmlResult(parent, key, nCNode, type.getNode(), failures, truncateStrings);
                 TestValue result = content.getResult();
                 if (result != null) {
                     parent.addGroup(result);
@@ -450,10 +900,8 @@ public class MapXmlToPlugin extends MapperBase {
                     groups.put(result.getGroupHash(), result);
                     results.put(result.getGroupHash(), result);
 
-                    for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                        if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("sequence")) {
-                            ProcessSequence(result, key, nCNode, nSNode, failures);
-                        }
+                    for (MapXmlPlan.SequencePlan sequence : type.getSequences()) {
+                        ProcessSequence(result, key, nCNode, sequence, failures);
                     }
                 }
             }
@@ -466,25 +914,23 @@ public class MapXmlToPlugin extends MapperBase {
      * @param parent Pointer to parent group
      * @param key Key associated with XML node from result file
      * @param nContent XML node from result file
-     * @param nSchema XML node from schema file (complexType)
+     * @param type Mapping plan of the complex type
      * @param failures List of failure criteria
      * @throws ValidationException If validation error occur
      */
-    private void ProcessGroup (TestGroup parent, String key, Node nContent, Node nSchema, MapXmlFailures failures) throws ValidationException {
+    private void ProcessGroup (TestGroup parent, String key, Node nContent, MapXmlPlan.TypePlan type, MapXmlFailures failures) throws ValidationException {
 
         for (Node nCNode = nContent.getFirstChild(); nCNode != null; nCNode = nCNode.getNextSibling()) {
             if (nCNode.getNodeType() == Node.ELEMENT_NODE && nCNode.getNodeName().equals(key)) {
 
-                MapXmlGroup content = new MapXmlGroup(parent, key, nCNode, nSchema, failures, truncateStrings);
+                MapXmlGroup content = new MapXmlGroup(parent, key, nCNode, type.getNode(), failures, truncateStrings);
                 TestGroup group = content.getGroup();
                 if (group != null) {
                     parent.addGroup(group);
                     groups.put(group.getGroupHash(), group);
 
-                    for (Node nSNode = nSchema.getFirstChild(); nSNode != null; nSNode = nSNode.getNextSibling()) {
-                        if (nSNode.getNodeType() == Node.ELEMENT_NODE && nSNode.getLocalName().equalsIgnoreCase("sequence")) {
-                            ProcessSequence(group, key, nCNode, nSNode, failures);
-                        }
+                    for (MapXmlPlan.SequencePlan sequence : type.getSequences()) {
+                        ProcessSequence(group, key, nCNode, sequence, failures);
                     }
 
                     // Detect if array of parameters
@@ -522,46 +968,7 @@ public class MapXmlToPlugin extends MapperBase {
         return relativePath;
     }
 
-    /**
-     * Get schema element type
-     * @param nSchema XML node from schema file
-     * @return group tag
-     */
-    private GroupTags getElementType (Node nSchema) {
-        NamedNodeMap attributes = nSchema.getAttributes();
-        for (int i = 0; i < attributes.getLength(); ++i) {
-            String name = attributes.item(i).getNodeName();
-            if (name.equalsIgnoreCase("type")) {
-                String value = attributes.item(i).getNodeValue().toLowerCase();
-                if (value.equals("jbs:result")){
-                    return GroupTags.gt_result;
-                } else if (value.equals("jbs:threshold")) {
-                    return GroupTags.gt_threshold;
-                } else if (value.equals("jbs:parameter")) {
-                    return GroupTags.gt_parameter;
-                } else {
-                    return GroupTags.gt_unknown;
-                }
-            }
-        }
-        return GroupTags.gt_empty;
-    }
+    // Getters
 
-    /**
-     * Get schema element attributes
-     *
-     * @param nSchema XML node from schema file
-     * @param key Key associated with XML node from result file
-     * @return list of standard attributes
-     */
-    private String getElementAttribute (Node nSchema, String key) {
-        NamedNodeMap attributes = nSchema.getAttributes();
-        for (int i = 0; i < attributes.getLength(); ++i) {
-            String name = attributes.item(i).getNodeName();
-            if (name.equalsIgnoreCase(key)) {
-                return attributes.item(i).getNodeValue();
-            }
-        }
-        return null;
-    }
+    int getMaxHeldElements() { return maxHeldElements; }
 }
\ No newline at end of file
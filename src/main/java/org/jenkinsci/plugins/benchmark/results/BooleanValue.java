@@ -19,6 +19,7 @@
 package org.jenkinsci.plugins.benchmark.results;
 
 import com.google.gson.JsonObject;
+import org.jenkinsci.plugins.benchmark.condensed.BooleanCondensed;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -117,6 +118,45 @@ public class BooleanValue extends TestValue {
         return object;
     }
 
+    /**
+     * Fold the state stored under key into the condensed counters of the previous builds [CONDENSED ONLY]
+     * @param key Key of the state to fold in
+     * @param condensed Condensed result of the previous builds, null if none
+     * @return Updated condensed result
+     */
+    @Override
+    public TestValue getCondensedUpdate(int key, TestValue condensed) {
+        int failed = 0;
+        int passed = 0;
+        if (condensed instanceof BooleanCondensed) {
+            BooleanCondensed base = (BooleanCondensed) condensed;
+            failed = base.getFailed();
+            passed = base.getPassed();
+        }
+        Boolean failedState = this.getFailedState(key);
+        if (failedState != null) {
+            if (failedState) {
+                failed++;
+            } else {
+                passed++;
+            }
+        }
+        return new BooleanCondensed(this.parent, this.group, this.name, this.description, this.unit, passed, failed);
+    }
+
+    /**
+     * Add the values of the same result loaded by a partial mapper [DISPLAY LOADING]
+     * @param partial Result of the partial mapper
+     */
+    @Override
+    protected void mergeValuesWith(TestValue partial) {
+        if (partial instanceof BooleanValue) {
+            for (Map.Entry<Integer, Boolean> entry : ((BooleanValue) partial).values.entrySet()) {
+                this.values.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Get last build result content in Json Object [EXPORT RAW]
      * Works with TestValue getJsonObject()
@@ -169,6 +209,8 @@ public class BooleanValue extends TestValue {
     // Getter
 
     public Map<Integer, Boolean> getValues() { return this.values; }
+    @Override
+    public int getNumberOfValues() { return this.values.size(); }
     public Boolean getValue() { return this.values.get(0); }
     public Boolean getValue(int build) { return this.values.get(build); }
 }
@@ -20,12 +20,14 @@ package org.jenkinsci.plugins.benchmark.results;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import org.jenkinsci.plugins.benchmark.condensed.IntegerCondensed;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
+import org.jenkinsci.plugins.benchmark.utilities.IntegerSeries;
 
 import java.io.InvalidClassException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.Math.sqrt;
 
@@ -39,43 +41,43 @@ public class IntegerValue extends NumeralValue {
 
     // Variables
 
-    protected final ConcurrentHashMap<Integer, Integer> values;
+    protected final IntegerSeries values;
 
     // Constructor
 
     public IntegerValue(TestGroup parent, String group,  String name){
         super(parent, group, name, null, null, ValueType.rt_integer);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String group, String name, String unit){
         super(parent, group, name, null, unit, ValueType.rt_integer);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String group, String name, String description, String unit){
         super(parent, group, name, description, unit, ValueType.rt_integer);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String name, ClassType ctype){
         super(parent, null, name, null,null, ValueType.rt_integer, ctype);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String name, String unit, ClassType ctype){
         super(parent, null, name, null, unit, ValueType.rt_integer, ctype);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String group, String name, String unit, ClassType ctype){
         super(parent, group, name, null, unit, ValueType.rt_integer, ctype);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     public IntegerValue(TestGroup parent, String group, String name, String description, String unit, ClassType ctype){
         super(parent, group, name, description, unit, ValueType.rt_integer, ctype);
-        this.values = new ConcurrentHashMap<Integer, Integer>();
+        this.values = new IntegerSeries();
     }
 
     // Functions
@@ -83,17 +85,27 @@ public class IntegerValue extends NumeralValue {
     /**
      * Get previous build value
      * @param build Build number
-     * @return previous
+     * @return Value of the last build up to this build, null if none
      */
-    public Double getPreviousValue(int build){
-        while (build > 0){
-            Integer value = this.values.get(build);
-            if (value != null) {
-                return value.doubleValue();
-            }
-            build--;
+    public Double getPreviousValue(int build) {
+        Map.Entry<Integer, Integer> entry = this.values.floorEntry(build);
+        if (entry == null || entry.getKey() <= 0) {
+            return null;
         }
-        return null;
+        return entry.getValue().doubleValue();
+    }
+
+    /**
+     * Get next build value
+     * @param build Build number
+     * @return Value of the first build after this build, null if none
+     */
+    public Double getNextValue(int build) {
+        Map.Entry<Integer, Integer> entry = this.values.higherEntry(build);
+        if (entry == null) {
+            return null;
+        }
+        return entry.getValue().doubleValue();
     }
 
     /**
@@ -134,48 +146,48 @@ public class IntegerValue extends NumeralValue {
 
         int failed = 0;
         int passed = 0;
+        int count = 0;
 
         Integer minimum = null;
         Integer maximum = null;
-        Double std_deviation = null;
+        double mean = 0.0;
+        double m2 = 0.0;
 
-        // Calculate condensed values
-        Double average = calculateAverage();
-        if (average != null){
-            int number = 0;
-            std_deviation = 0.0;
-            for (Map.Entry<Integer, Integer> entry : this.values.entrySet()) {
-                Boolean failedState;
-                TestProperty property = this.properties.get(entry.getKey());
-                if (property == null) {
-                    failedState = null;
+        // Calculate condensed values in a single pass (Welford)
+        for (Map.Entry<Integer, Integer> entry : this.values.entrySet()) {
+            Boolean failedState;
+            TestProperty property = this.properties.get(entry.getKey());
+            if (property == null) {
+                failedState = null;
+            } else {
+                failedState = property.getFailedState();
+            }
+            if (failedState != null) {
+                if (failedState) {
+                    failed++;
                 } else {
-                    failedState = property.getFailedState();
+                    passed++;
                 }
-                if (failedState != null) {
-                    if (failedState) {
-                        failed++;
-                    } else {
-                        passed++;
-                    }
+            }
+            if (failedState == null || failedState == false) {
+                Integer value = entry.getValue();
+                count++;
+                double delta = value - mean;
+                mean += delta / count;
+                m2 += delta * (value - mean);
+                if (minimum == null || value < minimum) {
+                    minimum = value;
                 }
-                if (failedState == null || failedState == false) {
-                    Integer value = entry.getValue();
-                    if (number == 0){
-                        minimum = value;
-                        maximum = value;
-                    } else {
-                        if (value < minimum) {
-                            minimum = value;
-                        } else if (value > maximum){
-                            maximum = value;
-                        }
-                    }
-                    std_deviation += (value - average)*(value - average);
-                    number++;
+                if (maximum == null || value > maximum) {
+                    maximum = value;
                 }
             }
-            std_deviation = sqrt(std_deviation/number);
+        }
+        Double average = null;
+        Double std_deviation = null;
+        if (count > 0) {
+            average = mean;
+            std_deviation = sqrt(m2 / count);
         }
 
         // Assemble JSON object
@@ -205,14 +217,85 @@ public class IntegerValue extends NumeralValue {
             object.addProperty("previous", this.getPreviousValue(build));
             object.addProperty("average", average);
             object.addProperty("std_deviation", std_deviation);
+            object.addProperty("m2", m2);
             object.addProperty("minimum", minimum);
             object.addProperty("maximum", maximum);
         }
+        object.addProperty("count", count);
         object.addProperty("failed", failed);
         object.addProperty("passed", passed);
         return object;
     }
 
+    /**
+     * Fold the value stored under key into the condensed aggregates of the previous builds [CONDENSED ONLY]
+     * @param key Key of the value to fold in
+     * @param condensed Condensed result of the previous builds, null if none
+     * @return Updated condensed result
+     */
+    @Override
+    public TestValue getCondensedUpdate(int key, TestValue condensed) {
+        int count = 0;
+        int failed = 0;
+        int passed = 0;
+        double average = 0.0;
+        double m2 = 0.0;
+        Integer previous = null;
+        Integer minimum = null;
+        Integer maximum = null;
+
+        // Restore the aggregates of the previous builds
+        if (condensed instanceof IntegerCondensed) {
+            IntegerCondensed base = (IntegerCondensed) condensed;
+            if (base.getAverage() != null && base.getCount() != null) {
+                count = base.getCount();
+                average = base.getAverage();
+                if (base.getM2() != null) {
+                    m2 = base.getM2();
+                } else {
+                    m2 = base.getStdDeviation() * base.getStdDeviation() * count;
+                }
+                previous = base.getPrevious();
+                minimum = base.getMinimum().intValue();
+                maximum = base.getMaximum().intValue();
+            }
+            failed = base.getFailed();
+            passed = base.getPassed();
+        }
+
+        // Fold the current value in
+        Integer value = this.values.get(key);
+        if (value != null) {
+            Boolean failedState = this.getFailedState(key);
+            if (failedState != null) {
+                if (failedState) {
+                    failed++;
+                } else {
+                    passed++;
+                }
+            }
+            if (failedState == null || failedState == false) {
+                count++;
+                double delta = value - average;
+                average += delta / count;
+                m2 += delta * (value - average);
+                if (minimum == null || value < minimum) {
+                    minimum = value;
+                }
+                if (maximum == null || value > maximum) {
+                    maximum = value;
+                }
+            }
+            previous = value;
+        }
+
+        if (count == 0) {
+            return new IntegerCondensed(this.parent, this.group, this.name, this.description, this.unit, null, null, null, null, null, null, passed, failed, 0);
+        } else {
+            return new IntegerCondensed(this.parent, this.group, this.name, this.description, this.unit, previous, minimum, maximum, average, sqrt(m2 / count), m2, passed, failed, count);
+        }
+    }
+
     /**
      * Create JSON object containing all results necessary to display the graph [DETAIL PAGE]
      * @param buildNumbers List of builds
@@ -220,23 +303,37 @@ public class IntegerValue extends NumeralValue {
      * @throws InvalidClassException Invalid class
      */
     @Override
-    public JsonArray getDataAsJsonArray(TreeSet<Integer> buildNumbers) throws InvalidClassException {
+    public JsonArray getDataAsJsonArray(BuildSet buildNumbers) throws InvalidClassException {
         JsonArray array = new JsonArray();
+        IntegerSeries range = this.values.subSeries(buildNumbers.first(), buildNumbers.last());
+        int index = range.size() - 1;
         for (Integer build = buildNumbers.last(); build >= buildNumbers.first(); build--) {
             JsonObject object = new JsonObject();
-            Integer value = this.getValue(build);
-            if (value == null) {
-                object.addProperty("x", build);
-                object.add("y", null);
+            object.addProperty("x", build);
+            if (index >= 0 && range.getBuildAt(index) == build) {
+                object.addProperty("y", range.getValueAt(index));
+                index--;
             } else {
-                object.addProperty("x", build);
-                object.addProperty("y", value);
+                object.add("y", null);
             }
             array.add(object);
         }
         return array;
     }
 
+    /**
+     * Add the values of the same result loaded by a partial mapper [DISPLAY LOADING]
+     * @param partial Result of the partial mapper
+     */
+    @Override
+    protected void mergeValuesWith(TestValue partial) {
+        if (partial instanceof IntegerValue) {
+            for (Map.Entry<Integer, Integer> entry : ((IntegerValue) partial).values.entrySet()) {
+                this.values.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Get last build result content in Json Object [EXPORT RAW]
      * Works with TestValue getJsonObject()
@@ -310,6 +407,14 @@ public class IntegerValue extends NumeralValue {
     // Getter
 
     public Map<Integer, Integer> getValues() { return this.values; }
+    @Override
+    public int getNumberOfValues() { return this.values.size(); }
+    @Override
+    public Integer getFirstBuild() { return this.values.getFirstBuild(); }
+    @Override
+    public Integer getLastBuild() { return this.values.getLastBuild(); }
+    @Override
+    protected long getValuesSize() { return this.values.getEstimatedSize(); }
     public Integer getValue() throws NullPointerException { return this.values.get(0); }
     public Integer getValue(int build) throws NullPointerException { return this.values.get(build); }
 }
@@ -0,0 +1,249 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.results;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flat content of one result, parameter or file entry streamed from a stored JSON file [DISPLAY LOADING]
+ *
+ * <p>
+ * Entries are read in a single pass with a JsonReader, keys are matched without case and without building
+ * a JSON tree. Values of unexpected types are skipped, as with the former tree-based import.
+ *
+ * @author Daniel Mercier
+ * @since 11/16/2017.
+ */
+public class JsonRecord {
+
+    // Variables
+
+    Integer                 hash;
+    Integer                 id;
+    Integer                 file;
+    Boolean                 failedState;
+    JsonPrimitive           value;
+    Map<String, String>     messages;
+    int[]                   parameters;
+    int                     nParameters;
+    JsonArray               thresholds;
+
+    String                  name;
+    String                  group;
+    String                  description;
+    String                  unit;
+    String                  type;
+
+    Double                  previous;
+    Double                  minimum;
+    Double                  maximum;
+    Double                  average;
+    Double                  std_deviation;
+    Double                  m2;
+    Integer                 passed;
+    Integer                 failed;
+    Integer                 count;
+
+    // Constructor
+
+    private JsonRecord() {}
+
+    // Functions
+
+    /**
+     * Read the next JSON object of a stream
+     * @param reader JSON stream positioned on the object
+     * @return Record, null if the next value is not an object (the value is then skipped)
+     * @throws IOException If the stream could not be read or is malformed
+     */
+    public static JsonRecord read(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        JsonRecord record = new JsonRecord();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            JsonToken token = reader.peek();
+            if (key.equalsIgnoreCase("hash") && token == JsonToken.NUMBER) {
+                record.hash = readInteger(reader);
+            } else if (key.equalsIgnoreCase("id") && token == JsonToken.NUMBER) {
+                record.id = readInteger(reader);
+            } else if (key.equalsIgnoreCase("file") && token == JsonToken.NUMBER) {
+                record.file = readInteger(reader);
+            } else if (key.equalsIgnoreCase("failedState") && token == JsonToken.BOOLEAN) {
+                record.failedState = reader.nextBoolean();
+            } else if (key.equalsIgnoreCase("value")) {
+                record.value = readPrimitive(reader, token);
+            } else if (key.equalsIgnoreCase("messages") && token == JsonToken.BEGIN_ARRAY) {
+                record.readMessages(reader);
+            } else if (key.equalsIgnoreCase("parameters") && token == JsonToken.BEGIN_ARRAY) {
+                record.readParameters(reader);
+            } else if (key.equalsIgnoreCase("thresholds") && token == JsonToken.BEGIN_ARRAY) {
+                record.readThresholds(reader);
+            } else if (key.equalsIgnoreCase("name") && token == JsonToken.STRING) {
+                record.name = reader.nextString();
+            } else if (key.equalsIgnoreCase("group") && token == JsonToken.STRING) {
+                record.group = reader.nextString();
+            } else if (key.equalsIgnoreCase("description") && token == JsonToken.STRING) {
+                record.description = reader.nextString();
+            } else if (key.equalsIgnoreCase("unit") && token == JsonToken.STRING) {
+                record.unit = reader.nextString();
+            } else if (key.equalsIgnoreCase("type") && token == JsonToken.STRING) {
+                record.type = reader.nextString();
+            } else if (key.equalsIgnoreCase("previous") && token == JsonToken.NUMBER) {
+                record.previous = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("minimum") && token == JsonToken.NUMBER) {
+                record.minimum = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("maximum") && token == JsonToken.NUMBER) {
+                record.maximum = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("average") && token == JsonToken.NUMBER) {
+                record.average = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("std_deviation") && token == JsonToken.NUMBER) {
+                record.std_deviation = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("m2") && token == JsonToken.NUMBER) {
+                record.m2 = reader.nextDouble();
+            } else if (key.equalsIgnoreCase("passed") && token == JsonToken.NUMBER) {
+                record.passed = readInteger(reader);
+            } else if (key.equalsIgnoreCase("failed") && token == JsonToken.NUMBER) {
+                record.failed = readInteger(reader);
+            } else if (key.equalsIgnoreCase("count") && token == JsonToken.NUMBER) {
+                record.count = readInteger(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return record;
+    }
+
+    private void readMessages(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String title = "";
+            String message = "";
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                JsonToken token = reader.peek();
+                if (key.equalsIgnoreCase("title") && token == JsonToken.STRING) {
+                    title = reader.nextString();
+                } else if (key.equalsIgnoreCase("message") && token == JsonToken.STRING) {
+                    message = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (messages == null) {
+                messages = new HashMap<String, String>();
+            }
+            messages.put(title, message);
+        }
+        reader.endArray();
+    }
+
+    private void readThresholds(JsonReader reader) throws IOException {
+        JsonElement element = new JsonParser().parse(reader);
+        if (element.isJsonArray()) {
+            thresholds = element.getAsJsonArray();
+        }
+    }
+
+    private void readParameters(JsonReader reader) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.NUMBER) {
+                reader.skipValue();
+                continue;
+            }
+            if (parameters == null) {
+                parameters = new int[4];
+            } else if (nParameters == parameters.length) {
+                parameters = Arrays.copyOf(parameters, nParameters * 2);
+            }
+            parameters[nParameters++] = readInteger(reader);
+        }
+        reader.endArray();
+    }
+
+    private static Integer readInteger(JsonReader reader) throws IOException {
+        String text = reader.nextString();
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return (int) Double.parseDouble(text);
+        }
+    }
+
+    private static JsonPrimitive readPrimitive(JsonReader reader, JsonToken token) throws IOException {
+        switch (token) {
+            case BOOLEAN:
+                return new JsonPrimitive(reader.nextBoolean());
+            case STRING:
+                return new JsonPrimitive(reader.nextString());
+            case NUMBER:
+                {
+                    String text = reader.nextString();
+                    try {
+                        return new JsonPrimitive(Long.parseLong(text));
+                    } catch (NumberFormatException e) {
+                        return new JsonPrimitive(Double.parseDouble(text));
+                    }
+                }
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Check whether the parameters referenced by the record are all known
+     * @param parameterList Known parameters, by hash
+     * @return True if all referenced parameters are known
+     */
+    public boolean hasParameters(Map<Integer, TestValue> parameterList) {
+        for (int i = 0; i < nParameters; i++) {
+            if (!parameterList.containsKey(parameters[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Getters
+
+    public Integer getHash() { return hash; }
+    public Integer getFile() { return file; }
+}
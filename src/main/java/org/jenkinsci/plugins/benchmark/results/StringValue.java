@@ -19,6 +19,7 @@
 package org.jenkinsci.plugins.benchmark.results;
 
 import com.google.gson.JsonObject;
+import org.jenkinsci.plugins.benchmark.condensed.StringCondensed;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -120,6 +121,58 @@ public class StringValue extends TestValue {
         return object;
     }
 
+    /**
+     * Fold the state stored under key into the condensed counters of the previous builds [CONDENSED ONLY]
+     * @param key Key of the state to fold in
+     * @param condensed Condensed result of the previous builds, null if none
+     * @return Updated condensed result
+     */
+    @Override
+    public TestValue getCondensedUpdate(int key, TestValue condensed) {
+        int failed = 0;
+        int passed = 0;
+        if (condensed instanceof StringCondensed) {
+            StringCondensed base = (StringCondensed) condensed;
+            failed = base.getFailed();
+            passed = base.getPassed();
+        }
+        Boolean failedState = this.getFailedState(key);
+        if (failedState != null) {
+            if (failedState) {
+                failed++;
+            } else {
+                passed++;
+            }
+        }
+        return new StringCondensed(this.parent, this.group, this.name, this.description, this.unit, passed, failed);
+    }
+
+    /**
+     * Add the values of the same result loaded by a partial mapper [DISPLAY LOADING]
+     * @param partial Result of the partial mapper
+     */
+    @Override
+    protected void mergeValuesWith(TestValue partial) {
+        if (partial instanceof StringValue) {
+            for (Map.Entry<Integer, String> entry : ((StringValue) partial).values.entrySet()) {
+                this.values.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Estimate the heap used by the loaded values and properties, including the text of the values [DISPLAY LOADING]
+     * @return Estimated size in bytes
+     */
+    @Override
+    public long getEstimatedSize() {
+        long size = super.getEstimatedSize();
+        for (String value : this.values.values()) {
+            size += 2 * value.length();
+        }
+        return size;
+    }
+
     /**
      * Get last build result content in Json Object [EXPORT RAW]
      * Works with TestValue getJsonObject()
@@ -171,6 +224,8 @@ public class StringValue extends TestValue {
 
     // Getter
     public Map<Integer, String> getValues() { return this.values; }
+    @Override
+    public int getNumberOfValues() { return this.values.size(); }
     public String getValue() { return this.values.get(0); }
     public String getValue(int build) { return this.values.get(build); }
 }
\ No newline at end of file
@@ -18,9 +18,7 @@
  */
 package org.jenkinsci.plugins.benchmark.results;
 
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
 import org.jenkinsci.plugins.benchmark.utilities.ContentDetected;
 
@@ -131,52 +129,17 @@ public class TestGroup {
 
     /**
      * Check for file group in the Jenkins plugin data format, if notne, create one
-     * @param object Original object to parse
+     * @param record Streamed record to convert
      * @param rootGroup Point of origin where to attach the data tree
      * @param entityList List of entities grenerated
      * @param detected Key characteristics fo results
      */
-    public static void convertCondensedFileJsonObject(JsonObject object, TestGroup rootGroup, Map<Integer, TestGroup> entityList, ContentDetected detected) {
-        Integer _hash = null;
-        String _name = null;
-        String _description = null;
-
-        for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-            if (enObject.getKey().equalsIgnoreCase("hash")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _hash = primitive.getAsInt();
-                    }
-                }
-                break;
-            }
-        }
-        TestGroup grp = entityList.get(_hash);
+    public static void convertCondensedFileRecord(JsonRecord record, TestGroup rootGroup, Map<Integer, TestGroup> entityList, ContentDetected detected) {
+        TestGroup grp = entityList.get(record.hash);
         if (grp == null) {
-            for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-                if (enObject.getKey().equalsIgnoreCase("name")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _name = primitive.getAsString();
-                        }
-                    }
-                } else if (enObject.getKey().equalsIgnoreCase("description")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _description = primitive.getAsString();
-                        }
-                    }
-                }
-            }
-            TestGroup group = new TestGroup(rootGroup, _name, _description, ClassType.ct_fileGrp);
+            TestGroup group = new TestGroup(rootGroup, record.name, record.description, ClassType.ct_fileGrp);
             rootGroup.addGroup(group);
-            entityList.put(_hash, group);
+            entityList.put(record.hash, group);
             detected.setFileDetected(true);
         }
     }
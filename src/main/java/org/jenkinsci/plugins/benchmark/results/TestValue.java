@@ -22,10 +22,14 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 import org.jenkinsci.plugins.benchmark.condensed.BooleanCondensed;
 import org.jenkinsci.plugins.benchmark.condensed.DoubleCondensed;
 import org.jenkinsci.plugins.benchmark.condensed.IntegerCondensed;
 import org.jenkinsci.plugins.benchmark.condensed.StringCondensed;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
 import org.jenkinsci.plugins.benchmark.utilities.ContentDetected;
 import org.jenkinsci.plugins.benchmark.utilities.TextToHTML;
 
@@ -56,6 +60,11 @@ public class TestValue extends TestGroup {
     public static final String FAILED_STATE_COLOR = "#F37A7A";
     public static final String PASSED_STATE_COLOR = "#92D050";
 
+    // Approximate heap footprint of the loaded content, used to weigh cached histories
+    private static final int ENTITY_SIZE = 512;
+    private static final int PROPERTY_SIZE = 128;
+    protected static final int VALUE_SIZE = 64;
+
     protected final ValueType           type;
     protected String                    group;
     protected String                    unit;
@@ -89,675 +98,252 @@ public class TestValue extends TestGroup {
     // Function
 
     /**
-     * Convert a JSON object containing a condensed result to the plugin construct [DISPLAY LOADING]
-     * @param object Json Object to convert
+     * Convert a streamed record containing a condensed result to the plugin construct [DISPLAY LOADING]
+     * @param record Record to convert
      * @param rootGroup Root group
      * @param fileList List of files
      * @param entityList List of generated entities
      * @param detected Key characteristics fo results
      */
-    public static void convertCondensedResultJsonObject(JsonObject object, TestGroup rootGroup, Map<Integer, TestGroup> fileList, Map<Integer, TestValue> entityList, ContentDetected detected) {
-        Integer         _hash = null;
-        String          _name = null;
-        String          _group = null;
-        String          _description = null;
-        String          _unit = null;
-        Double          _previous = null;
-        Double          _maximum = null;
-        Double          _minimum = null;
-        Double          _average = null;
-        Double          _std_deviation = null;
-        Integer         _passed = null;
-        Integer         _failed = null;
-        TestGroup       _file = rootGroup;
-        ValueType       _type = ValueType.rt_unknown;
-
-        for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-            String key = enObject.getKey().toLowerCase();
-            if (key.equals("hash")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _hash = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("type")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _type = checkType(primitive.getAsString());
-                    }
-                }
-            } else if (key.equals("name")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _name = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("group")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _group = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("description")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _description = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("unit")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _unit = primitive.getAsString();
-                        detected.setUnitsDetected(true);
-                    }
-                }
-            }else if (key.equals("passed")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _passed = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("failed")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _failed = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("file")) {
-                JsonElement inObject = enObject.getValue();
-                if (inObject.isJsonPrimitive()) {
-                    JsonPrimitive primitive = inObject.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        TestGroup file = fileList.get(primitive.getAsInt());
-                        if (file != null) {
-                            _file = file;
-                        }
-                    }
-                }
-            } else if (key.equals("previous")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _previous = primitive.getAsDouble();
-                    }
-                }
-            } else if (key.equals("minimum")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _minimum = primitive.getAsDouble();
-                    }
-                }
-            } else if (key.equals("maximum")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _maximum = primitive.getAsDouble();
-                    }
-                }
-            } else if (key.equals("average")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _average = primitive.getAsDouble();
-                    }
-                }
-            } else if (key.equals("std_deviation")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _std_deviation = primitive.getAsDouble();
-                    }
-                }
-            }
+    public static void convertCondensedResultRecord(JsonRecord record, TestGroup rootGroup, Map<Integer, TestGroup> fileList, Map<Integer, TestValue> entityList, ContentDetected detected) {
+        TestGroup _file = getFileGroup(record, rootGroup, fileList);
+        ValueType _type = record.type == null ? ValueType.rt_unknown : checkType(record.type);
+        if (record.unit != null) {
+            detected.setUnitsDetected(true);
         }
         switch(_type) {
             case rt_integer:
-                IntegerCondensed int_result = new IntegerCondensed(_file, _group,  _name, _description, _unit, _previous.intValue(), _minimum.intValue(), _maximum.intValue(), _average, _std_deviation, _passed, _failed);
-                entityList.put(_hash, int_result);
+                IntegerCondensed int_result = new IntegerCondensed(_file, record.group, record.name, record.description, record.unit, record.previous.intValue(), record.minimum.intValue(), record.maximum.intValue(), record.average, record.std_deviation, record.m2, record.passed, record.failed, record.count);
+                entityList.put(record.hash, int_result);
                 detected.setNumeralDetected(true);
                 break;
             case rt_double:
-                DoubleCondensed dbl_result = new DoubleCondensed(_file, _group,  _name, _description, _unit, _previous, _minimum, _maximum, _average, _std_deviation, _passed, _failed);
-                entityList.put(_hash, dbl_result);
+                DoubleCondensed dbl_result = new DoubleCondensed(_file, record.group, record.name, record.description, record.unit, record.previous, record.minimum, record.maximum, record.average, record.std_deviation, record.m2, record.passed, record.failed, record.count);
+                entityList.put(record.hash, dbl_result);
                 detected.setNumeralDetected(true);
                 break;
             case rt_string:
-                StringCondensed str_result = new StringCondensed(_file, _group,  _name, _description, _unit, _passed, _failed);
-                entityList.put(_hash, str_result);
+                StringCondensed str_result = new StringCondensed(_file, record.group, record.name, record.description, record.unit, record.passed, record.failed);
+                entityList.put(record.hash, str_result);
                 break;
             case rt_boolean:
-                BooleanCondensed bool_result = new BooleanCondensed(_file, _group,  _name, _description, _unit, _passed, _failed);
-                entityList.put(_hash, bool_result);
+                BooleanCondensed bool_result = new BooleanCondensed(_file, record.group, record.name, record.description, record.unit, record.passed, record.failed);
+                entityList.put(record.hash, bool_result);
                 break;
             default:
         }
-        if (_group != null){
+        if (record.group != null){
             detected.setGroupDetected(true);
         }
     }
 
     /**
-     * Convert a JSON object containing a parameter to the plugin construct [DISPLAY LOADING]
-     * @param object Json Object to convert
+     * Convert a streamed record containing a parameter to the plugin construct [DISPLAY LOADING]
+     * @param record Record to convert
      * @param rootGroup Root group
      * @param entityList List of generated entities
      * @param detected Key characteristics fo results
      */
-    public static void convertCondensedParameterJsonObject(JsonObject object, TestGroup rootGroup, Map<Integer, TestValue> entityList, ContentDetected detected) {
-        Integer         _hash = null;
-        String          _name = null;
-        String          _group = null;
-        String          _description = null;
-        String          _unit = null;
-        TestGroup       _file = rootGroup;
-        ValueType       _type = ValueType.rt_unknown;
-
-        for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-            String key = enObject.getKey().toLowerCase();
-            if (key.equals("hash")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _hash = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("type")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _type = checkType(primitive.getAsString());
-                    }
-                }
-            } else if (key.equals("name")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _name = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("group")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _group = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("description")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _description = primitive.getAsString();
-                    }
-                }
-            } else if (key.equals("unit")) {
-                JsonElement value = enObject.getValue();
-                if (value.isJsonPrimitive()) {
-                    JsonPrimitive primitive = value.getAsJsonPrimitive();
-                    if (primitive.isString()) {
-                        _unit = primitive.getAsString();
-                    }
-                }
-            }
-        }
+    public static void convertCondensedParameterRecord(JsonRecord record, TestGroup rootGroup, Map<Integer, TestValue> entityList, ContentDetected detected) {
+        ValueType _type = record.type == null ? ValueType.rt_unknown : checkType(record.type);
         switch(_type) {
             case rt_integer:
-                IntegerValue int_result = new IntegerValue(_file, _group,  _name, _description, _unit);
-                entityList.put(_hash, int_result);
+                entityList.put(record.hash, new IntegerValue(rootGroup, record.group, record.name, record.description, record.unit));
                 break;
             case rt_double:
-                DoubleValue dbl_result = new DoubleValue(_file,  _group,  _name, _description, _unit);
-                entityList.put(_hash, dbl_result);
+                entityList.put(record.hash, new DoubleValue(rootGroup, record.group, record.name, record.description, record.unit));
                 break;
             case rt_string:
-                StringValue str_result = new StringValue(_file, _group,  _name, _description, _unit);
-                entityList.put(_hash, str_result);
+                entityList.put(record.hash, new StringValue(rootGroup, record.group, record.name, record.description, record.unit));
                 break;
             case rt_boolean:
-                BooleanValue bool_result = new BooleanValue(_file, _group,  _name, _description, _unit);
-                entityList.put(_hash, bool_result);
+                entityList.put(record.hash, new BooleanValue(rootGroup, record.group, record.name, record.description, record.unit));
                 break;
             default:
         }
     }
 
     /**
-     * Convert result/parameter content to the plug-in construct [DISPLAY LOAD]
+     * Convert streamed result content to the plug-in construct [DISPLAY LOAD]
+     * Referenced parameters must be present in the parameter list, thresholds are only present in the records
+     * of a mapping returned by the agent.
      * @param build Build number
-     * @param object Object to convert
+     * @param record Record to convert
      * @param rootGroup Root group
      * @param fileList List of files
      * @param entityList List of result/parameter entities
      * @param paramList List of parameters
      */
-    public static void convertResultJsonObject(int build, JsonObject object, TestGroup rootGroup, Map<Integer, TestGroup> fileList, Map<Integer, TestValue> entityList, Map<Integer, TestValue> paramList) {
-
-        Integer             _hash = null;
-        Integer             _id = null;
-        Boolean             _failedState = null;
-        JsonPrimitive       _value = null;
-        Map<String, String> _messages = new HashMap<String, String>();
-        List<TestValue>     _parameters = new ArrayList<TestValue>();
-
-
-        for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-            String key = enObject.getKey().toLowerCase();
-            if (key.equals("hash")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _hash = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("value")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    _value = enElement.getAsJsonPrimitive();
-                }
-            } else if (key.equals("id")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _id = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("failedstate")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isBoolean()) {
-                        _failedState = primitive.getAsBoolean();
-                    }
-                }
-            } else if (key.equals("messages")) {
-                JsonElement inElement = enObject.getValue();
-                if (inElement.isJsonArray()) {
-                    JsonArray inArray = inElement.getAsJsonArray();
-                    for (JsonElement enArray : inArray) {
-                        if (enArray.isJsonObject()) {
-                            String _title = "";
-                            String _message = "";
-                            JsonObject aObject = enArray.getAsJsonObject();
-                            for (Map.Entry<String, JsonElement> enSObject : aObject.entrySet()) {
-                                if (enSObject.getKey().equalsIgnoreCase("title")) {
-                                    JsonElement enElement = enSObject.getValue();
-                                    if (enElement.isJsonPrimitive()) {
-                                        JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                                        if (primitive.isString()) {
-                                            _title = primitive.getAsString();
-                                        }
-                                    }
-                                } else if (enSObject.getKey().equalsIgnoreCase("message")) {
-                                    JsonElement enElement = enSObject.getValue();
-                                    if (enElement.isJsonPrimitive()) {
-                                        JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                                        if (primitive.isString()) {
-                                            _message = primitive.getAsString();
-                                        }
-                                    }
-                                }
-                            }
-                            _messages.put(_title, _message);
-                        }
-                    }
-                }
-            } else if (key.equals("parameters")) {
-                JsonElement inElement = enObject.getValue();
-                if (inElement.isJsonArray()) {
-                    JsonArray inArray = inElement.getAsJsonArray();
-                    for (JsonElement enArray : inArray) {
-                        if (enArray.isJsonPrimitive()) {
-                            JsonPrimitive primitive = enArray.getAsJsonPrimitive();
-                            if (primitive.isNumber()) {
-                                TestValue parameter = paramList.get(primitive.getAsInt());
-                                if (parameter != null) {
-                                    _parameters.add(parameter);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        TestValue res = entityList.get(_hash);
+    public static void convertResultRecord(int build, JsonRecord record, TestGroup rootGroup, Map<Integer, TestGroup> fileList, Map<Integer, TestValue> entityList, Map<Integer, TestValue> paramList) {
+        TestValue res = entityList.get(record.hash);
         if (res == null){
-            String      _name = null;
-            String      _group = null;
-            String      _description = null;
-            String      _unit = null;
-            ValueType   _type = ValueType.rt_unknown;
-            TestGroup  _file = rootGroup;
-            for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-                String key = enObject.getKey().toLowerCase();
-                if (key.equals("name")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _name = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("group")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _group = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("description")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _description = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("unit")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _unit = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("type")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _type = checkType(primitive.getAsString());
-                        }
-                    }
-                } else if (key.equals("file")) {
-                    JsonElement inObject = enObject.getValue();
-                    if (inObject.isJsonPrimitive()) {
-                        JsonPrimitive primitive = inObject.getAsJsonPrimitive();
-                        if (primitive.isNumber()) {
-                            TestGroup file = fileList.get(primitive.getAsInt());
-                            if (file != null) {
-                                _file = file;
-                            }
-                        }
-                    }
-                }
-            }
-            switch (_type) {
-                case rt_boolean:
-                    BooleanValue bool_value = new BooleanValue (_file, null, _name, _description, _unit);
-                    bool_value.setValue(build, _value.getAsBoolean());
-                    bool_value.setGroup(_group);
-                    entityList.put(_hash, bool_value);
-                    if (paramList != null) {
-                        _file.addGroup(bool_value);
-                    }
-                    res = bool_value;
-                    break;
-
-                case rt_string:
-                    StringValue str_value = new StringValue (_file, null, _name, _description, _unit);
-                    str_value.setValue(build, _value.getAsString());
-                    str_value.setGroup(_group);
-                    entityList.put(_hash, str_value);
-                    if (paramList != null) {
-                        _file.addGroup(str_value);
-                    }
-                    res = str_value;
-                    break;
-
-                case rt_double:
-                    DoubleValue dbl_value = new DoubleValue (_file, null, _name, _description, _unit);
-                    dbl_value.setValue(build, _value.getAsDouble());
-                    dbl_value.setGroup(_group);
-                    entityList.put(_hash, dbl_value);
-                    if (paramList != null) {
-                        _file.addGroup(dbl_value);
-                    }
-                    res = dbl_value;
-                    break;
-
-                case rt_integer:
-                    IntegerValue int_value = new IntegerValue (_file, null, _name, _description, _unit);
-                    int_value.setValue(build, _value.getAsInt());
-                    int_value.setGroup(_group);
-                    entityList.put(_hash, int_value);
-                    if (paramList != null) {
-                        _file.addGroup(int_value);
-                    }
-                    res = int_value;
-                    break;
-
-                default:
+            TestGroup _file = getFileGroup(record, rootGroup, fileList);
+            res = createValue(build, record, _file);
+            if (res != null) {
+                entityList.put(record.hash, res);
+                _file.addGroup(res);
             }
         }
         if (res != null){
-            if (_value != null){
-                ValueType type = res.getType();
-                switch (type) {
-                    case rt_boolean:
-                        if (_value.isBoolean()) {
-                            BooleanValue value = (BooleanValue) res;
-                            value.setValue(build, _value.getAsBoolean());
-                        }
-                        break;
-
-                    case rt_double:
-                        if (_value.isNumber()) {
-                            DoubleValue value = (DoubleValue) res;
-                            value.setValue(build, _value.getAsDouble());
-                        }
-                        break;
-
-                    case rt_integer:
-                        if (_value.isNumber()) {
-                            IntegerValue value = (IntegerValue) res;
-                            value.setValue(build, _value.getAsInt());
-                        }
-                        break;
-
-                    case rt_string:
-                        if (_value.isString()) {
-                            StringValue value = (StringValue) res;
-                            value.setValue(build, _value.getAsString());
-                        }
-                        break;
-
-                    default:
-                }
-            }
-            if (_failedState != null) {
-                res.setFailedState(build, _failedState);
+            setValue(build, res, record.value);
+            if (record.failedState != null) {
+                res.setFailedState(build, record.failedState);
             }
-            if (_id != null) {
-                res.setId(build, _id);
+            if (record.id != null) {
+                res.setId(build, record.id);
             }
-            if (_messages != null) {
-                res.setMessages(build, _messages);
+            if (record.messages != null) {
+                res.setMessages(build, record.messages);
             }
-            if (!_parameters.isEmpty()) {
+            if (record.nParameters > 0) {
+                List<TestValue> _parameters = new ArrayList<TestValue>(record.nParameters);
+                for (int i = 0; i < record.nParameters; i++) {
+                    TestValue parameter = paramList.get(record.parameters[i]);
+                    if (parameter != null) {
+                        _parameters.add(parameter);
+                    }
+                }
                 res.setParameters(build, _parameters);
             }
+            if (record.thresholds != null) {
+                for (JsonElement threshold : record.thresholds) {
+                    if (!threshold.isJsonObject()) {
+                        continue;
+                    }
+                    try {
+                        res.addThreshold(Threshold.fromJsonObject(threshold.getAsJsonObject()));
+                    } catch (ValidationException e) {
+                        throw new JsonSyntaxException(e.getMessage(), e);
+                    }
+                }
+            }
         }
     }
 
     /**
-     * Convert result/parameter content to the plug-in construct [DISPLAY LOAD]
+     * Convert streamed parameter content to the plug-in construct [DISPLAY LOAD]
      * @param build Build number
-     * @param object Object to convert
+     * @param record Record to convert
      * @param rootGroup Root group
      * @param entityList List of result/parameter entities
      */
-    public static void convertParameterJsonObject(int build, JsonObject object, TestGroup rootGroup, Map<Integer, TestValue> entityList) {
-
-        Integer             _hash = null;
-        TestGroup           _file = rootGroup;
-        JsonPrimitive       _value = null;
-
-        for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-            String key = enObject.getKey().toLowerCase();
-            if (key.equals("hash")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    JsonPrimitive primitive = enElement.getAsJsonPrimitive();
-                    if (primitive.isNumber()) {
-                        _hash = primitive.getAsInt();
-                    }
-                }
-            } else if (key.equals("value")) {
-                JsonElement enElement = enObject.getValue();
-                if (enElement.isJsonPrimitive()) {
-                    _value = enElement.getAsJsonPrimitive();
-                }
+    public static void convertParameterRecord(int build, JsonRecord record, TestGroup rootGroup, Map<Integer, TestValue> entityList) {
+        TestValue res = entityList.get(record.hash);
+        if (res == null){
+            res = createValue(build, record, rootGroup);
+            if (res != null) {
+                entityList.put(record.hash, res);
             }
         }
-        TestValue res = entityList.get(_hash);
-        if (res == null){
-            String      _name = null;
-            String      _group = null;
-            String      _description = null;
-            String      _unit = null;
-            ValueType   _type = ValueType.rt_unknown;
-            for (Map.Entry<String, JsonElement> enObject : object.entrySet()) {
-                String key = enObject.getKey().toLowerCase();
-                if (key.equals("name")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _name = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("group")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _group = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("description")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _description = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("unit")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _unit = primitive.getAsString();
-                        }
-                    }
-                } else if (key.equals("type")) {
-                    JsonElement value = enObject.getValue();
-                    if (value.isJsonPrimitive()) {
-                        JsonPrimitive primitive = value.getAsJsonPrimitive();
-                        if (primitive.isString()) {
-                            _type = checkType(primitive.getAsString());
-                        }
-                    }
-                }
+        if (res != null){
+            setValue(build, res, record.value);
+        }
+    }
+
+    /**
+     * Get the file group referenced by a record
+     * @param record Streamed record
+     * @param rootGroup Root group, used if no file is referenced
+     * @param fileList List of files
+     * @return File group
+     */
+    private static TestGroup getFileGroup(JsonRecord record, TestGroup rootGroup, Map<Integer, TestGroup> fileList) {
+        if (record.file != null) {
+            TestGroup file = fileList.get(record.file);
+            if (file != null) {
+                return file;
             }
-            switch (_type) {
-                case rt_boolean:
-                    BooleanValue bool_value = new BooleanValue (_file, null, _name, _description, _unit);
+        }
+        return rootGroup;
+    }
+
+    /**
+     * Create a result/parameter from a streamed record
+     * @param build Build number
+     * @param record Streamed record
+     * @param file File group of the new entity
+     * @return New entity, null if the type is unknown
+     */
+    private static TestValue createValue(int build, JsonRecord record, TestGroup file) {
+        ValueType _type = record.type == null ? ValueType.rt_unknown : checkType(record.type);
+        JsonPrimitive _value = record.value;
+        TestValue res;
+        switch (_type) {
+            case rt_boolean:
+                BooleanValue bool_value = new BooleanValue (file, null, record.name, record.description, record.unit);
+                if (_value != null) {
                     bool_value.setValue(build, _value.getAsBoolean());
-                    bool_value.setGroup(_group);
-                    entityList.put(_hash, bool_value);
-                    res = bool_value;
-                    break;
+                }
+                res = bool_value;
+                break;
 
-                case rt_string:
-                    StringValue str_value = new StringValue (_file, null, _name, _description, _unit);
+            case rt_string:
+                StringValue str_value = new StringValue (file, null, record.name, record.description, record.unit);
+                if (_value != null) {
                     str_value.setValue(build, _value.getAsString());
-                    str_value.setGroup(_group);
-                    entityList.put(_hash, str_value);
-                    res = str_value;
-                    break;
+                }
+                res = str_value;
+                break;
 
-                case rt_double:
-                    DoubleValue dbl_value = new DoubleValue (_file, null, _name, _description, _unit);
+            case rt_double:
+                DoubleValue dbl_value = new DoubleValue (file, null, record.name, record.description, record.unit);
+                if (_value != null && _value.isNumber()) {
                     dbl_value.setValue(build, _value.getAsDouble());
-                    dbl_value.setGroup(_group);
-                    entityList.put(_hash, dbl_value);
-                    res = dbl_value;
-                    break;
+                }
+                res = dbl_value;
+                break;
 
-                case rt_integer:
-                    IntegerValue int_value = new IntegerValue (_file, null, _name, _description, _unit);
+            case rt_integer:
+                IntegerValue int_value = new IntegerValue (file, null, record.name, record.description, record.unit);
+                if (_value != null && _value.isNumber()) {
                     int_value.setValue(build, _value.getAsInt());
-                    int_value.setGroup(_group);
-                    entityList.put(_hash, int_value);
-                    res = int_value;
-                    break;
-                default:
-            }
+                }
+                res = int_value;
+                break;
+
+            default:
+                return null;
         }
-        if (res != null){
-            if (_value != null){
-                ValueType type = res.getType();
-                switch (type) {
-                    case rt_boolean:
-                        if (_value.isBoolean()) {
-                            BooleanValue value = (BooleanValue) res;
-                            value.setValue(build, _value.getAsBoolean());
-                        }
-                        break;
-
-                    case rt_double:
-                        if (_value.isNumber()) {
-                            DoubleValue value = (DoubleValue) res;
-                            value.setValue(build, _value.getAsDouble());
-                        }
-                        break;
-
-                    case rt_integer:
-                        if (_value.isNumber()) {
-                            IntegerValue value = (IntegerValue) res;
-                            value.setValue(build, _value.getAsInt());
-                        }
-                        break;
-
-                    case rt_string:
-                        if (_value.isString()) {
-                            StringValue value = (StringValue) res;
-                            value.setValue(build, _value.getAsString());
-                        }
-                        break;
-                    default:
+        res.setGroup(record.group);
+        return res;
+    }
+
+    /**
+     * Set the value of a build if it matches the type of the result
+     * @param build Build number
+     * @param res Result to update
+     * @param _value Streamed value
+     */
+    private static void setValue(int build, TestValue res, JsonPrimitive _value) {
+        if (_value == null) {
+            return;
+        }
+        switch (res.getType()) {
+            case rt_boolean:
+                if (_value.isBoolean()) {
+                    ((BooleanValue) res).setValue(build, _value.getAsBoolean());
                 }
-            }
+                break;
+
+            case rt_double:
+                if (_value.isNumber()) {
+                    ((DoubleValue) res).setValue(build, _value.getAsDouble());
+                }
+                break;
+
+            case rt_integer:
+                if (_value.isNumber()) {
+                    ((IntegerValue) res).setValue(build, _value.getAsInt());
+                }
+                break;
+
+            case rt_string:
+                if (_value.isString()) {
+                    ((StringValue) res).setValue(build, _value.getAsString());
+                }
+                break;
+
+            default:
         }
     }
 
@@ -767,10 +353,11 @@ public class TestValue extends TestGroup {
      * @param decimalSeparator Decimal Separator
      * @return HTML content for this result
      */
-    public String getHTMLResult(TreeSet<Integer> builds, char decimalSeparator) {
+    public String getHTMLResult(BuildSet builds, char decimalSeparator) {
         StringBuffer content = new StringBuffer();
+        int[] range = this.getBuildRange(builds);
         for (int build = builds.last(); build >= builds.first(); build--) {
-            String value = this.getValueAsLocaleString(build, decimalSeparator);
+            String value = (build < range[0] || build > range[1]) ? "" : this.getValueAsLocaleString(build, decimalSeparator);
             if (value.isEmpty()) {
                 content.append("<td>-</td>");
             } else {
@@ -952,7 +539,7 @@ public class TestValue extends TestGroup {
      * @param decimalSeparator Decimal Separator
      * @return HTML table content for this result
      */
-    public String getHTMLResult(Integer key, ContentDetected detected, TreeSet<Integer> builds, List<Integer> listNPassed, List<Integer> listNFailed, char decimalSeparator) {
+    public String getHTMLResult(Integer key, ContentDetected detected, BuildSet builds, List<Integer> listNPassed, List<Integer> listNFailed, char decimalSeparator) {
         StringBuffer content = new StringBuffer();
         content.append("<tr><td>");
         if (detected.isFileDetected()) {
@@ -988,8 +575,9 @@ public class TestValue extends TestGroup {
         }
         content.append(key.toString());
         int index = 0;
+        int[] range = this.getBuildRange(builds);
         for (int build = builds.last(); build >= builds.first(); build--) {
-            String value = this.getValueAsLocaleString(build, decimalSeparator);
+            String value = (build < range[0] || build > range[1]) ? "" : this.getValueAsLocaleString(build, decimalSeparator);
             if (value.isEmpty()) {
                 content.append("</td><td>");
             } else {
@@ -1015,13 +603,98 @@ public class TestValue extends TestGroup {
         return content.toString();
     }
 
+    /**
+     * Get the heading cells identifying this result in the tables [TABLE PAGE]
+     * @param detected Key characteristic of this set of results
+     * @return Location, group, name and unit, as detected for this set of results
+     */
+    public List<String> getTableHeads(ContentDetected detected) {
+        List<String> heads = new ArrayList<String>(4);
+        if (detected.isFileDetected()) {
+            if (this.getParent() == null || this.getParent().getName().equalsIgnoreCase("__root__")) {
+                heads.add("");
+            } else {
+                heads.add(this.getParent().getName());
+            }
+        }
+        if (detected.isGroupDetected()) {
+            heads.add(this.getGroup() == null ? "" : this.getGroup());
+        }
+        heads.add(this.getName());
+        if (detected.isUnitsDetected()) {
+            heads.add((this.unit != null && !this.unit.isEmpty()) ? this.unit : "-");
+        }
+        return heads;
+    }
+
+    /**
+     * Generate the cells of the raw table row for this result, for a window of builds [TABLE PAGE]
+     * Cells holding a state wrap their value in a span carrying the state color.
+     * @param key Result hash value
+     * @param detected Key characteristic of this set of results
+     * @param firstBuild First build of the window
+     * @param lastBuild Last build of the window
+     * @param decimalSeparator Decimal Separator
+     * @return Cells of the row, from the last build to the first
+     */
+    public JsonArray getTableRow(Integer key, ContentDetected detected, int firstBuild, int lastBuild, char decimalSeparator) {
+        JsonArray row = new JsonArray();
+        for (String head : getTableHeads(detected)) {
+            row.add(new JsonPrimitive(head));
+        }
+        row.add(new JsonPrimitive(key.toString()));
+        Integer first = this.getFirstBuild();
+        Integer last = this.getLastBuild();
+        for (int build = lastBuild; build >= firstBuild; build--) {
+            String value = ((first != null && build < first) || (last != null && build > last)) ? "" : this.getValueAsLocaleString(build, decimalSeparator);
+            if (value.isEmpty()) {
+                row.add(new JsonPrimitive(""));
+            } else {
+                Boolean failedState = this.getFailedState(build);
+                String text = value.equals("__boolean__") ? "" : value;
+                if (failedState == null) {
+                    row.add(new JsonPrimitive(text));
+                } else {
+                    row.add(new JsonPrimitive("<span data-color=\"" + this.getColor(failedState) + "\">" + text + "</span>"));
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Count the passed and failed states of this result, for a window of builds [TABLE PAGE]
+     * @param firstBuild First build of the window
+     * @param lastBuild Last build of the window
+     * @param listNPassed Number of passed result test for each build, from the last build
+     * @param listNFailed Number of failed result test for each build, from the last build
+     */
+    public void countStates(int firstBuild, int lastBuild, List<Integer> listNPassed, List<Integer> listNFailed) {
+        Integer first = this.getFirstBuild();
+        Integer last = this.getLastBuild();
+        int index = 0;
+        for (int build = lastBuild; build >= firstBuild; build--) {
+            if ((first == null || build >= first) && (last == null || build <= last)) {
+                Boolean failedState = this.getFailedState(build);
+                if (failedState != null && !this.getValueAsLocaleString(build, '.').isEmpty()) {
+                    if (failedState) {
+                        listNFailed.set(index, listNFailed.get(index) + 1);
+                    } else {
+                        listNPassed.set(index, listNPassed.get(index) + 1);
+                    }
+                }
+            }
+            index++;
+        }
+    }
+
     /**
      * Generate the CSV table content for this result [CSV EXPORT]
      * @param builds List of build numbers
      * @param detected Key characteristic of this set of results
      * @return CSV table content for result
      */
-    public String getCSVResult(TreeSet<Integer> builds, ContentDetected detected) {
+    public String getCSVResult(BuildSet builds, ContentDetected detected) {
         StringBuffer content = new StringBuffer();
         if (detected.isFileDetected()) {
             if (this.getParent() == null){
@@ -1053,8 +726,9 @@ public class TestValue extends TestGroup {
                 content.append(this.unit);
             }
         }
+        int[] range = this.getBuildRange(builds);
         for (int build = builds.last(); build >= builds.first(); build--) {
-            String value = this.getValueAsString(build);
+            String value = (build < range[0] || build > range[1]) ? null : this.getValueAsString(build);
             if (value == null || value.isEmpty()) {
                 content.append(",-");
             } else {
@@ -1072,7 +746,7 @@ public class TestValue extends TestGroup {
      * @param builds List of build numbers
      * @return CSV table state content for result
      */
-    public String getCSVResultState(Integer key, ContentDetected detected, TreeSet<Integer> builds ) {
+    public String getCSVResultState(Integer key, ContentDetected detected, BuildSet builds ) {
         StringBuffer content = new StringBuffer();
         if (detected.isFileDetected()) {
             if (this.getParent() == null){
@@ -1194,6 +868,13 @@ public class TestValue extends TestGroup {
      */
     public String getHTMLCondensed(Integer key, ContentDetected detected, char decimalSeparator) { return ""; }
 
+    /**
+     * Get the statistic cells of the condensed table row, following the result key [TABLE PAGE]
+     * @param decimalSeparator Decimal separator
+     * @return Minimum, maximum, average and standard deviation if available, then the passed and failed counts
+     */
+    public List<String> getCondensedCells(char decimalSeparator) { return Collections.emptyList(); }
+
     /**
      * Assemble the HTML content to display the condensed table [DETAIL PAGE]
      * @param detected Key characteristics of results
@@ -1217,6 +898,59 @@ public class TestValue extends TestGroup {
      */
     public JsonObject getCondensedJsonObject (int build, int hash) { return null; }
 
+    /**
+     * Fold the value stored under key into the condensed aggregates of the previous builds [CONDENSED ONLY]
+     * @param key Key of the value to fold in
+     * @param condensed Condensed result of the previous builds, null if none
+     * @return Updated condensed result, null if not supported
+     */
+    public TestValue getCondensedUpdate(int key, TestValue condensed) { return null; }
+
+    /**
+     * Whether the condensed aggregates can be updated without the build history [CONDENSED ONLY]
+     * @return True if supported
+     */
+    public boolean hasCondensedAggregates() { return true; }
+
+    /**
+     * Move the values and properties of the same result loaded by a partial mapper [DISPLAY LOADING]
+     * Builds already present in this result are kept.
+     * @param partial Result of the partial mapper, its properties are reused and must not be shared afterwards
+     * @param parameterMap Parameters of the partial mapper mapped to the parameters of this mapper
+     */
+    public void mergeHistoryWith(TestValue partial, Map<TestValue, TestValue> parameterMap) {
+        partial.remapParameters(parameterMap);
+        for (Map.Entry<Integer, TestProperty> entry : partial.properties.entrySet()) {
+            this.properties.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        mergeValuesWith(partial);
+    }
+
+    /**
+     * Replace the parameters referenced by the properties of this result [DISPLAY LOADING]
+     * @param parameterMap Parameters to be replaced mapped to their replacement
+     */
+    public void remapParameters(Map<TestValue, TestValue> parameterMap) {
+        if (parameterMap.isEmpty()) {
+            return;
+        }
+        for (TestProperty property : this.properties.values()) {
+            List<TestValue> _parameters = property.getParameters();
+            for (int i = 0; i < _parameters.size(); i++) {
+                TestValue parameter = parameterMap.get(_parameters.get(i));
+                if (parameter != null) {
+                    _parameters.set(i, parameter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the values of the same result loaded by a partial mapper [DISPLAY LOADING]
+     * @param partial Result of the partial mapper
+     */
+    protected void mergeValuesWith(TestValue partial) { }
+
     /**
      * Return whether the TestValue is based on numeral values
      * @return Whether class is numeral
@@ -1437,6 +1171,20 @@ public class TestValue extends TestGroup {
         }
     }
 
+    /**
+     * Range of builds holding a value for this result, so that renderers skip the builds outside of it [DETAIL PAGE]
+     * @param builds List of build numbers
+     * @return First and last build to look up
+     */
+    protected int[] getBuildRange(BuildSet builds) {
+        Integer first = this.getFirstBuild();
+        Integer last = this.getLastBuild();
+        if (first == null || last == null) {
+            return new int[] { builds.first(), builds.last() };
+        }
+        return new int[] { first, last };
+    }
+
     protected String getColor(Boolean failedState){
         if (failedState) {
             return FAILED_STATE_COLOR;
@@ -1446,6 +1194,25 @@ public class TestValue extends TestGroup {
     }
 
     public int getNumberOfProperties() { return properties.size(); }
+    public int getNumberOfValues() { return 0; }
+    public Integer getFirstBuild() { return null; }
+    public Integer getLastBuild() { return null; }
+    protected long getValuesSize() { return (long) VALUE_SIZE * getNumberOfValues(); }
+
+    /**
+     * Estimate the heap used by the loaded values and properties [DISPLAY LOADING]
+     * @return Estimated size in bytes
+     */
+    public long getEstimatedSize() {
+        long size = ENTITY_SIZE + getValuesSize();
+        for (TestProperty property : properties.values()) {
+            size += PROPERTY_SIZE;
+            for (Map.Entry<String, String> message : property.getMessages().entrySet()) {
+                size += 2 * (message.getKey().length() + message.getValue().length());
+            }
+        }
+        return size;
+    }
 
     protected static ValueType checkType(String type) {
         type = type.toLowerCase();
@@ -1476,5 +1243,5 @@ public class TestValue extends TestGroup {
         }
     }
 
-    public JsonArray getDataAsJsonArray(TreeSet<Integer> buildNumbers) throws InvalidClassException { throw new InvalidClassException(Messages.TestValue_TestValueNotNumeral());}
+    public JsonArray getDataAsJsonArray(BuildSet buildNumbers) throws InvalidClassException { throw new InvalidClassException(Messages.TestValue_TestValueNotNumeral());}
 }
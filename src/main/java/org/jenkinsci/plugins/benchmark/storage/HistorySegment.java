@@ -0,0 +1,315 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Segment file of the history store
+ *
+ * <p>
+ * A segment holds the records of a run of builds grouped by column: the value records of a column
+ * [int build, byte state, value] are followed by its property records [int build, byte flags, properties].
+ * A directory at the end of the file locates each column by kind and hash, so a column is read without
+ * scanning the segment. Segments are never modified once written.
+ * <p>
+ * The channel of an opened segment stays open while the segment is referenced, so that a reader keeps the
+ * content it resolved even after the segment is merged away from the store.
+ *
+ * @author Daniel Mercier
+ * @since 11/14/2017.
+ */
+final class HistorySegment {
+
+    // Variables
+
+    static final String         EXTENSION = ".seg";
+    static final int            MAGIC = 0x42485347;           // BHSG
+    static final byte           VERSION = 1;
+
+    static final byte           KIND_RESULT = 1;
+    static final byte           KIND_PARAMETER = 2;
+
+    private static final int    HEADER_SIZE = 5;
+    private static final int    ENTRY_SIZE = 30;
+    private static final int    TRAILER_SIZE = 16;
+
+    private final File          file;
+    private final FileChannel   channel;
+    private final Map<Integer, Column> results = new HashMap<Integer, Column>();
+    private final Map<Integer, Column> parameters = new HashMap<Integer, Column>();
+
+    // Constructor
+
+    private HistorySegment(File file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    // Functions
+
+    /**
+     * Open a segment and read its directory
+     * The channel is closed with the stream once the segment is no longer referenced.
+     * @param file Segment file
+     * @return Opened segment
+     * @throws IOException If the segment could not be read or is not a segment
+     */
+    static HistorySegment open(File file) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            HistorySegment segment = new HistorySegment(file, channel);
+            segment.readDirectory();
+            return segment;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readDirectory() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = (size < HEADER_SIZE + TRAILER_SIZE) ? null : read(0, HEADER_SIZE);
+        if (header == null || header.getInt() != MAGIC || header.get() != VERSION) {
+            throw new IOException(Messages.HistoryStore_UnknownFormat(file.getAbsolutePath()));
+        }
+        ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+        long position = trailer.getLong();
+        int count = trailer.getInt();
+        if (trailer.getInt() != MAGIC || count < 0 || position < HEADER_SIZE || position + (long) count * ENTRY_SIZE > size - TRAILER_SIZE) {
+            throw new IOException(Messages.HistoryStore_UnknownFormat(file.getAbsolutePath()));
+        }
+        ByteBuffer directory = read(position, count * ENTRY_SIZE);
+        for (int i = 0; i < count; i++) {
+            int hash = directory.getInt();
+            byte kind = directory.get();
+            byte type = directory.get();
+            boolean reset = (type & 0x80) != 0;
+            Column column = new Column(this, (byte) (type & 0x7F), reset, directory.getLong(), directory.getInt(), directory.getLong(), directory.getInt());
+            getColumns(kind).put(hash, column);
+        }
+    }
+
+    /**
+     * Read a region of the segment
+     * @param position Position of the region
+     * @param length Length of the region
+     * @return Buffer holding the region, positioned at its start
+     * @throws IOException If the region could not be read completely
+     */
+    ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException(file.getAbsolutePath());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Get the columns of a kind
+     * @param kind Kind of column, result or parameter
+     * @return Columns by hash
+     */
+    Map<Integer, Column> getColumns(byte kind) {
+        return kind == KIND_PARAMETER ? parameters : results;
+    }
+
+    /**
+     * Resolve the columns holding the current values of a hash, from the oldest segment to the newest
+     * The values of a hash are those of the type of its newest column. Columns of an earlier type are left out,
+     * and so are the columns preceding a column marked as reset.
+     * @param segments Segments, from the oldest to the newest
+     * @param kind Kind of column, result or parameter
+     * @param hash Result hash
+     * @return Columns, empty if the hash has no stored values
+     */
+    static List<Column> resolve(List<HistorySegment> segments, byte kind, int hash) {
+        LinkedList<Column> columns = new LinkedList<Column>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Column column = segments.get(i).getColumns(kind).get(hash);
+            if (column == null) {
+                continue;
+            }
+            if (!columns.isEmpty() && column.type != columns.getFirst().type) {
+                break;
+            }
+            columns.addFirst(column);
+            if (column.reset) {
+                break;
+            }
+        }
+        return columns;
+    }
+
+    static String getName(int id) {
+        return Integer.toString(id) + EXTENSION;
+    }
+
+    // Getters
+
+    File getFile() { return file; }
+
+    /**
+     * Column of a segment, located by the directory
+     */
+    static final class Column {
+
+        final HistorySegment    segment;
+        final byte              type;
+        final boolean           reset;
+        final long              values;
+        final int               valuesLength;
+        final long              properties;
+        final int               propertiesLength;
+
+        Column(HistorySegment segment, byte type, boolean reset, long values, int valuesLength, long properties, int propertiesLength) {
+            this.segment = segment;
+            this.type = type;
+            this.reset = reset;
+            this.values = values;
+            this.valuesLength = valuesLength;
+            this.properties = properties;
+            this.propertiesLength = propertiesLength;
+        }
+
+        byte[] readValues() throws IOException {
+            return segment.read(values, valuesLength).array();
+        }
+
+        byte[] readProperties() throws IOException {
+            return segment.read(properties, propertiesLength).array();
+        }
+    }
+
+    /**
+     * Writer of a new segment, columns are added one at a time and the directory is written on close
+     */
+    static final class Writer {
+
+        private final File                  file;
+        private final FileOutputStream      stream;
+        private final CountingOutputStream  counter;
+        private final DataOutputStream      output;
+        private final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+        private int                         count = 0;
+
+        Writer(File file) throws IOException {
+            this.file = file;
+            this.stream = new FileOutputStream(file);
+            this.counter = new CountingOutputStream(new BufferedOutputStream(stream));
+            this.output = new DataOutputStream(counter);
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+        }
+
+        /**
+         * Add a column to the segment
+         * @param kind Kind of column, result or parameter
+         * @param hash Result hash
+         * @param type Type code of the values
+         * @param reset Whether the columns of older segments are superseded by this one
+         * @param values Value records
+         * @param properties Property records
+         * @throws IOException If the column could not be written
+         */
+        void addColumn(byte kind, int hash, byte type, boolean reset, byte[] values, byte[] properties) throws IOException {
+            long valuesPosition = counter.getCount();
+            output.write(values);
+            long propertiesPosition = counter.getCount();
+            output.write(properties);
+
+            DataOutputStream entry = new DataOutputStream(directory);
+            entry.writeInt(hash);
+            entry.writeByte(kind);
+            entry.writeByte(reset ? (type | 0x80) : type);
+            entry.writeLong(valuesPosition);
+            entry.writeInt(values.length);
+            entry.writeLong(propertiesPosition);
+            entry.writeInt(properties.length);
+            count++;
+        }
+
+        /**
+         * Write the directory and close the segment, the file is synced so that the index never refers to a
+         * segment missing from the disk
+         * @throws IOException If the segment could not be written
+         */
+        void close() throws IOException {
+            try {
+                long position = counter.getCount();
+                directory.writeTo(output);
+                output.writeLong(position);
+                output.writeInt(count);
+                output.writeInt(MAGIC);
+                output.flush();
+                stream.getFD().sync();
+            } finally {
+                output.close();
+            }
+        }
+
+        /**
+         * Close and delete an incomplete segment
+         */
+        void abort() {
+            try {
+                output.close();
+            } catch (IOException e) {
+                // Deleted below
+            }
+            file.delete();
+        }
+    }
+
+    /**
+     * Output stream keeping the number of bytes written, as positions of the segment
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long    count = 0;
+
+        CountingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() { return count; }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,846 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.storage;
+
+import hudson.model.Job;
+import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+import org.jenkinsci.plugins.benchmark.results.*;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only columnar store holding the result history of a job
+ *
+ * <p>
+ * The store lives in the job directory and contains an index and a few segment files. Each segment holds the
+ * records of a run of builds grouped by result or parameter hash, one record per build [int build, byte state,
+ * value], followed by the identifiers, messages and attached parameters of the result, and ends with a directory
+ * locating the columns by hash. Each append writes a small segment; segments of the same size are merged as they
+ * pile up, so that the number of files only grows with the logarithm of the number of builds.
+ * <p>
+ * Segments are never modified once written. The index lists the segments and the builds of the store and is
+ * replaced atomically, it is the commit point of every write: segments and builds missing from it are ignored.
+ * Readers resolve the index and open its segments under the lock of the store, so that they keep reading the
+ * same generation of the store while it is appended, merged or rebuilt. The index header holds the origin of
+ * the store: every build from the origin on was recorded, older builds may only exist as legacy result files.
+ *
+ * @author Daniel Mercier
+ * @since 11/14/2017.
+ */
+public class HistoryStore {
+
+    // Variables
+
+    public static final String  DIRECTORY = "BenchmarkHistory";
+
+    static final String         INDEX_FILE = "builds.idx";
+    static final int            INDEX_MAGIC = 0x42484953;     // BHIS
+    static final int            MERGE_FACTOR = 4;
+
+    static final byte           TYPE_BOOLEAN = 1;
+    static final byte           TYPE_INTEGER = 2;
+    static final byte           TYPE_DOUBLE = 3;
+    static final byte           TYPE_STRING = 4;
+
+    static final byte           STATE_NONE = 0;
+    static final byte           STATE_PASSED = 1;
+    static final byte           STATE_FAILED = 2;
+
+    static final byte           PROPERTY_ID = 1;
+    static final byte           PROPERTY_MESSAGES = 2;
+    static final byte           PROPERTY_PARAMETERS = 4;
+
+    private static final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+    private final File          directory;
+    private final File          buildDirectory;
+    private final Object        lock;
+
+    private Integer             loadedLastBuild;
+
+    // Constructor
+
+    public HistoryStore(Job project) {
+        this(project.getRootDir(), project.getBuildDir());
+    }
+
+    public HistoryStore(File rootDirectory, File buildDirectory) {
+        this.directory = new File(rootDirectory, DIRECTORY);
+        this.buildDirectory = buildDirectory;
+        this.lock = getLock(directory);
+    }
+
+    // Functions
+
+    /**
+     * Get the lock shared by all the instances of a store directory
+     * @param directory Store directory
+     * @return Lock of the directory
+     */
+    private static Object getLock(File directory) {
+        String path = directory.getAbsolutePath();
+        Object lock = locks.get(path);
+        if (lock == null) {
+            Object created = new Object();
+            lock = locks.putIfAbsent(path, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Append the results of a build to the store [POST-BUILD]
+     * @param build Build number
+     * @param mapper Mapper holding the results of the build
+     * @param key Key under which the values of the build are stored
+     * @throws IOException If the store could not be written
+     */
+    public void append(int build, MapperBase mapper, int key) throws IOException {
+        synchronized (lock) {
+            Index index = readIndex();
+            int id = getNextSegment(index);
+            writeSegment(id, Collections.singletonList(build), Collections.singletonList(key), mapper);
+            if (index.origin == null) {
+                index.origin = build;
+            }
+            index.segments.add(id);
+            index.levels.add((byte) 0);
+            index.builds.add(build);
+            writeIndex(index);
+
+            try {
+                if (merge(index)) {
+                    writeIndex(index);
+                }
+            } catch (IOException e) {
+                // The build is stored, the segments are merged on a later append
+            }
+            deleteUnusedSegments(index);
+        }
+    }
+
+    /**
+     * Rewrite the complete store from the content of a mapper, used once the legacy result files were loaded
+     * [POST-BUILD]
+     * Skipped if builds were appended since the store was loaded.
+     * @param mapper Mapper holding the results of all builds
+     * @return Whether the store was rewritten
+     * @throws IOException If the store could not be written
+     */
+    public boolean rebuild(MapperBase mapper) throws IOException {
+        synchronized (lock) {
+            Index index = readIndex();
+            Integer lastBuild = index.builds.isEmpty() ? null : index.builds.get(index.builds.size() - 1);
+            if (lastBuild == null ? loadedLastBuild != null : !lastBuild.equals(loadedLastBuild)) {
+                return false;
+            }
+
+            List<Integer> builds = new ArrayList<Integer>();
+            for (Integer build : mapper.getBuilds()) {
+                if (build > 0) {
+                    builds.add(build);
+                }
+            }
+            int id = getNextSegment(index);
+            writeSegment(id, builds, builds, mapper);
+
+            Index rebuilt = new Index();
+            rebuilt.origin = 0;
+            rebuilt.segments.add(id);
+            rebuilt.levels.add(getLevel(builds.size()));
+            rebuilt.builds.addAll(builds);
+            writeIndex(rebuilt);
+            deleteUnusedSegments(rebuilt);
+            loadedLastBuild = builds.isEmpty() ? null : builds.get(builds.size() - 1);
+            return true;
+        }
+    }
+
+    /**
+     * Load the content of the store into a mapper holding the condensed results [DISPLAY LOADING]
+     * Only builds still present in the job are loaded.
+     * @param mapper Mapper to load into
+     * @throws IOException If the store could not be read
+     */
+    public void load(MapperBase mapper) throws IOException {
+        Set<Integer> builds;
+        List<HistorySegment> segments;
+        synchronized (lock) {
+            Index index = readIndex();
+            builds = getBuilds(index);
+            if (builds.isEmpty()) {
+                return;
+            }
+            segments = openSegments(index);
+        }
+
+        try {
+            for (Map.Entry<Integer, TestValue> parameter : mapper.getParameters().entrySet()) {
+                readColumns(HistorySegment.resolve(segments, HistorySegment.KIND_PARAMETER, parameter.getKey()), parameter.getValue(), mapper.getParameters(), builds);
+            }
+            for (Map.Entry<Integer, TestValue> result : mapper.getResults().entrySet()) {
+                readColumns(HistorySegment.resolve(segments, HistorySegment.KIND_RESULT, result.getKey()), result.getValue(), mapper.getParameters(), builds);
+            }
+        } finally {
+            closeSegments(segments);
+        }
+        mapper.getBuilds().addAll(builds);
+    }
+
+    /**
+     * Open the store for reads on demand [DISPLAY LOADING]
+     * Only builds still present in the job are exposed. The segments are opened at once, so that the view keeps
+     * reading the same generation of the store.
+     * @return View of the store
+     * @throws IOException If the index or a segment could not be read
+     */
+    public MappedHistory map() throws IOException {
+        synchronized (lock) {
+            Index index = readIndex();
+            return new MappedHistory(openSegments(index), getBuilds(index));
+        }
+    }
+
+    /**
+     * Get the origin of the store, every build from the origin on is recorded in the store
+     * @return Origin build number, 0 if the store covers the complete job, null if the store is empty
+     * @throws IOException If the store could not be read
+     */
+    public Integer getOrigin() throws IOException {
+        synchronized (lock) {
+            return readIndex().origin;
+        }
+    }
+
+    /**
+     * Mark the store as covering the complete job, used once no legacy result files were found below the origin
+     * @throws IOException If the index could not be written
+     */
+    public void setComplete() throws IOException {
+        synchronized (lock) {
+            Index index = readIndex();
+            if (index.origin == null || index.origin == 0) {
+                return;
+            }
+            index.origin = 0;
+            writeIndex(index);
+        }
+    }
+
+    /**
+     * Keep the builds of the index still present in the job
+     * @param index Index of the store
+     * @return Stored builds
+     */
+    private Set<Integer> getBuilds(Index index) {
+        loadedLastBuild = index.builds.isEmpty() ? null : index.builds.get(index.builds.size() - 1);
+
+        Set<Integer> builds = new BuildSet();
+        for (Integer build : index.builds) {
+            if (buildDirectory == null || new File(buildDirectory, build.toString()).isDirectory()) {
+                builds.add(build);
+            }
+        }
+        return builds;
+    }
+
+    /**
+     * Read the index of the store
+     * @return Index, empty if the store does not exist
+     * @throws IOException If the index could not be read
+     */
+    private Index readIndex() throws IOException {
+        Index index = new Index();
+        File file = new File(directory, INDEX_FILE);
+        if (!file.exists()) {
+            return index;
+        }
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())));
+        try {
+            if (input.readInt() != INDEX_MAGIC) {
+                throw new IOException(Messages.HistoryStore_UnknownFormat(file.getAbsolutePath()));
+            }
+            index.origin = input.readInt();
+            int nSegments = input.readInt();
+            for (int i = 0; i < nSegments; i++) {
+                index.segments.add(input.readInt());
+                index.levels.add(input.readByte());
+            }
+            while (true) {
+                index.builds.add(input.readInt());
+            }
+        } catch (EOFException e) {
+            return index;
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Replace the index of the store
+     * @param index Index to write
+     * @throws IOException If the index could not be written
+     */
+    private void writeIndex(Index index) throws IOException {
+        createDirectory();
+        File file = new File(directory, INDEX_FILE);
+        File temporary = new File(directory, INDEX_FILE + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temporary);
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        try {
+            output.writeInt(INDEX_MAGIC);
+            output.writeInt(index.origin == null ? 0 : index.origin);
+            output.writeInt(index.segments.size());
+            for (int i = 0; i < index.segments.size(); i++) {
+                output.writeInt(index.segments.get(i));
+                output.writeByte(index.levels.get(i));
+            }
+            for (Integer build : index.builds) {
+                output.writeInt(build);
+            }
+            output.flush();
+            stream.getFD().sync();
+        } finally {
+            output.close();
+        }
+
+        try {
+            try {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new IOException(Messages.HistoryStore_FailedToReplace(file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Merge the newest segments while enough of them have the same level
+     * @param index Index of the store, updated with the merged segments
+     * @return Whether segments were merged
+     * @throws IOException If a segment could not be merged
+     */
+    private boolean merge(Index index) throws IOException {
+        boolean merged = false;
+        while (index.segments.size() >= MERGE_FACTOR) {
+            int from = index.segments.size() - MERGE_FACTOR;
+            byte level = index.levels.get(from);
+            for (int i = from + 1; i < index.segments.size(); i++) {
+                if (index.levels.get(i) != level) {
+                    return merged;
+                }
+            }
+
+            int id = getNextSegment(index);
+            mergeSegments(index.segments.subList(from, index.segments.size()), id);
+            index.segments.subList(from, index.segments.size()).clear();
+            index.levels.subList(from, index.levels.size()).clear();
+            index.segments.add(id);
+            index.levels.add((byte) (level + 1));
+            merged = true;
+        }
+        return merged;
+    }
+
+    /**
+     * Merge segments into a new one, the columns of a hash are concatenated from the oldest segment to the newest
+     * @param ids Segments to merge, from the oldest to the newest
+     * @param id Identifier of the new segment
+     * @throws IOException If a segment could not be read or written
+     */
+    private void mergeSegments(List<Integer> ids, int id) throws IOException {
+        List<HistorySegment> segments = openSegments(ids);
+        HistorySegment.Writer writer = new HistorySegment.Writer(new File(directory, HistorySegment.getName(id)));
+        try {
+            for (byte kind : new byte[]{HistorySegment.KIND_RESULT, HistorySegment.KIND_PARAMETER}) {
+                Set<Integer> hashes = new TreeSet<Integer>();
+                for (HistorySegment segment : segments) {
+                    hashes.addAll(segment.getColumns(kind).keySet());
+                }
+                for (Integer hash : hashes) {
+                    List<HistorySegment.Column> columns = HistorySegment.resolve(segments, kind, hash);
+                    int nColumns = 0;
+                    for (HistorySegment segment : segments) {
+                        if (segment.getColumns(kind).containsKey(hash)) {
+                            nColumns++;
+                        }
+                    }
+
+                    // Columns left out hide the ones of the older segments as well
+                    boolean reset = columns.get(0).reset || columns.size() < nColumns;
+                    ByteArrayOutputStream values = new ByteArrayOutputStream();
+                    ByteArrayOutputStream properties = new ByteArrayOutputStream();
+                    for (HistorySegment.Column column : columns) {
+                        values.write(column.readValues());
+                        properties.write(column.readProperties());
+                    }
+                    writer.addColumn(kind, hash, columns.get(0).type, reset, values.toByteArray(), properties.toByteArray());
+                }
+            }
+            writer.close();
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        } finally {
+            closeSegments(segments);
+        }
+    }
+
+    /**
+     * Write the values of a list of builds into a new segment
+     * @param id Identifier of the segment
+     * @param builds Build numbers written in the records
+     * @param keys Keys under which the values of each build are stored in the mapper
+     * @param mapper Mapper holding the values
+     * @throws IOException If the segment could not be written
+     */
+    private void writeSegment(int id, List<Integer> builds, List<Integer> keys, MapperBase mapper) throws IOException {
+        createDirectory();
+        Map<TestValue, Integer> parameterHashes = new IdentityHashMap<TestValue, Integer>();
+        for (Map.Entry<Integer, TestValue> parameter : mapper.getParameters().entrySet()) {
+            parameterHashes.put(parameter.getValue(), parameter.getKey());
+        }
+
+        HistorySegment.Writer writer = new HistorySegment.Writer(new File(directory, HistorySegment.getName(id)));
+        try {
+            for (Map.Entry<Integer, TestValue> result : mapper.getResults().entrySet()) {
+                writeColumn(writer, HistorySegment.KIND_RESULT, result.getKey(), result.getValue(), builds, keys, parameterHashes);
+            }
+            for (Map.Entry<Integer, TestValue> parameter : mapper.getParameters().entrySet()) {
+                writeColumn(writer, HistorySegment.KIND_PARAMETER, parameter.getKey(), parameter.getValue(), builds, keys, parameterHashes);
+            }
+            writer.close();
+        } catch (IOException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Write the records of a list of builds as a column of a segment
+     * @param writer Segment writer
+     * @param kind Kind of column, result or parameter
+     * @param hash Result hash
+     * @param result Result holding the values
+     * @param builds Build numbers written in the records
+     * @param keys Keys under which the values of each build are stored
+     * @param parameterHashes Reverse lookup of the parameter hashes
+     * @throws IOException If the column could not be written
+     */
+    private void writeColumn(HistorySegment.Writer writer, byte kind, int hash, TestValue result, List<Integer> builds, List<Integer> keys, Map<TestValue, Integer> parameterHashes) throws IOException {
+        byte type = getTypeCode(result.getType());
+        if (type == 0) {
+            return;
+        }
+
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        ByteArrayOutputStream properties = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(values);
+        DataOutputStream extension = new DataOutputStream(properties);
+        for (int i = 0; i < builds.size(); i++) {
+            int build = builds.get(i);
+            int key = keys.get(i);
+            Object value = getValue(result, key);
+            if (value == null) {
+                continue;
+            }
+
+            output.writeInt(build);
+            Boolean failedState = result.getFailedState(key);
+            if (failedState == null) {
+                output.writeByte(STATE_NONE);
+            } else if (failedState) {
+                output.writeByte(STATE_FAILED);
+            } else {
+                output.writeByte(STATE_PASSED);
+            }
+            switch (type) {
+                case TYPE_BOOLEAN:
+                    output.writeBoolean((Boolean) value);
+                    break;
+                case TYPE_INTEGER:
+                    output.writeInt((Integer) value);
+                    break;
+                case TYPE_DOUBLE:
+                    output.writeDouble((Double) value);
+                    break;
+                default:
+                    writeString(output, (String) value);
+            }
+
+            // Identifier, messages and parameters
+            Integer id = result.getId(key);
+            Map<String, String> messages = result.getMessages(key);
+            List<TestValue> parameters = result.getParameters(key);
+            byte flags = 0;
+            if (id != null) {
+                flags |= PROPERTY_ID;
+            }
+            if (messages != null && !messages.isEmpty()) {
+                flags |= PROPERTY_MESSAGES;
+            }
+            if (parameters != null && !parameters.isEmpty()) {
+                flags |= PROPERTY_PARAMETERS;
+            }
+            if (flags == 0) {
+                continue;
+            }
+            extension.writeInt(build);
+            extension.writeByte(flags);
+            if ((flags & PROPERTY_ID) != 0) {
+                extension.writeInt(id);
+            }
+            if ((flags & PROPERTY_MESSAGES) != 0) {
+                extension.writeInt(messages.size());
+                for (Map.Entry<String, String> message : messages.entrySet()) {
+                    writeString(extension, message.getKey());
+                    writeString(extension, message.getValue());
+                }
+            }
+            if ((flags & PROPERTY_PARAMETERS) != 0) {
+                List<Integer> hashes = new ArrayList<Integer>();
+                for (TestValue parameter : parameters) {
+                    Integer parameterHash = parameterHashes.get(parameter);
+                    if (parameterHash != null) {
+                        hashes.add(parameterHash);
+                    }
+                }
+                extension.writeInt(hashes.size());
+                for (Integer parameterHash : hashes) {
+                    extension.writeInt(parameterHash);
+                }
+            }
+        }
+        if (values.size() > 0) {
+            writer.addColumn(kind, hash, type, false, values.toByteArray(), properties.toByteArray());
+        }
+    }
+
+    /**
+     * Read the columns of a result into it
+     * @param columns Columns resolved for the result, from the oldest to the newest
+     * @param result Result to fill
+     * @param parameters Parameters referenced by the result, by hash
+     * @param builds Builds to load
+     * @throws IOException If a column could not be read
+     */
+    static void readColumns(List<HistorySegment.Column> columns, TestValue result, Map<Integer, TestValue> parameters, Set<Integer> builds) throws IOException {
+        if (columns.isEmpty() || columns.get(0).type != getTypeCode(result.getType())) {
+            return;
+        }
+        for (HistorySegment.Column column : columns) {
+            readValues(column.readValues(), column.type, result, builds);
+            readProperties(column.readProperties(), result, parameters, builds);
+        }
+    }
+
+    /**
+     * Read the value records of one column
+     * @param records Value records
+     * @param type Type code of the column
+     * @param result Result to fill
+     * @param builds Builds to load
+     * @throws IOException If the records could not be decoded
+     */
+    private static void readValues(byte[] records, byte type, TestValue result, Set<Integer> builds) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(records));
+        try {
+            while (true) {
+                int build = input.readInt();
+                byte state = input.readByte();
+                boolean selected = builds.contains(build);
+                switch (type) {
+                    case TYPE_BOOLEAN:
+                        {
+                            boolean value = input.readBoolean();
+                            if (selected) {
+                                ((BooleanValue) result).setValue(build, value);
+                            }
+                        }
+                        break;
+                    case TYPE_INTEGER:
+                        {
+                            int value = input.readInt();
+                            if (selected) {
+                                ((IntegerValue) result).setValue(build, value);
+                            }
+                        }
+                        break;
+                    case TYPE_DOUBLE:
+                        {
+                            double value = input.readDouble();
+                            if (selected) {
+                                ((DoubleValue) result).setValue(build, value);
+                            }
+                        }
+                        break;
+                    default:
+                        {
+                            String value = readString(input);
+                            if (selected) {
+                                ((StringValue) result).setValue(build, value);
+                            }
+                        }
+                }
+                if (selected && state != STATE_NONE) {
+                    result.setFailedState(build, state == STATE_FAILED);
+                }
+            }
+        } catch (EOFException e) {
+            // End of column
+        }
+    }
+
+    /**
+     * Read the identifiers, messages and parameters of one column
+     * @param records Property records
+     * @param result Result to fill
+     * @param parameters Parameters referenced by the result, by hash
+     * @param builds Builds to load
+     * @throws IOException If the records could not be decoded
+     */
+    static void readProperties(byte[] records, TestValue result, Map<Integer, TestValue> parameters, Set<Integer> builds) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(records));
+        try {
+            while (true) {
+                int build = input.readInt();
+                byte flags = input.readByte();
+                boolean selected = builds.contains(build);
+                if ((flags & PROPERTY_ID) != 0) {
+                    int id = input.readInt();
+                    if (selected) {
+                        result.setId(build, id);
+                    }
+                }
+                if ((flags & PROPERTY_MESSAGES) != 0) {
+                    int size = input.readInt();
+                    Map<String, String> messages = new HashMap<String, String>();
+                    for (int i = 0; i < size; i++) {
+                        String title = readString(input);
+                        messages.put(title, readString(input));
+                    }
+                    if (selected) {
+                        result.setMessages(build, messages);
+                    }
+                }
+                if ((flags & PROPERTY_PARAMETERS) != 0) {
+                    int size = input.readInt();
+                    List<TestValue> list = new ArrayList<TestValue>();
+                    for (int i = 0; i < size; i++) {
+                        TestValue parameter = parameters.get(input.readInt());
+                        if (parameter != null) {
+                            list.add(parameter);
+                        }
+                    }
+                    if (selected) {
+                        result.setParameters(build, list);
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            // End of column
+        }
+    }
+
+    /**
+     * Open the segments listed in the index
+     * @param index Index of the store
+     * @return Opened segments, from the oldest to the newest
+     * @throws IOException If a segment could not be opened
+     */
+    private List<HistorySegment> openSegments(Index index) throws IOException {
+        return openSegments(index.segments);
+    }
+
+    private List<HistorySegment> openSegments(List<Integer> ids) throws IOException {
+        List<HistorySegment> segments = new ArrayList<HistorySegment>(ids.size());
+        try {
+            for (Integer id : ids) {
+                segments.add(HistorySegment.open(new File(directory, HistorySegment.getName(id))));
+            }
+        } catch (IOException e) {
+            closeSegments(segments);
+            throw e;
+        }
+        return segments;
+    }
+
+    private static void closeSegments(List<HistorySegment> segments) {
+        for (HistorySegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                // Read-only channel
+            }
+        }
+    }
+
+    /**
+     * Get an identifier not used by any segment of the directory
+     * @param index Index of the store
+     * @return Identifier of a new segment
+     */
+    private int getNextSegment(Index index) {
+        int id = 0;
+        for (Integer segment : index.segments) {
+            id = Math.max(id, segment);
+        }
+        for (Integer segment : listSegments()) {
+            id = Math.max(id, segment);
+        }
+        return id + 1;
+    }
+
+    /**
+     * Delete the segments no longer listed in the index
+     * Segments still open by a reader may not be deleted on every platform; they are deleted by a later write.
+     * @param index Index of the store
+     */
+    private void deleteUnusedSegments(Index index) {
+        for (Integer id : listSegments()) {
+            if (!index.segments.contains(id)) {
+                new File(directory, HistorySegment.getName(id)).delete();
+            }
+        }
+    }
+
+    /**
+     * List the segment files of the directory
+     * @return Identifiers of the segments
+     */
+    private List<Integer> listSegments() {
+        List<Integer> ids = new ArrayList<Integer>();
+        String[] names = directory.list();
+        if (names == null) {
+            return ids;
+        }
+        for (String name : names) {
+            if (name.endsWith(HistorySegment.EXTENSION)) {
+                try {
+                    ids.add(Integer.parseInt(name.substring(0, name.length() - HistorySegment.EXTENSION.length())));
+                } catch (NumberFormatException e) {
+                    // Not a segment
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Level of a segment holding a number of builds, a segment of level n holding about MERGE_FACTOR^n builds
+     * @param nBuilds Number of builds
+     * @return Level of the segment
+     */
+    private static byte getLevel(int nBuilds) {
+        byte level = 0;
+        long capacity = 1;
+        while (capacity < nBuilds) {
+            capacity *= MERGE_FACTOR;
+            level++;
+        }
+        return level;
+    }
+
+    private void createDirectory() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException(Messages.HistoryStore_FailedToCreateDirectory(directory.getAbsolutePath()));
+        }
+    }
+
+    /**
+     * Get the value stored under key
+     * @param result Result holding the value
+     * @param key Key of the value
+     * @return Value, null if absent
+     */
+    private static Object getValue(TestValue result, int key) {
+        switch (result.getType()) {
+            case rt_boolean:
+                return ((BooleanValue) result).getValue(key);
+            case rt_integer:
+                return ((IntegerValue) result).getValue(key);
+            case rt_double:
+                return ((DoubleValue) result).getValue(key);
+            case rt_string:
+                return ((StringValue) result).getValue(key);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Get the type code stored in the column header
+     * @param type Value type
+     * @return Type code, 0 if not supported
+     */
+    static byte getTypeCode(TestValue.ValueType type) {
+        switch (type) {
+            case rt_boolean:
+                return TYPE_BOOLEAN;
+            case rt_integer:
+                return TYPE_INTEGER;
+            case rt_double:
+                return TYPE_DOUBLE;
+            case rt_string:
+                return TYPE_STRING;
+            default:
+                return 0;
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String text) throws IOException {
+        if (text == null) {
+            text = "";
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Getters
+
+    public File getDirectory() { return directory; }
+
+    /**
+     * Index of the store: origin, segments with their level, from the oldest to the newest, and stored builds
+     */
+    private static class Index {
+
+        private Integer             origin;
+        private final List<Integer> segments = new ArrayList<Integer>();
+        private final List<Byte>    levels = new ArrayList<Byte>();
+        private final List<Integer> builds = new ArrayList<Integer>();
+    }
+}
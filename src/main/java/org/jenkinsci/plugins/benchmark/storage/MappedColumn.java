@@ -0,0 +1,242 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.storage;
+
+import org.jenkinsci.plugins.benchmark.results.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only view of one column of the history store
+ *
+ * <p>
+ * The column is indexed once and only a compact index [sorted build numbers, record positions] is kept on the
+ * heap. Records are read from their segment when requested, so the series of a result never has to be copied
+ * as a whole. A build recorded twice resolves to its last record.
+ *
+ * @author Daniel Mercier
+ * @since 11/15/2017.
+ */
+public class MappedColumn {
+
+    // Variables
+
+    private static final int                    POSITION_BITS = 48;
+    private static final long                   POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+    private final List<HistorySegment.Column>   parts;
+    private final byte                          type;
+    private final int[]                         builds;
+    private final long[]                        positions;
+
+    // Constructor
+
+    private MappedColumn(List<HistorySegment.Column> parts, byte type, int[] builds, long[] positions) {
+        this.parts = parts;
+        this.type = type;
+        this.builds = builds;
+        this.positions = positions;
+    }
+
+    // Functions
+
+    /**
+     * Index the records of a column
+     * @param parts Parts of the column in each segment, from the oldest to the newest, all of the same type
+     * @return Indexed column, null if the column has no part
+     * @throws IOException If a part could not be read
+     */
+    static MappedColumn index(List<HistorySegment.Column> parts) throws IOException {
+        if (parts.isEmpty()) {
+            return null;
+        }
+        byte type = parts.get(0).type;
+
+        // Locate the records, the sequence number keeps the order of the parts for a build recorded twice
+        int count = 0;
+        long[] records = new long[64];
+        long[] located = new long[64];
+        for (int part = 0; part < parts.size(); part++) {
+            ByteBuffer buffer = ByteBuffer.wrap(parts.get(part).readValues());
+            int limit = buffer.limit();
+            int offset = 0;
+            while (offset + 5 <= limit) {
+                int size = getValueSize(buffer, type, offset + 5);
+                if (size < 0 || offset + 5 + size > limit) {
+                    break;
+                }
+                if (count == records.length) {
+                    records = Arrays.copyOf(records, count * 2);
+                    located = Arrays.copyOf(located, count * 2);
+                }
+                records[count] = ((long) buffer.getInt(offset) << 32) | count;
+                located[count] = ((long) part << POSITION_BITS) | (parts.get(part).values + offset);
+                count++;
+                offset += 5 + size;
+            }
+        }
+
+        // Sort by build, ties keep the order of the records so the last record wins
+        records = Arrays.copyOf(records, count);
+        Arrays.sort(records);
+        int[] builds = new int[count];
+        long[] positions = new long[count];
+        int n = 0;
+        for (long record : records) {
+            int build = (int) (record >> 32);
+            if (n > 0 && builds[n - 1] == build) {
+                n--;
+            }
+            builds[n] = build;
+            positions[n] = located[(int) record];
+            n++;
+        }
+        if (n < count) {
+            builds = Arrays.copyOf(builds, n);
+            positions = Arrays.copyOf(positions, n);
+        }
+        return new MappedColumn(parts, type, builds, positions);
+    }
+
+    /**
+     * Get the size of the value of a record
+     * @param buffer Records
+     * @param type Column type
+     * @param offset Offset of the value
+     * @return Size in bytes, -1 if the value is truncated
+     */
+    private static int getValueSize(ByteBuffer buffer, byte type, int offset) {
+        switch (type) {
+            case HistoryStore.TYPE_BOOLEAN:
+                return 1;
+            case HistoryStore.TYPE_INTEGER:
+                return 4;
+            case HistoryStore.TYPE_DOUBLE:
+                return 8;
+            default:
+                if (offset + 4 > buffer.limit()) {
+                    return -1;
+                }
+                int length = buffer.getInt(offset);
+                return length < 0 ? -1 : 4 + length;
+        }
+    }
+
+    /**
+     * Find the record of a build
+     * @param build Build number
+     * @return Record index, negative if the build is not recorded
+     */
+    public int indexOf(int build) {
+        return Arrays.binarySearch(builds, build);
+    }
+
+    /**
+     * Find the first record at or after a build
+     * @param build Build number
+     * @return Record index, size() if all records are before the build
+     */
+    public int ceilingIndex(int build) {
+        int index = Arrays.binarySearch(builds, build);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    public int getBuild(int index) { return builds[index]; }
+
+    /**
+     * Copy a range of records into a result
+     * @param result Result to fill, of the type of the column
+     * @param from Index of the first record
+     * @param to Index following the last record
+     * @param selected Builds to copy
+     * @throws IOException If a record could not be read
+     */
+    void fill(TestValue result, int from, int to, Set<Integer> selected) throws IOException {
+        for (int i = from; i < to; i++) {
+            int build = builds[i];
+            if (!selected.contains(build)) {
+                continue;
+            }
+            ByteBuffer record = read(i);
+            byte state = record.get();
+            switch (type) {
+                case HistoryStore.TYPE_BOOLEAN:
+                    ((BooleanValue) result).setValue(build, record.get() != 0);
+                    break;
+                case HistoryStore.TYPE_INTEGER:
+                    ((IntegerValue) result).setValue(build, record.getInt());
+                    break;
+                case HistoryStore.TYPE_DOUBLE:
+                    ((DoubleValue) result).setValue(build, record.getDouble());
+                    break;
+                default:
+                    ((StringValue) result).setValue(build, new String(record.array(), record.position(), record.remaining(), StandardCharsets.UTF_8));
+            }
+            if (state != HistoryStore.STATE_NONE) {
+                result.setFailedState(build, state == HistoryStore.STATE_FAILED);
+            }
+        }
+    }
+
+    /**
+     * Read a record from its segment
+     * @param index Record index
+     * @return Buffer positioned on the state of the record, followed by the value or the string content
+     * @throws IOException If the record could not be read
+     */
+    private ByteBuffer read(int index) throws IOException {
+        HistorySegment segment = parts.get((int) (positions[index] >>> POSITION_BITS)).segment;
+        long position = (positions[index] & POSITION_MASK) + 4;
+        switch (type) {
+            case HistoryStore.TYPE_BOOLEAN:
+                return segment.read(position, 2);
+            case HistoryStore.TYPE_INTEGER:
+                return segment.read(position, 5);
+            case HistoryStore.TYPE_DOUBLE:
+                return segment.read(position, 9);
+            default:
+                ByteBuffer header = segment.read(position, 5);
+                int length = header.getInt(1);
+                ByteBuffer record = ByteBuffer.allocate(1 + length);
+                record.put(header.get(0));
+                record.put(segment.read(position + 5, length));
+                record.flip();
+                return record;
+        }
+    }
+
+    /**
+     * Estimated memory footprint of the index, used to budget the history cache
+     * @return Size in bytes
+     */
+    public long getEstimatedSize() {
+        return 64 + 32L * parts.size() + 12L * builds.length;
+    }
+
+    // Getters
+
+    List<HistorySegment.Column> getParts() { return parts; }
+    public byte getType() { return type; }
+    public int size() { return builds.length; }
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.storage;
+
+import org.jenkinsci.plugins.benchmark.results.*;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read path of the history store serving one result at a time [DISPLAY LOADING]
+ *
+ * <p>
+ * Serves the series of one result at a time straight from its column, so the display can render result by
+ * result without materializing the complete history of the job on the heap. The view holds the segments of the
+ * generation of the store it was opened on. Indexed columns are kept for the most recently used results, so that
+ * drawing the same table page again does not index the columns again. The indexes are shared by all views and
+ * bounded by their total estimated size, the indexes held by a view are counted in its estimated size.
+ *
+ * @author Daniel Mercier
+ * @since 11/15/2017.
+ */
+public class MappedHistory {
+
+    // Variables
+
+    private static final long       MAX_INDEXED_SIZE = 64L * 1024L * 1024L;
+
+    private static final LinkedHashMap<ColumnKey, MappedColumn> columns = new LinkedHashMap<ColumnKey, MappedColumn>(16, 0.75f, true);
+    private static long             indexedSize = 0;
+
+    private final List<HistorySegment> segments;
+    private final BuildSet         builds;
+    private long                   ownIndexedSize = 0;
+
+    // Constructor
+
+    MappedHistory(List<HistorySegment> segments, Set<Integer> builds) {
+        this.segments = segments;
+        this.builds = new BuildSet(builds);
+    }
+
+    // Functions
+
+    /**
+     * Get the column of a result, indexed on first use
+     * @param hash Result hash
+     * @return Column, null if the result has no stored values
+     * @throws IOException If the column could not be read
+     */
+    public MappedColumn getColumn(int hash) throws IOException {
+        ColumnKey key = new ColumnKey(this, hash);
+        synchronized (MappedHistory.class) {
+            if (columns.containsKey(key)) {
+                return columns.get(key);
+            }
+        }
+        MappedColumn column = MappedColumn.index(HistorySegment.resolve(segments, HistorySegment.KIND_RESULT, hash));
+        synchronized (MappedHistory.class) {
+            MappedColumn previous = columns.put(key, column);
+            if (previous != null) {
+                key.history.ownIndexedSize -= getEstimatedSize(previous);
+                indexedSize -= getEstimatedSize(previous);
+            }
+            ownIndexedSize += getEstimatedSize(column);
+            indexedSize += getEstimatedSize(column);
+            evict();
+        }
+        return column;
+    }
+
+    /**
+     * Drop the least recently used column indexes of all views until they fit in their budget
+     * The index just added, last in access order, is never dropped.
+     */
+    private static void evict() {
+        Iterator<Map.Entry<ColumnKey, MappedColumn>> iterator = columns.entrySet().iterator();
+        while (indexedSize > MAX_INDEXED_SIZE && columns.size() > 1 && iterator.hasNext()) {
+            Map.Entry<ColumnKey, MappedColumn> eldest = iterator.next();
+            iterator.remove();
+            long size = getEstimatedSize(eldest.getValue());
+            eldest.getKey().history.ownIndexedSize -= size;
+            indexedSize -= size;
+        }
+    }
+
+    /**
+     * Estimated memory footprint of a column index
+     * @param column Column index, null for a result without stored values
+     * @return Size in bytes
+     */
+    private static long getEstimatedSize(MappedColumn column) {
+        return column == null ? 32 : column.getEstimatedSize();
+    }
+
+    /**
+     * Estimated memory footprint of the view, used to budget the history cache
+     * @return Size in bytes of the build numbers and of the column indexes currently held for this view
+     */
+    public long getEstimatedSize() {
+        synchronized (MappedHistory.class) {
+            return 16 + 4L * builds.size() + ownIndexedSize;
+        }
+    }
+
+    /**
+     * Fill a result with its stored values, identifiers, messages and parameters
+     * @param hash Result hash
+     * @param result Result to fill
+     * @param parameters Parameters referenced by the result, by hash
+     * @return Whether stored values were found
+     * @throws IOException If the column could not be read
+     */
+    public boolean fill(int hash, TestValue result, Map<Integer, TestValue> parameters) throws IOException {
+        MappedColumn column = getColumn(hash);
+        if (!fill(column, result, 0, column == null ? -1 : column.size())) {
+            return false;
+        }
+        for (HistorySegment.Column part : column.getParts()) {
+            HistoryStore.readProperties(part.readProperties(), result, parameters, builds);
+        }
+        return true;
+    }
+
+    /**
+     * Fill a result with its stored values and states for a window of builds, used to render table rows [TABLE PAGE]
+     * Only the records of the window are read from the column.
+     * @param hash Result hash
+     * @param result Result to fill
+     * @param firstBuild First build of the window
+     * @param lastBuild Last build of the window
+     * @return Whether stored values were found
+     * @throws IOException If the column could not be read
+     */
+    public boolean fillValues(int hash, TestValue result, int firstBuild, int lastBuild) throws IOException {
+        MappedColumn column = getColumn(hash);
+        if (column == null) {
+            return false;
+        }
+        int from = column.ceilingIndex(firstBuild);
+        int to = column.ceilingIndex(lastBuild + 1);
+        return fill(column, result, from, to);
+    }
+
+    /**
+     * Fill all parameters with their stored values
+     * @param parameters Parameters to fill, by hash
+     * @throws IOException If a column could not be read
+     */
+    public void fillParameters(Map<Integer, TestValue> parameters) throws IOException {
+        for (Map.Entry<Integer, TestValue> parameter : parameters.entrySet()) {
+            HistoryStore.readColumns(HistorySegment.resolve(segments, HistorySegment.KIND_PARAMETER, parameter.getKey()), parameter.getValue(), parameters, builds);
+        }
+    }
+
+    /**
+     * Copy a range of records of a column into a result
+     * @param column Column, null if none
+     * @param result Result to fill
+     * @param from Index of the first record
+     * @param to Index following the last record
+     * @return Whether the column matches the type of the result
+     * @throws IOException If a record could not be read
+     */
+    private boolean fill(MappedColumn column, TestValue result, int from, int to) throws IOException {
+        if (column == null || column.getType() != HistoryStore.getTypeCode(result.getType())) {
+            return false;
+        }
+        column.fill(result, from, to, builds);
+        return true;
+    }
+
+    /**
+     * Release the values filled into a result
+     * @param result Result to release
+     */
+    public static void clear(TestValue result) {
+        switch (result.getType()) {
+            case rt_boolean:
+                ((BooleanValue) result).getValues().clear();
+                break;
+            case rt_integer:
+                ((IntegerValue) result).getValues().clear();
+                break;
+            case rt_double:
+                ((DoubleValue) result).getValues().clear();
+                break;
+            case rt_string:
+                ((StringValue) result).getValues().clear();
+                break;
+            default:
+        }
+        result.getProperties().clear();
+    }
+
+    // Getters
+
+    public BuildSet getBuilds() { return builds; }
+
+    /**
+     * Key of a column index shared between views, the views are compared by identity
+     */
+    private static final class ColumnKey {
+
+        private final MappedHistory history;
+        private final int           hash;
+
+        ColumnKey(MappedHistory history, int hash) {
+            this.history = history;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ColumnKey)) {
+                return false;
+            }
+            ColumnKey key = (ColumnKey) other;
+            return key.history == history && key.hash == hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(history) + hash;
+        }
+    }
+}
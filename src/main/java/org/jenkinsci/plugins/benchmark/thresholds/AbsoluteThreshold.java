@@ -18,6 +18,7 @@
  */
 package org.jenkinsci.plugins.benchmark.thresholds;
 
+import com.google.gson.JsonObject;
 import hudson.AbortException;
 import hudson.Extension;
 import hudson.model.Run;
@@ -86,6 +87,14 @@ public class AbsoluteThreshold extends Threshold {
         return true;
     }
 
+    @Override
+    public JsonObject getJsonObject() {
+        JsonObject object = super.getJsonObject();
+        object.addProperty("minimum", minimum);
+        object.addProperty("maximum", maximum);
+        return object;
+    }
+
     // Getters
 
     public Double getMinimum() { return minimum; }
@@ -18,6 +18,7 @@
  */
 package org.jenkinsci.plugins.benchmark.thresholds;
 
+import com.google.gson.JsonObject;
 import hudson.AbortException;
 import hudson.Extension;
 import hudson.model.Run;
@@ -86,6 +87,13 @@ public class DeltaThreshold extends Threshold{
         return true;
     }
 
+    @Override
+    public JsonObject getJsonObject() {
+        JsonObject object = super.getJsonObject();
+        object.addProperty("delta", delta);
+        return object;
+    }
+
     // Setter
     public void setPreviousValue(Double previousValue){ this.previous = previousValue; }
 
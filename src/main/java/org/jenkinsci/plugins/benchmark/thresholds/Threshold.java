@@ -18,12 +18,15 @@
  */
 package org.jenkinsci.plugins.benchmark.thresholds;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import hudson.AbortException;
 import hudson.ExtensionList;
 import hudson.model.AbstractDescribableImpl;
 import hudson.model.Run;
 import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import java.lang.reflect.InvocationTargetException;
 import java.text.ParseException;
@@ -52,6 +55,7 @@ public abstract class Threshold extends AbstractDescribableImpl<Threshold> {
     private final ThresholdTypes type;    // Threshold type(see thresholdTypes for options)
     private final String         testGroup;
     private final String         testName;
+    private boolean              patternMatch;    // Whether the group and name are patterns rather than exact names
 
     // Constructor
     protected Threshold(String testGroup, String testName, ThresholdTypes type) {
@@ -78,6 +82,64 @@ public abstract class Threshold extends AbstractDescribableImpl<Threshold> {
     public boolean isValid(int value) throws NullPointerException, ValidationException { return true; }
     public boolean isValid(double value) throws NullPointerException, ValidationException { return true; }
 
+    /**
+     * Create a JSON object holding the threshold settings, used to return the thresholds of a mapping done on the agent
+     * @return JSON object
+     */
+    public JsonObject getJsonObject() {
+        JsonObject object = new JsonObject();
+        object.addProperty("method", getMethod());
+        if (testGroup != null && !testGroup.isEmpty()) {
+            object.addProperty("testGroup", testGroup);
+        }
+        if (testName != null && !testName.isEmpty()) {
+            object.addProperty("testName", testName);
+        }
+        if (patternMatch) {
+            object.addProperty("patternMatch", true);
+        }
+        return object;
+    }
+
+    /**
+     * Create a threshold from the JSON object created by getJsonObject()
+     * @param object JSON object
+     * @return Threshold
+     * @throws ValidationException If the method is unknown
+     */
+    public static Threshold fromJsonObject(JsonObject object) throws ValidationException {
+        String method = getString(object, "method").toLowerCase();
+        String testGroup = getString(object, "testGroup");
+        String testName = getString(object, "testName");
+        Threshold threshold;
+        if (method.equals("absolute")) {
+            threshold = new AbsoluteThreshold(testGroup, testName, getDouble(object, "minimum"), getDouble(object, "maximum"));
+        } else if (method.equals("percentage")) {
+            threshold = new PercentageThreshold(testGroup, testName, getDouble(object, "percentage"));
+        } else if (method.equals("percentageaverage")) {
+            threshold = new PercentageAverageThreshold(testGroup, testName, getDouble(object, "percentage"));
+        } else if (method.equals("delta")) {
+            threshold = new DeltaThreshold(testGroup, testName, getDouble(object, "delta"));
+        } else if (method.equals("deltaaverage")) {
+            threshold = new DeltaAverageThreshold(testGroup, testName, getDouble(object, "delta"));
+        } else {
+            throw new ValidationException(Messages.Threshold_UnknownThreshold());
+        }
+        JsonElement patternMatch = object.get("patternMatch");
+        threshold.setPatternMatch(patternMatch != null && !patternMatch.isJsonNull() && patternMatch.getAsBoolean());
+        return threshold;
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return (element == null || element.isJsonNull()) ? "" : element.getAsString();
+    }
+
+    private static Double getDouble(JsonObject object, String key) {
+        JsonElement element = object.get(key);
+        return (element == null || element.isJsonNull()) ? null : element.getAsDouble();
+    }
+
 
     // Abstract functions
     /**
@@ -97,6 +159,14 @@ public abstract class Threshold extends AbstractDescribableImpl<Threshold> {
     public void setAverageValue(Double average){}
     public void setPreviousValue(Double average){}
 
+    /**
+     * Read the group and name as patterns, a glob or a regular expression between slashes, instead of exact names
+     * Off by default, so that thresholds saved by earlier versions keep matching the same results.
+     * @param patternMatch Whether the group and name are patterns
+     */
+    @DataBoundSetter
+    public void setPatternMatch(boolean patternMatch) { this.patternMatch = patternMatch; }
+
     // Getters
 
     public String getName(){
@@ -116,7 +186,30 @@ public abstract class Threshold extends AbstractDescribableImpl<Threshold> {
         }
     }
     public ThresholdTypes getType() { return type; }
+
+    /**
+     * Method name of the threshold, as given in the result files
+     * @return Method name
+     */
+    public String getMethod() {
+        switch(type){
+            case tt_absolute:
+                return "absolute";
+            case tt_percentage:
+                return "percentage";
+            case tt_percentageAverage:
+                return "percentageAverage";
+            case tt_delta:
+                return "delta";
+            case tt_deltaAverage:
+                return "deltaAverage";
+            default:
+                return "unknown";
+        }
+    }
+
     public String getTestGroup() { return testGroup; }
     public String getTestName() { return testName; }
+    public boolean isPatternMatch() { return patternMatch; }
 
 }
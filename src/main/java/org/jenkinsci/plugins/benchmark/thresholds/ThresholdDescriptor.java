@@ -22,8 +22,11 @@ import hudson.DescriptorExtensionList;
 import hudson.model.Descriptor;
 import hudson.util.FormValidation;
 import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.benchmark.utilities.NameIndex;
 import org.kohsuke.stapler.QueryParameter;
 
+import java.util.regex.PatternSyntaxException;
+
 /**
  * Threshold descriptor
  *
@@ -48,17 +51,29 @@ public abstract class ThresholdDescriptor extends Descriptor<Threshold> {
         return null;
     }
 
-    public FormValidation doCheckTestName(@QueryParameter String testName) {
+    public FormValidation doCheckTestName(@QueryParameter String testName, @QueryParameter boolean patternMatch) {
         if (!testName.isEmpty() && testName.contains(" ")) {
             return FormValidation.error(Messages.ThresholdDescriptor_ResultCannotHaveSpace());
         }
-        return FormValidation.ok();
+        return checkPattern(testName, patternMatch);
     }
 
-    public FormValidation doCheckTestGroup(@QueryParameter String testGroup) {
+    public FormValidation doCheckTestGroup(@QueryParameter String testGroup, @QueryParameter boolean patternMatch) {
         if (!testGroup.isEmpty() && testGroup.contains(" ")) {
             return FormValidation.error(Messages.ThresholdDescriptor_GroupCannotHaveSpace());
         }
+        return checkPattern(testGroup, patternMatch);
+    }
+
+    private FormValidation checkPattern(String target, boolean patternMatch) {
+        if (!patternMatch) {
+            return FormValidation.ok();
+        }
+        try {
+            NameIndex.compile(target);
+        } catch (PatternSyntaxException e) {
+            return FormValidation.error(Messages.ThresholdDescriptor_InvalidPattern(e.getDescription()));
+        }
         return FormValidation.ok();
     }
 }
@@ -0,0 +1,118 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Enumerate the builds of a job from its builds directory [DISPLAY LOADING]
+ *
+ * <p>
+ * Build directories are named after their build number, so the history can be split and loaded without
+ * instantiating the Run of each build. Entries that are not build numbers (permalinks, legacy IDs) are ignored.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class BuildScanner {
+
+    // Variables
+
+    private static final int    MIN_BUILDS_PER_SEGMENT = 4;
+
+    // Constructor
+
+    private BuildScanner() {}
+
+    // Functions
+
+    /**
+     * List the builds present in the builds directory
+     * @param buildDirectory Builds directory of the job
+     * @param lastBuild Last build number to include
+     * @return Build numbers in ascending order
+     */
+    public static int[] listBuilds(File buildDirectory, int lastBuild) {
+        String[] names = buildDirectory == null ? null : buildDirectory.list();
+        if (names == null) {
+            return new int[0];
+        }
+        int[] builds = new int[names.length];
+        int size = 0;
+        for (String name : names) {
+            int build = parseBuild(name);
+            if (build > 0 && build <= lastBuild && new File(buildDirectory, name).isDirectory()) {
+                builds[size++] = build;
+            }
+        }
+        builds = Arrays.copyOf(builds, size);
+        Arrays.sort(builds);
+        return builds;
+    }
+
+    /**
+     * Split a list of builds into contiguous segments, one per loading task
+     * @param builds Build numbers in ascending order
+     * @param threads Number of loading threads
+     * @return Start index of each segment followed by the end index of the last one
+     */
+    public static int[] split(int[] builds, int threads) {
+        int segmentSize = Math.max(MIN_BUILDS_PER_SEGMENT, (builds.length + threads - 1) / Math.max(1, threads));
+        int segments = (builds.length + segmentSize - 1) / segmentSize;
+        int[] bounds = new int[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            bounds[i] = i * segmentSize;
+        }
+        bounds[segments] = builds.length;
+        return bounds;
+    }
+
+    /**
+     * Get the file of a build from the builds directory
+     * @param buildDirectory Builds directory of the job
+     * @param build Build number
+     * @param filename Name of the file in the build directory
+     * @return File, may not exist
+     */
+    public static File getFile(File buildDirectory, int build, String filename) {
+        return new File(new File(buildDirectory, Integer.toString(build)), filename);
+    }
+
+    /**
+     * Parse a directory name as a build number
+     * @param name Directory name
+     * @return Build number, -1 if the name is not a build number
+     */
+    private static int parseBuild(String name) {
+        int length = name.length();
+        if (length == 0 || length > 9) {
+            return -1;
+        }
+        int build = 0;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            build = build * 10 + (c - '0');
+        }
+        return build;
+    }
+}
@@ -0,0 +1,424 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Build to value series of a result, base of the series of each value type [DISPLAY LOADING]
+ *
+ * <p>
+ * Builds are kept sorted in a primitive array next to a primitive array of values, which avoids the boxing and
+ * node overhead of a hash map. Builds are mostly added in ascending order, so appends are done in place while an
+ * insertion or removal in the middle replaces the arrays. Iterators work on the arrays present when they were
+ * created and are never affected by later updates.
+ * <p>
+ * This class manages the builds and moves the values with System.arraycopy, the subclasses only create and
+ * access their primitive array of values.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public abstract class BuildSeries<V> extends AbstractMap<Integer, V> {
+
+    // Variables
+
+    private static final int    INITIAL_CAPACITY = 4;
+
+    private int[]               builds;
+    private Object              values;
+    private int                 size;
+
+    private transient EntrySet  entrySet;
+
+    // Constructor
+
+    protected BuildSeries() {
+        this.builds = new int[0];
+        this.values = newValues(0);
+        this.size = 0;
+    }
+
+    // Abstract functions
+
+    /**
+     * Create the primitive array of values
+     * @param capacity Number of values
+     * @return New array
+     */
+    protected abstract Object newValues(int capacity);
+
+    /**
+     * Read a value from the primitive array of values
+     * @param values Array of values
+     * @param index Position
+     * @return Boxed value
+     */
+    protected abstract V getValue(Object values, int index);
+
+    /**
+     * Write a value into the primitive array of values
+     * @param values Array of values
+     * @param index Position
+     * @param value Value
+     */
+    protected abstract void setValue(Object values, int index, V value);
+
+    /**
+     * Create an empty series of the same type
+     * @return New series
+     */
+    protected abstract BuildSeries<V> newSeries();
+
+    /**
+     * Size of a primitive value
+     * @return Size in bytes
+     */
+    protected abstract int getValueSize();
+
+    // Functions
+
+    /**
+     * Position of a build in the series
+     * @param build Build number
+     * @return Index of the build if present, (-(insertion point) - 1) otherwise
+     */
+    public synchronized int indexOf(int build) {
+        if (size > 0 && build > builds[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(builds, 0, size, build);
+    }
+
+    /**
+     * Entry of the highest build lower than or equal to a build
+     * @param build Build number
+     * @return Entry, null if none
+     */
+    public synchronized Map.Entry<Integer, V> floorEntry(int build) {
+        int index = indexOf(build);
+        return entryAt(index >= 0 ? index : -index - 2);
+    }
+
+    /**
+     * Entry of the highest build strictly lower than a build
+     * @param build Build number
+     * @return Entry, null if none
+     */
+    public synchronized Map.Entry<Integer, V> lowerEntry(int build) {
+        int index = indexOf(build);
+        return entryAt(index >= 0 ? index - 1 : -index - 2);
+    }
+
+    /**
+     * Entry of the lowest build greater than or equal to a build
+     * @param build Build number
+     * @return Entry, null if none
+     */
+    public synchronized Map.Entry<Integer, V> ceilingEntry(int build) {
+        int index = indexOf(build);
+        return entryAt(index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Entry of the lowest build strictly greater than a build
+     * @param build Build number
+     * @return Entry, null if none
+     */
+    public synchronized Map.Entry<Integer, V> higherEntry(int build) {
+        int index = indexOf(build);
+        return entryAt(index >= 0 ? index + 1 : -index - 1);
+    }
+
+    /**
+     * Copy of the part of the series between two builds
+     * @param from Lowest build, inclusive
+     * @param to Highest build, inclusive
+     * @return Series of the same type holding the builds of the range
+     */
+    public synchronized BuildSeries<V> subSeries(int from, int to) {
+        BuildSeries<V> series = newSeries();
+        if (from > to) {
+            return series;
+        }
+        int start = indexOf(from);
+        start = start >= 0 ? start : -start - 1;
+        int end = indexOf(to);
+        end = end >= 0 ? end + 1 : -end - 1;
+        if (start < end) {
+            series.builds = Arrays.copyOfRange(builds, start, end);
+            series.values = newValues(end - start);
+            System.arraycopy(values, start, series.values, 0, end - start);
+            series.size = end - start;
+        }
+        return series;
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int index = indexOf((Integer) key);
+        return index >= 0 ? getValue(values, index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && indexOf((Integer) key) >= 0;
+    }
+
+    @Override
+    public synchronized V put(Integer key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            V previous = getValue(values, index);
+            setValue(values, index, value);
+            return previous;
+        }
+        insert(-index - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Add a value only if the build is not present yet
+     * @param key Build number
+     * @param value Value
+     * @return Value already present, null if added
+     */
+    public synchronized V putIfAbsent(Integer key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            return getValue(values, index);
+        }
+        insert(-index - 1, key, value);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends Integer, ? extends V> map) {
+        if (map != null && map.getClass() == getClass()) {
+            merge((BuildSeries<V>) map);
+        } else {
+            super.putAll(map);
+        }
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int index = indexOf((Integer) key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = getValue(values, index);
+        int[] _builds = new int[builds.length];
+        Object _values = newValues(builds.length);
+        System.arraycopy(builds, 0, _builds, 0, index);
+        System.arraycopy(values, 0, _values, 0, index);
+        System.arraycopy(builds, index + 1, _builds, index, size - index - 1);
+        System.arraycopy(values, index + 1, _values, index, size - index - 1);
+        builds = _builds;
+        values = _values;
+        size--;
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        builds = new int[0];
+        values = newValues(0);
+        size = 0;
+    }
+
+    @Override
+    public synchronized int size() { return size; }
+
+    @Override
+    public synchronized boolean isEmpty() { return size == 0; }
+
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * Estimated memory footprint of the series, used to budget the history cache
+     * @return Size in bytes
+     */
+    public synchronized long getEstimatedSize() {
+        return 32 + (4L + getValueSize()) * builds.length;
+    }
+
+    /**
+     * Entry at a position of the series
+     * @param index Position
+     * @return Entry, null if out of range
+     */
+    private Map.Entry<Integer, V> entryAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return new AbstractMap.SimpleImmutableEntry<Integer, V>(builds[index], getValue(values, index));
+    }
+
+    /**
+     * Insert a build at its sorted position, in place when appending
+     * @param index Insertion point
+     * @param build Build number
+     * @param value Value
+     */
+    private void insert(int index, int build, V value) {
+        if (index == size && size < builds.length) {
+            builds[size] = build;
+            setValue(values, size, value);
+        } else {
+            int capacity = size < builds.length ? builds.length : Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            int[] _builds = new int[capacity];
+            Object _values = newValues(capacity);
+            System.arraycopy(builds, 0, _builds, 0, index);
+            System.arraycopy(values, 0, _values, 0, index);
+            System.arraycopy(builds, index, _builds, index + 1, size - index);
+            System.arraycopy(values, index, _values, index + 1, size - index);
+            _builds[index] = build;
+            setValue(_values, index, value);
+            builds = _builds;
+            values = _values;
+        }
+        size++;
+    }
+
+    /**
+     * Merge another series of the same type in a single pass, as putAll would: its values replace those of
+     * common builds. Runs of builds coming from the same series are copied at once.
+     * @param series Series to merge
+     */
+    private void merge(BuildSeries<V> series) {
+        int[] otherBuilds;
+        Object otherValues;
+        int otherSize;
+        synchronized (series) {
+            otherBuilds = series.builds;
+            otherValues = series.values;
+            otherSize = series.size;
+        }
+        synchronized (this) {
+            int[] _builds = new int[size + otherSize];
+            Object _values = newValues(size + otherSize);
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size || j < otherSize) {
+                if (j == otherSize || (i < size && builds[i] < otherBuilds[j])) {
+                    int start = i;
+                    while (i < size && (j == otherSize || builds[i] < otherBuilds[j])) {
+                        i++;
+                    }
+                    System.arraycopy(builds, start, _builds, n, i - start);
+                    System.arraycopy(values, start, _values, n, i - start);
+                    n += i - start;
+                } else {
+                    int start = j;
+                    while (j < otherSize && (i == size || otherBuilds[j] <= builds[i])) {
+                        if (i < size && otherBuilds[j] == builds[i]) {
+                            i++;
+                        }
+                        j++;
+                    }
+                    System.arraycopy(otherBuilds, start, _builds, n, j - start);
+                    System.arraycopy(otherValues, start, _values, n, j - start);
+                    n += j - start;
+                }
+            }
+            builds = _builds;
+            values = _values;
+            size = n;
+        }
+    }
+
+    // Getters
+
+    public synchronized Integer getFirstBuild() { return size == 0 ? null : builds[0]; }
+    public synchronized Integer getLastBuild() { return size == 0 ? null : builds[size - 1]; }
+    public synchronized int getBuildAt(int index) { return builds[index]; }
+
+    /**
+     * Primitive array of values, only valid while holding the lock of the series
+     * @return Array of values
+     */
+    protected Object getValueArray() { return values; }
+
+    /**
+     * Entries of the series, iterated in ascending build order
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<Integer, V>> {
+
+        @Override
+        public Iterator<Map.Entry<Integer, V>> iterator() {
+            final int[] _builds;
+            final Object _values;
+            final int _size;
+            synchronized (BuildSeries.this) {
+                _builds = builds;
+                _values = values;
+                _size = size;
+            }
+            return new Iterator<Map.Entry<Integer, V>>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() { return index < _size; }
+
+                @Override
+                public Map.Entry<Integer, V> next() {
+                    if (index >= _size) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<Integer, V> entry = new AbstractMap.SimpleImmutableEntry<Integer, V>(_builds[index], getValue(_values, index));
+                    index++;
+                    return entry;
+                }
+
+                @Override
+                public void remove() { throw new UnsupportedOperationException(); }
+            };
+        }
+
+        @Override
+        public int size() { return BuildSeries.this.size(); }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted set of build numbers [DISPLAY LOADING]
+ *
+ * <p>
+ * Build numbers are kept in a sorted primitive array. Appends are done in place while an insertion in the middle
+ * replaces the array, so that iterators keep working on the builds present when they were created.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class BuildSet extends AbstractSet<Integer> {
+
+    // Variables
+
+    private static final int    INITIAL_CAPACITY = 16;
+
+    private int[]               builds;
+    private int                 size;
+
+    // Constructor
+
+    public BuildSet() {
+        this.builds = new int[0];
+        this.size = 0;
+    }
+
+    public BuildSet(Collection<Integer> builds) {
+        this();
+        this.addAll(builds);
+    }
+
+    // Functions
+
+    /**
+     * Position of a build in the set
+     * @param build Build number
+     * @return Index of the build if present, (-(insertion point) - 1) otherwise
+     */
+    public synchronized int indexOf(int build) {
+        if (size > 0 && build > builds[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(builds, 0, size, build);
+    }
+
+    @Override
+    public boolean contains(Object build) {
+        return build instanceof Integer && indexOf((Integer) build) >= 0;
+    }
+
+    @Override
+    public synchronized boolean add(Integer build) {
+        int index = indexOf(build);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (index == size && size < builds.length) {
+            builds[size] = build;
+        } else {
+            int capacity = size < builds.length ? builds.length : Math.max(INITIAL_CAPACITY, size + (size >> 1));
+            int[] _builds = new int[capacity];
+            System.arraycopy(builds, 0, _builds, 0, index);
+            System.arraycopy(builds, index, _builds, index + 1, size - index);
+            _builds[index] = build;
+            builds = _builds;
+        }
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> collection) {
+        if (!(collection instanceof BuildSet)) {
+            return super.addAll(collection);
+        }
+        int[] otherBuilds;
+        int otherSize;
+        BuildSet other = (BuildSet) collection;
+        synchronized (other) {
+            otherBuilds = other.builds;
+            otherSize = other.size;
+        }
+        synchronized (this) {
+            int[] _builds = new int[size + otherSize];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size || j < otherSize) {
+                if (j == otherSize || (i < size && builds[i] < otherBuilds[j])) {
+                    _builds[n++] = builds[i++];
+                } else {
+                    if (i < size && builds[i] == otherBuilds[j]) {
+                        i++;
+                    }
+                    _builds[n++] = otherBuilds[j++];
+                }
+            }
+            boolean changed = n > size;
+            builds = _builds;
+            size = n;
+            return changed;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        builds = new int[0];
+        size = 0;
+    }
+
+    @Override
+    public synchronized int size() { return size; }
+
+    @Override
+    public synchronized boolean isEmpty() { return size == 0; }
+
+    /**
+     * Lowest build number
+     * @return First build
+     * @throws NoSuchElementException If the set is empty
+     */
+    public synchronized Integer first() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return builds[0];
+    }
+
+    /**
+     * Highest build number
+     * @return Last build
+     * @throws NoSuchElementException If the set is empty
+     */
+    public synchronized Integer last() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return builds[size - 1];
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        final int[] _builds;
+        final int _size;
+        synchronized (this) {
+            _builds = builds;
+            _size = size;
+        }
+        return new Iterator<Integer>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() { return index < _size; }
+
+            @Override
+            public Integer next() {
+                if (index >= _size) {
+                    throw new NoSuchElementException();
+                }
+                return _builds[index++];
+            }
+
+            @Override
+            public void remove() { throw new UnsupportedOperationException(); }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+/**
+ * Build to value series of a double result [DISPLAY LOADING]
+ *
+ * <p>
+ * The values are kept in a primitive double array, the builds are managed by BuildSeries.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class DoubleSeries extends BuildSeries<Double> {
+
+    // Functions
+
+    @Override
+    protected Object newValues(int capacity) {
+        return new double[capacity];
+    }
+
+    @Override
+    protected Double getValue(Object values, int index) {
+        return ((double[]) values)[index];
+    }
+
+    @Override
+    protected void setValue(Object values, int index, Double value) {
+        ((double[]) values)[index] = value;
+    }
+
+    @Override
+    protected DoubleSeries newSeries() {
+        return new DoubleSeries();
+    }
+
+    @Override
+    protected int getValueSize() {
+        return 8;
+    }
+
+    @Override
+    public synchronized DoubleSeries subSeries(int from, int to) {
+        return (DoubleSeries) super.subSeries(from, to);
+    }
+
+    // Getters
+
+    public synchronized double getValueAt(int index) { return ((double[]) getValueArray())[index]; }
+}
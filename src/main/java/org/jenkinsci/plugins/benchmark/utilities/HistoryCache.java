@@ -0,0 +1,286 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Logger;
+
+/**
+ * Plugin-wide cache of the result history loaded for display [DISPLAY LOADING]
+ *
+ * <p>
+ * One history is kept per job, for its last build, and the condensed results displayed without it are kept next
+ * to it. Histories are weighed by their estimated heap footprint and the least recently used ones are dropped once
+ * the memory budget is exceeded. The most recently used history is always kept, even when it exceeds the budget on
+ * its own. Dropped histories are left to the garbage collector.
+ * <p>
+ * Loads are single-flight: concurrent requests for the same job and build wait for the load already in progress.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class HistoryCache {
+
+    // Variables
+
+    private static final long   MEGABYTE = 1024L * 1024L;
+    private static final long   MIN_BUDGET_MB = 16;
+
+    private static final Logger log = Logger.getLogger(HistoryCache.class.getName());
+
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private static final ConcurrentHashMap<String, FutureTask<MapperBase>> loading = new ConcurrentHashMap<String, FutureTask<MapperBase>>();
+    private static long         budget = getDefaultBudget() * MEGABYTE;
+    private static long         size = 0;
+    private static long         hits = 0;
+    private static long         misses = 0;
+    private static long         evictions = 0;
+    private static long         sharedLoads = 0;
+
+    // Constructor
+
+    private HistoryCache() {}
+
+    // Functions
+
+    /**
+     * Get the history of a job
+     * @param job Full name of the job
+     * @param build Last build of the job
+     * @return Cached history, null if the job is not cached or was cached for another build
+     */
+    public static synchronized MapperBase get(String job, int build) {
+        Entry entry = entries.get(job);
+        if (entry != null && entry.build == build) {
+            hits++;
+            return entry.mapper;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Get the history of a job, loading it if not cached
+     * Only one load runs at a time for a job and build, concurrent callers wait for it and share its result.
+     * @param job Full name of the job
+     * @param build Last build of the job
+     * @param loader Loader of the history, run in the calling thread if no load is in progress
+     * @return History, null if the loader did not return any
+     * @throws InterruptedException If interrupted while waiting for the load
+     * @throws ValidationException Validation exception raised by the loader
+     * @throws IOException I/O exception raised by the loader
+     */
+    public static MapperBase get(final String job, final int build, final Callable<MapperBase> loader) throws InterruptedException, ValidationException, IOException {
+        MapperBase mapper = get(job, build);
+        if (mapper != null) {
+            return mapper;
+        }
+
+        String key = job + "#" + build;
+        FutureTask<MapperBase> task = new FutureTask<MapperBase>(new Callable<MapperBase>() {
+            @Override
+            public MapperBase call() throws Exception {
+                MapperBase mapper = peek(job, build);
+                if (mapper == null) {
+                    mapper = loader.call();
+                    if (mapper != null) {
+                        put(job, build, mapper);
+                    }
+                }
+                return mapper;
+            }
+        });
+        FutureTask<MapperBase> running = loading.putIfAbsent(key, task);
+        if (running == null) {
+            try {
+                task.run();
+            } finally {
+                loading.remove(key, task);
+            }
+            running = task;
+        } else {
+            synchronized (HistoryCache.class) {
+                sharedLoads++;
+            }
+        }
+
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ValidationException) {
+                throw (ValidationException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Cache the history of a job, replacing the one of a previous build
+     * @param job Full name of the job
+     * @param build Last build of the job
+     * @param mapper Loaded history
+     */
+    public static synchronized void put(String job, int build, MapperBase mapper) {
+        Entry entry = new Entry(build, mapper, mapper.getEstimatedSize());
+        Entry previous = entries.put(job, entry);
+        if (previous != null) {
+            size -= previous.weight;
+        }
+        size += entry.weight;
+        checkWeight(job, entry);
+        evict();
+    }
+
+    /**
+     * Weigh the history of a job again after more of its values were loaded, the cache is then evicted to fit
+     * @param job Full name of the job
+     * @param mapper History whose content changed, ignored if it is no longer the one cached for the job
+     */
+    public static synchronized void reweigh(String job, MapperBase mapper) {
+        Entry entry = entries.get(job);
+        if (entry == null || entry.mapper != mapper) {
+            return;
+        }
+        Entry reweighed = new Entry(entry.build, mapper, mapper.getEstimatedSize());
+        entries.put(job, reweighed);
+        size += reweighed.weight - entry.weight;
+        checkWeight(job, reweighed);
+        evict();
+    }
+
+    /**
+     * Mark the history of a job as recently used
+     * @param job Full name of the job
+     */
+    public static synchronized void touch(String job) {
+        entries.get(job);
+    }
+
+    /**
+     * Drop the history of a job
+     * @param job Full name of the job
+     */
+    public static synchronized void invalidate(String job) {
+        Entry entry = entries.remove(job);
+        if (entry != null) {
+            size -= entry.weight;
+        }
+    }
+
+    /**
+     * Get the history of a job without updating the statistics
+     * @param job Full name of the job
+     * @param build Last build of the job
+     * @return Cached history, null if not cached
+     */
+    private static synchronized MapperBase peek(String job, int build) {
+        Entry entry = entries.get(job);
+        return (entry != null && entry.build == build) ? entry.mapper : null;
+    }
+
+    /**
+     * Get the default memory budget
+     * @return A tenth of the maximum heap, with a minimum of 16 MB
+     */
+    public static long getDefaultBudget() {
+        return Math.max(MIN_BUDGET_MB, Runtime.getRuntime().maxMemory() / 10 / MEGABYTE);
+    }
+
+    /**
+     * Drop the least recently used histories until the cache fits in the budget
+     * The most recently used history, last in access order, is never dropped.
+     */
+    private static void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > budget && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue().weight;
+            evictions++;
+            log.fine("Benchmark history of " + eldest.getKey() + " evicted from the cache");
+        }
+    }
+
+    /**
+     * Warn when the history of a single job does not fit in the budget
+     * @param job Full name of the job
+     * @param entry Cached history of the job
+     */
+    private static void checkWeight(String job, Entry entry) {
+        if (entry.weight > budget) {
+            log.warning("Benchmark history of " + job + " (" + (entry.weight / MEGABYTE) + " MB) exceeds the cache budget of " + (budget / MEGABYTE) + " MB");
+        }
+    }
+
+    // Setters
+
+    /**
+     * Set the memory budget, histories are evicted immediately if it is exceeded
+     * @param megabytes Budget in megabytes
+     */
+    public static synchronized void setBudget(long megabytes) {
+        budget = Math.max(1, megabytes) * MEGABYTE;
+        evict();
+    }
+
+    // Getters
+
+    public static synchronized long getBudget() { return budget / MEGABYTE; }
+    public static synchronized long getSize() { return size / MEGABYTE; }
+    public static synchronized int getNumberOfEntries() { return entries.size(); }
+    public static synchronized long getHits() { return hits; }
+    public static synchronized long getMisses() { return misses; }
+    public static synchronized long getEvictions() { return evictions; }
+    public static synchronized long getSharedLoads() { return sharedLoads; }
+
+    /**
+     * Cached history of a job
+     */
+    private static class Entry {
+
+        private final int           build;
+        private final MapperBase    mapper;
+        private final long          weight;
+
+        Entry(int build, MapperBase mapper, long weight) {
+            this.build = build;
+            this.mapper = mapper;
+            this.weight = weight;
+        }
+    }
+}
@@ -18,33 +18,50 @@
  */
 package org.jenkinsci.plugins.benchmark.utilities;
 
-import org.jenkinsci.plugins.benchmark.core.BenchmarkPublisher;
-
-import java.util.TimerTask;
-
 /**
- * Control Elapsed Clock that reset data loaded in the backend
+ * Build to value series of an integer result [DISPLAY LOADING]
+ *
+ * <p>
+ * The values are kept in a primitive int array, the builds are managed by BuildSeries.
  *
  * @author Daniel Mercier
- * @since 5/10/2017
+ * @since 11/17/2017.
  */
-public class ResetMemoryTask extends TimerTask {
+public class IntegerSeries extends BuildSeries<Integer> {
 
-    // Variables
+    // Functions
 
-    private final BenchmarkPublisher core;
+    @Override
+    protected Object newValues(int capacity) {
+        return new int[capacity];
+    }
 
-    // Constructor
+    @Override
+    protected Integer getValue(Object values, int index) {
+        return ((int[]) values)[index];
+    }
 
-    public ResetMemoryTask(BenchmarkPublisher core){
-        super();
-        this.core = core;
+    @Override
+    protected void setValue(Object values, int index, Integer value) {
+        ((int[]) values)[index] = value;
     }
 
-    // Functions
+    @Override
+    protected IntegerSeries newSeries() {
+        return new IntegerSeries();
+    }
+
+    @Override
+    protected int getValueSize() {
+        return 4;
+    }
 
     @Override
-    public void run() {
-        this.core.resetMemory();
+    public synchronized IntegerSeries subSeries(int from, int to) {
+        return (IntegerSeries) super.subSeries(from, to);
     }
+
+    // Getters
+
+    public synchronized int getValueAt(int index) { return ((int[]) getValueArray())[index]; }
 }
@@ -0,0 +1,149 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Plugin-wide executor loading the result history of jobs [DISPLAY LOADING]
+ *
+ * <p>
+ * All history loads share one bounded pool sized from the global configuration, so concurrent table views
+ * across many jobs queue their tasks instead of each spawning threads. Idle threads are released.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public final class LoaderExecutor {
+
+    // Variables
+
+    private static final long   KEEP_ALIVE_SECONDS = 60;
+
+    private static ThreadPoolExecutor executor;
+    private static ThreadPoolExecutor backgroundExecutor;
+    private static int          threads = getDefaultThreads();
+
+    // Constructor
+
+    private LoaderExecutor() {}
+
+    // Functions
+
+    /**
+     * Run a list of tasks on the shared pool and wait for all of them to complete
+     * @param tasks Tasks to run
+     * @param <T> Task result type
+     * @return Results in the order of the tasks
+     * @throws InterruptedException If interrupted while waiting, remaining tasks are cancelled
+     * @throws IOException If a task failed, once all tasks completed
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) throws InterruptedException, IOException {
+        ThreadPoolExecutor pool = getExecutor();
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+
+            List<T> results = new ArrayList<T>(futures.size());
+            Throwable failure = null;
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    results.add(null);
+                }
+            }
+            if (failure != null) {
+                throw new IOException(Messages.LoaderExecutor_TaskFailed(failure.toString()), failure);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run a task in the background, outside of the shared pool so that the task may itself run tasks on the pool
+     * Background tasks run one at a time.
+     * @param task Task to run
+     */
+    public static synchronized void submitBackground(Runnable task) {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "Benchmark history backfill"));
+            backgroundExecutor.allowCoreThreadTimeOut(true);
+        }
+        backgroundExecutor.submit(task);
+    }
+
+    /**
+     * Get the default number of loader threads
+     * @return One thread per processor, keeping one for the controller, with a minimum of one
+     */
+    public static int getDefaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * Resize the shared pool, running tasks are not interrupted
+     * @param threads Maximum number of loader threads
+     */
+    public static synchronized void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        LoaderExecutor.threads = threads;
+        if (executor != null) {
+            if (threads > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(threads);
+                executor.setCorePoolSize(threads);
+            } else {
+                executor.setCorePoolSize(threads);
+                executor.setMaximumPoolSize(threads);
+            }
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "Benchmark history loader"));
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    // Getters
+
+    public static synchronized int getThreads() { return threads; }
+}
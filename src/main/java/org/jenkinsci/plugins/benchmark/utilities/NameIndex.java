@@ -0,0 +1,188 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Sorted index of entities by name, used to attach thresholds to their targets
+ *
+ * <p>
+ * A target is either an exact name, a glob where '*' matches any sequence and '?' any single character, or a
+ * regular expression between slashes such as "/cpu\.[a-z]+/". Exact names are found directly, globs starting
+ * with a literal prefix only visit the names sharing that prefix, and regular expressions visit each distinct
+ * name once. Patterns are only recognised when requested, otherwise every target is an exact name.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class NameIndex<T> {
+
+    // Variables
+
+    private final TreeMap<String, List<T>>  entries = new TreeMap<String, List<T>>();
+
+    // Functions
+
+    /**
+     * Add an entity under a name
+     * @param name Name of the entity
+     * @param entity Entity
+     */
+    public void add(String name, T entity) {
+        List<T> list = entries.get(name);
+        if (list == null) {
+            list = new ArrayList<T>(1);
+            entries.put(name, list);
+        }
+        list.add(entity);
+    }
+
+    /**
+     * Find the entities matching a target
+     * @param target Exact name, glob or regular expression between slashes
+     * @return Matching entities, in name order
+     * @throws PatternSyntaxException If the regular expression is invalid
+     */
+    public List<T> find(String target) throws PatternSyntaxException {
+        return find(target, true);
+    }
+
+    /**
+     * Find the entities matching a target
+     * @param target Exact name, or a glob or regular expression between slashes if patterns are recognised
+     * @param patterns Whether patterns are recognised, the target is otherwise an exact name
+     * @return Matching entities, in name order
+     * @throws PatternSyntaxException If the regular expression is invalid
+     */
+    public List<T> find(String target, boolean patterns) throws PatternSyntaxException {
+        List<T> matches = new ArrayList<T>();
+        if (patterns && isRegex(target)) {
+            Pattern pattern = compile(target);
+            for (Map.Entry<String, List<T>> entry : entries.entrySet()) {
+                if (pattern.matcher(entry.getKey()).matches()) {
+                    matches.addAll(entry.getValue());
+                }
+            }
+        } else if (patterns && isGlob(target)) {
+            String prefix = target.substring(0, firstWildcard(target));
+            SortedMap<String, List<T>> candidates = prefix.isEmpty() ? entries : entries.subMap(prefix, prefix + Character.MAX_VALUE);
+            Pattern pattern = target.equals(prefix + "*") ? null : compile(target);
+            for (Map.Entry<String, List<T>> entry : candidates.entrySet()) {
+                if (pattern == null || pattern.matcher(entry.getKey()).matches()) {
+                    matches.addAll(entry.getValue());
+                }
+            }
+        } else {
+            List<T> list = entries.get(target);
+            if (list != null) {
+                matches.addAll(list);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Combine a group target and a name target into a target on the full name "group.name"
+     * @param group Group target
+     * @param name Name target, may be empty
+     * @return Full name target
+     */
+    public static String combine(String group, String name) {
+        return combine(group, name, true);
+    }
+
+    /**
+     * Combine a group target and a name target into a target on the full name "group.name"
+     * @param group Group target
+     * @param name Name target, may be empty
+     * @param patterns Whether patterns are recognised in the targets
+     * @return Full name target
+     */
+    public static String combine(String group, String name, boolean patterns) {
+        if (name.isEmpty()) {
+            return group;
+        }
+        if (patterns && (isRegex(group) || isRegex(name))) {
+            return "/" + toRegex(group) + "\\." + toRegex(name) + "/";
+        }
+        return group + "." + name;
+    }
+
+    /**
+     * Compile a target into a regular expression matching the complete name
+     * @param target Exact name, glob or regular expression between slashes
+     * @return Compiled pattern
+     * @throws PatternSyntaxException If the regular expression is invalid
+     */
+    public static Pattern compile(String target) throws PatternSyntaxException {
+        return Pattern.compile(toRegex(target));
+    }
+
+    private static String toRegex(String target) {
+        if (isRegex(target)) {
+            return "(?:" + target.substring(1, target.length() - 1) + ")";
+        }
+        if (!isGlob(target)) {
+            return Pattern.quote(target);
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    public static boolean isRegex(String target) {
+        return target.length() >= 2 && target.charAt(0) == '/' && target.charAt(target.length() - 1) == '/';
+    }
+
+    public static boolean isGlob(String target) {
+        return !isRegex(target) && firstWildcard(target) < target.length();
+    }
+
+    private static int firstWildcard(String target) {
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return target.length();
+    }
+}
@@ -18,46 +18,77 @@
  */
 package org.jenkinsci.plugins.benchmark.utilities;
 
-import hudson.model.Run;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.parsers.JUnitJenkins;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 
 /**
  * Parallel runnable for Jenkins Test Report
+ * Loads a segment of builds, read from the builds directory, into a private partial mapper merged afterwards
+ * with MapperBase.mergeHistoryWith(). The extract written for a build is read in place of its report.
  *
  * @author Daniel Mercier
  * @since 6/20/2017.
  */
-public class RunnableJenkinsReader implements Runnable {
+public class RunnableJenkinsReader implements Callable<Integer> {
 
-    private final Run startRun;
-    private final Run endRun;
-    private final JUnitJenkins mapper;
+    private final File buildDirectory;
+    private final int[] builds;
+    private final int start;
+    private final int end;
+    private final JUnitJenkins partial;
+    private final String condensedFilename;
 
-    public RunnableJenkinsReader(Run startRun, Run endRun, JUnitJenkins mapper) {
-        this.startRun = startRun;
-        this.endRun = endRun;
-        this.mapper = mapper;
+    public RunnableJenkinsReader(File buildDirectory, int[] builds, int start, int end, JUnitJenkins partial, String condensedFilename) {
+        this.buildDirectory = buildDirectory;
+        this.builds = builds;
+        this.start = start;
+        this.end = end;
+        this.partial = partial;
+        this.condensedFilename = condensedFilename;
     }
     private static final Logger log = Logger.getLogger(RunnableReader.class.getName());
 
-    @SuppressWarnings("unused")
+    /**
+     * Load the result files of the segment, a file that cannot be read is skipped with a warning
+     * Extracts hold no result definitions, they are only read once the condensed file was loaded.
+     * @return Number of result files that could not be loaded
+     * @throws IOException If the condensed file cannot be read
+     * @throws ValidationException If the condensed file content is invalid
+     */
     @Override
-    public void run() {
-        Run run = this.startRun;
-        try {
-            while (run != null && run != endRun) {
-                StringBuffer rawFilename = new StringBuffer();
-                rawFilename.append(run.getRootDir().getAbsolutePath());
-                rawFilename.append(File.separator);
-                rawFilename.append("junitResult.xml");
-                this.mapper.importFromFile(run.getNumber(), rawFilename.toString());
-                run = run.getPreviousBuild();
+    public Integer call() throws IOException, ValidationException {
+        boolean condensed = this.partial.importCondensedFromFile(this.condensedFilename);
+        int failures = 0;
+        for (int i = this.start; i < this.end; i++) {
+            int build = this.builds[i];
+            try {
+                File extractFile = BuildScanner.getFile(this.buildDirectory, build, "BenchmarkResult.json");
+                if (condensed && extractFile.exists()) {
+                    this.partial.importFromFile(extractFile, this.partial.getDetected());
+                } else {
+                    File rawFile = BuildScanner.getFile(this.buildDirectory, build, "junitResult.xml");
+                    if (rawFile.exists()) {
+                        this.partial.importFromFile(build, rawFile);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Loading cancelled
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e){
+                log.warning("Warning:" + Thread.currentThread().getName() + "- Build:" + build + " - " + e);
+                failures++;
             }
-        } catch (Exception e){
-            log.warning("Warning:" + Thread.currentThread().getName() + "- Build:" + run.getNumber()+ " - " + e.getCause());
         }
+        return failures;
     }
+
+    // Getters
+
+    public JUnitJenkins getPartial() { return partial; }
 }
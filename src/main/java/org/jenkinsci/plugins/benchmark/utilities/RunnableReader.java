@@ -18,46 +18,68 @@
  */
 package org.jenkinsci.plugins.benchmark.utilities;
 
-import hudson.model.Run;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
 import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 
 /**
  * Parallel runnable
+ * Loads a segment of builds, read from the builds directory, into a private partial mapper merged afterwards
+ * with MapperBase.mergeHistoryWith().
  *
  * @author Daniel Mercier
  * @since 6/20/2017.
  */
-public class RunnableReader implements Runnable {
+public class RunnableReader implements Callable<Integer> {
 
-    private final Run startRun;
-    private final Run endRun;
-    private final MapperBase mapper;
+    private final File buildDirectory;
+    private final int[] builds;
+    private final int start;
+    private final int end;
+    private final MapperBase partial;
+    private final String condensedFilename;
 
-    public RunnableReader(Run startRun, Run endRun, MapperBase mapper) {
-        this.startRun = startRun;
-        this.endRun = endRun;
-        this.mapper = mapper;
+    public RunnableReader(File buildDirectory, int[] builds, int start, int end, MapperBase partial, String condensedFilename) {
+        this.buildDirectory = buildDirectory;
+        this.builds = builds;
+        this.start = start;
+        this.end = end;
+        this.partial = partial;
+        this.condensedFilename = condensedFilename;
     }
     private static final Logger log = Logger.getLogger(RunnableReader.class.getName());
 
-    @SuppressWarnings("unused")
+    /**
+     * Load the result files of the segment, a file that cannot be read is skipped with a warning
+     * The result definitions of the partial are first loaded from the condensed file.
+     * @return Number of result files that could not be loaded
+     * @throws IOException If the condensed file cannot be read
+     * @throws ValidationException If the condensed file content is invalid
+     */
     @Override
-    public void run() {
-        Run run = this.startRun;
-        try {
-            while (run != null && run != endRun) {
-                StringBuffer rawFilename = new StringBuffer();
-                rawFilename.append(run.getRootDir().getAbsolutePath());
-                rawFilename.append(File.separator);
-                rawFilename.append("BenchmarkResult.json");
-                this.mapper.importFromFile(rawFilename.toString());
-                run = run.getPreviousBuild();
+    public Integer call() throws IOException, ValidationException {
+        this.partial.importCondensedFromFile(this.condensedFilename);
+        int failures = 0;
+        for (int i = this.start; i < this.end; i++) {
+            int build = this.builds[i];
+            try {
+                File rawFile = BuildScanner.getFile(this.buildDirectory, build, "BenchmarkResult.json");
+                if (rawFile.exists()) {
+                    this.partial.importFromFile(rawFile, this.partial.getDetected());
+                }
+            } catch (Exception e){
+                log.warning("Warning:" + Thread.currentThread().getName() + "- Build:" + build + " - " + e);
+                failures++;
             }
-        } catch (Exception e){
-            log.warning("Warning:" + Thread.currentThread().getName() + "- Build:" + run.getNumber()+ " - " + e.getCause());
         }
+        return failures;
     }
+
+    // Getters
+
+    public MapperBase getPartial() { return partial; }
 }
@@ -0,0 +1,150 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.parsers;
+
+import hudson.FilePath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the identification of result files inside the workspace
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class FormatSelectorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void FormatSelector_wildcards() throws IOException, InterruptedException {
+        System.out.println("Starting identification of result files with wildcards.");
+
+        FilePath workspace = newWorkspace();
+
+        // Single wildcard, only the matched folder names are kept in the short names
+        Map<String, FilePath> files = FormatSelector.IdentifyFiles(workspace, "results/*/perf.json", "json");
+        assertFiles(files, "run1", "results/run1/perf.json", "run2", "results/run2/perf.json");
+
+        // Wildcards at several levels, files with another extension are ignored
+        files = FormatSelector.IdentifyFiles(workspace, "results/run*/*.json", "json");
+        assertFiles(files, "run1\\perf.json", "results/run1/perf.json", "run2\\perf.json", "results/run2/perf.json",
+                "run2\\extra.json", "results/run2/extra.json");
+        assertTrue(FormatSelector.IdentifyFiles(workspace, "results/*/*.txt", "json").isEmpty());
+        assertTrue(FormatSelector.IdentifyFiles(workspace, "missing/*/*.json", "json").isEmpty());
+
+        // A wildcard matching the complete name does not add to the short name
+        files = FormatSelector.IdentifyFiles(workspace, "results/other/*x.json", "json");
+        assertFiles(files, "", "results/other/x.json");
+
+        // Backslashes separate folders as well
+        files = FormatSelector.IdentifyFiles(workspace, "results\\run*\\extra.json", "json");
+        assertFiles(files, "run2", "results/run2/extra.json");
+
+        System.out.println("Completed identification of result files with wildcards.");
+    }
+
+    @Test
+    public void FormatSelector_lists() throws IOException, InterruptedException {
+        System.out.println("Starting identification of result files from lists.");
+
+        FilePath workspace = newWorkspace();
+
+        // Each line or separated entry of a '.list' file is a pattern
+        Map<String, FilePath> files = FormatSelector.IdentifyFiles(workspace, "lists/files.list", "json");
+        assertFiles(files, "single\\a.json", "single/a.json", "single\\b.json", "single/b.json",
+                "results\\run1", "results/run1/perf.json", "results\\run2", "results/run2/perf.json");
+
+        // Lists located through a wildcard, combined with a direct pattern
+        files = FormatSelector.IdentifyFiles(workspace, "lists/*.list;results/other/x.json", "json");
+        assertFiles(files, "single\\a.json", "single/a.json", "single\\b.json", "single/b.json",
+                "results\\run1", "results/run1/perf.json", "results\\run2", "results/run2/perf.json",
+                "results\\other", "results/other/x.json");
+
+        // Missing lists are skipped
+        assertTrue(FormatSelector.IdentifyFiles(workspace, "lists/missing.list", "json").isEmpty());
+
+        System.out.println("Completed identification of result files from lists.");
+    }
+
+    @Test
+    public void FormatSelector_sharedMarkers() throws IOException, InterruptedException {
+        System.out.println("Starting identification of result files sharing markers.");
+
+        FilePath workspace = newWorkspace();
+
+        // Only the markers that differ between patterns are kept in the short names
+        Map<String, FilePath> files = FormatSelector.IdentifyFiles(workspace, "results/run1/perf.json,results/run2/perf.json", "json");
+        assertFiles(files, "run1", "results/run1/perf.json", "run2", "results/run2/perf.json");
+
+        files = FormatSelector.IdentifyFiles(workspace, "results/run2/perf.json;results/run2/extra.json;single/a.json", "json");
+        assertFiles(files, "results\\perf.json", "results/run2/perf.json", "results\\extra.json", "results/run2/extra.json",
+                "single", "single/a.json");
+
+        // Repeated patterns are identified once
+        files = FormatSelector.IdentifyFiles(workspace, "single/a.json;single/a.json", "json");
+        assertFiles(files, "", "single/a.json");
+
+        System.out.println("Completed identification of result files sharing markers.");
+    }
+
+    /**
+     * Workspace holding result files in several folders and lists referencing them
+     * @return Workspace
+     */
+    private FilePath newWorkspace() throws IOException {
+        File workspace = folder.newFolder("workspace");
+        for (String path : new String[]{"results/run1/perf.json", "results/run1/notes.txt", "results/run2/perf.json",
+                "results/run2/extra.json", "results/other/x.json", "single/a.json", "single/b.json"}) {
+            write(new File(workspace, path), "{}");
+        }
+        write(new File(workspace, "lists/files.list"), "single/a.json\nsingle/b.json\r\nresults/run1/perf.json;results/run2/perf.json\n");
+        write(new File(workspace, "lists/results.list"), "results/*/perf.json");
+        return new FilePath(workspace);
+    }
+
+    private void write(File file, String content) throws IOException {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Check the identified files
+     * @param files Identified files
+     * @param expected Pairs of short name and path relative to the workspace
+     */
+    private void assertFiles(Map<String, FilePath> files, String... expected) {
+        assertTrue(files.size() == expected.length / 2);
+        for (int i = 0; i < expected.length; i += 2) {
+            FilePath file = files.get(expected[i]);
+            assertTrue(file != null);
+            assertTrue(file.getRemote().replace('\\', '/').endsWith("workspace/" + expected[i + 1]));
+        }
+    }
+}
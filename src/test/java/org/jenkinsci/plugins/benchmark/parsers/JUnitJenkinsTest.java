@@ -18,16 +18,32 @@
  */
 package org.jenkinsci.plugins.benchmark.parsers;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.results.BooleanValue;
+import org.jenkinsci.plugins.benchmark.results.DoubleValue;
+import org.jenkinsci.plugins.benchmark.results.IntegerValue;
+import org.jenkinsci.plugins.benchmark.results.StringValue;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+import org.jenkinsci.plugins.benchmark.results.TestValue;
 import org.jenkinsci.plugins.benchmark.utilities.FilePathGroup;
+import org.jenkinsci.plugins.benchmark.utilities.RunnableJenkinsReader;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.jenkinsci.plugins.benchmark.parsers.JUnitJenkins.RecurseNames;
 import static org.junit.Assert.assertTrue;
@@ -40,6 +56,9 @@ import static org.junit.Assert.assertTrue;
  */
 public class JUnitJenkinsTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void JUnitJenkins_mapper() throws InterruptedException, ValidationException, ParserConfigurationException, SAXException, IOException {
         System.out.println("Starting XML mapping for jUnit Jenkins format.");
@@ -57,6 +76,163 @@ public class JUnitJenkinsTest {
         System.out.println("Completed XML mapping for jUnit Jenkins format.");
     }
 
+    @Test
+    public void JUnitJenkins_details() throws InterruptedException, ValidationException, IOException {
+        System.out.println("Starting XML mapping for jUnit Jenkins details.");
+
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/jUnitJenkinsDetails.xml").getFile());
+
+        JUnitJenkins mapper = new JUnitJenkins(0, false);
+        mapper.importFromFile(0, xmlCFile);
+
+        // Three cases, a duration for the passed case only, and the report and failedSince parameters
+        assertTrue(mapper.getNumberOfResults() == 4);
+        assertTrue(mapper.getNumberOfParameters() == 6);
+
+        // Passed case, its standard outputs are not kept
+        StringValue passed = (StringValue) getResult(mapper, "CubeVolume");
+        assertTrue(passed.getGroup().equals("projectroot.Geometry"));
+        assertTrue(passed.getValue(0).equals("Passed"));
+        assertTrue(!passed.getFailedState(0));
+        assertTrue(passed.getMessages(0).isEmpty());
+        DoubleValue duration = (DoubleValue) getResult(mapper, "CubeVolume.duration");
+        assertTrue(duration.getValue(0) == 0.25);
+
+        // Failed case, with its stack trace and details
+        StringValue failed = (StringValue) getResult(mapper, "SphereArea");
+        assertTrue(failed.getValue(0).equals("Failed"));
+        assertTrue(failed.getFailedState(0));
+        assertTrue(failed.getMessages(0).size() == 2);
+        assertTrue(failed.getMessages(0).get("errorDetails").equals("expected:<12.566> but was:<12.5>"));
+        assertTrue(failed.getMessages(0).get("errorStackTrace").startsWith("java.lang.AssertionError: expected:<12.566> but was:<12.5>"));
+        assertTrue(failed.getMessages(0).get("errorStackTrace").endsWith("at projectroot.Geometry.SphereArea(Geometry.java:42)"));
+        assertTrue(getResult(mapper, "SphereArea.duration") == null);
+
+        // Skipped case, passed with its message and without duration
+        StringValue skipped = (StringValue) getResult(mapper, "TorusArea");
+        assertTrue(skipped.getValue(0).equals("Passed"));
+        assertTrue(!skipped.getFailedState(0));
+        assertTrue(skipped.getMessages(0).size() == 1);
+        assertTrue(skipped.getMessages(0).get("skippedMessage").equals("Torus not supported yet"));
+        assertTrue(getResult(mapper, "TorusArea.duration") == null);
+
+        // Report parameters attached to the results
+        IntegerValue failedSince = (IntegerValue) getParameter(mapper, "FailedSince", failed);
+        assertTrue(failedSince.getValue(0) == 3);
+        assertTrue(((DoubleValue) getParameter(mapper, "all_tests_duration", null)).getValue(0) == 1.25);
+        assertTrue(!((BooleanValue) getParameter(mapper, "keep_long_stdio", null)).getValue(0));
+        assertTrue(((StringValue) getParameter(mapper, "plugin_version", null)).getValue(0).equals("junit@1.20"));
+
+        System.out.println("Completed XML mapping for jUnit Jenkins details.");
+    }
+
+    @Test
+    public void JUnitJenkins_mixedHistory() throws InterruptedException, ValidationException, IOException {
+        System.out.println("Starting history load from an earlier condensed file and new extracts.");
+
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/jUnitJenkinsDetails.xml").getFile());
+        File buildDirectory = folder.newFolder("builds");
+
+        // Build 1, only its report is available
+        File firstBuild = new File(buildDirectory, "1");
+        assertTrue(firstBuild.mkdir());
+        Files.copy(xmlCFile.toPath(), new File(firstBuild, "junitResult.xml").toPath());
+
+        // Condensed file of build 1, with the parameters keyed as before they were registered under their group hash
+        JUnitJenkins first = new JUnitJenkins(1, false);
+        first.importFromFile(1, xmlCFile);
+        File condensedFile = folder.newFile("BenchmarkCondensed.json");
+        assertTrue(first.exportCondensedToFile(condensedFile.getAbsolutePath(), "job", 1));
+        Map<Integer, Integer> oldKeys = new HashMap<Integer, Integer>();
+        for (Map.Entry<Integer, TestGroup> group : first.getGroups().entrySet()) {
+            if (first.getParameters().get(group.getValue().getGroupHash()) == group.getValue()) {
+                oldKeys.put(group.getValue().getGroupHash(), group.getKey());
+            }
+        }
+        assertTrue(oldKeys.size() == 6);
+        JsonObject condensed = new JsonParser().parse(new String(Files.readAllBytes(condensedFile.toPath()), StandardCharsets.UTF_8)).getAsJsonObject();
+        for (JsonElement parameter : condensed.getAsJsonArray("parameters")) {
+            JsonObject object = parameter.getAsJsonObject();
+            object.addProperty("hash", oldKeys.get(object.get("hash").getAsInt()));
+        }
+        Files.write(condensedFile.toPath(), condensed.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Build 2, only its extract is available, the failed case now passes and is folded into the condensed file
+        String report = new String(Files.readAllBytes(xmlCFile.toPath()), StandardCharsets.UTF_8)
+                .replace("junit@1.20", "junit@1.21")
+                .replace("<failedSince>3</failedSince>", "<failedSince>0</failedSince>");
+        File reportFile = folder.newFile("junitResult.xml");
+        Files.write(reportFile.toPath(), report.getBytes(StandardCharsets.UTF_8));
+        File secondBuild = new File(buildDirectory, "2");
+        assertTrue(secondBuild.mkdir());
+        JUnitJenkins second = new JUnitJenkins(2, false);
+        second.importFromFile(0, reportFile);
+        assertTrue(second.exportToFile(new File(secondBuild, "BenchmarkResult.json").getAbsolutePath(), "job", 2));
+        MapperBase base = new MapperBase(2, false);
+        assertTrue(base.importCondensedFromFile(condensedFile.getAbsolutePath()));
+        second.mergeCondensedWith(base, 0);
+        assertTrue(second.exportCondensedToFile(condensedFile.getAbsolutePath(), "job", 2));
+
+        // Load the history as for the display
+        JUnitJenkins mapper = new JUnitJenkins(0, false);
+        assertTrue(mapper.importCondensedFromFile(condensedFile.getAbsolutePath()));
+        RunnableJenkinsReader task = new RunnableJenkinsReader(buildDirectory, new int[]{1, 2}, 0, 2, new JUnitJenkins(0, false), condensedFile.getAbsolutePath());
+        assertTrue(task.call() == 0);
+        mapper.mergeHistoryWith(task.getPartial());
+
+        // Both builds are held by the same results, the passing case gains its duration result
+        assertTrue(mapper.getBuilds().contains(1));
+        assertTrue(mapper.getBuilds().contains(2));
+        assertTrue(mapper.getNumberOfResults() == 5);
+        StringValue sphere = (StringValue) getResult(mapper, "SphereArea");
+        assertTrue(sphere.getValue(1).equals("Failed"));
+        assertTrue(sphere.getValue(2).equals("Passed"));
+        assertTrue(((DoubleValue) getResult(mapper, "SphereArea.duration")).getValue(2) == 0.5);
+
+        // Parameters read from the report and from the extract are the same, the earlier keys are left as loaded
+        StringValue cube = (StringValue) getResult(mapper, "CubeVolume");
+        StringValue plugin = (StringValue) getParameter(mapper, "plugin_version", null);
+        assertTrue(mapper.getParameters().get(plugin.getGroupHash()) == plugin);
+        assertTrue(plugin.getValue(1).equals("junit@1.20"));
+        assertTrue(plugin.getValue(2).equals("junit@1.21"));
+        assertTrue(cube.getParameters(1).contains(plugin));
+        assertTrue(cube.getParameters(2).contains(plugin));
+        assertTrue(mapper.getParameters().containsKey("plugin".hashCode()));
+        List<TestValue> loaded = new ArrayList<TestValue>(mapper.getParameters().values());
+        for (int build = 1; build <= 2; build++) {
+            for (TestValue parameter : cube.getParameters(build)) {
+                boolean found = false;
+                for (TestValue other : loaded) {
+                    found |= (other == parameter);
+                }
+                assertTrue(found);
+            }
+        }
+
+        System.out.println("Completed history load from an earlier condensed file and new extracts.");
+    }
+
+    private TestValue getResult(JUnitJenkins mapper, String name) {
+        for (TestValue result : mapper.getResults().values()) {
+            if (result.getName().equals(name)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private TestValue getParameter(JUnitJenkins mapper, String name, TestGroup parent) {
+        for (Map.Entry<Integer, TestValue> entry : mapper.getParameters().entrySet()) {
+            TestValue parameter = entry.getValue();
+            if (parameter.getName().equals(name) && (parent == null || parameter.getParent() == parent) && entry.getKey().equals(parameter.getGroupHash())) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
     @Test
     public void JUnitJenkins_FileProcessor() throws InterruptedException, ValidationException, ParserConfigurationException, SAXException, IOException {
         System.out.println("Starting Filename processor.");
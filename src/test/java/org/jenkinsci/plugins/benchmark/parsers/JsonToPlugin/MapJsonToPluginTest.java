@@ -21,13 +21,23 @@ package org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import hudson.FilePath;
+import hudson.util.StreamTaskListener;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+import org.jenkinsci.plugins.benchmark.results.TestValue;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertTrue;
 
@@ -38,6 +48,10 @@ import static org.junit.Assert.assertTrue;
  * @since 6/20/2017.
  */
 public class MapJsonToPluginTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void json_simplestResult() throws ValidationException, ParserConfigurationException, SAXException, IOException {
         System.out.println("Starting JSON mapping for '1-simpleResult {boolean result, key failure}'." );
@@ -81,4 +95,150 @@ public class MapJsonToPluginTest {
 
         System.out.println("Mapping JSON completed for '2-defaultSchema {all construct types}'." );
     }
+
+    @Test
+    public void json_multipleFiles() throws ValidationException, IOException {
+        System.out.println("Starting JSON mapping for '3-multipleFiles {unreadable file, invalid file}'." );
+
+        // Load schema
+        ClassLoader classLoader = MapJsonToPlugin.class.getClassLoader();
+        File jsonSFile = new File(classLoader.getResource("schemas/default.json").getFile());
+        JsonParser parser = new JsonParser();
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(jsonSFile), StandardCharsets.UTF_8);
+        JsonElement jsonSchema = parser.parse(reader);
+
+        // Files listed out of name order, with a file that is not JSON and a file failing validation
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File results = new File(folder.newFolder("workspace"), "results");
+        assertTrue(results.mkdir());
+        File defaultFile = new File(results, "d_default.json");
+        File brokenFile = new File(results, "b_broken.json");
+        File invalidFile = new File(results, "c_invalid.json");
+        File secondFile = new File(results, "a_default.json");
+        File jsonCFile = new File(testClassLoader.getResource("json/default.json").getFile());
+        Files.copy(jsonCFile.toPath(), defaultFile.toPath());
+        Files.copy(jsonCFile.toPath(), secondFile.toPath());
+        Files.write(brokenFile.toPath(), "{\"groups\": [".getBytes(StandardCharsets.UTF_8));
+        String invalid = new String(Files.readAllBytes(jsonCFile.toPath()), StandardCharsets.UTF_8).replace("\"minimum\": 10", "\"minimum\": \"ten\"");
+        assertTrue(invalid.contains("\"ten\""));
+        Files.write(invalidFile.toPath(), invalid.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, FilePath> content = new LinkedHashMap<String, FilePath>();
+        content.put("d_default", new FilePath(defaultFile));
+        content.put("b_broken", new FilePath(brokenFile));
+        content.put("c_invalid", new FilePath(invalidFile));
+        content.put("a_default", new FilePath(secondFile));
+
+        // Launch mapper
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        MapJsonToPlugin mapper = new MapJsonToPlugin(0, content, jsonSchema, false, new StreamTaskListener(log));
+
+        // Console lines follow the listing order
+        String[] lines = log.toString("UTF-8").trim().split("\\r?\\n");
+        assertTrue(lines.length == 5);
+        assertTrue(lines[0].equals(Messages.MapJsonToPlugin_ListOfFilesDetected()));
+        assertTrue(lines[1].equals("   - results/d_default.json"));
+        assertTrue(lines[2].equals("   - " + Messages.MapJsonToPlugin_PrintFailedToIdentifyFile("results/b_broken.json")));
+        assertTrue(lines[3].equals("   - " + Messages.MapJsonToPlugin_PrintFailedToLoadFile("results/c_invalid.json")));
+        assertTrue(lines[4].equals("   - results/a_default.json"));
+
+        // File groups are attached in listing order, without the file that could not be read
+        List<TestGroup> files = mapper.getRootGroup().getTestGroups();
+        assertTrue(files.size() == 3);
+        assertTrue(mapper.getNumberOfFiles() == 3);
+        assertTrue(files.get(0).getName().equals("d_default"));
+        assertTrue(files.get(1).getName().equals("c_invalid"));
+        assertTrue(files.get(2).getName().equals("a_default"));
+        for (TestGroup file : files) {
+            assertTrue(mapper.getFiles().get(file.getGroupHash()) == file);
+            assertTrue(mapper.getGroups().get(file.getGroupHash()) == file);
+        }
+
+        // Valid files hold the same results, the invalid file is kept up to the failure
+        assertTrue(countResults(mapper, "results/d_default.json.") == 4);
+        assertTrue(countResults(mapper, "results/a_default.json.") == 4);
+        assertTrue(countResults(mapper, "results/c_invalid.json.") < 4);
+        assertTrue(mapper.getNumberOfResults() == 8 + countResults(mapper, "results/c_invalid.json."));
+
+        System.out.println("Mapping JSON completed for '3-multipleFiles {unreadable file, invalid file}'." );
+    }
+
+    @Test
+    public void json_streamedAndLoaded() throws ValidationException, IOException {
+        System.out.println("Starting JSON mapping for '4-streamedAndLoaded {group attributes after their content}'." );
+
+        // Default schema and content
+        ClassLoader classLoader = MapJsonToPlugin.class.getClassLoader();
+        File jsonSFile = new File(classLoader.getResource("schemas/default.json").getFile());
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(jsonSFile), StandardCharsets.UTF_8);
+        MapJsonPlan plan = MapJsonPlan.compile(new JsonParser().parse(reader));
+        reader.close();
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File jsonCFile = new File(testClassLoader.getResource("json/default.json").getFile());
+        assertSameMapping(new FilePath(jsonCFile), plan);
+
+        // Results read ahead of the name and description of their group
+        String schema = "{\"type\": \"object\", \"properties\": {\"suites\": {\"type\": \"array\", \"items\": {"
+                + "\"type\": \"object\", \"properties\": {"
+                + "\"name\": {\"type\": \"name\"}, \"description\": {\"type\": \"description\"},"
+                + "\"total\": {\"type\": \"result\", \"properties\": {\"name\": {\"type\": \"name\"}, \"value\": {\"type\": \"value\"}}},"
+                + "\"cases\": {\"type\": \"array\", \"items\": {\"type\": \"result\", \"properties\": {\"name\": {\"type\": \"name\"}, \"value\": {\"type\": \"value\"}}}}"
+                + "}}}}}";
+        plan = MapJsonPlan.compile(new JsonParser().parse(schema));
+        File lateFile = folder.newFile("late.json");
+        Files.write(lateFile.toPath(), ("{\"suites\": ["
+                + "{\"total\": {\"name\": \"total\", \"value\": 3.5}, \"name\": \"suite 1\", \"cases\": [{\"name\": \"case 1\", \"value\": 1.5}]},"
+                + "{\"total\": {\"name\": \"total\", \"value\": 2.0}, \"description\": \"second\", \"name\": \"suite 2\"}"
+                + "]}").getBytes(StandardCharsets.UTF_8));
+        Map<Integer, String> results = assertSameMapping(new FilePath(lateFile), plan);
+        assertTrue(results.size() == 3);
+        assertTrue(results.containsValue("suites.suite_1.total"));
+        assertTrue(results.containsValue("suites.suite_2.total"));
+
+        // Names and descriptions following nested objects and arrays, mapped the same way on both paths
+        File nestedFile = folder.newFile("nested.json");
+        Files.write(nestedFile.toPath(), ("{\"suites\": ["
+                + "{\"cases\": [{\"name\": \"case 1\", \"value\": 1.5}, {\"name\": \"case 2\", \"value\": 2.5}], \"name\": \"suite 1\"},"
+                + "{\"total\": {\"name\": \"total\", \"value\": 4.0}, \"cases\": [{\"name\": \"case 1\", \"value\": 0.5}], \"description\": \"last\", \"name\": \"suite 2\"}"
+                + "]}").getBytes(StandardCharsets.UTF_8));
+        results = assertSameMapping(new FilePath(nestedFile), plan);
+        assertTrue(results.size() == 4);
+        assertTrue(results.containsValue("suites.suite_1.cases.case_1"));
+        assertTrue(results.containsValue("suites.suite_1.cases.case_2"));
+        assertTrue(results.containsValue("suites.suite_2.total"));
+        assertTrue(results.containsValue("suites.suite_2.cases.case_1"));
+
+        System.out.println("Mapping JSON completed for '4-streamedAndLoaded {group attributes after their content}'." );
+    }
+
+    /**
+     * Map a file loaded as a whole and streamed, the results must carry the same hashes and names
+     * @return Full names of the results by hash
+     */
+    private Map<Integer, String> assertSameMapping(FilePath file, MapJsonPlan plan) throws ValidationException, IOException {
+        MapJsonToPlugin loaded = new MapJsonToPlugin(0, file, plan, false, false);
+        MapJsonToPlugin streamed = new MapJsonToPlugin(0, file, plan, false, true);
+        assertTrue(loaded.getNumberOfResults() > 0);
+        assertTrue(streamed.getResults().keySet().equals(loaded.getResults().keySet()));
+        assertTrue(streamed.getParameters().keySet().equals(loaded.getParameters().keySet()));
+        assertTrue(streamed.getGroups().keySet().equals(loaded.getGroups().keySet()));
+        Map<Integer, String> names = new HashMap<Integer, String>();
+        for (Map.Entry<Integer, TestValue> result : loaded.getResults().entrySet()) {
+            TestValue other = streamed.getResults().get(result.getKey());
+            assertTrue(other.getFullName().equals(result.getValue().getFullName()));
+            assertTrue(other.getDescription() == null ? result.getValue().getDescription() == null : other.getDescription().equals(result.getValue().getDescription()));
+            names.put(result.getKey(), result.getValue().getFullName());
+        }
+        return names;
+    }
+
+    private int countResults(MapJsonToPlugin mapper, String prefix) {
+        int count = 0;
+        for (TestValue result : mapper.getResults().values()) {
+            if (result.getFullName().startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
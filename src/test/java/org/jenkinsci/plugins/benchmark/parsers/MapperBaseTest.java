@@ -0,0 +1,473 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.parsers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.parsers.JsonToPlugin.MapJsonToPlugin;
+import org.jenkinsci.plugins.benchmark.results.DoubleValue;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+import org.jenkinsci.plugins.benchmark.results.TestValue;
+import org.jenkinsci.plugins.benchmark.thresholds.AbsoluteThreshold;
+import org.jenkinsci.plugins.benchmark.thresholds.DeltaThreshold;
+import org.jenkinsci.plugins.benchmark.thresholds.PercentageAverageThreshold;
+import org.jenkinsci.plugins.benchmark.thresholds.Threshold;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the export and streamed import of the stored result files
+ *
+ * @author Daniel Mercier
+ * @since 11/16/2017.
+ */
+public class MapperBaseTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void MapperBase_exportAndImport() throws InterruptedException, ValidationException, IOException {
+        System.out.println("Starting export and import of stored results.");
+
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/jUnitJenkinsResult.xml").getFile());
+        JUnitJenkins source = new JUnitJenkins(0, false);
+        source.importFromFile(0, xmlCFile);
+
+        File rawFile = folder.newFile("BenchmarkResult.json");
+        File condensedFile = folder.newFile("BenchmarkCondensed.json");
+        assertTrue(source.exportToFile(rawFile.getAbsolutePath(), "job", 1));
+        assertTrue(source.exportCondensedToFile(condensedFile.getAbsolutePath(), "job", 1));
+
+        MapperBase mapper = new MapperBase(1, false);
+        assertTrue(mapper.importCondensedFromFile(condensedFile.getAbsolutePath()));
+        mapper.importFromFile(rawFile.getAbsolutePath());
+
+        assertTrue(mapper.getNumberOfResults() == source.getNumberOfResults());
+        assertTrue(mapper.getNumberOfParameters() == source.getNumberOfParameters());
+        for (Map.Entry<Integer, TestValue> result : source.getResults().entrySet()) {
+            TestValue imported = mapper.getResults().get(result.getKey());
+            assertTrue(imported != null);
+            assertTrue(imported.getValueAsString(1).equals(result.getValue().getValueAsString(0)));
+        }
+
+        // Compressed files are detected on import
+        File compressedFile = folder.newFile("BenchmarkCondensed.json.gz");
+        assertTrue(source.exportCondensedToFile(compressedFile.getAbsolutePath(), "job", 1, true));
+        MapperBase compressed = new MapperBase(1, false);
+        assertTrue(compressed.importCondensedFromFile(compressedFile.getAbsolutePath()));
+        assertTrue(compressed.getNumberOfResults() == source.getNumberOfResults());
+
+        System.out.println("Completed export and import of stored results.");
+    }
+
+    @Test
+    public void MapperBase_importUnorderedKeys() throws IOException {
+        System.out.println("Starting import of a result file with the build number last.");
+
+        File rawFile = folder.newFile("BenchmarkResult.json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(rawFile), StandardCharsets.UTF_8);
+        writer.write("{\"Results\":[{\"hash\":1,\"name\":\"duration\",\"type\":\"double\",\"value\":2.5,\"failedState\":true,\"parameters\":[2],"
+                + "\"messages\":[{\"title\":\"t\",\"message\":\"m\"}]}],"
+                + "\"parameters\":[{\"hash\":2,\"name\":\"size\",\"type\":\"integer\",\"value\":4}],"
+                + "\"unused\":{\"a\":[1,2]},\"build\":3}");
+        writer.close();
+
+        MapperBase mapper = new MapperBase(3, false);
+        mapper.importFromFile(rawFile.getAbsolutePath());
+
+        TestValue result = mapper.getResults().get(1);
+        assertTrue(mapper.getBuilds().contains(3));
+        assertTrue(result.getValueAsString(3).equals("2.5"));
+        assertTrue(result.getFailedState(3));
+        assertTrue(result.getMessages(3).get("t").equals("m"));
+        assertTrue(result.getParameters(3).get(0) == mapper.getParameters().get(2));
+        assertTrue(mapper.getParameters().get(2).getValueAsString(3).equals("4"));
+
+        System.out.println("Completed import of a result file with the build number last.");
+    }
+
+    @Test
+    public void MapperBase_mergeHistory() throws InterruptedException, ValidationException, IOException {
+        System.out.println("Starting merge of partial histories.");
+
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/jUnitJenkinsResult.xml").getFile());
+
+        // Reference loaded sequentially
+        JUnitJenkins reference = new JUnitJenkins(3, false);
+        reference.importFromFile(1, xmlCFile);
+        reference.importFromFile(2, xmlCFile);
+
+        // Same builds loaded into separate partials
+        JUnitJenkins mapper = new JUnitJenkins(3, false);
+        JUnitJenkins first = new JUnitJenkins(3, false);
+        JUnitJenkins second = new JUnitJenkins(3, false);
+        first.importFromFile(1, xmlCFile);
+        second.importFromFile(2, xmlCFile);
+        mapper.mergeHistoryWith(first);
+        mapper.mergeHistoryWith(second);
+
+        assertTrue(mapper.getBuilds().equals(reference.getBuilds()));
+        assertTrue(mapper.getNumberOfResults() == reference.getNumberOfResults());
+        assertTrue(mapper.getNumberOfParameters() == reference.getNumberOfParameters());
+        assertTrue(mapper.getNumberOfFiles() == reference.getNumberOfFiles());
+        for (Map.Entry<Integer, TestValue> result : reference.getResults().entrySet()) {
+            TestValue merged = mapper.getResults().get(result.getKey());
+            assertTrue(merged != null);
+            for (int build = 1; build <= 2; build++) {
+                assertTrue(merged.getValueAsString(build).equals(result.getValue().getValueAsString(build)));
+                for (TestValue parameter : merged.getParameters(build)) {
+                    assertTrue(mapper.getParameters().containsValue(parameter));
+                }
+            }
+        }
+
+        System.out.println("Completed merge of partial histories.");
+    }
+
+    @Test
+    public void MapperBase_thresholdTargets() throws ValidationException {
+        System.out.println("Starting attachment of thresholds to their targets.");
+
+        MapperBase mapper = new MapperBase(1, false);
+        TestGroup file = new TestGroup(mapper.getRootGroup(), "results.json", TestGroup.ClassType.ct_fileGrp);
+        TestGroup cpu = addGroup(mapper, file, "cpu");
+        TestGroup cpu2 = addGroup(mapper, file, "cpu2");
+        TestValue user = addResult(mapper, cpu, "user");
+        TestValue system = addResult(mapper, cpu, "system");
+        TestValue idle = addResult(mapper, cpu, "idle");
+        TestValue user2 = addResult(mapper, cpu2, "user");
+
+        // Targets are exact names unless pattern matching is enabled
+        List<Threshold> thresholds = new ArrayList<Threshold>();
+        thresholds.add(new AbsoluteThreshold("cpu*", "user", 0.0, 100.0));
+        thresholds.add(new AbsoluteThreshold("", "id?e", 0.0, 100.0));
+        thresholds.add(new AbsoluteThreshold("cpu", "/us(/", 0.0, 100.0));
+        mapper.addAllThresholds(thresholds);
+        assertTrue(user.getNumberOfThresholds() == 0);
+        assertTrue(user2.getNumberOfThresholds() == 0);
+        assertTrue(idle.getNumberOfThresholds() == 0);
+        thresholds.clear();
+        thresholds.add(new AbsoluteThreshold("cpu", "user", 0.0, 100.0));
+        mapper.addAllThresholds(thresholds);
+        assertTrue(user.getNumberOfThresholds() == 1);
+        assertTrue(user2.getNumberOfThresholds() == 0);
+
+        // Group target combined with a regular expression on the name
+        thresholds.clear();
+        thresholds.add(getPattern(new AbsoluteThreshold("cpu", "/user|system/", 0.0, 100.0)));
+        mapper.addAllThresholds(thresholds);
+        assertTrue(user.getNumberOfThresholds() == 2);
+        assertTrue(system.getNumberOfThresholds() == 1);
+        assertTrue(idle.getNumberOfThresholds() == 0);
+        assertTrue(user2.getNumberOfThresholds() == 0);
+
+        // Glob on the group, exact name
+        thresholds.clear();
+        thresholds.add(getPattern(new AbsoluteThreshold("cpu*", "user", 0.0, 100.0)));
+        mapper.addAllThresholds(thresholds);
+        assertTrue(user.getNumberOfThresholds() == 3);
+        assertTrue(user2.getNumberOfThresholds() == 1);
+        assertTrue(idle.getNumberOfThresholds() == 0);
+
+        // Name target alone
+        thresholds.clear();
+        thresholds.add(getPattern(new AbsoluteThreshold("", "id?e", 0.0, 100.0)));
+        mapper.addAllThresholds(thresholds);
+        assertTrue(idle.getNumberOfThresholds() == 1);
+
+        // Invalid regular expressions fail validation
+        for (String[] target : new String[][]{{"", "/us(/"}, {"cpu", "/us(/"}, {"/cpu[/", ""}}) {
+            thresholds.clear();
+            thresholds.add(getPattern(new AbsoluteThreshold(target[0], target[1], 0.0, 100.0)));
+            try {
+                mapper.addAllThresholds(thresholds);
+                assertTrue(false);
+            } catch (ValidationException e) {
+                assertTrue(user.getNumberOfThresholds() == 3);
+            }
+        }
+
+        // The match mode is carried with the thresholds returned from the agents
+        Threshold pattern = getPattern(new AbsoluteThreshold("cpu*", "user", 0.0, 100.0));
+        assertTrue(Threshold.fromJsonObject(pattern.getJsonObject()).isPatternMatch());
+        assertTrue(!Threshold.fromJsonObject(new AbsoluteThreshold("cpu*", "user", 0.0, 100.0).getJsonObject()).isPatternMatch());
+
+        System.out.println("Completed attachment of thresholds to their targets.");
+    }
+
+    @Test
+    public void MapperBase_mappingTransfer() throws ValidationException, IOException {
+        System.out.println("Starting transfer of a mapping executed on the agent.");
+
+        // Map on the node hosting the workspace
+        ClassLoader classLoader = MapJsonToPlugin.class.getClassLoader();
+        File jsonSFile = new File(classLoader.getResource("schemas/default.json").getFile());
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(jsonSFile), StandardCharsets.UTF_8);
+        JsonElement jsonSchema = new JsonParser().parse(reader);
+        reader.close();
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File jsonCFile = new File(testClassLoader.getResource("json/default.json").getFile());
+        MapJsonToPlugin source = new MapJsonToPlugin(0, jsonCFile, jsonSchema, false);
+
+        List<Threshold> thresholds = new ArrayList<Threshold>();
+        thresholds.add(new DeltaThreshold("", "", 5.0));
+        thresholds.add(new PercentageAverageThreshold("", "/.*/", 10.0));
+        source.addAllThresholds(thresholds);
+
+        File transferFile = folder.newFile("BenchmarkMapping.json");
+        assertTrue(source.exportMappingToFile(transferFile.getAbsolutePath(), "job", true));
+
+        // Import on the master
+        MapperBase mapper = new MapperBase(7, false);
+        mapper.importMappingFromFile(transferFile, 7);
+        assertTrue(mapper.getBuild() == 7);
+        assertTrue(mapper.getBuilds().isEmpty());
+        assertTrue(mapper.getNumberOfResults() == source.getNumberOfResults());
+        assertTrue(mapper.getNumberOfParameters() == source.getNumberOfParameters());
+        assertTrue(mapper.getNumberOfFiles() == source.getNumberOfFiles());
+        assertTrue(mapper.requiresHistory() == source.requiresHistory());
+        for (Map.Entry<Integer, TestValue> entry : source.getResults().entrySet()) {
+            TestValue expected = entry.getValue();
+            TestValue result = mapper.getResults().get(entry.getKey());
+            assertTrue(result != null);
+            assertTrue(result.getType() == expected.getType());
+            assertTrue(result.getName().equals(expected.getName()));
+            assertTrue(result.getGroup().equals(expected.getGroup()));
+            assertTrue(result.getAllConnectedThresholds().size() == expected.getAllConnectedThresholds().size());
+        }
+
+        // Same threshold outcome and same stored content
+        assertTrue(mapper.checkThresholds(null) == source.checkThresholds(null));
+        File expectedRaw = folder.newFile("expectedResult.json");
+        File transferredRaw = folder.newFile("BenchmarkResult.json");
+        assertTrue(source.exportToFile(expectedRaw.getAbsolutePath(), "job", 7));
+        assertTrue(mapper.exportToFile(transferredRaw.getAbsolutePath(), "job", 7));
+        assertTrue(readJson(expectedRaw).equals(readJson(transferredRaw)));
+
+        File expectedCondensed = folder.newFile("expectedCondensed.json");
+        File transferredCondensed = folder.newFile("BenchmarkCondensed.json");
+        assertTrue(source.exportCondensedToFile(expectedCondensed.getAbsolutePath(), "job", 7));
+        assertTrue(mapper.exportCondensedToFile(transferredCondensed.getAbsolutePath(), "job", 7));
+        assertTrue(readJson(expectedCondensed).equals(readJson(transferredCondensed)));
+
+        System.out.println("Completed transfer of a mapping executed on the agent.");
+    }
+
+    @Test
+    public void MapperBase_tablePage() throws IOException {
+        System.out.println("Starting pages of the raw table.");
+
+        MapperBase mapper = getTableMapper();
+
+        // Whole table, all the builds from the last one
+        JsonObject page = mapper.getTablePage(1, 0, -1, "", 0, true, null, null);
+        assertTrue(page.get("draw").getAsInt() == 1);
+        assertTrue(page.get("recordsTotal").getAsInt() == 4);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 4);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("alpha", "beta", "check", "gamma")));
+        JsonArray row = page.getAsJsonArray("data").get(0).getAsJsonArray();
+        assertTrue(row.size() == 5);
+        assertTrue(row.get(1).getAsString().equals("11"));
+        assertTrue(row.get(2).getAsString().equals("0.5"));
+        assertTrue(row.get(4).getAsString().equals("1.5"));
+
+        // Paging
+        page = mapper.getTablePage(2, 1, 2, "", 0, true, null, null);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 4);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("beta", "check")));
+        page = mapper.getTablePage(3, 3, 10, "", 0, true, null, null);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("gamma")));
+
+        // Search on the heading and key cells
+        page = mapper.getTablePage(4, 0, -1, "A", 0, true, null, null);
+        assertTrue(page.get("recordsTotal").getAsInt() == 4);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 3);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("alpha", "beta", "gamma")));
+        page = mapper.getTablePage(5, 0, -1, "13", 0, true, null, null);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("gamma")));
+
+        // Sort on a build column by value, empty cells first
+        page = mapper.getTablePage(6, 0, -1, "", 2, true, null, null);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("check", "alpha", "gamma", "beta")));
+        page = mapper.getTablePage(7, 0, -1, "", 2, false, null, null);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("beta", "gamma", "alpha", "check")));
+        page = mapper.getTablePage(8, 0, -1, "", 1, false, null, null);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("check", "gamma", "beta", "alpha")));
+
+        // Build window, the sorted column follows the window
+        page = mapper.getTablePage(9, 0, -1, "", 2, true, 2, 2);
+        assertTrue(page.getAsJsonArray("data").get(0).getAsJsonArray().size() == 3);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("check", "alpha", "beta", "gamma")));
+        assertTrue(getColumn(page, 2).equals(Arrays.asList("", "2.5", "4.0", "9.25")));
+        page = mapper.getTablePage(10, 0, -1, "", 0, true, 0, 9);
+        assertTrue(page.getAsJsonArray("data").get(0).getAsJsonArray().size() == 5);
+
+        // Empty histories serve an empty page
+        MapperBase empty = new MapperBase(1, false);
+        page = empty.getTablePage(11, 0, -1, "", 2, true, null, null);
+        assertTrue(page.get("draw").getAsInt() == 11);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 0);
+        assertTrue(page.getAsJsonArray("data").size() == 0);
+        empty.getResults().put(1, new DoubleValue(empty.getRootGroup(), null, "alpha"));
+        page = empty.getTablePage(12, 0, -1, "", 2, true, null, null);
+        assertTrue(page.get("recordsTotal").getAsInt() == 1);
+        assertTrue(page.getAsJsonArray("data").size() == 0);
+        assertTrue(empty.getHTMLTableHeader(null, null).isEmpty());
+
+        System.out.println("Completed pages of the raw table.");
+    }
+
+    @Test
+    public void MapperBase_tableHeader() throws IOException {
+        System.out.println("Starting header of the raw table.");
+
+        // Counts kept with the history match the ones of the whole table
+        MapperBase mapper = getTableMapper();
+        String header = mapper.getHTMLTableHeader(null, null);
+        assertTrue(mapper.getHTMLTable().startsWith(header));
+        assertTrue(mapper.getHTMLTableHeader(null, null).equals(header));
+
+        // A window of builds reuses the same counts
+        MapperBase windowed = getTableMapper();
+        String window = windowed.getHTMLTableHeader(2, 2);
+        assertTrue(!window.equals(header));
+        windowed.getHTMLTableHeader(null, null);
+        assertTrue(windowed.getHTMLTableHeader(2, 2).equals(window));
+        assertTrue(mapper.getHTMLTableHeader(2, 2).equals(window));
+
+        System.out.println("Completed header of the raw table.");
+    }
+
+    @Test
+    public void MapperBase_condensedTablePage() throws IOException, ValidationException {
+        System.out.println("Starting pages of the condensed table.");
+
+        File condensedFile = folder.newFile("BenchmarkCondensed.json");
+        assertTrue(getTableMapper().exportCondensedToFile(condensedFile.getAbsolutePath(), "job", 3));
+        MapperBase mapper = new MapperBase(3, false);
+        assertTrue(mapper.importCondensedFromFile(condensedFile.getAbsolutePath()));
+
+        // Whole table, results without statistics keep the same columns
+        JsonObject page = mapper.getCondensedTablePage(1, 0, -1, "", 0, true);
+        assertTrue(page.get("recordsTotal").getAsInt() == 4);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 4);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("alpha", "beta", "check", "gamma")));
+        for (JsonElement row : page.getAsJsonArray("data")) {
+            assertTrue(row.getAsJsonArray().size() == 8);
+        }
+        assertTrue(getColumn(page, 2).equals(Arrays.asList("0.5", "4.0", "", "7.0")));
+        assertTrue(getColumn(page, 3).equals(Arrays.asList("2.5", "30.0", "", "9.25")));
+        assertTrue(getColumn(page, 6).equals(Arrays.asList("0", "0", "0", "0")));
+
+        // Paging and search
+        page = mapper.getCondensedTablePage(2, 2, 1, "", 0, true);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("check")));
+        page = mapper.getCondensedTablePage(3, 0, -1, "et", 0, true);
+        assertTrue(page.get("recordsFiltered").getAsInt() == 1);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("beta")));
+
+        // Sort on a statistic column
+        page = mapper.getCondensedTablePage(4, 0, -1, "", 4, true);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("check", "alpha", "gamma", "beta")));
+        page = mapper.getCondensedTablePage(5, 1, 2, "", 3, false);
+        assertTrue(getColumn(page, 0).equals(Arrays.asList("gamma", "alpha")));
+        assertTrue(getColumn(page, 3).equals(Arrays.asList("9.25", "2.5")));
+
+        System.out.println("Completed pages of the condensed table.");
+    }
+
+    /**
+     * Mapper holding three builds of three numeral results and a boolean one
+     */
+    private MapperBase getTableMapper() throws IOException {
+        String[][] values = {{"1.5", "12", "7"}, {"2.5", "4", "9.25"}, {"0.5", "30", "8"}};
+        MapperBase mapper = new MapperBase(3, false);
+        for (int build = 1; build <= 3; build++) {
+            File rawFile = folder.newFile("BenchmarkResult" + build + ".json");
+            Writer writer = new OutputStreamWriter(new FileOutputStream(rawFile), StandardCharsets.UTF_8);
+            writer.write("{\"build\":" + build + ",\"Results\":["
+                    + "{\"hash\":11,\"name\":\"alpha\",\"type\":\"double\",\"value\":" + values[build - 1][0] + "},"
+                    + "{\"hash\":12,\"name\":\"beta\",\"type\":\"double\",\"value\":" + values[build - 1][1] + "},"
+                    + "{\"hash\":13,\"name\":\"gamma\",\"type\":\"double\",\"value\":" + values[build - 1][2] + "},"
+                    + "{\"hash\":14,\"name\":\"check\",\"type\":\"boolean\",\"value\":true}]}");
+            writer.close();
+            mapper.importFromFile(rawFile.getAbsolutePath());
+        }
+        return mapper;
+    }
+
+    private List<String> getColumn(JsonObject page, int column) {
+        List<String> cells = new ArrayList<String>();
+        for (JsonElement row : page.getAsJsonArray("data")) {
+            cells.add(row.getAsJsonArray().get(column).getAsString());
+        }
+        return cells;
+    }
+
+    private JsonElement readJson(File file) throws IOException {
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+        try {
+            return new JsonParser().parse(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Threshold getPattern(Threshold threshold) {
+        threshold.setPatternMatch(true);
+        return threshold;
+    }
+
+    private TestGroup addGroup(MapperBase mapper, TestGroup parent, String name) {
+        TestGroup group = new TestGroup(parent, name);
+        parent.addGroup(group);
+        mapper.getGroups().put(group.getGroupHash(), group);
+        return group;
+    }
+
+    private TestValue addResult(MapperBase mapper, TestGroup parent, String name) {
+        TestValue result = new DoubleValue(parent, null, name);
+        parent.addGroup(result);
+        mapper.getGroups().put(result.getGroupHash(), result);
+        mapper.getResults().put(result.getGroupHash(), result);
+        return result;
+    }
+}
@@ -22,13 +22,25 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import hudson.FilePath;
+import hudson.util.StreamTaskListener;
 import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.results.TestGroup;
+import org.jenkinsci.plugins.benchmark.results.TestValue;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertTrue;
 
@@ -39,6 +51,10 @@ import static org.junit.Assert.assertTrue;
  * @since 6/20/2017.
  */
 public class MapXmlToPluginTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void xml_simplestResult() throws ValidationException, ParserConfigurationException, SAXException, IOException {
         System.out.println("Starting XML mapping for '1-simpleResult {boolean result, key failure}'.");
@@ -88,4 +104,197 @@ public class MapXmlToPluginTest {
 
         System.out.println("Mapping XML completed for '2-defaultSchema {all construct types}'.");
     }
+
+    @Test
+    public void xml_multipleFiles() throws ValidationException, ParserConfigurationException, SAXException, IOException {
+        System.out.println("Starting XML mapping for '3-multipleFiles {unreadable file, invalid file}'.");
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        // Load schema
+        ClassLoader classLoader = MapXmlToPlugin.class.getClassLoader();
+        File xmlSFile = new File(classLoader.getResource("schemas/default.xml").getFile());
+        Document xmlSchema = builder.parse(xmlSFile);
+        xmlSchema.getDocumentElement().normalize();
+
+        // Files listed out of name order, with a file that is not XML and a file failing validation
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/default.xml").getFile());
+        File results = new File(folder.newFolder("workspace"), "results");
+        assertTrue(results.mkdir());
+        File defaultFile = new File(results, "d_default.xml");
+        File brokenFile = new File(results, "b_broken.xml");
+        File invalidFile = new File(results, "c_invalid.xml");
+        File secondFile = new File(results, "a_default.xml");
+        Files.copy(xmlCFile.toPath(), defaultFile.toPath());
+        Files.copy(xmlCFile.toPath(), secondFile.toPath());
+        Files.write(brokenFile.toPath(), "<group><result>".getBytes(StandardCharsets.UTF_8));
+        String invalid = new String(Files.readAllBytes(xmlCFile.toPath()), StandardCharsets.UTF_8).replace("<minimum>10</minimum>", "<minimum>ten</minimum>");
+        assertTrue(invalid.contains("<minimum>ten</minimum>"));
+        Files.write(invalidFile.toPath(), invalid.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, FilePath> content = new LinkedHashMap<String, FilePath>();
+        content.put("d_default", new FilePath(defaultFile));
+        content.put("b_broken", new FilePath(brokenFile));
+        content.put("c_invalid", new FilePath(invalidFile));
+        content.put("a_default", new FilePath(secondFile));
+
+        // Launch mapper
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        MapXmlToPlugin mapper = new MapXmlToPlugin(0, content, xmlSchema, false, new StreamTaskListener(log));
+
+        // Console lines follow the listing order
+        String[] lines = log.toString("UTF-8").trim().split("\\r?\\n");
+        assertTrue(lines.length == 5);
+        assertTrue(lines[0].equals(Messages.MapXmlToPlugin_ListOfFilesDetected()));
+        assertTrue(lines[1].equals("   - results/d_default.xml"));
+        assertTrue(lines[2].equals("   - " + Messages.MapXmlToPlugin_PrintFailedToIdentifyFile("results/b_broken.xml")));
+        assertTrue(lines[3].equals("   - " + Messages.MapXmlToPlugin_PrintFailedToLoadFile("results/c_invalid.xml")));
+        assertTrue(lines[4].equals("   - results/a_default.xml"));
+
+        // File groups are attached in listing order, without the file that could not be read
+        List<TestGroup> files = mapper.getRootGroup().getTestGroups();
+        assertTrue(files.size() == 3);
+        assertTrue(mapper.getNumberOfFiles() == 3);
+        assertTrue(files.get(0).getName().equals("d_default"));
+        assertTrue(files.get(1).getName().equals("c_invalid"));
+        assertTrue(files.get(2).getName().equals("a_default"));
+        for (TestGroup file : files) {
+            assertTrue(mapper.getFiles().get(file.getGroupHash()) == file);
+            assertTrue(mapper.getGroups().get(file.getGroupHash()) == file);
+        }
+
+        // Valid files hold the same results, the invalid file is kept up to the failure
+        assertTrue(countResults(mapper, "results/d_default.xml.") == 2);
+        assertTrue(countResults(mapper, "results/a_default.xml.") == 2);
+        assertTrue(countResults(mapper, "results/c_invalid.xml.") < 2);
+        assertTrue(mapper.getNumberOfResults() == 4 + countResults(mapper, "results/c_invalid.xml."));
+
+        System.out.println("Mapping XML completed for '3-multipleFiles {unreadable file, invalid file}'.");
+    }
+
+    @Test
+    public void xml_streamedAndLoaded() throws ValidationException, ParserConfigurationException, SAXException, IOException {
+        System.out.println("Starting XML mapping for '4-streamedAndLoaded {content out of schema order}'.");
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        // Default schema and content, parameters ahead of the tests
+        ClassLoader classLoader = MapXmlToPlugin.class.getClassLoader();
+        File xmlSFile = new File(classLoader.getResource("schemas/default.xml").getFile());
+        Document xmlSchema = builder.parse(xmlSFile);
+        xmlSchema.getDocumentElement().normalize();
+        MapXmlPlan plan = MapXmlPlan.compile(xmlSchema);
+        ClassLoader testClassLoader = getClass().getClassLoader();
+        File xmlCFile = new File(testClassLoader.getResource("xml/default.xml").getFile());
+        assertSameMapping(new FilePath(xmlCFile), plan);
+
+        // Tests and parameters interleaved
+        File mixedFile = folder.newFile("mixed.xml");
+        Files.write(mixedFile.toPath(), ("<group name=\"group 1\">"
+                + "<description>This is group #1</description>"
+                + "<parameter name=\"parameter 1\"><value>1</value></parameter>"
+                + "<test name=\"test 1\"><result name=\"result 1\"><dblValue>1.5</dblValue></result></test>"
+                + "<parameter name=\"parameter 2\"><value>2</value></parameter>"
+                + "<test name=\"test 2\"><result name=\"result 2\"><dblValue>2.5</dblValue></result></test>"
+                + "</group>").getBytes(StandardCharsets.UTF_8));
+        MapXmlToPlugin mapper = assertSameMapping(new FilePath(mixedFile), plan);
+        assertTrue(mapper.getNumberOfResults() == 2);
+        TestGroup group = mapper.getRootGroup().getTestGroups().get(0);
+        assertTrue(group.getDescription().equals("This is group #1"));
+        assertTrue(group.getTestGroups().get(0).getName().equals("test_1"));
+        assertTrue(group.getTestGroups().get(1).getName().equals("test_2"));
+        assertTrue(group.getTestGroups().get(2).getName().equals("parameter_1"));
+        assertTrue(group.getTestGroups().get(3).getName().equals("parameter_2"));
+
+        // A description following the content of its group fails the validation when streamed
+        File lateFile = folder.newFile("late.xml");
+        Files.write(lateFile.toPath(), ("<group name=\"group 1\">"
+                + "<parameter name=\"parameter 1\"><value>1</value></parameter>"
+                + "<test name=\"test 1\"><result name=\"result 1\"><dblValue>1.5</dblValue></result></test>"
+                + "<description>This is group #1</description>"
+                + "</group>").getBytes(StandardCharsets.UTF_8));
+        assertTrue(new MapXmlToPlugin(0, new FilePath(lateFile), plan, false, false).getNumberOfResults() == 1);
+        try {
+            new MapXmlToPlugin(0, new FilePath(lateFile), plan, false, true);
+            assertTrue(false);
+        } catch (ValidationException e) {
+            assertTrue(e.getMessage().equals(Messages.MapXmlToPlugin_LateGroupAttribute("description", "group")));
+        }
+
+        System.out.println("Mapping XML completed for '4-streamedAndLoaded {content out of schema order}'.");
+    }
+
+    @Test
+    public void xml_streamedFlatGroup() throws ValidationException, ParserConfigurationException, SAXException, IOException {
+        System.out.println("Starting XML mapping for '5-streamedFlatGroup {many results in a single test}'.");
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        ClassLoader classLoader = MapXmlToPlugin.class.getClassLoader();
+        File xmlSFile = new File(classLoader.getResource("schemas/default.xml").getFile());
+        Document xmlSchema = factory.newDocumentBuilder().parse(xmlSFile);
+        xmlSchema.getDocumentElement().normalize();
+        MapXmlPlan plan = MapXmlPlan.compile(xmlSchema);
+
+        File flatFile = folder.newFile("flat.xml");
+        StringBuilder content = new StringBuilder();
+        content.append("<group name=\"group 1\"><description>This is group #1</description><test name=\"test 1\">");
+        content.append("<description>This is test #1</description>");
+        for (int i = 0; i < 5000; ++i) {
+            content.append("<result name=\"result ").append(i).append("\"><dblValue>").append(i).append(".5</dblValue></result>");
+        }
+        content.append("</test></group>");
+        Files.write(flatFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Only the descriptive elements of a group are held until it is created, its results are mapped one by one
+        MapXmlToPlugin mapper = assertSameMapping(new FilePath(flatFile), plan);
+        assertTrue(mapper.getNumberOfResults() == 5000);
+        assertTrue(mapper.getMaxHeldElements() == 1);
+        TestGroup test = mapper.getRootGroup().getTestGroups().get(0).getTestGroups().get(0);
+        assertTrue(test.getDescription().equals("This is test #1"));
+        assertTrue(test.getTestGroups().get(4999).getName().equals("result_4999"));
+
+        System.out.println("Mapping XML completed for '5-streamedFlatGroup {many results in a single test}'.");
+    }
+
+    /**
+     * Map a file loaded as a whole and streamed, both must give the same groups in the same order
+     * @return Mapper of the streamed file
+     */
+    private MapXmlToPlugin assertSameMapping(FilePath file, MapXmlPlan plan) throws ValidationException, IOException {
+        MapXmlToPlugin loaded = new MapXmlToPlugin(0, file, plan, false, false);
+        MapXmlToPlugin streamed = new MapXmlToPlugin(0, file, plan, false, true);
+        assertTrue(loaded.getNumberOfResults() > 0);
+        assertTrue(streamed.getResults().keySet().equals(loaded.getResults().keySet()));
+        assertTrue(streamed.getParameters().keySet().equals(loaded.getParameters().keySet()));
+        assertTrue(streamed.getGroups().keySet().equals(loaded.getGroups().keySet()));
+        assertSameGroup(loaded.getRootGroup(), streamed.getRootGroup());
+        return streamed;
+    }
+
+    private void assertSameGroup(TestGroup loaded, TestGroup streamed) {
+        assertTrue(streamed.getGroupHash().equals(loaded.getGroupHash()));
+        assertTrue(streamed.getClassType() == loaded.getClassType());
+        assertTrue(streamed.getDescription() == null ? loaded.getDescription() == null : streamed.getDescription().equals(loaded.getDescription()));
+        assertTrue(streamed.getNumberOfThresholds() == loaded.getNumberOfThresholds());
+        assertTrue(streamed.getNumberOfGroups() == loaded.getNumberOfGroups());
+        for (int i = 0; i < loaded.getNumberOfGroups(); ++i) {
+            assertSameGroup(loaded.getTestGroups().get(i), streamed.getTestGroups().get(i));
+        }
+    }
+
+    private int countResults(MapXmlToPlugin mapper, String prefix) {
+        int count = 0;
+        for (TestValue result : mapper.getResults().values()) {
+            if (result.getFullName().startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
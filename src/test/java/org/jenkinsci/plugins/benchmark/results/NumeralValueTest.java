@@ -0,0 +1,289 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.results;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jenkinsci.plugins.benchmark.exceptions.ValidationException;
+import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+import org.jenkinsci.plugins.benchmark.utilities.BuildSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the condensed aggregates of the numeral results
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class NumeralValueTest {
+
+    private static final double[]   VALUES = {4.5, 2.25, 9.0, 7.75, 3.5, 6.0};
+    private static final boolean[]  FAILED = {false, false, true, false, false, false};
+    private static final double     TOLERANCE = 1e-9;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void DoubleValue_condensedUpdate() {
+        System.out.println("Starting fold of double values into the condensed aggregates.");
+
+        MapperBase mapper = new MapperBase(VALUES.length, false);
+        TestValue condensed = null;
+        for (int i = 0; i < VALUES.length; i++) {
+            condensed = newDouble(mapper, 0, i).getCondensedUpdate(0, condensed);
+        }
+        assertAggregates(newDoubles(mapper, VALUES.length), condensed);
+
+        System.out.println("Completed fold of double values into the condensed aggregates.");
+    }
+
+    @Test
+    public void IntegerValue_condensedUpdate() {
+        System.out.println("Starting fold of integer values into the condensed aggregates.");
+
+        MapperBase mapper = new MapperBase(VALUES.length, false);
+        TestValue condensed = null;
+        for (int i = 0; i < VALUES.length; i++) {
+            condensed = newInteger(mapper, 0, i).getCondensedUpdate(0, condensed);
+        }
+        assertAggregates(newIntegers(mapper, VALUES.length), condensed);
+
+        System.out.println("Completed fold of integer values into the condensed aggregates.");
+    }
+
+    @Test
+    public void DoubleValue_legacyCondensed() throws ValidationException, IOException {
+        System.out.println("Starting fold of a double value into a condensed file without M2.");
+
+        MapperBase mapper = new MapperBase(VALUES.length, false);
+        TestValue condensed = null;
+        for (int i = 0; i < VALUES.length - 1; i++) {
+            condensed = newDouble(mapper, 0, i).getCondensedUpdate(0, condensed);
+        }
+        assertLegacyFold(condensed, newDouble(mapper, 0, VALUES.length - 1), newDoubles(mapper, VALUES.length));
+
+        System.out.println("Completed fold of a double value into a condensed file without M2.");
+    }
+
+    @Test
+    public void IntegerValue_legacyCondensed() throws ValidationException, IOException {
+        System.out.println("Starting fold of an integer value into a condensed file without M2.");
+
+        MapperBase mapper = new MapperBase(VALUES.length, false);
+        TestValue condensed = null;
+        for (int i = 0; i < VALUES.length - 1; i++) {
+            condensed = newInteger(mapper, 0, i).getCondensedUpdate(0, condensed);
+        }
+        assertLegacyFold(condensed, newInteger(mapper, 0, VALUES.length - 1), newIntegers(mapper, VALUES.length));
+
+        System.out.println("Completed fold of an integer value into a condensed file without M2.");
+    }
+
+    @Test
+    public void DoubleValue_previousAndNext() throws InvalidClassException {
+        System.out.println("Starting lookup of previous and next double values.");
+
+        MapperBase mapper = new MapperBase(10, false);
+        DoubleValue result = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        assertTrue(result.getPreviousValue(5) == null);
+        assertTrue(result.getNextValue(5) == null);
+
+        // Key 0 holds the value of the current build before it is numbered
+        result.setValue(0, 1.5);
+        result.setValue(3, 3.5);
+        result.setValue(6, 6.5);
+        assertTrue(result.getPreviousValue(2) == null);
+        assertTrue(result.getPreviousValue(0) == null);
+        assertTrue(result.getPreviousValue(3) == 3.5);
+        assertTrue(result.getPreviousValue(5) == 3.5);
+        assertTrue(result.getPreviousValue(100) == 6.5);
+        assertTrue(result.getNextValue(0) == 3.5);
+        assertTrue(result.getNextValue(3) == 6.5);
+        assertTrue(result.getNextValue(6) == null);
+
+        assertChartData(result.getDataAsJsonArray(new BuildSet(Arrays.asList(2, 8))), 8, 2, 3, 6);
+        assertChartData(result.getDataAsJsonArray(new BuildSet(Arrays.asList(7, 9))), 9, 7);
+
+        System.out.println("Completed lookup of previous and next double values.");
+    }
+
+    @Test
+    public void IntegerValue_previousAndNext() throws InvalidClassException {
+        System.out.println("Starting lookup of previous and next integer values.");
+
+        MapperBase mapper = new MapperBase(10, false);
+        IntegerValue result = new IntegerValue(mapper.getRootGroup(), null, "count");
+        assertTrue(result.getPreviousValue(5) == null);
+        assertTrue(result.getNextValue(5) == null);
+
+        // Key 0 holds the value of the current build before it is numbered
+        result.setValue(0, 1);
+        result.setValue(3, 3);
+        result.setValue(6, 6);
+        assertTrue(result.getPreviousValue(2) == null);
+        assertTrue(result.getPreviousValue(0) == null);
+        assertTrue(result.getPreviousValue(3) == 3.0);
+        assertTrue(result.getPreviousValue(5) == 3.0);
+        assertTrue(result.getPreviousValue(100) == 6.0);
+        assertTrue(result.getNextValue(0) == 3.0);
+        assertTrue(result.getNextValue(3) == 6.0);
+        assertTrue(result.getNextValue(6) == null);
+
+        assertChartData(result.getDataAsJsonArray(new BuildSet(Arrays.asList(2, 8))), 8, 2, 3, 6);
+        assertChartData(result.getDataAsJsonArray(new BuildSet(Arrays.asList(7, 9))), 9, 7);
+
+        System.out.println("Completed lookup of previous and next integer values.");
+    }
+
+    /**
+     * Store the condensed aggregates the way earlier versions did, then fold the last value into them
+     * @param condensed Condensed result of the previous builds
+     * @param current Result holding the value of the last build under key 0
+     * @param full Result holding the values of all builds
+     */
+    private void assertLegacyFold(TestValue condensed, TestValue current, TestValue full) throws ValidationException, IOException {
+        // Without M2, the fold starts from std_deviation^2 * count
+        JsonObject object = condensed.getCondensedJsonObject(VALUES.length - 1, 1);
+        object.remove("m2");
+        MapperBase legacy = importCondensed(object);
+        assertTrue(legacy.hasCondensedAggregates());
+        MapperBase mapper = new MapperBase(VALUES.length, false);
+        mapper.getResults().put(1, current);
+        mapper.mergeCondensedWith(legacy, 0);
+        assertAggregates(full, mapper.getResults().get(1));
+
+        // Without the number of averaged values, the history has to be loaded
+        object.remove("count");
+        assertTrue(!importCondensed(object).hasCondensedAggregates());
+    }
+
+    private MapperBase importCondensed(JsonObject object) throws ValidationException, IOException {
+        JsonArray results = new JsonArray();
+        results.add(object);
+        JsonObject content = new JsonObject();
+        content.addProperty("job", "job");
+        content.addProperty("build", VALUES.length - 1);
+        content.add("results", results);
+
+        File file = new File(folder.getRoot(), "BenchmarkCondensed-" + System.nanoTime() + ".json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        writer.write(content.toString());
+        writer.close();
+
+        MapperBase mapper = new MapperBase(VALUES.length - 1, false);
+        assertTrue(mapper.importCondensedFromFile(file.getAbsolutePath()));
+        assertTrue(mapper.getNumberOfResults() == 1);
+        return mapper;
+    }
+
+    /**
+     * Compare the aggregates folded one build at a time with the aggregates recomputed from all builds
+     * @param full Result holding the values of all builds
+     * @param condensed Folded condensed result
+     */
+    private void assertAggregates(TestValue full, TestValue condensed) {
+        JsonObject expected = full.getCondensedJsonObject(VALUES.length, 1);
+        JsonObject folded = condensed.getCondensedJsonObject(VALUES.length, 1);
+        assertEquals(5, expected.get("count").getAsInt());
+        for (String name : new String[]{"count", "passed", "failed"}) {
+            assertEquals(name, expected.get(name).getAsInt(), folded.get(name).getAsInt());
+        }
+        for (String name : new String[]{"average", "std_deviation", "m2", "minimum", "maximum", "previous"}) {
+            assertEquals(name, expected.get(name).getAsDouble(), folded.get(name).getAsDouble(), TOLERANCE);
+        }
+    }
+
+    /**
+     * Check the chart data of a build window, listed from the last build down to the first
+     * @param array Chart data
+     * @param last Last build of the window
+     * @param first First build of the window
+     * @param builds Builds holding a value, equal to their value
+     */
+    private void assertChartData(JsonArray array, int last, int first, int... builds) {
+        assertTrue(array.size() == last - first + 1);
+        for (int index = 0; index < array.size(); index++) {
+            JsonObject point = array.get(index).getAsJsonObject();
+            int build = last - index;
+            assertTrue(point.get("x").getAsInt() == build);
+            boolean present = false;
+            for (int withValue : builds) {
+                present |= withValue == build;
+            }
+            if (present) {
+                assertTrue(Math.floor(point.get("y").getAsDouble()) == build);
+            } else {
+                assertTrue(point.get("y").isJsonNull());
+            }
+        }
+    }
+
+    private DoubleValue newDouble(MapperBase mapper, int build, int index) {
+        DoubleValue result = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        setDouble(result, build, index);
+        return result;
+    }
+
+    private DoubleValue newDoubles(MapperBase mapper, int nBuilds) {
+        DoubleValue result = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        for (int i = 0; i < nBuilds; i++) {
+            setDouble(result, i + 1, i);
+        }
+        return result;
+    }
+
+    private void setDouble(DoubleValue result, int build, int index) {
+        result.setValue(build, VALUES[index]);
+        result.setFailedState(build, FAILED[index]);
+    }
+
+    private IntegerValue newInteger(MapperBase mapper, int build, int index) {
+        IntegerValue result = new IntegerValue(mapper.getRootGroup(), null, "count");
+        setInteger(result, build, index);
+        return result;
+    }
+
+    private IntegerValue newIntegers(MapperBase mapper, int nBuilds) {
+        IntegerValue result = new IntegerValue(mapper.getRootGroup(), null, "count");
+        for (int i = 0; i < nBuilds; i++) {
+            setInteger(result, i + 1, i);
+        }
+        return result;
+    }
+
+    private void setInteger(IntegerValue result, int build, int index) {
+        result.setValue(build, (int) (VALUES[index] * 4));
+        result.setFailedState(build, FAILED[index]);
+    }
+}
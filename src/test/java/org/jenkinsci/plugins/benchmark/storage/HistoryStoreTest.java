@@ -0,0 +1,338 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.storage;
+
+import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+import org.jenkinsci.plugins.benchmark.results.DoubleValue;
+import org.jenkinsci.plugins.benchmark.results.IntegerValue;
+import org.jenkinsci.plugins.benchmark.results.StringValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the job history store
+ *
+ * @author Daniel Mercier
+ * @since 11/14/2017.
+ */
+public class HistoryStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void HistoryStore_appendAndLoad() throws IOException {
+        System.out.println("Starting history store append and load.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        for (int build = 1; build <= 3; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+            duration.setValue(build * 1.5);
+            duration.setFailedState(build == 2);
+            duration.setMessage("threshold", "message " + build);
+            mapper.getResults().put(1, duration);
+            StringValue state = new StringValue(mapper.getRootGroup(), null, "state");
+            state.setValue("build " + build);
+            mapper.getResults().put(2, state);
+            store.append(build, mapper, 0);
+        }
+
+        MapperBase mapper = new MapperBase(3, true);
+        DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        mapper.getResults().put(1, duration);
+        StringValue state = new StringValue(mapper.getRootGroup(), null, "state");
+        mapper.getResults().put(2, state);
+        store.load(mapper);
+
+        assertTrue(store.getOrigin() == 1);
+        assertTrue(mapper.getBuilds().size() == 3);
+        assertTrue(duration.getValue(3) == 4.5);
+        assertTrue(duration.getFailedState(2));
+        assertTrue(!duration.getFailedState(3));
+        assertTrue(duration.getMessages(1).get("threshold").equals("message 1"));
+        assertTrue(state.getValue(2).equals("build 2"));
+
+        // Rewrite the store from the loaded content
+        assertTrue(store.rebuild(mapper));
+        MapperBase reloaded = new MapperBase(3, true);
+        DoubleValue reloadedDuration = new DoubleValue(reloaded.getRootGroup(), null, "duration");
+        reloaded.getResults().put(1, reloadedDuration);
+        store.load(reloaded);
+        assertTrue(reloadedDuration.getValues().size() == 3);
+        assertTrue(reloadedDuration.getValue(1) == 1.5);
+        assertTrue(store.getOrigin() == 0);
+
+        // Read one result through the mapped columns
+        MappedHistory history = store.map();
+        DoubleValue mappedDuration = new DoubleValue(reloaded.getRootGroup(), null, "duration");
+        assertTrue(history.fill(1, mappedDuration, reloaded.getParameters()));
+        assertTrue(history.getBuilds().size() == 3);
+        assertTrue(mappedDuration.getValue(2) == 3.0);
+        assertTrue(mappedDuration.getFailedState(2));
+        assertTrue(mappedDuration.getMessages(3).get("threshold").equals("message 3"));
+        MappedHistory.clear(mappedDuration);
+        assertTrue(mappedDuration.getValues().isEmpty());
+
+        // Columns are mapped once, a window of builds only decodes its records
+        assertTrue(history.getColumn(1) == history.getColumn(1));
+        assertTrue(history.fillValues(1, mappedDuration, 2, 2));
+        assertTrue(mappedDuration.getValues().size() == 1);
+        assertTrue(mappedDuration.getValue(2) == 3.0);
+        assertTrue(mappedDuration.getFailedState(2));
+        assertTrue(mappedDuration.getMessages(2) == null || mappedDuration.getMessages(2).isEmpty());
+
+        System.out.println("Completed history store append and load.");
+    }
+
+    @Test
+    public void HistoryStore_changeOfType() throws IOException {
+        System.out.println("Starting history store append after a change of value type.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        for (int build = 1; build <= 2; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            IntegerValue count = new IntegerValue(mapper.getRootGroup(), null, "count");
+            count.setValue(build * 10);
+            count.setMessage("threshold", "integer " + build);
+            mapper.getResults().put(1, count);
+            store.append(build, mapper, 0);
+        }
+        for (int build = 3; build <= 4; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            DoubleValue count = new DoubleValue(mapper.getRootGroup(), null, "count");
+            count.setValue(build + 0.25);
+            count.setFailedState(build == 4);
+            mapper.getResults().put(1, count);
+            store.append(build, mapper, 0);
+        }
+
+        // Values of the new type are read back at the right offsets
+        MapperBase mapper = new MapperBase(4, true);
+        DoubleValue count = new DoubleValue(mapper.getRootGroup(), null, "count");
+        mapper.getResults().put(1, count);
+        store.load(mapper);
+        assertTrue(mapper.getBuilds().size() == 4);
+        assertTrue(count.getValues().size() == 2);
+        assertTrue(count.getValue(3) == 3.25);
+        assertTrue(count.getValue(4) == 4.25);
+        assertTrue(count.getFailedState(4));
+        assertTrue(count.getMessages(1) == null);
+
+        MappedHistory history = store.map();
+        DoubleValue mappedCount = new DoubleValue(mapper.getRootGroup(), null, "count");
+        assertTrue(history.fill(1, mappedCount, mapper.getParameters()));
+        assertTrue(mappedCount.getValues().size() == 2);
+        assertTrue(mappedCount.getValue(4) == 4.25);
+
+        // Values of the previous type are no longer served
+        MapperBase previous = new MapperBase(4, true);
+        IntegerValue previousCount = new IntegerValue(previous.getRootGroup(), null, "count");
+        previous.getResults().put(1, previousCount);
+        store.load(previous);
+        assertTrue(previousCount.getValues().isEmpty());
+
+        System.out.println("Completed history store append after a change of value type.");
+    }
+
+    @Test
+    public void HistoryStore_segments() throws IOException {
+        System.out.println("Starting history store merge of segments.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        int nBuilds = 40;
+        for (int build = 1; build <= nBuilds; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+            duration.setValue(build * 0.5);
+            duration.setMessage("threshold", "message " + build);
+            mapper.getResults().put(1, duration);
+            if (build <= 4 || build > 5) {
+                DoubleValue size = new DoubleValue(mapper.getRootGroup(), null, "size");
+                size.setValue(build + 0.25);
+                mapper.getResults().put(2, size);
+            } else {
+                IntegerValue size = new IntegerValue(mapper.getRootGroup(), null, "size");
+                size.setValue(build);
+                mapper.getResults().put(2, size);
+            }
+            store.append(build, mapper, 0);
+        }
+
+        // A few segment files, whatever the number of builds
+        String[] segments = store.getDirectory().list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(HistorySegment.EXTENSION);
+            }
+        });
+        assertTrue(segments.length <= 6);
+
+        MapperBase mapper = new MapperBase(nBuilds, true);
+        DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        mapper.getResults().put(1, duration);
+        DoubleValue size = new DoubleValue(mapper.getRootGroup(), null, "size");
+        mapper.getResults().put(2, size);
+        store.load(mapper);
+        assertTrue(mapper.getBuilds().size() == nBuilds);
+        assertTrue(duration.getValues().size() == nBuilds);
+        for (int build = 1; build <= nBuilds; build++) {
+            assertTrue(duration.getValue(build) == build * 0.5);
+            assertTrue(duration.getMessages(build).get("threshold").equals("message " + build));
+        }
+
+        // Values preceding a change of type stay hidden once merged with the ones following it
+        assertTrue(size.getValues().size() == nBuilds - 5);
+        assertTrue(size.getValue(4) == null);
+        assertTrue(size.getValue(6) == 6.25);
+
+        System.out.println("Completed history store merge of segments.");
+    }
+
+    @Test
+    public void HistoryStore_generation() throws IOException {
+        System.out.println("Starting history store read while rewritten.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        for (int build = 1; build <= 3; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+            duration.setValue(build * 1.5);
+            mapper.getResults().put(1, duration);
+            store.append(build, mapper, 0);
+        }
+        MappedHistory history = store.map();
+
+        // Rewrite and append through another instance of the same store
+        HistoryStore writer = new HistoryStore(root, null);
+        MapperBase mapper = new MapperBase(3, true);
+        DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        mapper.getResults().put(1, duration);
+        writer.load(mapper);
+        duration.setValue(2, 10.0);
+        assertTrue(writer.rebuild(mapper));
+        for (int build = 4; build <= 8; build++) {
+            MapperBase appended = new MapperBase(build, true);
+            DoubleValue value = new DoubleValue(appended.getRootGroup(), null, "duration");
+            value.setValue(build * 1.5);
+            appended.getResults().put(1, value);
+            writer.append(build, appended, 0);
+        }
+
+        // The view opened earlier keeps reading its own generation
+        DoubleValue previous = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        assertTrue(history.fill(1, previous, mapper.getParameters()));
+        assertTrue(history.getBuilds().size() == 3);
+        assertTrue(previous.getValues().size() == 3);
+        assertTrue(previous.getValue(2) == 3.0);
+
+        DoubleValue current = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        assertTrue(store.map().fill(1, current, mapper.getParameters()));
+        assertTrue(current.getValues().size() == 8);
+        assertTrue(current.getValue(2) == 10.0);
+        assertTrue(current.getValue(8) == 12.0);
+        assertTrue(store.getOrigin() == 0);
+
+        System.out.println("Completed history store read while rewritten.");
+    }
+
+    @Test
+    public void HistoryStore_indexWeight() throws IOException {
+        System.out.println("Starting history store weight of the column indexes.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        for (int build = 1; build <= 20; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration");
+            duration.setValue(build * 1.5);
+            mapper.getResults().put(1, duration);
+            store.append(build, mapper, 0);
+        }
+
+        // Indexing a column for display is counted in the weight of the history
+        MapperBase mapper = new MapperBase(20, true);
+        mapper.getResults().put(1, new DoubleValue(mapper.getRootGroup(), null, "duration"));
+        mapper.attachHistory(store.map());
+        long before = mapper.getEstimatedSize();
+        MappedColumn column = mapper.getHistory().getColumn(1);
+        assertTrue(column.size() == 20);
+        assertTrue(mapper.getEstimatedSize() - before == column.getEstimatedSize());
+        assertTrue(mapper.getHistory().getColumn(1) == column);
+        assertTrue(mapper.getEstimatedSize() - before == column.getEstimatedSize());
+
+        System.out.println("Completed history store weight of the column indexes.");
+    }
+
+    @Test
+    public void HistoryStore_keepHistory() throws IOException {
+        System.out.println("Starting history store resident results.");
+
+        File root = folder.newFolder();
+        HistoryStore store = new HistoryStore(root, null);
+        int nResults = 20;
+        for (int build = 1; build <= 2; build++) {
+            MapperBase mapper = new MapperBase(build, true);
+            for (int hash = 1; hash <= nResults; hash++) {
+                DoubleValue duration = new DoubleValue(mapper.getRootGroup(), null, "duration " + hash);
+                duration.setValue(hash + build * 0.5);
+                mapper.getResults().put(hash, duration);
+            }
+            store.append(build, mapper, 0);
+        }
+
+        MapperBase mapper = new MapperBase(2, true);
+        for (int hash = 1; hash <= nResults; hash++) {
+            mapper.getResults().put(hash, new DoubleValue(mapper.getRootGroup(), null, "duration " + hash));
+        }
+        mapper.attachHistory(store.map());
+        long emptySize = mapper.getEstimatedSize();
+
+        // Kept results stay loaded, the oldest ones are released past the limit
+        assertTrue(mapper.keepHistory(1));
+        assertTrue(!mapper.keepHistory(1));
+        assertTrue(mapper.getEstimatedSize() > emptySize);
+        assertTrue(((DoubleValue) mapper.getResults().get(1)).getValue(2) == 2.0);
+        for (int hash = 2; hash <= nResults; hash++) {
+            assertTrue(mapper.keepHistory(hash));
+        }
+        int nLoaded = 0;
+        for (int hash = 1; hash <= nResults; hash++) {
+            if (!((DoubleValue) mapper.getResults().get(hash)).getValues().isEmpty()) {
+                nLoaded++;
+            }
+        }
+        assertTrue(nLoaded < nResults);
+        assertTrue(((DoubleValue) mapper.getResults().get(1)).getValues().isEmpty());
+        assertTrue(((DoubleValue) mapper.getResults().get(nResults)).getValue(1) == nResults + 0.5);
+
+        System.out.println("Completed history store resident results.");
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the build to value series of a result, run on the integer series
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class BuildSeriesTest {
+
+    @Test
+    public void BuildSeries_growth() {
+        System.out.println("Starting growth of a build series.");
+
+        IntegerSeries series = new IntegerSeries();
+        assertTrue(series.isEmpty());
+        assertTrue(series.getEstimatedSize() == 32);
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        for (int build = 1; build <= 100; build++) {
+            assertTrue(series.put(build, build * 5) == null);
+            expected.put(build, build * 5);
+        }
+        assertSameContent(expected, series);
+        assertTrue(series.getFirstBuild() == 1);
+        assertTrue(series.getLastBuild() == 100);
+        // The arrays grow by half their size, never one build at a time
+        assertTrue(series.getEstimatedSize() > 32 + 8L * 100);
+        assertTrue(series.getEstimatedSize() < 32 + 8L * 160);
+
+        // Replacing a value keeps the size
+        assertTrue(series.put(50, -1) == 250);
+        assertTrue(series.size() == 100);
+        assertTrue(series.get(50) == -1);
+        assertTrue(series.putIfAbsent(50, 2) == -1);
+        assertTrue(series.get(50) == -1);
+
+        System.out.println("Completed growth of a build series.");
+    }
+
+    @Test
+    public void BuildSeries_outOfOrder() {
+        System.out.println("Starting out of order insertion and removal in a build series.");
+
+        IntegerSeries series = new IntegerSeries();
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        int[] builds = {10, 2, 30, 20, 1, 25, 40, 15, 5};
+        for (int build : builds) {
+            series.put(build, build * 10 + 1);
+            expected.put(build, build * 10 + 1);
+            assertSameContent(expected, series);
+        }
+        assertTrue(series.putIfAbsent(3, 35) == null);
+        expected.put(3, 35);
+        assertSameContent(expected, series);
+
+        // Removal at the head, in the middle and at the tail
+        for (int build : new int[]{1, 15, 40, 7}) {
+            Integer removed = series.remove(build);
+            assertTrue(removed == null ? !expected.containsKey(build) : removed.equals(expected.remove(build)));
+            assertSameContent(expected, series);
+        }
+        assertTrue(series.remove("2") == null);
+        assertTrue(series.get("2") == null);
+        assertTrue(!series.containsKey("2"));
+        assertTrue(series.getFirstBuild() == 2);
+        assertTrue(series.getLastBuild() == 30);
+
+        series.clear();
+        assertTrue(series.isEmpty());
+        assertTrue(series.getFirstBuild() == null);
+        assertTrue(series.getLastBuild() == null);
+
+        System.out.println("Completed out of order insertion and removal in a build series.");
+    }
+
+    @Test
+    public void BuildSeries_views() {
+        System.out.println("Starting views of a build series after modification.");
+
+        IntegerSeries series = new IntegerSeries();
+        for (int build = 1; build <= 5; build++) {
+            series.put(build, build);
+        }
+        Iterator<Map.Entry<Integer, Integer>> before = series.entrySet().iterator();
+        assertTrue(before.next().getKey() == 1);
+
+        // Appends in place, middle insertion and removal
+        series.put(6, 6);
+        series.put(0, 0);
+        series.remove(3);
+        series.put(2, 20);
+
+        // Iterators keep the builds and values present when they were created
+        int build = 2;
+        while (before.hasNext()) {
+            Map.Entry<Integer, Integer> entry = before.next();
+            assertTrue(entry.getKey() == build);
+            assertTrue(entry.getValue() == build);
+            build++;
+        }
+        assertTrue(build == 6);
+
+        // The entry set is a live view of the series
+        assertTrue(series.entrySet().size() == 6);
+        int[] builds = {0, 1, 2, 4, 5, 6};
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : series.entrySet()) {
+            assertTrue(entry.getKey() == builds[index]);
+            assertTrue(entry.getValue() == (builds[index] == 2 ? 20 : builds[index]));
+            index++;
+        }
+        assertTrue(index == builds.length);
+
+        Iterator<Map.Entry<Integer, Integer>> iterator = series.entrySet().iterator();
+        try {
+            iterator.remove();
+            assertTrue(false);
+        } catch (UnsupportedOperationException e) {
+            assertTrue(series.size() == 6);
+        }
+        try {
+            series.put(7, null);
+            assertTrue(false);
+        } catch (NullPointerException e) {
+            assertTrue(!series.containsKey(7));
+        }
+
+        System.out.println("Completed views of a build series after modification.");
+    }
+
+    @Test
+    public void BuildSeries_putAll() {
+        System.out.println("Starting merge of build series.");
+
+        IntegerSeries series = new IntegerSeries();
+        IntegerSeries other = new IntegerSeries();
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        for (int build = 1; build <= 20; build += 2) {
+            series.put(build, build);
+            expected.put(build, build);
+        }
+        for (int build = 0; build <= 24; build += 3) {
+            other.put(build, build * -1);
+            expected.put(build, build * -1);
+        }
+        series.putAll(other);
+        assertSameContent(expected, series);
+        assertTrue(other.size() == 9);
+
+        // Runs of builds coming from either series
+        IntegerSeries runs = new IntegerSeries();
+        for (int build = 30; build <= 40; build++) {
+            runs.put(build, build);
+            expected.put(build, build);
+        }
+        IntegerSeries overlap = new IntegerSeries();
+        for (int build : new int[]{28, 29, 30, 35, 36, 37, 41, 42}) {
+            overlap.put(build, -build);
+        }
+        runs.putAll(overlap);
+        series.putAll(runs);
+        for (int build : new int[]{28, 29, 30, 35, 36, 37, 41, 42}) {
+            expected.put(build, -build);
+        }
+        assertSameContent(expected, series);
+
+        // Merge from a generic map and into an empty series
+        TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>();
+        map.put(4, 45);
+        map.put(100, 1005);
+        series.putAll(map);
+        expected.putAll(map);
+        assertSameContent(expected, series);
+
+        IntegerSeries empty = new IntegerSeries();
+        empty.putAll(series);
+        assertSameContent(expected, empty);
+        empty.putAll(new IntegerSeries());
+        assertSameContent(expected, empty);
+
+        System.out.println("Completed merge of build series.");
+    }
+
+    @Test
+    public void BuildSeries_lookups() {
+        System.out.println("Starting lookups in a build series.");
+
+        IntegerSeries series = new IntegerSeries();
+        assertTrue(series.floorEntry(1) == null);
+        assertTrue(series.lowerEntry(1) == null);
+        assertTrue(series.ceilingEntry(1) == null);
+        assertTrue(series.higherEntry(1) == null);
+        assertTrue(series.subSeries(0, 10).isEmpty());
+
+        for (int build : new int[]{10, 4, 7}) {
+            series.put(build, build * 3);
+        }
+        // Before the first build
+        assertTrue(series.floorEntry(3) == null);
+        assertTrue(series.lowerEntry(4) == null);
+        assertTrue(series.ceilingEntry(-5).getKey() == 4);
+        assertTrue(series.higherEntry(3).getKey() == 4);
+
+        // Exact hits
+        assertTrue(series.floorEntry(7).getKey() == 7);
+        assertTrue(series.floorEntry(7).getValue() == 21);
+        assertTrue(series.lowerEntry(7).getKey() == 4);
+        assertTrue(series.ceilingEntry(7).getKey() == 7);
+        assertTrue(series.higherEntry(7).getKey() == 10);
+
+        // Between two builds
+        assertTrue(series.floorEntry(8).getKey() == 7);
+        assertTrue(series.lowerEntry(8).getKey() == 7);
+        assertTrue(series.ceilingEntry(8).getKey() == 10);
+        assertTrue(series.higherEntry(8).getKey() == 10);
+
+        // After the last build
+        assertTrue(series.floorEntry(100).getKey() == 10);
+        assertTrue(series.floorEntry(100).getValue() == 30);
+        assertTrue(series.lowerEntry(11).getKey() == 10);
+        assertTrue(series.ceilingEntry(11) == null);
+        assertTrue(series.higherEntry(10) == null);
+
+        // Ranges are inclusive and clipped to the builds present
+        assertSameBuilds(series.subSeries(4, 10), 4, 7, 10);
+        assertSameBuilds(series.subSeries(5, 9), 7);
+        assertSameBuilds(series.subSeries(0, 6), 4);
+        assertSameBuilds(series.subSeries(10, 50), 10);
+        assertSameBuilds(series.subSeries(8, 9));
+        assertSameBuilds(series.subSeries(11, 50));
+        assertSameBuilds(series.subSeries(0, 3));
+        assertSameBuilds(series.subSeries(10, 4));
+        assertTrue(series.subSeries(5, 9).get(7) == 21);
+
+        // Ranges are copies
+        IntegerSeries range = series.subSeries(4, 10);
+        range.remove(7);
+        assertTrue(series.containsKey(7));
+
+        System.out.println("Completed lookups in a build series.");
+    }
+
+    private void assertSameContent(TreeMap<Integer, Integer> expected, IntegerSeries series) {
+        assertTrue(series.size() == expected.size());
+        assertTrue(series.equals(expected));
+        int index = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertTrue(series.getBuildAt(index) == entry.getKey());
+            assertTrue(series.getValueAt(index) == entry.getValue());
+            assertTrue(series.indexOf(entry.getKey()) == index);
+            assertTrue(series.get(entry.getKey()).equals(entry.getValue()));
+            index++;
+        }
+    }
+
+    private void assertSameBuilds(IntegerSeries series, int... builds) {
+        assertTrue(series.size() == builds.length);
+        for (int index = 0; index < builds.length; index++) {
+            assertTrue(series.getBuildAt(index) == builds[index]);
+        }
+    }
+}
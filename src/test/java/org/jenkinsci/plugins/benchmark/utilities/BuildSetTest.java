@@ -0,0 +1,168 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the sorted set of build numbers
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class BuildSetTest {
+
+    @Test
+    public void BuildSet_growth() {
+        System.out.println("Starting growth of a build set.");
+
+        BuildSet builds = new BuildSet();
+        assertTrue(builds.isEmpty());
+        try {
+            builds.first();
+            assertTrue(false);
+        } catch (NoSuchElementException e) {
+            assertTrue(builds.size() == 0);
+        }
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int build = 1; build <= 100; build++) {
+            assertTrue(builds.add(build));
+            expected.add(build);
+        }
+        assertTrue(!builds.add(50));
+        assertSameContent(expected, builds);
+        assertTrue(builds.first() == 1);
+        assertTrue(builds.last() == 100);
+
+        builds.clear();
+        assertTrue(builds.isEmpty());
+        assertTrue(!builds.contains(1));
+
+        System.out.println("Completed growth of a build set.");
+    }
+
+    @Test
+    public void BuildSet_outOfOrder() {
+        System.out.println("Starting out of order insertion in a build set.");
+
+        BuildSet builds = new BuildSet();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int build : new int[]{10, 2, 30, 20, 1, 25, 40, 15, 5, 20, 1}) {
+            assertTrue(builds.add(build) == expected.add(build));
+            assertSameContent(expected, builds);
+        }
+        assertTrue(builds.indexOf(3) == -3);
+        assertTrue(builds.indexOf(41) == -expected.size() - 1);
+        assertTrue(!builds.contains("10"));
+
+        BuildSet copy = new BuildSet(Arrays.asList(7, 3, 9, 3));
+        assertSameContent(new TreeSet<Integer>(Arrays.asList(3, 7, 9)), copy);
+
+        System.out.println("Completed out of order insertion in a build set.");
+    }
+
+    @Test
+    public void BuildSet_iterator() {
+        System.out.println("Starting iteration of a build set after modification.");
+
+        BuildSet builds = new BuildSet(Arrays.asList(1, 2, 3, 4, 5));
+        Iterator<Integer> before = builds.iterator();
+        assertTrue(before.next() == 1);
+
+        // Append in place and insertion in the middle
+        builds.add(6);
+        builds.add(0);
+        builds.addAll(Arrays.asList(7, 8));
+
+        // Iterators keep the builds present when they were created
+        int build = 2;
+        while (before.hasNext()) {
+            assertTrue(before.next() == build++);
+        }
+        assertTrue(build == 6);
+        try {
+            before.next();
+            assertTrue(false);
+        } catch (NoSuchElementException e) {
+            assertTrue(!before.hasNext());
+        }
+
+        build = 0;
+        for (Integer current : builds) {
+            assertTrue(current == build++);
+        }
+        assertTrue(build == 9);
+        try {
+            builds.iterator().remove();
+            assertTrue(false);
+        } catch (UnsupportedOperationException e) {
+            assertTrue(builds.size() == 9);
+        }
+
+        System.out.println("Completed iteration of a build set after modification.");
+    }
+
+    @Test
+    public void BuildSet_addAll() {
+        System.out.println("Starting merge of build sets.");
+
+        BuildSet builds = new BuildSet();
+        BuildSet other = new BuildSet();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int build = 1; build <= 20; build += 2) {
+            builds.add(build);
+            expected.add(build);
+        }
+        for (int build = 0; build <= 24; build += 3) {
+            other.add(build);
+            expected.add(build);
+        }
+        assertTrue(builds.addAll(other));
+        assertSameContent(expected, builds);
+        assertTrue(other.size() == 9);
+
+        // Merging builds already present does not change the set
+        assertTrue(!builds.addAll(other));
+        assertTrue(!builds.addAll(new BuildSet()));
+        assertSameContent(expected, builds);
+
+        BuildSet empty = new BuildSet();
+        assertTrue(empty.addAll(builds));
+        assertSameContent(expected, empty);
+
+        System.out.println("Completed merge of build sets.");
+    }
+
+    private void assertSameContent(TreeSet<Integer> expected, BuildSet builds) {
+        assertTrue(builds.size() == expected.size());
+        assertTrue(builds.equals(expected));
+        int index = 0;
+        for (Integer build : expected) {
+            assertTrue(builds.indexOf(build) == index++);
+            assertTrue(builds.contains(build));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the primitive values of the build to value series of a double result.
+ * The management of the builds is tested once in BuildSeriesTest.
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class DoubleSeriesTest {
+
+    @Test
+    public void DoubleSeries_values() {
+        System.out.println("Starting values of a double series.");
+
+        DoubleSeries series = new DoubleSeries();
+        assertTrue(series.getEstimatedSize() == 32);
+        for (int build = 1; build <= 10; build++) {
+            series.put(build, build * 0.5);
+        }
+        // The arrays grow by half their size, never one build at a time
+        assertTrue(series.getEstimatedSize() > 32 + 12L * 10);
+        assertTrue(series.getEstimatedSize() < 32 + 12L * 16);
+
+        // Values move with their builds on insertion and removal
+        series.put(0, -0.25);
+        series.remove(5);
+        assertTrue(series.getValueAt(0) == -0.25);
+        for (int index = 1; index < series.size(); index++) {
+            assertTrue(series.getValueAt(index) == series.getBuildAt(index) * 0.5);
+        }
+
+        // Ranges and merges keep the type and the values
+        DoubleSeries range = series.subSeries(2, 4);
+        assertTrue(range.size() == 3);
+        assertTrue(range.getValueAt(0) == 1.0);
+        DoubleSeries other = new DoubleSeries();
+        other.put(4, 40.5);
+        other.put(11, 5.5);
+        series.putAll(other);
+        assertTrue(series.get(4) == 40.5);
+        assertTrue(series.getValueAt(series.indexOf(11)) == 5.5);
+        assertTrue(range.get(4) == 2.0);
+
+        System.out.println("Completed values of a double series.");
+    }
+}
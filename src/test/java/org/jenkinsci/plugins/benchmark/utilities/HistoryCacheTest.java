@@ -0,0 +1,75 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.jenkinsci.plugins.benchmark.parsers.MapperBase;
+import org.jenkinsci.plugins.benchmark.results.DoubleValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the cache of loaded histories
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class HistoryCacheTest {
+
+    @Test
+    public void HistoryCache_oversizedHistory() {
+        System.out.println("Starting cache of a history larger than the budget.");
+
+        long budget = HistoryCache.getBudget();
+        try {
+            HistoryCache.setBudget(1);
+            HistoryCache.put("small", 1, getMapper(1, 10));
+            assertTrue(HistoryCache.get("small", 1) != null);
+
+            // The history just cached is kept even though it exceeds the budget on its own
+            MapperBase large = getMapper(2, 200000);
+            assertTrue(large.getEstimatedSize() > 1024L * 1024L);
+            HistoryCache.put("large", 2, large);
+            assertTrue(HistoryCache.get("large", 2) == large);
+            assertTrue(HistoryCache.get("small", 1) == null);
+            assertTrue(HistoryCache.getNumberOfEntries() == 1);
+
+            // It is dropped once another history is used
+            HistoryCache.put("small", 1, getMapper(1, 10));
+            assertTrue(HistoryCache.get("large", 2) == null);
+            assertTrue(HistoryCache.get("small", 1) != null);
+        } finally {
+            HistoryCache.invalidate("small");
+            HistoryCache.invalidate("large");
+            HistoryCache.setBudget(budget);
+        }
+
+        System.out.println("Completed cache of a history larger than the budget.");
+    }
+
+    private MapperBase getMapper(int build, int nValues) {
+        MapperBase mapper = new MapperBase(build, true);
+        DoubleValue value = new DoubleValue(mapper.getRootGroup(), null, "duration");
+        for (int i = 1; i <= nValues; i++) {
+            value.setValue(i, i * 0.5);
+        }
+        mapper.getResults().put(1, value);
+        return mapper;
+    }
+}
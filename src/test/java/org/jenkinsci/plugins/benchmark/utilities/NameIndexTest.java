@@ -0,0 +1,157 @@
+/**
+ * MIT license
+ * Copyright 2017 Autodesk, Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions
+ * of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED
+ * TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.benchmark.utilities;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the name index used to attach thresholds to their targets
+ *
+ * @author Daniel Mercier
+ * @since 11/17/2017.
+ */
+public class NameIndexTest {
+
+    private static final String[] NAMES = {"cp", "cpu", "cpu.system", "cpu.user", "cpu2.user", "cpv.user", "disk.read", "latency_p50", "latency_p99", "latency_pmax"};
+
+    @Test
+    public void NameIndex_exactNames() {
+        System.out.println("Starting lookup of exact names.");
+
+        NameIndex<String> index = newIndex();
+        assertTrue(index.find("cpu.user").equals(Arrays.asList("cpu.user")));
+        assertTrue(index.find("cpu").equals(Arrays.asList("cpu")));
+        assertTrue(index.find("cpu.").isEmpty());
+        assertTrue(index.find("").isEmpty());
+        assertTrue(index.find("CPU").isEmpty());
+
+        // Several entities under the same name are returned in insertion order
+        index.add("cpu.user", "second");
+        assertTrue(index.find("cpu.user").equals(Arrays.asList("cpu.user", "second")));
+
+        // Characters meaningful to regular expressions stay literal
+        index.add("a.b", "a.b");
+        assertTrue(index.find("a.b").equals(Arrays.asList("a.b")));
+        assertTrue(index.find("axb").isEmpty());
+
+        // Wildcards and slashes stay literal when patterns are not recognised
+        index.add("cpu*", "cpu*");
+        index.add("/cpu/", "/cpu/");
+        assertTrue(index.find("cpu*", false).equals(Arrays.asList("cpu*")));
+        assertTrue(index.find("cp?", false).isEmpty());
+        assertTrue(index.find("/cpu/", false).equals(Arrays.asList("/cpu/")));
+        assertTrue(NameIndex.combine("/cpu/", "user", false).equals("/cpu/.user"));
+
+        System.out.println("Completed lookup of exact names.");
+    }
+
+    @Test
+    public void NameIndex_globs() {
+        System.out.println("Starting lookup of glob targets.");
+
+        NameIndex<String> index = newIndex();
+
+        // Prefix globs only visit the names sharing the prefix
+        assertTrue(index.find("cpu*").equals(Arrays.asList("cpu", "cpu.system", "cpu.user", "cpu2.user")));
+        assertTrue(index.find("cpu.*").equals(Arrays.asList("cpu.system", "cpu.user")));
+        assertTrue(index.find("cpu*.user").equals(Arrays.asList("cpu.user", "cpu2.user")));
+        assertTrue(index.find("latency_p*9").equals(Arrays.asList("latency_p99")));
+        assertTrue(index.find("zz*").isEmpty());
+        assertTrue(index.find("*").equals(Arrays.asList(NAMES)));
+        assertTrue(index.find("*.user").equals(Arrays.asList("cpu.user", "cpu2.user", "cpv.user")));
+
+        // '?' matches exactly one character
+        assertTrue(index.find("cp?").equals(Arrays.asList("cpu")));
+        assertTrue(index.find("cp?.user").equals(Arrays.asList("cpu.user", "cpv.user")));
+        assertTrue(index.find("latency_p??").equals(Arrays.asList("latency_p50", "latency_p99")));
+        assertTrue(index.find("?").isEmpty());
+        assertTrue(index.find("??").equals(Arrays.asList("cp")));
+
+        assertTrue(NameIndex.isGlob("cpu*"));
+        assertTrue(NameIndex.isGlob("cp?"));
+        assertTrue(!NameIndex.isGlob("cpu"));
+        assertTrue(!NameIndex.isGlob("/cp*/"));
+
+        System.out.println("Completed lookup of glob targets.");
+    }
+
+    @Test
+    public void NameIndex_regex() {
+        System.out.println("Starting lookup of regular expression targets.");
+
+        NameIndex<String> index = newIndex();
+        assertTrue(index.find("/latency_p[0-9]+/").equals(Arrays.asList("latency_p50", "latency_p99")));
+        assertTrue(index.find("/cpu\\.(user|system)/").equals(Arrays.asList("cpu.system", "cpu.user")));
+        // The expression has to match the complete name
+        assertTrue(index.find("/cpu/").equals(Arrays.asList("cpu")));
+        assertTrue(index.find("/user/").isEmpty());
+        assertTrue(index.find("/.*user/").equals(Arrays.asList("cpu.user", "cpu2.user", "cpv.user")));
+        assertTrue(NameIndex.isRegex("/a/"));
+        assertTrue(!NameIndex.isRegex("/"));
+        assertTrue(!NameIndex.isRegex("/a"));
+
+        try {
+            index.find("/cpu(/");
+            assertTrue(false);
+        } catch (PatternSyntaxException e) {
+            assertTrue(e.getPattern().contains("cpu("));
+        }
+
+        System.out.println("Completed lookup of regular expression targets.");
+    }
+
+    @Test
+    public void NameIndex_combine() {
+        System.out.println("Starting combination of group and name targets.");
+
+        NameIndex<String> index = newIndex();
+        assertTrue(NameIndex.combine("cpu", "").equals("cpu"));
+        assertTrue(NameIndex.combine("cpu", "user").equals("cpu.user"));
+        assertTrue(NameIndex.combine("cpu*", "user").equals("cpu*.user"));
+        assertTrue(index.find(NameIndex.combine("cpu*", "user")).equals(Arrays.asList("cpu.user", "cpu2.user")));
+
+        // A regular expression on either side turns the combination into a regular expression
+        String target = NameIndex.combine("cpu", "/user|system/");
+        assertTrue(NameIndex.isRegex(target));
+        assertTrue(index.find(target).equals(Arrays.asList("cpu.system", "cpu.user")));
+        assertTrue(index.find(NameIndex.combine("cp?", "/u.*/")).equals(Arrays.asList("cpu.user", "cpv.user")));
+        assertTrue(index.find(NameIndex.combine("/cpu[0-9]?/", "user")).equals(Arrays.asList("cpu.user", "cpu2.user")));
+        assertTrue(index.find(NameIndex.combine("disk", "/r.*/")).equals(Arrays.asList("disk.read")));
+
+        // The group side of a regular expression stays literal when it is a plain name
+        List<String> dotted = index.find(NameIndex.combine("cpu", "/.*/"));
+        assertTrue(!dotted.contains("cpu2.user"));
+
+        System.out.println("Completed combination of group and name targets.");
+    }
+
+    private NameIndex<String> newIndex() {
+        NameIndex<String> index = new NameIndex<String>();
+        for (int i = NAMES.length - 1; i >= 0; i--) {
+            index.add(NAMES[i], NAMES[i]);
+        }
+        return index;
+    }
+}